@@ -3,6 +3,7 @@ package nl.tudelft.sem.template.authentication.authentication;
 import java.util.ArrayList;
 import nl.tudelft.sem.template.authentication.domain.user.NetId;
 import nl.tudelft.sem.template.authentication.domain.user.UserRepository;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +26,7 @@ public class JwtUserDetailsService implements UserDetailsService {
 
     /**
      * Loads user information required for authentication from the DB.
+     * NetIDs reserved for the microservices can never log in, even if such an account ended up in the DB.
      *
      * @param username The username of the user we want to authenticate
      * @return The authentication user information of that user
@@ -32,6 +34,9 @@ public class JwtUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (ServiceIdentity.isReserved(username)) {
+            throw new UsernameNotFoundException("User does not exist");
+        }
         var optionalUser = userRepository.findByNetId(new NetId(username));
 
         if (optionalUser.isEmpty()) {
@@ -0,0 +1,41 @@
+package nl.tudelft.sem.template.authentication.authentication;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verifier for the tokens the other microservices sign with the shared secret to authenticate as themselves.
+ * The authentication microservice hands out user tokens but does not check them,
+ * so the few endpoints meant for the other microservices check the service token here.
+ */
+@Component
+public class ServiceTokenVerifier {
+
+    private static final String BEARER = "Bearer ";
+
+    @Value("${jwt.secret}")  // automatically loads jwt.secret from resources/application.properties
+    private transient String jwtSecret;
+
+    /**
+     * Checks whether a request was made by the given microservice.
+     *
+     * @param identity            the identity of the microservice
+     * @param authorizationHeader the Authorization header of the request, may be null
+     * @return true iff the header carries a valid, unexpired token of the microservice
+     */
+    public boolean isFrom(String identity, String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER)) {
+            return false;
+        }
+        try {
+            String subject = Jwts.parser().setSigningKey(jwtSecret)
+                    .parseClaimsJws(authorizationHeader.substring(BEARER.length())).getBody().getSubject();
+            return ServiceIdentity.is(identity, subject);
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
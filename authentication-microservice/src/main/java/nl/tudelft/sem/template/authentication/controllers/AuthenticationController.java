@@ -1,14 +1,21 @@
 package nl.tudelft.sem.template.authentication.controllers;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import nl.tudelft.sem.template.authentication.authentication.JwtTokenGenerator;
 import nl.tudelft.sem.template.authentication.authentication.JwtUserDetailsService;
+import nl.tudelft.sem.template.authentication.authentication.ServiceTokenVerifier;
 import nl.tudelft.sem.template.authentication.domain.user.NetId;
 import nl.tudelft.sem.template.authentication.domain.user.Password;
 import nl.tudelft.sem.template.authentication.domain.user.RegistrationService;
 import nl.tudelft.sem.template.authentication.models.AuthenticationRequestModel;
 import nl.tudelft.sem.template.authentication.models.AuthenticationResponseModel;
 import nl.tudelft.sem.template.authentication.models.RegistrationRequestModel;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,12 +25,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 public class AuthenticationController {
 
+    public static final String REGISTERED = "Registered";
+
     private final transient AuthenticationManager authenticationManager;
 
     private final transient JwtTokenGenerator jwtTokenGenerator;
@@ -32,6 +42,8 @@ public class AuthenticationController {
 
     private final transient RegistrationService registrationService;
 
+    private final transient ServiceTokenVerifier serviceTokenVerifier;
+
     /**
      * Instantiates a new UsersController.
      *
@@ -39,16 +51,19 @@ public class AuthenticationController {
      * @param jwtTokenGenerator     the token generator
      * @param jwtUserDetailsService the user service
      * @param registrationService   the registration service
+     * @param serviceTokenVerifier  the verifier of the tokens of the other microservices
      */
     @Autowired
     public AuthenticationController(AuthenticationManager authenticationManager,
                                     JwtTokenGenerator jwtTokenGenerator,
                                     JwtUserDetailsService jwtUserDetailsService,
-                                    RegistrationService registrationService) {
+                                    RegistrationService registrationService,
+                                    ServiceTokenVerifier serviceTokenVerifier) {
         this.authenticationManager = authenticationManager;
         this.jwtTokenGenerator = jwtTokenGenerator;
         this.jwtUserDetailsService = jwtUserDetailsService;
         this.registrationService = registrationService;
+        this.serviceTokenVerifier = serviceTokenVerifier;
     }
 
     /**
@@ -98,4 +113,43 @@ public class AuthenticationController {
 
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Endpoint for registering a batch of users at once.
+     * A NetID that occurs more than once in the batch is only registered with its first password,
+     * NetIDs reserved for the microservices are never registered.
+     * Only the users microservice, which checked that a sysadmin provisions the users, may register a batch.
+     *
+     * @param authorization The Authorization header, carrying the service token of the users microservice
+     * @param request       The registration models of the users
+     * @return 200 OK with the outcome per NetID
+     */
+    @PostMapping("/registerBatch")
+    public ResponseEntity<Map<String, String>> registerBatch(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody List<RegistrationRequestModel> request) {
+        if (!serviceTokenVerifier.isFrom(ServiceIdentity.USERS, authorization)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the users microservice can register batches");
+        }
+        Map<String, Password> passwordsByNetId = new LinkedHashMap<>();
+        for (RegistrationRequestModel user : request) {
+            passwordsByNetId.putIfAbsent(user.getNetId(), new Password(user.getPassword()));
+        }
+
+        Set<String> registered;
+        try {
+            registered = registrationService.registerUsers(passwordsByNetId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Map<String, String> outcomes = new LinkedHashMap<>();
+        for (String netId : passwordsByNetId.keySet()) {
+            if (registered.contains(netId)) {
+                outcomes.put(netId, REGISTERED);
+            } else {
+                outcomes.put(netId, ServiceIdentity.isReserved(netId) ? "NetID is reserved" : "NetID is already in use");
+            }
+        }
+        return ResponseEntity.ok(outcomes);
+    }
 }
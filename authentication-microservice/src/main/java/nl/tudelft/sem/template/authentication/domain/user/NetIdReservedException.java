@@ -0,0 +1,12 @@
+package nl.tudelft.sem.template.authentication.domain.user;
+
+/**
+ * Exception to indicate the NetID is reserved for the microservices.
+ */
+public class NetIdReservedException extends Exception {
+    static final long serialVersionUID = 4129338154871296372L;
+
+    public NetIdReservedException(NetId netId) {
+        super(netId.toString() + " is reserved");
+    }
+}
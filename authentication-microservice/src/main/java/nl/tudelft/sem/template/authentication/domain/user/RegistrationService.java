@@ -1,24 +1,51 @@
 package nl.tudelft.sem.template.authentication.domain.user;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 /**
  * A DDD service for registering a new user.
+ * Batches of users are hashed in parallel on a fixed amount of threads, so a large batch cannot take all processors.
  */
 @Service
 public class RegistrationService {
     private final transient UserRepository userRepository;
     private final transient PasswordHashingService passwordHashingService;
+    private final transient ExecutorService hashingExecutor;
+    private final transient int maxBatchSize;
 
     /**
      * Instantiates a new UserService.
      *
      * @param userRepository  the user repository
      * @param passwordHashingService the password encoder
+     * @param hashingThreads the amount of passwords of a batch that are hashed at the same time
+     * @param maxBatchSize the maximum amount of users in a batch
      */
-    public RegistrationService(UserRepository userRepository, PasswordHashingService passwordHashingService) {
+    public RegistrationService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                               @Value("${registration.hashing.threads:4}") int hashingThreads,
+                               @Value("${registration.batch.max-size:1000}") int maxBatchSize) {
         this.userRepository = userRepository;
         this.passwordHashingService = passwordHashingService;
+        this.maxBatchSize = maxBatchSize;
+        this.hashingExecutor = Executors.newFixedThreadPool(hashingThreads, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -26,9 +53,12 @@ public class RegistrationService {
      *
      * @param netId    The NetID of the user
      * @param password The password of the user
-     * @throws Exception if the user already exists
+     * @throws Exception if the user already exists or the NetID is reserved for the microservices
      */
     public AppUser registerUser(NetId netId, Password password) throws Exception {
+        if (ServiceIdentity.isReserved(netId.toString())) {
+            throw new NetIdReservedException(netId);
+        }
 
         if (checkNetIdIsUnique(netId)) {
             // Hash password
@@ -47,4 +77,80 @@ public class RegistrationService {
     public boolean checkNetIdIsUnique(NetId netId) {
         return !userRepository.existsByNetId(netId);
     }
+
+    /**
+     * Register a batch of new users.
+     * The NetIDs in use are looked up with a single query, the passwords of the others are hashed in parallel
+     * before anything is written. Every user is then inserted in its own transaction,
+     * so a NetID taken by a concurrent registration in the meantime only fails that user.
+     * NetIDs reserved for the microservices are never registered.
+     *
+     * @param passwordsByNetId the passwords of the users, by NetID
+     * @return the NetIDs that were registered, the others are already in use or reserved
+     * @throws IllegalArgumentException if the batch is larger than the maximum batch size
+     */
+    public Set<String> registerUsers(Map<String, Password> passwordsByNetId) {
+        if (passwordsByNetId.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch can register at most " + maxBatchSize + " users.");
+        }
+        List<NetId> netIds = passwordsByNetId.keySet().stream().map(NetId::new).collect(Collectors.toList());
+        Set<String> inUse = new HashSet<>();
+        for (NetId netId : userRepository.findNetIdsIn(netIds)) {
+            inUse.add(netId.toString());
+        }
+
+        List<String> newNetIds = new ArrayList<>();
+        List<Future<HashedPassword>> hashedPasswords = new ArrayList<>();
+        for (Map.Entry<String, Password> user : passwordsByNetId.entrySet()) {
+            if (!inUse.contains(user.getKey()) && !ServiceIdentity.isReserved(user.getKey())) {
+                newNetIds.add(user.getKey());
+                hashedPasswords.add(hashingExecutor.submit(() -> passwordHashingService.hash(user.getValue())));
+            }
+        }
+
+        List<AppUser> users = new ArrayList<>();
+        for (int i = 0; i < newNetIds.size(); i++) {
+            users.add(new AppUser(new NetId(newNetIds.get(i)), await(hashedPasswords.get(i))));
+        }
+        Set<String> registered = new LinkedHashSet<>();
+        for (AppUser user : users) {
+            if (insert(user)) {
+                registered.add(user.getNetId().toString());
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * Inserts a new user in a transaction of its own.
+     * A concurrent registration can still take the NetID after it was looked up, which the unique constraint rejects.
+     *
+     * @param user the new user
+     * @return true iff the user was inserted
+     */
+    private boolean insert(AppUser user) {
+        try {
+            userRepository.saveAndFlush(user);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits for a password to be hashed.
+     *
+     * @param hashedPassword the password being hashed
+     * @return the hashed password
+     */
+    private static HashedPassword await(Future<HashedPassword> hashedPassword) {
+        try {
+            return hashedPassword.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing the passwords.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A password could not be hashed.", e.getCause());
+        }
+    }
 }
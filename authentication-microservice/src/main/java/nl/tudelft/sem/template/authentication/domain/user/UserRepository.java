@@ -1,7 +1,11 @@
 package nl.tudelft.sem.template.authentication.domain.user;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,4 +22,10 @@ public interface UserRepository extends JpaRepository<AppUser, String> {
      * Check if an existing user already uses a NetID.
      */
     boolean existsByNetId(NetId netId);
+
+    /**
+     * Find which of the given NetIDs are already in use, with a single query.
+     */
+    @Query("SELECT u.netId FROM AppUser u WHERE u.netId IN :netIds")
+    List<NetId> findNetIdsIn(@Param("netIds") Collection<NetId> netIds);
 }
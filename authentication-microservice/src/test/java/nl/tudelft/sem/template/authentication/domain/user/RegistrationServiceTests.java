@@ -2,13 +2,23 @@ package nl.tudelft.sem.template.authentication.domain.user;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -69,4 +79,81 @@ public class RegistrationServiceTests {
         assertThat(savedUser.getNetId()).isEqualTo(testUser);
         assertThat(savedUser.getPassword()).isEqualTo(existingTestPassword);
     }
+
+    @Test
+    public void createUsers_registersOnlyTheNewUsers() {
+        // Arrange
+        final HashedPassword testHashedPassword = new HashedPassword("hashedTestPassword");
+        when(mockPasswordEncoder.hash(any())).thenReturn(testHashedPassword);
+        userRepository.save(new AppUser(new NetId("Existing"), new HashedPassword("password123")));
+
+        Map<String, Password> passwordsByNetId = new LinkedHashMap<>();
+        passwordsByNetId.put("Existing", new Password("password456"));
+        passwordsByNetId.put("First", new Password("password789"));
+        passwordsByNetId.put("Second", new Password("password000"));
+
+        // Act
+        Set<String> registered = registrationService.registerUsers(passwordsByNetId);
+
+        // Assert
+        assertThat(registered).containsExactly("First", "Second");
+        assertThat(userRepository.findByNetId(new NetId("First"))).isPresent();
+        assertThat(userRepository.findByNetId(new NetId("Second"))).isPresent();
+        assertThat(userRepository.count()).isEqualTo(3);
+        verify(mockPasswordEncoder, times(2)).hash(any());
+    }
+
+    @Test
+    public void createUser_withReservedNetId_throwsException() {
+        // Arrange
+        final NetId testUser = new NetId("Service:ResourcePool");
+        final Password testPassword = new Password("password123");
+
+        // Act
+        ThrowingCallable action = () -> registrationService.registerUser(testUser, testPassword);
+
+        // Assert
+        assertThatExceptionOfType(NetIdReservedException.class)
+                .isThrownBy(action);
+        assertThat(userRepository.findByNetId(testUser)).isEmpty();
+    }
+
+    @Test
+    public void createUsers_skipsReservedNetIds() {
+        // Arrange
+        final HashedPassword testHashedPassword = new HashedPassword("hashedTestPassword");
+        when(mockPasswordEncoder.hash(any())).thenReturn(testHashedPassword);
+
+        Map<String, Password> passwordsByNetId = new LinkedHashMap<>();
+        passwordsByNetId.put("service:nodes", new Password("password456"));
+        passwordsByNetId.put("First", new Password("password789"));
+
+        // Act
+        Set<String> registered = registrationService.registerUsers(passwordsByNetId);
+
+        // Assert
+        assertThat(registered).containsExactly("First");
+        assertThat(userRepository.findByNetId(new NetId("service:nodes"))).isEmpty();
+        verify(mockPasswordEncoder, times(1)).hash(any());
+    }
+
+    @Test
+    public void createUsers_withNetIdTakenInTheMeantime_registersTheOthers() {
+        // Arrange
+        UserRepository clashingRepository = mock(UserRepository.class);
+        when(clashingRepository.findNetIdsIn(any())).thenReturn(List.of());
+        when(clashingRepository.saveAndFlush(argThat(user -> user.getNetId().toString().equals("Taken"))))
+                .thenThrow(new DataIntegrityViolationException("unique net_id"));
+        RegistrationService service = new RegistrationService(clashingRepository, mockPasswordEncoder, 1, 10);
+        Map<String, Password> passwordsByNetId = new LinkedHashMap<>();
+        passwordsByNetId.put("Taken", new Password("password456"));
+        passwordsByNetId.put("First", new Password("password789"));
+
+        // Act
+        Set<String> registered = service.registerUsers(passwordsByNetId);
+
+        // Assert
+        assertThat(registered).containsExactly("First");
+        verify(clashingRepository, times(2)).saveAndFlush(any());
+    }
 }
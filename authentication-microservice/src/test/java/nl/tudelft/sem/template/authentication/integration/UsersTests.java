@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
 import nl.tudelft.sem.template.authentication.authentication.JwtTokenGenerator;
 import nl.tudelft.sem.template.authentication.domain.user.AppUser;
 import nl.tudelft.sem.template.authentication.domain.user.HashedPassword;
@@ -20,9 +21,12 @@ import nl.tudelft.sem.template.authentication.framework.integration.utils.JsonUt
 import nl.tudelft.sem.template.authentication.models.AuthenticationRequestModel;
 import nl.tudelft.sem.template.authentication.models.AuthenticationResponseModel;
 import nl.tudelft.sem.template.authentication.models.RegistrationRequestModel;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -58,6 +62,9 @@ public class UsersTests {
     @Autowired
     private transient UserRepository userRepository;
 
+    @Value("${jwt.secret}")
+    private transient String jwtSecret;
+
     @Test
     public void register_withValidData_worksCorrectly() throws Exception {
         // Arrange
@@ -84,6 +91,58 @@ public class UsersTests {
         assertThat(savedUser.getPassword()).isEqualTo(testHashedPassword);
     }
 
+    @Test
+    public void registerBatch_registersNewUsersAndReportsTheOthers() throws Exception {
+        // Arrange
+        final HashedPassword testHashedPassword = new HashedPassword("hashedTestPassword");
+        when(mockPasswordEncoder.hash(any())).thenReturn(testHashedPassword);
+        userRepository.save(new AppUser(new NetId("Existing"), new HashedPassword("password123")));
+
+        RegistrationRequestModel newUser = new RegistrationRequestModel();
+        newUser.setNetId("NewUser");
+        newUser.setPassword("password123");
+        RegistrationRequestModel existingUser = new RegistrationRequestModel();
+        existingUser.setNetId("Existing");
+        existingUser.setPassword("password456");
+
+        // Act
+        ResultActions resultActions = mockMvc.perform(post("/registerBatch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + new ServiceTokenProvider(ServiceIdentity.USERS, jwtSecret).getToken())
+                .content(JsonUtil.serialize(List.of(newUser, existingUser, newUser))));
+
+        // Assert
+        resultActions.andExpect(status().isOk());
+        assertThat(resultActions.andReturn().getResponse().getContentAsString())
+                .isEqualTo("{\"NewUser\":\"Registered\",\"Existing\":\"NetID is already in use\"}");
+
+        assertThat(userRepository.findByNetId(new NetId("NewUser"))).isPresent();
+        verify(mockPasswordEncoder, times(1)).hash(any());
+    }
+
+    @Test
+    public void registerBatch_withoutTheUsersServiceToken_isForbidden() throws Exception {
+        // Arrange
+        RegistrationRequestModel newUser = new RegistrationRequestModel();
+        newUser.setNetId("NewUser");
+        newUser.setPassword("password123");
+        String otherServiceToken = new ServiceTokenProvider(ServiceIdentity.NODES, jwtSecret).getToken();
+
+        // Act
+        ResultActions withoutToken = mockMvc.perform(post("/registerBatch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonUtil.serialize(List.of(newUser))));
+        ResultActions withOtherToken = mockMvc.perform(post("/registerBatch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + otherServiceToken)
+                .content(JsonUtil.serialize(List.of(newUser))));
+
+        // Assert
+        withoutToken.andExpect(status().isForbidden());
+        withOtherToken.andExpect(status().isForbidden());
+        assertThat(userRepository.findByNetId(new NetId("NewUser"))).isEmpty();
+    }
+
     @Test
     public void register_withExistingUser_throwsException() throws Exception {
         // Arrange
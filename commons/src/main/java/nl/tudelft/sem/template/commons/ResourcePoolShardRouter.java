@@ -0,0 +1,150 @@
+package nl.tudelft.sem.template.commons;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The routing table of the resourcepool instances. The resource pools are partitioned over the instances:
+ * the free pool lives on the first instance, every other resource pool on the instance its id or name maps to.
+ * Every service, the resourcepool instances included, reads the same table from the resourcepool.shards property.
+ */
+@Component
+public class ResourcePoolShardRouter {
+
+    /**
+     * The id of the free pool, which is always the first resource pool of the first instance.
+     */
+    public static final long FREE_POOL_ID = 1L;
+
+    /**
+     * The name of the free pool.
+     */
+    public static final String FREE_POOL_NAME = "Free pool";
+
+    private final transient List<String> shards;
+
+    /**
+     * Instantiates a new ResourcePoolShardRouter.
+     *
+     * @param shards the comma separated urls of all resourcepool instances, the free pool shard first
+     */
+    public ResourcePoolShardRouter(@Value("${resourcepool.shards:http://localhost:8085}") String shards) {
+        List<String> urls = new ArrayList<>();
+        for (String url : shards.split(",")) {
+            if (!url.isBlank()) {
+                urls.add(url.trim());
+            }
+        }
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("The routing table of the resourcepool instances is empty");
+        }
+        this.shards = Collections.unmodifiableList(urls);
+    }
+
+    /**
+     * Checks whether a resource pool is the free pool.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @return true iff the id is the id of the free pool
+     */
+    public static boolean isFreePool(long resourcePoolId) {
+        return resourcePoolId == FREE_POOL_ID;
+    }
+
+    /**
+     * Checks whether a name is the name of the free pool.
+     *
+     * @param name the name of the resource pool
+     * @return true iff the name is the name of the free pool
+     */
+    public static boolean isFreePoolName(String name) {
+        return name == null || name.equalsIgnoreCase(FREE_POOL_NAME);
+    }
+
+    /**
+     * Gets the url of the instance owning the free pool.
+     *
+     * @return the url of the free pool shard
+     */
+    public String forFreePool() {
+        return shards.get(0);
+    }
+
+    /**
+     * Gets the url of the instance owning a resource pool.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @return the url of the owning shard
+     */
+    public String forFacultyId(long resourcePoolId) {
+        return shards.get(indexOf(resourcePoolId));
+    }
+
+    /**
+     * Gets the url of the instance owning, or creating, the resource pool with the given name.
+     *
+     * @param name the name of the resource pool
+     * @return the url of the owning shard
+     */
+    public String forFacultyName(String name) {
+        return shards.get(indexOfName(name));
+    }
+
+    /**
+     * Gets the position of the instance owning a resource pool. Ids are interleaved over the instances,
+     * so the free pool (id 1) lives on the first one and instance i owns the ids that are i + 1 modulo the amount of shards.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @return the index of the owning shard
+     */
+    public int indexOf(long resourcePoolId) {
+        if (resourcePoolId <= FREE_POOL_ID) {
+            return 0;
+        }
+        return (int) ((resourcePoolId - 1) % shards.size());
+    }
+
+    /**
+     * Gets the position of the instance owning, or creating, the resource pool with the given name.
+     *
+     * @param name the name of the resource pool
+     * @return the index of the owning shard
+     */
+    public int indexOfName(String name) {
+        if (isFreePoolName(name)) {
+            return 0;
+        }
+        return Math.floorMod(name.hashCode(), shards.size());
+    }
+
+    /**
+     * Gets the url of the instance at a position of the routing table.
+     *
+     * @param index the position of the instance
+     * @return the url of the shard
+     */
+    public String get(int index) {
+        return shards.get(index);
+    }
+
+    /**
+     * Gets the amount of resourcepool instances.
+     *
+     * @return the amount of shards
+     */
+    public int size() {
+        return shards.size();
+    }
+
+    /**
+     * Gets the urls of all resourcepool instances.
+     *
+     * @return the urls of all shards
+     */
+    public List<String> all() {
+        return shards;
+    }
+}
@@ -0,0 +1,61 @@
+package nl.tudelft.sem.template.commons;
+
+import java.util.Locale;
+
+/**
+ * The netIds the microservices authenticate with when they call each other outside of a user's request.
+ * All of them start with a prefix the authentication microservice refuses to register or log in,
+ * so only the microservices themselves, which sign their tokens with the shared secret, can carry them.
+ */
+public final class ServiceIdentity {
+
+    /**
+     * The prefix reserved for the identities of the microservices.
+     */
+    public static final String PREFIX = "service:";
+
+    /**
+     * The identity of the resourcepool instances.
+     */
+    public static final String RESOURCEPOOL = PREFIX + "resourcepool";
+
+    /**
+     * The identity of the nodes microservice.
+     */
+    public static final String NODES = PREFIX + "nodes";
+
+    /**
+     * The identity of the requests microservice.
+     */
+    public static final String REQUESTS = PREFIX + "requests";
+
+    /**
+     * The identity of the users microservice.
+     */
+    public static final String USERS = PREFIX + "users";
+
+    private ServiceIdentity() {
+    }
+
+    /**
+     * Checks whether a netId falls in the reserved namespace of the microservices.
+     * The check ignores case and surrounding whitespace, so no look-alike of a service identity can be registered.
+     *
+     * @param netId the netId to check
+     * @return true iff the netId is reserved for the microservices
+     */
+    public static boolean isReserved(String netId) {
+        return netId != null && netId.strip().toLowerCase(Locale.ROOT).startsWith(PREFIX);
+    }
+
+    /**
+     * Checks whether the caller of a request is the given microservice.
+     *
+     * @param identity the identity of the microservice
+     * @param netId    the netId of the caller
+     * @return true iff the caller authenticated as the microservice
+     */
+    public static boolean is(String identity, String netId) {
+        return identity.equals(netId);
+    }
+}
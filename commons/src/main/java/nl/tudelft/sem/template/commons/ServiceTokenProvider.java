@@ -0,0 +1,64 @@
+package nl.tudelft.sem.template.commons;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.util.Date;
+
+/**
+ * Issues the JWT token a microservice uses for the calls it makes on its own behalf rather than a user's,
+ * such as scheduled jobs and calls between the shards. The token carries the identity of the microservice,
+ * see {@link ServiceIdentity}, and is signed with the shared secret, so the other microservices accept it
+ * and can recognise the caller. A token is reused until it is about to expire.
+ */
+public class ServiceTokenProvider {
+
+    private static final long VALIDITY_MILLIS = 60 * 60 * 1000;
+
+    private static final long RENEWAL_MARGIN_MILLIS = 5 * 60 * 1000;
+
+    private final transient String identity;
+
+    private final transient String jwtSecret;
+
+    private transient String token;
+
+    private transient long expiresAt;
+
+    /**
+     * Instantiates a new ServiceTokenProvider.
+     *
+     * @param identity  the identity of the microservice, one of the {@link ServiceIdentity} constants
+     * @param jwtSecret the secret the JWT tokens are signed with
+     */
+    public ServiceTokenProvider(String identity, String jwtSecret) {
+        if (!ServiceIdentity.isReserved(identity)) {
+            throw new IllegalArgumentException(identity + " is not the identity of a microservice");
+        }
+        this.identity = identity;
+        this.jwtSecret = jwtSecret;
+    }
+
+    /**
+     * Gets the identity the tokens are issued to.
+     *
+     * @return the identity of the microservice
+     */
+    public String getIdentity() {
+        return identity;
+    }
+
+    /**
+     * Gets the service token, issuing a new one when the current one is about to expire.
+     *
+     * @return the service token
+     */
+    public synchronized String getToken() {
+        long now = System.currentTimeMillis();
+        if (token == null || now >= expiresAt - RENEWAL_MARGIN_MILLIS) {
+            expiresAt = now + VALIDITY_MILLIS;
+            token = Jwts.builder().setSubject(identity).setIssuedAt(new Date(now))
+                    .setExpiration(new Date(expiresAt)).signWith(SignatureAlgorithm.HS512, jwtSecret).compact();
+        }
+        return token;
+    }
+}
@@ -0,0 +1,86 @@
+package nl.tudelft.sem.template.commons;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces identical concurrent calls: the first caller of a key makes the call,
+ * the callers that ask for the same key while it is in flight wait for it and share its result or its failure.
+ * Nothing is remembered once the call completed, so only calls that overlap in time are coalesced.
+ * The key has to hold everything the result depends on. A call that is shared between users should not be made
+ * with the token of whichever caller came first: authorize every caller on its own beforehand and make the call
+ * with the token of the microservice itself, so nobody gets an answer on somebody else's rights.
+ * Only a call whose answer is about the caller itself, such as looking up their faculty, is keyed on their token.
+ *
+ * @param <K> the type of the key identifying a call
+ * @param <V> the type of the result of a call
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * A call that may throw a checked exception.
+     *
+     * @param <V> the type of the result
+     * @param <E> the type of the exception
+     */
+    @FunctionalInterface
+    public interface Call<V, E extends Exception> {
+        V call() throws E;
+    }
+
+    private final transient ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Makes the call, or waits for the identical call that is already in flight.
+     *
+     * @param key  the key identifying the call
+     * @param call the call to make if none is in flight for the key
+     * @param <E>  the type of the exception the call may throw
+     * @return the result of the call
+     * @throws E if the call failed
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Exception> V execute(K key, Call<V, E> call) throws E {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            try {
+                V result = call.call();
+                flight.complete(result);
+                return result;
+            } catch (Exception | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        try {
+            return existing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an identical call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (E) cause;
+        }
+    }
+
+    /**
+     * Gets the amount of calls in flight.
+     *
+     * @return the amount of keys with a call in flight
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,38 @@
+package nl.tudelft.sem.template.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class ResourcePoolShardRouterTest {
+
+    private final transient ResourcePoolShardRouter router =
+            new ResourcePoolShardRouter("http://localhost:8085, http://localhost:8095,http://localhost:8105");
+
+    @Test
+    void freePoolIsOnFirstShard() {
+        assertThat(router.forFreePool()).isEqualTo("http://localhost:8085");
+        assertThat(router.forFacultyId(1L)).isEqualTo("http://localhost:8085");
+        assertThat(router.forFacultyName("Free pool")).isEqualTo("http://localhost:8085");
+    }
+
+    @Test
+    void facultyIdsAreInterleaved() {
+        assertThat(router.forFacultyId(2L)).isEqualTo("http://localhost:8095");
+        assertThat(router.forFacultyId(3L)).isEqualTo("http://localhost:8105");
+        assertThat(router.forFacultyId(4L)).isEqualTo("http://localhost:8085");
+    }
+
+    @Test
+    void facultyNameAlwaysRoutesToSameShard() {
+        assertThat(router.forFacultyName("EEMCS")).isEqualTo(router.forFacultyName("EEMCS"));
+        assertThat(router.all()).contains(router.forFacultyName("EEMCS"));
+    }
+
+    @Test
+    void defaultTableHasSingleShard() {
+        ResourcePoolShardRouter single = new ResourcePoolShardRouter("http://localhost:8085");
+        assertThat(single.forFacultyId(7L)).isEqualTo("http://localhost:8085");
+        assertThat(single.forFacultyName("EEMCS")).isEqualTo("http://localhost:8085");
+    }
+}
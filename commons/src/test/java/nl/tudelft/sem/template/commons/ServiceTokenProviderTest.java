@@ -0,0 +1,41 @@
+package nl.tudelft.sem.template.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+public class ServiceTokenProviderTest {
+
+    @Test
+    void tokenCarriesTheServiceIdentity() {
+        ServiceTokenProvider provider = new ServiceTokenProvider(ServiceIdentity.NODES, "exampleSecret");
+
+        String subject = Jwts.parser().setSigningKey("exampleSecret")
+                .parseClaimsJws(provider.getToken()).getBody().getSubject();
+
+        assertThat(subject).isEqualTo(ServiceIdentity.NODES);
+        assertThat(ServiceIdentity.isReserved(subject)).isTrue();
+    }
+
+    @Test
+    void tokenIsReusedUntilItExpires() {
+        ServiceTokenProvider provider = new ServiceTokenProvider(ServiceIdentity.RESOURCEPOOL, "exampleSecret");
+
+        assertThat(provider.getToken()).isSameAs(provider.getToken());
+    }
+
+    @Test
+    void onlyServiceIdentitiesAreAccepted() {
+        assertThatThrownBy(() -> new ServiceTokenProvider("admin", "exampleSecret"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reservedNamespaceIgnoresCase() {
+        assertThat(ServiceIdentity.isReserved(" Service:Nodes")).isTrue();
+        assertThat(ServiceIdentity.isReserved("nodes-microservice")).isFalse();
+        assertThat(ServiceIdentity.isReserved(null)).isFalse();
+    }
+}
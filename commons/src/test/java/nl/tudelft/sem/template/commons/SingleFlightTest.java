@@ -0,0 +1,75 @@
+package nl.tudelft.sem.template.commons;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+    private final transient SingleFlight<Long, String> sut = new SingleFlight<>();
+
+    @Test
+    void concurrentIdenticalCallsShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> sut.execute(2L, () -> {
+                started.countDown();
+                release.await();
+                return "EEMCS " + calls.incrementAndGet();
+            })));
+            started.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> sut.execute(2L, () -> "EEMCS " + calls.incrementAndGet())));
+            }
+            // give the other callers the time to find the call in flight
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("EEMCS 1");
+            }
+            assertThat(calls).hasValue(1);
+            assertThat(sut.inFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void completedCallsAreNotRemembered() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(sut.execute(2L, () -> "call " + calls.incrementAndGet())).isEqualTo("call 1");
+        assertThat(sut.execute(2L, () -> "call " + calls.incrementAndGet())).isEqualTo("call 2");
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() {
+        assertThat(sut.execute(2L, () -> "EEMCS")).isEqualTo("EEMCS");
+        assertThat(sut.execute(3L, () -> "AE")).isEqualTo("AE");
+    }
+
+    @Test
+    void failureIsThrownAndForgotten() {
+        assertThatThrownBy(() -> sut.execute(2L, () -> {
+            throw new IOException("RP MS is down");
+        })).isInstanceOf(IOException.class).hasMessage("RP MS is down");
+
+        assertThat(sut.inFlight()).isZero();
+        assertThat(sut.execute(2L, () -> "EEMCS")).isEqualTo("EEMCS");
+    }
+}
@@ -1,22 +1,50 @@
 package nl.tudelft.sem.template.nodes;
 
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.nodes.authentication.BearerTokenInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * nodes microservice application.
  */
 @SpringBootApplication
+@Import(ResourcePoolShardRouter.class)
+@EnableScheduling
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
     }
 
+    /**
+     * The RestTemplate used to call the other microservices, which forwards the token of the current user.
+     *
+     * @param builder                the builder of the RestTemplate
+     * @param bearerTokenInterceptor the interceptor adding the bearer token to every call
+     * @return the RestTemplate
+     */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, BearerTokenInterceptor bearerTokenInterceptor) {
+        return builder.additionalInterceptors(bearerTokenInterceptor).build();
+    }
+
+    /**
+     * The provider of the token used for the calls that are not made on behalf of a user,
+     * such as those of the health checks and the reconciliation of the node resources.
+     *
+     * @param jwtSecret the secret the JWT tokens are signed with
+     * @return the provider of the nodes service token
+     */
+    @Bean
+    public ServiceTokenProvider serviceTokenProvider(@Value("${jwt.secret}") String jwtSecret) {
+        return new ServiceTokenProvider(ServiceIdentity.NODES, jwtSecret);
     }
 }
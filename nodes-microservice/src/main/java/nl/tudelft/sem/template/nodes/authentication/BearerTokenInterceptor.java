@@ -0,0 +1,45 @@
+package nl.tudelft.sem.template.nodes.authentication;
+
+import java.io.IOException;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a bearer token to the calls the RestTemplate makes to the other microservices.
+ * Calls made while handling a request carry the token of the user of that request, taken from the
+ * security context of the handling thread. Calls outside of a request, like those of scheduled jobs
+ * and asynchronous callbacks, carry the service token. Calls that already set a token keep it.
+ */
+@Component
+public class BearerTokenInterceptor implements ClientHttpRequestInterceptor {
+
+    private final transient AuthManager authManager;
+
+    private final transient ServiceTokenProvider serviceTokenProvider;
+
+    /**
+     * Instantiates a new BearerTokenInterceptor.
+     *
+     * @param authManager           the manager giving access to the token of the current user
+     * @param serviceTokenProvider the provider of the token used outside of requests
+     */
+    public BearerTokenInterceptor(AuthManager authManager, ServiceTokenProvider serviceTokenProvider) {
+        this.authManager = authManager;
+        this.serviceTokenProvider = serviceTokenProvider;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            String token = authManager.getToken();
+            request.getHeaders().setBearerAuth(token == null ? serviceTokenProvider.getToken() : token);
+        }
+        return execution.execute(request, body);
+    }
+}
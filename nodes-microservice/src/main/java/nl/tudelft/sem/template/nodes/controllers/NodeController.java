@@ -1,19 +1,42 @@
 package nl.tudelft.sem.template.nodes.controllers;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.servlet.http.HttpServletRequest;
 import nl.tudelft.sem.template.nodes.authentication.AuthManager;
+import nl.tudelft.sem.template.nodes.domain.node.InnerRequestFailedException;
+import nl.tudelft.sem.template.nodes.domain.node.InventoryFormat;
 import nl.tudelft.sem.template.nodes.domain.node.Name;
 import nl.tudelft.sem.template.nodes.domain.node.Node;
+import nl.tudelft.sem.template.nodes.domain.node.NodeImportService;
 import nl.tudelft.sem.template.nodes.domain.node.NodeManagementService;
+import nl.tudelft.sem.template.nodes.domain.node.NodeSearchFilter;
+import nl.tudelft.sem.template.nodes.domain.node.NodeSearchScope;
 import nl.tudelft.sem.template.nodes.domain.node.NodeUrl;
 import nl.tudelft.sem.template.nodes.domain.node.NodeVerifier;
+import nl.tudelft.sem.template.nodes.domain.node.SearchNotAllowedException;
 import nl.tudelft.sem.template.nodes.domain.node.Token;
+import nl.tudelft.sem.template.nodes.domain.node.chain.InvalidRequestException;
 import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import nl.tudelft.sem.template.nodes.models.NodeBatchContributionRequestModel;
 import nl.tudelft.sem.template.nodes.models.NodeContributionRequestModel;
+import nl.tudelft.sem.template.nodes.models.NodeImportResponseModel;
+import nl.tudelft.sem.template.nodes.models.NodePageModel;
+import nl.tudelft.sem.template.nodes.models.NodeResourcesModel;
+import nl.tudelft.sem.template.nodes.models.NodeSummaryModel;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -25,16 +48,25 @@ public class NodeController {
 
     private final transient NodeManagementService nodeManagementService;
 
+    private final transient NodeImportService nodeImportService;
+
+    private final transient NodeSearchScope nodeSearchScope;
+
     private final transient AuthManager authManager;
 
     /**
      * Instantiates a new controller.
      *
      * @param nodeManagementService The service which will handle the business logic for node management
+     * @param nodeImportService The service which imports node inventories
+     * @param nodeSearchScope The service which restricts the searches to the nodes the caller may see
      */
     @Autowired
-    public NodeController(NodeManagementService nodeManagementService, AuthManager authManager) {
+    public NodeController(NodeManagementService nodeManagementService, NodeImportService nodeImportService,
+                          NodeSearchScope nodeSearchScope, AuthManager authManager) {
         this.nodeManagementService = nodeManagementService;
+        this.nodeImportService = nodeImportService;
+        this.nodeSearchScope = nodeSearchScope;
         this.authManager = authManager;
     }
 
@@ -62,6 +94,116 @@ public class NodeController {
         }
     }
 
+    /**
+     * Contributes a batch of nodes, possibly to different faculties, in one go.
+     * Either all nodes are registered or none of them are.
+     *
+     * @param batch the needed information to create the nodes
+     * @return 200 OK with the ids of the nodes if the contribution was successful,
+     *         409 CONFLICT if a node was registered concurrently with the same name, url or token
+     * @throws Exception if some information is invalid
+     */
+    @PostMapping("/contributeNodes")
+    public ResponseEntity<List<Long>> contributeNodes(@RequestBody NodeBatchContributionRequestModel batch)
+            throws Exception {
+        try {
+            String ownerNetId = authManager.getNetId();
+            List<Node> nodes = new ArrayList<>();
+            for (NodeContributionRequestModel nodeInfo : batch.getNodes()) {
+                nodes.add(new Node(new Name(nodeInfo.getName()), new NodeUrl(nodeInfo.getUrl()), ownerNetId,
+                        nodeInfo.getFacultyId(), new Token(nodeInfo.getToken()),
+                        new Resources(nodeInfo.getCpu(), nodeInfo.getGpu(), nodeInfo.getMemory())));
+            }
+            List<Long> ids = new ArrayList<>();
+            for (Node node : nodeManagementService.registerNodes(nodes)) {
+                ids.add(node.getId());
+            }
+            return ResponseEntity.ok(ids);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A node with the same name, url or token already exists");
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Imports a node inventory, which is streamed as the body of the request.
+     * Rows that can't be imported are listed in the response, the other rows are registered in batches.
+     *
+     * @param format the format of the inventory, jsonl or csv
+     * @param request the request whose body is the inventory
+     * @return 200 OK with the amount of imported nodes and the rows that failed
+     * @throws Exception if the inventory can't be read or the format is unknown
+     */
+    @PostMapping("/importNodes")
+    public ResponseEntity<NodeImportResponseModel> importNodes(@RequestParam(defaultValue = "jsonl") String format,
+                                                               HttpServletRequest request) throws Exception {
+        try (Reader inventory = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            InventoryFormat inventoryFormat = InventoryFormat.valueOf(format.toUpperCase(Locale.ROOT));
+            return ResponseEntity.ok(nodeImportService.importNodes(inventory, inventoryFormat, authManager.getNetId()));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the combined resources of the alive nodes of a faculty.
+     *
+     * @param facultyId the id of the faculty
+     * @return 200 OK with the resources the faculty's nodes contribute
+     */
+    @PostMapping("/facultyNodeResources")
+    public ResponseEntity<NodeResourcesModel> facultyNodeResources(@RequestBody Long facultyId) {
+        Resources resources = nodeManagementService.getFacultyNodeResources(facultyId);
+        return ResponseEntity.ok(new NodeResourcesModel(facultyId, resources.getCpu(), resources.getGpu(),
+                resources.getMemory()));
+    }
+
+    /**
+     * Lists the nodes matching the given filters, page by page. To get the next page,
+     * the search is repeated with afterId set to the nextAfterId of the current page.
+     * The filters are restricted to the nodes the caller may see, like the gateway does.
+     *
+     * @param facultyId  only nodes of this faculty, if given
+     * @param owner      only nodes owned by this netId, if given
+     * @param minCpu     the minimum amount of cpu of the nodes
+     * @param minGpu     the minimum amount of gpu of the nodes
+     * @param minMemory  the minimum amount of memory of the nodes
+     * @param afterId    the id of the last node of the previous page, 0 for the first page
+     * @param limit      the maximum amount of nodes on the page
+     * @return 200 OK with the page of nodes, nextAfterId is null when there are no more nodes,
+     *         403 FORBIDDEN if the caller asked for nodes it may not see
+     */
+    @GetMapping("/searchNodes")
+    public ResponseEntity<NodePageModel> searchNodes(@RequestParam(required = false) Long facultyId,
+                                                     @RequestParam(required = false) String owner,
+                                                     @RequestParam(defaultValue = "0") int minCpu,
+                                                     @RequestParam(defaultValue = "0") int minGpu,
+                                                     @RequestParam(defaultValue = "0") int minMemory,
+                                                     @RequestParam(defaultValue = "0") long afterId,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        NodeSearchFilter filter;
+        try {
+            filter = nodeSearchScope.restrict(authManager.getNetId(), facultyId, owner);
+        } catch (SearchNotAllowedException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
+        } catch (InnerRequestFailedException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        List<Node> nodes = nodeManagementService.searchNodes(filter.getFacultyId(), filter.getOwner(),
+                new Resources(minCpu, minGpu, minMemory), afterId, limit);
+        List<NodeSummaryModel> summaries = new ArrayList<>();
+        for (Node node : nodes) {
+            Resources resources = node.getResource();
+            summaries.add(new NodeSummaryModel(node.getId(), node.getNodeName().toString(), node.getUrl().toString(),
+                    node.getOwnerNetId(), node.getFacultyId(), resources.getCpu(), resources.getGpu(),
+                    resources.getMemory(), node.isAlive()));
+        }
+        boolean fullPage = !nodes.isEmpty() && nodes.size() == NodeManagementService.pageSize(limit);
+        Long nextAfterId = fullPage ? nodes.get(nodes.size() - 1).getId() : null;
+        return ResponseEntity.ok(new NodePageModel(summaries, nextAfterId));
+    }
+
     /**
      * Deletes a node.
      *
@@ -78,4 +220,22 @@ public class NodeController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
+
+    /**
+     * Decommissions a batch of nodes in one go. Either all nodes are deleted or none of them are.
+     *
+     * @param nodeIds the ids of the nodes to be deleted
+     * @return 200 OK with the names of the deleted nodes if the deletion was successful
+     * @throws Exception if a node id couldn't be found or isn't owned by the requester
+     */
+    @PostMapping("/decommissionNodes")
+    public ResponseEntity<List<String>> decommissionNodes(@RequestBody List<Long> nodeIds) throws Exception {
+        try {
+            return ResponseEntity.ok(nodeManagementService.deleteNodes(nodeIds, authManager.getNetId()));
+        } catch (InvalidRequestException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid request for node " + e.getMessage());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package nl.tudelft.sem.template.nodes.controllers;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Optional;
+import nl.tudelft.sem.template.nodes.domain.node.placement.NodeAssignment;
+import nl.tudelft.sem.template.nodes.domain.node.placement.NodePlacementService;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import nl.tudelft.sem.template.nodes.models.NodeAssignmentRequestModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Controller for endpoints related to the assignment of approved requests to nodes.
+ */
+@RestController
+public class NodePlacementController {
+
+    private final transient NodePlacementService nodePlacementService;
+
+    /**
+     * Instantiates a new controller.
+     *
+     * @param nodePlacementService the service which assigns requests to nodes
+     */
+    @Autowired
+    public NodePlacementController(NodePlacementService nodePlacementService) {
+        this.nodePlacementService = nodePlacementService;
+    }
+
+    /**
+     * Assigns an approved request to the best fitting node of the resource pool it is scheduled in.
+     *
+     * @param model the request, its resource pool, day and resources
+     * @return 200 OK with the id of the node, 409 CONFLICT if no single node has room for the request
+     */
+    @PostMapping("/assignRequestToNode")
+    public ResponseEntity<Long> assignRequestToNode(@RequestBody NodeAssignmentRequestModel model) {
+        Optional<NodeAssignment> assignment = nodePlacementService.assign(model.getRequestId(),
+                model.getResourcePoolId(), toLocalDate(model.getDay()), resourcesOf(model));
+        if (assignment.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "No node has room for request " + model.getRequestId());
+        }
+        return ResponseEntity.ok(assignment.get().getNodeId());
+    }
+
+    /**
+     * Removes the assignment of a request to its node.
+     *
+     * @param requestId the id of the request
+     * @return 200 OK with whether the request was assigned to a node
+     */
+    @PostMapping("/releaseRequestFromNode")
+    public ResponseEntity<Boolean> releaseRequestFromNode(@RequestBody Long requestId) {
+        return ResponseEntity.ok(nodePlacementService.release(requestId));
+    }
+
+    /**
+     * Checks whether a single node of a resource pool could still run a request on a day.
+     *
+     * @param model the resource pool, day and resources of the request
+     * @return 200 OK with true iff some node has room, or the resource pool has no nodes
+     */
+    @PostMapping("/fitsOnNode")
+    public ResponseEntity<Boolean> fitsOnNode(@RequestBody NodeAssignmentRequestModel model) {
+        return ResponseEntity.ok(nodePlacementService.canHost(model.getResourcePoolId(), toLocalDate(model.getDay()),
+                resourcesOf(model)));
+    }
+
+    private static Resources resourcesOf(NodeAssignmentRequestModel model) {
+        return new Resources(model.getCpu(), model.getGpu(), model.getMemory());
+    }
+
+    /**
+     * Converts a calendar to the day it represents, the same way the resource pools read their days.
+     *
+     * @param day the calendar
+     * @return the day of the calendar
+     */
+    private static LocalDate toLocalDate(Calendar day) {
+        if (day == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The day is missing");
+        }
+        return LocalDate.of(day.get(Calendar.YEAR), day.get(Calendar.MONTH) + 1, day.get(Calendar.DAY_OF_MONTH));
+    }
+}
@@ -0,0 +1,81 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import org.springframework.stereotype.Component;
+
+/**
+ * The combined resources of the alive nodes of every faculty, kept up to date with every registration,
+ * deletion and change in liveness, so the capacity of a faculty can be looked up without summing its nodes.
+ * These are the node resources the faculty should have in the resource pool microservice.
+ */
+@Component
+public class FacultyNodeCapacity {
+
+    private static final Resources NONE = new Resources(0, 0, 0);
+
+    private final transient NodeRepository repo;
+
+    private final transient Map<Long, Resources> totals;
+
+    /**
+     * Instantiates a new FacultyNodeCapacity.
+     *
+     * @param repo the node repository
+     */
+    public FacultyNodeCapacity(NodeRepository repo) {
+        this.repo = repo;
+        this.totals = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Sums the resources of the alive nodes in the repository, done once on startup.
+     */
+    @PostConstruct
+    public void load() {
+        totals.clear();
+        for (Node node : repo.findAll()) {
+            if (node.isAlive()) {
+                add(node.getFacultyId(), node.getResource());
+            }
+        }
+    }
+
+    /**
+     * Gets the combined resources of the alive nodes of a faculty.
+     *
+     * @param facultyId the id of the faculty
+     * @return the resources of the faculty's nodes, zero if it has none
+     */
+    public Resources get(long facultyId) {
+        return totals.getOrDefault(facultyId, NONE);
+    }
+
+    public void add(long facultyId, Resources resources) {
+        totals.merge(facultyId, resources, Resources::add);
+    }
+
+    public void subtract(long facultyId, Resources resources) {
+        totals.merge(facultyId, Resources.subtract(NONE, resources), Resources::add);
+    }
+
+    /**
+     * Adds the resources of several faculties at once.
+     *
+     * @param resources the resources to add, per faculty id
+     */
+    public void addAll(Map<Long, Resources> resources) {
+        resources.forEach(this::add);
+    }
+
+    /**
+     * Subtracts the resources of several faculties at once.
+     *
+     * @param resources the resources to subtract, per faculty id
+     */
+    public void subtractAll(Map<Long, Resources> resources) {
+        resources.forEach(this::subtract);
+    }
+}
@@ -0,0 +1,16 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+/**
+ * The formats a node inventory can be imported from.
+ */
+public enum InventoryFormat {
+    /**
+     * One JSON object per line, with the same fields as a single node contribution.
+     */
+    JSONL,
+
+    /**
+     * Comma separated values, starting with a header naming the columns.
+     */
+    CSV
+}
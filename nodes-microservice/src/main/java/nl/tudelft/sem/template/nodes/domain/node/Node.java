@@ -7,6 +7,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import lombok.NoArgsConstructor;
 import nl.tudelft.sem.template.nodes.domain.resources.Resources;
@@ -17,7 +18,9 @@ import nl.tudelft.sem.template.nodes.domain.resources.ResourcesAttributeConverte
  * A DDD entity representing an application node in our domain.
  */
 @Entity
-@Table(name = "nodes")
+@Table(name = "nodes", indexes = {
+    @Index(name = "idx_nodes_faculty_id", columnList = "faculty_id, id"),
+    @Index(name = "idx_nodes_owner_netid", columnList = "owner_netid, id")})
 @NoArgsConstructor
 public class Node {
 
@@ -41,6 +44,15 @@ public class Node {
     @Column(name = "resource", nullable = false)
     @Convert(converter = ResourcesAttributeConverter.class)
     private Resources resource;
+    @Column(name = "alive", nullable = false)
+    private boolean alive = true;
+    // the resource again as plain numbers, so nodes can be searched by their resources within the database
+    @Column(name = "cpu", nullable = false)
+    private int cpu;
+    @Column(name = "gpu", nullable = false)
+    private int gpu;
+    @Column(name = "memory", nullable = false)
+    private int memory;
 
     /**
      * Instantiates a new Node.
@@ -58,7 +70,7 @@ public class Node {
         this.ownerNetId = ownerNetId;
         this.facultyId = facultyId;
         this.token = nodeToken;
-        this.resource = nodeResource;
+        updateResource(nodeResource);
     }
 
     /**
@@ -124,8 +136,29 @@ public class Node {
         return resource;
     }
 
+    /**
+     * Changes the resources of the node.
+     *
+     * @param newResource the new resources
+     */
     public void updateResource(Resources newResource) {
         this.resource = newResource;
+        this.cpu = newResource.getCpu();
+        this.gpu = newResource.getGpu();
+        this.memory = newResource.getMemory();
+    }
+
+    /**
+     * Checks whether the node answered its latest health checks, only then its resources count towards its faculty.
+     *
+     * @return whether the node is alive
+     */
+    public boolean isAlive() {
+        return alive;
+    }
+
+    public void setAlive(boolean alive) {
+        this.alive = alive;
     }
 
     /**
@@ -0,0 +1,132 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import nl.tudelft.sem.template.nodes.models.NodeResourcesCorrectionModel;
+import nl.tudelft.sem.template.nodes.models.NodeResourcesModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Periodically compares the node resources of every faculty in the resource pool microservice
+ * with the combined resources of its alive nodes, and repairs the faculties that drifted apart.
+ * A registration or deletion that is in flight looks like drift for a moment,
+ * so a faculty is only repaired once the same difference has been seen on two consecutive runs.
+ * The repair itself is only applied by the resource pool microservice if the faculty still has the resources seen here.
+ */
+@Component
+public class NodeCapacityReconciler {
+
+    private final transient FacultyNodeCapacity facultyNodeCapacity;
+
+    private final transient RestTemplate restTemplate;
+
+    private final transient ResourcePoolShardRouter shardRouter;
+
+    private final transient boolean enabled;
+
+    private final transient Map<Long, List<Resources>> suspectedDrift;
+
+    /**
+     * Instantiates a new NodeCapacityReconciler.
+     *
+     * @param facultyNodeCapacity the combined resources of the alive nodes per faculty
+     * @param restTemplate the RestTemplate used to send API-requests
+     * @param shardRouter the routing table of the resourcepool instances
+     * @param enabled whether the scheduled reconciliation runs
+     */
+    public NodeCapacityReconciler(FacultyNodeCapacity facultyNodeCapacity, RestTemplate restTemplate,
+                                  ResourcePoolShardRouter shardRouter,
+                                  @Value("${nodes.reconcile.enabled:true}") boolean enabled) {
+        this.facultyNodeCapacity = facultyNodeCapacity;
+        this.restTemplate = restTemplate;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.suspectedDrift = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Runs the reconciliation on a fixed delay, unless it is disabled.
+     */
+    @Scheduled(fixedDelayString = "${nodes.reconcile.interval-millis:60000}",
+            initialDelayString = "${nodes.reconcile.interval-millis:60000}")
+    public void scheduledReconcile() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Reconciles the faculties of every resourcepool instance, with two requests per instance.
+     * An instance that can't be reached is skipped until the next run.
+     *
+     * @return the amount of faculties that were repaired
+     */
+    public int reconcile() {
+        int repaired = 0;
+        for (String shardUrl : shardRouter.all()) {
+            try {
+                repaired += reconcileShard(shardUrl);
+            } catch (RuntimeException e) {
+                System.err.println("Reconciling the node resources of " + shardUrl + " failed: " + e.getMessage());
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * Fetches the node resources of all faculties on a resourcepool instance and sends the confirmed repairs in bulk.
+     *
+     * @param shardUrl the url of the resourcepool instance
+     * @return the amount of faculties that were repaired
+     */
+    private int reconcileShard(String shardUrl) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        NodeResourcesModel[] seen = restTemplate.exchange(shardUrl + "/nodeResources", HttpMethod.GET,
+                new HttpEntity<>(headers), NodeResourcesModel[].class).getBody();
+        if (seen == null) {
+            return 0;
+        }
+
+        List<NodeResourcesCorrectionModel> corrections = new ArrayList<>();
+        for (NodeResourcesModel faculty : seen) {
+            Resources actual = new Resources(faculty.getCpu(), faculty.getGpu(), faculty.getMemory());
+            Resources expected = facultyNodeCapacity.get(faculty.getFacultyId());
+            if (actual.equals(expected)) {
+                suspectedDrift.remove(faculty.getFacultyId());
+                continue;
+            }
+            List<Resources> drift = List.of(actual, expected);
+            if (drift.equals(suspectedDrift.put(faculty.getFacultyId(), drift))) {
+                corrections.add(new NodeResourcesCorrectionModel(faculty.getFacultyId(),
+                        actual.getCpu(), actual.getGpu(), actual.getMemory(),
+                        expected.getCpu(), expected.getGpu(), expected.getMemory()));
+            }
+        }
+        if (corrections.isEmpty()) {
+            return 0;
+        }
+
+        Long[] repaired = restTemplate.exchange(shardUrl + "/reconcileNodeResources", HttpMethod.POST,
+                new HttpEntity<>(corrections, headers), Long[].class).getBody();
+        if (repaired == null) {
+            return 0;
+        }
+        for (Long facultyId : repaired) {
+            suspectedDrift.remove(facultyId);
+        }
+        return repaired.length;
+    }
+}
@@ -0,0 +1,265 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import nl.tudelft.sem.template.nodes.models.NodeContributionRequestModel;
+import nl.tudelft.sem.template.nodes.models.NodeImportErrorModel;
+import nl.tudelft.sem.template.nodes.models.NodeImportResponseModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * A DDD service for importing a node inventory file.
+ * The file is read one line at a time and the nodes are registered in batches of a bounded size,
+ * so the memory use doesn't depend on the size of the file.
+ * Rows that can't be imported are reported with their line number instead of aborting the whole import.
+ */
+@Service
+public class NodeImportService {
+
+    /**
+     * The maximum amount of errors listed in a report, further errors are only counted.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "url", "facultyid", "token", "cpu", "gpu", "memory");
+
+    private final transient NodeRepository repo;
+
+    private final transient NodeManagementService nodeManagementService;
+
+    private final transient int batchSize;
+
+    /**
+     * Instantiates a new NodeImportService.
+     *
+     * @param repo the node repository
+     * @param nodeManagementService the service registering the batches of nodes
+     * @param batchSize the maximum amount of nodes registered in one transaction
+     */
+    public NodeImportService(NodeRepository repo, NodeManagementService nodeManagementService,
+                             @Value("${nodes.import.batch-size:500}") int batchSize) {
+        this.repo = repo;
+        this.nodeManagementService = nodeManagementService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports all nodes of an inventory. Every batch is registered in one transaction
+     * and contributes its resources with a single request per faculty.
+     *
+     * @param inventory the contents of the inventory file
+     * @param format the format of the inventory
+     * @param ownerNetId the netId of the owner of the nodes
+     * @return the amount of imported nodes and the rows that failed
+     * @throws IOException if the inventory can't be read
+     * @throws IllegalArgumentException if the header of a CSV inventory misses a column
+     */
+    public NodeImportResponseModel importNodes(Reader inventory, InventoryFormat format, String ownerNetId)
+            throws IOException {
+        NodeImportResponseModel report = new NodeImportResponseModel();
+        BufferedReader reader = new BufferedReader(inventory);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        long lineNumber = 0;
+        Map<String, Integer> columns = new HashMap<>();
+        if (format == InventoryFormat.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                return report;
+            }
+            lineNumber++;
+            columns = parseHeader(header);
+        }
+
+        List<Row> batch = new ArrayList<>(batchSize);
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                NodeContributionRequestModel nodeInfo = format == InventoryFormat.CSV ? parseCsv(line, columns)
+                        : objectMapper.readValue(line, NodeContributionRequestModel.class);
+                batch.add(new Row(lineNumber, toNode(nodeInfo, ownerNetId)));
+            } catch (JsonProcessingException e) {
+                fail(report, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                fail(report, lineNumber, e.getMessage());
+            } catch (ResourcesInvalidException e) {
+                fail(report, lineNumber, "Invalid resources: " + e.getMessage());
+            }
+            if (batch.size() >= batchSize) {
+                importBatch(batch, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, report);
+        }
+        return report;
+    }
+
+    /**
+     * Registers a batch of parsed rows. Rows of an unknown faculty or clashing with an existing node or an earlier row
+     * are reported and left out, the uniqueness is checked with one query per attribute for the whole batch.
+     * As the rows are checked here, the registration doesn't check them again.
+     * If the registration of the remaining rows fails, all of them are reported.
+     *
+     * @param rows the parsed rows
+     * @param report the report to add the outcome to
+     */
+    private void importBatch(List<Row> rows, NodeImportResponseModel report) {
+        List<Name> names = new ArrayList<>();
+        List<NodeUrl> urls = new ArrayList<>();
+        List<Token> tokens = new ArrayList<>();
+        for (Row row : rows) {
+            names.add(row.node.getNodeName());
+            urls.add(row.node.getUrl());
+            tokens.add(row.node.getToken());
+        }
+        Set<Name> usedNames = new HashSet<>(repo.findNamesIn(names));
+        Set<NodeUrl> usedUrls = new HashSet<>(repo.findUrlsIn(urls));
+        Set<Token> usedTokens = new HashSet<>(repo.findTokensIn(tokens));
+        Map<Long, Boolean> knownFaculties = new HashMap<>();
+
+        List<Row> accepted = new ArrayList<>();
+        for (Row row : rows) {
+            long facultyId = row.node.getFacultyId();
+            if (!knownFaculties.computeIfAbsent(facultyId, nodeManagementService::verifyFaculty)) {
+                fail(report, row.line, "Unknown faculty: " + facultyId);
+            } else if (!usedNames.add(row.node.getNodeName())) {
+                fail(report, row.line, "Name already in use: " + row.node.getNodeName());
+            } else if (!usedUrls.add(row.node.getUrl())) {
+                fail(report, row.line, "Url already in use: " + row.node.getUrl());
+            } else if (!usedTokens.add(row.node.getToken())) {
+                fail(report, row.line, "Token already in use: " + row.node.getToken());
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<Node> nodes = new ArrayList<>();
+        for (Row row : accepted) {
+            nodes.add(row.node);
+        }
+        try {
+            nodeManagementService.registerVerifiedNodes(nodes);
+            report.setImported(report.getImported() + nodes.size());
+        } catch (Exception e) {
+            for (Row row : accepted) {
+                fail(report, row.line, "Batch rejected: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Validates the attributes of a row and turns it into a node.
+     *
+     * @param nodeInfo the attributes of the row
+     * @param ownerNetId the netId of the owner of the node
+     * @return the node, which is not saved yet
+     * @throws ResourcesInvalidException if the resources are negative or insufficient
+     * @throws IllegalArgumentException if the row is empty or the name, url or token is missing
+     */
+    private static Node toNode(NodeContributionRequestModel nodeInfo, String ownerNetId)
+            throws ResourcesInvalidException {
+        if (nodeInfo == null) {
+            throw new IllegalArgumentException("Empty row");
+        }
+        requirePresent(nodeInfo.getName(), "name");
+        requirePresent(nodeInfo.getUrl(), "url");
+        requirePresent(nodeInfo.getToken(), "token");
+        Name name = new Name(nodeInfo.getName());
+        NodeUrl url = new NodeUrl(nodeInfo.getUrl());
+        Token token = new Token(nodeInfo.getToken());
+        Resources resources = new Resources(nodeInfo.getCpu(), nodeInfo.getGpu(), nodeInfo.getMemory());
+        new NodeVerifier(name, url, token, resources).checkResourceRequirements(resources);
+        return new Node(name, url, ownerNetId, nodeInfo.getFacultyId(), token, resources);
+    }
+
+    private static void requirePresent(String value, String column) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+    }
+
+    /**
+     * Finds the position of every required column in the header of a CSV inventory.
+     *
+     * @param header the first line of the inventory
+     * @return the position of every column, by lower case name
+     * @throws IllegalArgumentException if a column is missing
+     */
+    private static Map<String, Integer> parseHeader(String header) {
+        String[] fields = header.split(",", -1);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            columns.put(fields[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("The CSV header misses the column " + column);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Parses a row of a CSV inventory. Values can't contain commas.
+     *
+     * @param line the row
+     * @param columns the position of every column
+     * @return the attributes of the row
+     * @throws IllegalArgumentException if the row has too few values or a number can't be parsed
+     */
+    private static NodeContributionRequestModel parseCsv(String line, Map<String, Integer> columns) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values but found " + fields.length);
+        }
+        NodeContributionRequestModel nodeInfo = new NodeContributionRequestModel();
+        nodeInfo.setName(fields[columns.get("name")].trim());
+        nodeInfo.setUrl(fields[columns.get("url")].trim());
+        nodeInfo.setFacultyId(Long.parseLong(fields[columns.get("facultyid")].trim()));
+        nodeInfo.setToken(fields[columns.get("token")].trim());
+        nodeInfo.setCpu(Integer.parseInt(fields[columns.get("cpu")].trim()));
+        nodeInfo.setGpu(Integer.parseInt(fields[columns.get("gpu")].trim()));
+        nodeInfo.setMemory(Integer.parseInt(fields[columns.get("memory")].trim()));
+        return nodeInfo;
+    }
+
+    private static void fail(NodeImportResponseModel report, long line, String reason) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new NodeImportErrorModel(line, reason));
+        }
+    }
+
+    /**
+     * A parsed row of an inventory, remembering its line number for the report.
+     */
+    private static class Row {
+        private final transient long line;
+        private final transient Node node;
+
+        Row(long line, Node node) {
+            this.line = line;
+            this.node = node;
+        }
+    }
+}
@@ -1,6 +1,16 @@
 package nl.tudelft.sem.template.nodes.domain.node;
 
-import nl.tudelft.sem.template.nodes.authentication.JwtRequestFilter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.nodes.domain.node.chain.DeletionContext;
 import nl.tudelft.sem.template.nodes.domain.node.chain.FacultyExistenceHandler;
 import nl.tudelft.sem.template.nodes.domain.node.chain.Handler;
 import nl.tudelft.sem.template.nodes.domain.node.chain.InvalidRequestException;
@@ -15,6 +25,9 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -23,19 +36,43 @@ import org.springframework.web.client.RestTemplate;
 @Service
 public class NodeManagementService {
 
+    private static final String CONTRIBUTE_NODE = "contributeNode";
+
+    private static final String DELETE_NODE = "deleteNode";
+
+    /**
+     * The maximum amount of nodes returned by a single search.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final transient NodeRepository repo;
 
     private final transient RestTemplate restTemplate;
 
+    private final transient ResourcePoolShardRouter shardRouter;
+
+    private final transient FacultyNodeCapacity facultyNodeCapacity;
+
+    /**
+     * Faculties are never removed, so once the resource pool microservice confirmed a faculty it stays confirmed.
+     */
+    private final transient Set<Long> verifiedFaculties;
+
     /**
      * Instantiates a new NodeManagementService.
      *
      * @param repo the RpFaculty repository
      * @param restTemplate the RestTemplate used to send API-requests
+     * @param shardRouter the routing table of the resourcepool instances
+     * @param facultyNodeCapacity the combined resources of the alive nodes per faculty
      */
-    public NodeManagementService(NodeRepository repo, RestTemplate restTemplate) {
+    public NodeManagementService(NodeRepository repo, RestTemplate restTemplate, ResourcePoolShardRouter shardRouter,
+                                 FacultyNodeCapacity facultyNodeCapacity) {
         this.repo = repo;
         this.restTemplate = restTemplate;
+        this.shardRouter = shardRouter;
+        this.facultyNodeCapacity = facultyNodeCapacity;
+        this.verifiedFaculties = ConcurrentHashMap.newKeySet();
     }
 
 
@@ -51,53 +88,296 @@ public class NodeManagementService {
     public Node registerNode(NodeVerifier nv, String ownerNetId, long facultyId) throws Exception {
         nv.setRepo(repo);
         nv.verify();
-        interactWithFaculty("contributeNode", facultyId, nv.getResources());
+        interactWithFaculty(CONTRIBUTE_NODE, facultyId, nv.getResources());
         Node node = new Node(nv.getName(), nv.getUrl(), ownerNetId, facultyId, nv.getToken(), nv.getResources());
         repo.save(node);
+        facultyNodeCapacity.add(facultyId, nv.getResources());
         return node;
     }
 
+    /**
+     * Register a batch of nodes in the repository. The uniqueness of the names, urls and tokens is checked
+     * with one query per attribute, all nodes are inserted in one transaction and every faculty receives
+     * a single contribution with the combined resources of its new nodes.
+     * If a contribution fails, the faculties that were already contributed to are compensated and nothing is inserted.
+     *
+     * @param nodes the nodes to be registered, which are not saved yet
+     * @return the nodes that have been registered
+     * @throws Exception if a node is invalid, clashes with another node or a contribution failed
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Node> registerNodes(List<Node> nodes) throws Exception {
+        List<NodeVerifier> verifiers = new ArrayList<>();
+        for (Node node : nodes) {
+            verifiers.add(new NodeVerifier(node.getNodeName(), node.getUrl(), node.getToken(), node.getResource()));
+        }
+        NodeVerifier.verifyAll(verifiers, repo);
+        return registerVerifiedNodes(nodes);
+    }
+
+    /**
+     * Register a batch of nodes whose names, urls, tokens and resources have been checked already.
+     * The unique constraints still reject a node registered concurrently with the same name, url or token.
+     *
+     * @param nodes the verified nodes to be registered, which are not saved yet
+     * @return the nodes that have been registered
+     * @throws InnerRequestFailedException if a contribution failed
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Node> registerVerifiedNodes(List<Node> nodes) throws InnerRequestFailedException {
+        Map<Long, Resources> contributions = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            contributions.merge(node.getFacultyId(), node.getResource(), Resources::add);
+        }
+
+        // Flushing here lets the unique constraints reject concurrent registrations before any faculty is touched
+        List<Node> saved = repo.saveAll(nodes);
+        repo.flush();
+
+        adjustFaculties(CONTRIBUTE_NODE, DELETE_NODE, contributions);
+        afterCommit(() -> facultyNodeCapacity.addAll(contributions));
+        return saved;
+    }
+
     /**
      * Delete a node from the repository.
+     * The node stays locked until the deletion committed, so a health check can't withdraw its resources as well.
      *
      * @param nodeId the id of the node to be deleted
      * @param requesterNetId the netId of the employee which made the request
      * @throws Exception if the node id can't be found or the requester isn't the owner of the node
      */
+    @Transactional(rollbackFor = Exception.class)
     public String deleteNode(long nodeId, String requesterNetId) throws Exception {
-        Handler nodeExistenceHandler = new NodeExistenceHandler(repo);
-        Handler validOwnerHandler = new ValidOwnerHandler(repo, requesterNetId);
-        Handler facultyExistenceHandler = new FacultyExistenceHandler(repo, this);
-
-        nodeExistenceHandler.setNext(validOwnerHandler);
-        validOwnerHandler.setNext(facultyExistenceHandler);
-
+        DeletionContext context = new DeletionContext(nodeId, repo.findByIdForUpdate(nodeId).orElse(null));
         try {
-            nodeExistenceHandler.handle(nodeId);
+            deletionChain(requesterNetId).handle(context);
         } catch (InvalidRequestException e) {
             return "Invalid request";
         }
 
-        Node node = repo.findById(nodeId).get();
-        interactWithFaculty("deleteNode", node.getFacultyId(), node.getResource());
-        repo.deleteById(nodeId);
+        Node node = context.getNode();
+        if (node.isAlive()) {
+            interactWithFaculty(DELETE_NODE, node.getFacultyId(), node.getResource());
+            afterCommit(() -> facultyNodeCapacity.subtract(node.getFacultyId(), node.getResource()));
+        }
+        repo.delete(node);
         return node.getNodeName().toString();
     }
 
+    /**
+     * Decommission a batch of nodes. The nodes are loaded with a single query, every node is checked
+     * by the deletion chain and every faculty receives a single deletion with the combined resources of its nodes.
+     * Either all nodes are deleted or none of them are. The nodes stay locked until the deletion committed.
+     *
+     * @param nodeIds the ids of the nodes to be deleted
+     * @param requesterNetId the netId of the employee which made the request
+     * @return the names of the deleted nodes
+     * @throws Exception if a node id can't be found, the requester isn't the owner of a node or a deletion failed
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<String> deleteNodes(List<Long> nodeIds, String requesterNetId) throws Exception {
+        Map<Long, Node> nodesById = new HashMap<>();
+        for (Node node : repo.findAllByIdForUpdate(nodeIds)) {
+            nodesById.put(node.getId(), node);
+        }
+
+        Handler chain = deletionChain(requesterNetId);
+        List<Node> nodes = new ArrayList<>();
+        Map<Long, Resources> deletions = new LinkedHashMap<>();
+        for (long nodeId : new LinkedHashSet<>(nodeIds)) {
+            DeletionContext context = new DeletionContext(nodeId, nodesById.get(nodeId));
+            chain.handle(context);
+            nodes.add(context.getNode());
+            // The resources of dead nodes have already been withdrawn from their faculty
+            if (context.getNode().isAlive()) {
+                deletions.merge(context.getNode().getFacultyId(), context.getNode().getResource(), Resources::add);
+            }
+        }
+
+        adjustFaculties(DELETE_NODE, CONTRIBUTE_NODE, deletions);
+        afterCommit(() -> facultyNodeCapacity.subtractAll(deletions));
+        repo.deleteInBatch(nodes);
+
+        List<String> names = new ArrayList<>();
+        for (Node node : nodes) {
+            names.add(node.getNodeName().toString());
+        }
+        return names;
+    }
+
+    /**
+     * Gets the combined resources of the alive nodes of a faculty, without summing its nodes.
+     *
+     * @param facultyId the id of the faculty
+     * @return the resources the faculty's nodes contribute
+     */
+    public Resources getFacultyNodeResources(long facultyId) {
+        return facultyNodeCapacity.get(facultyId);
+    }
+
+    /**
+     * Searches the nodes page by page. The next page starts after the id of the last node of the current one.
+     *
+     * @param facultyId  the id of the faculty of the nodes, or null for any faculty
+     * @param ownerNetId the netId of the owner of the nodes, or null for any owner
+     * @param minimum    the resources the nodes need to have at least
+     * @param afterId    the id of the last node of the previous page, 0 for the first page
+     * @param limit      the maximum amount of nodes to return, capped at the maximum page size
+     * @return the nodes of the page, ordered by id
+     */
+    public List<Node> searchNodes(Long facultyId, String ownerNetId, Resources minimum, long afterId, int limit) {
+        return repo.search(facultyId, ownerNetId, minimum, afterId, pageSize(limit));
+    }
+
+    /**
+     * Computes the amount of nodes a search returns at most for a requested limit.
+     *
+     * @param limit the requested limit
+     * @return the limit, capped between 1 and the maximum page size
+     */
+    public static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Marks a node as dead after it stopped answering its health checks and withdraws its resources from its faculty.
+     *
+     * @param nodeId the id of the node
+     * @return whether the node is dead now, false if it is unknown or the withdrawal failed
+     */
+    @Transactional
+    public boolean markNodeDead(long nodeId) {
+        return changeLiveness(nodeId, false, DELETE_NODE);
+    }
+
+    /**
+     * Marks a node as alive after it answered its health check again and restores its resources to its faculty.
+     *
+     * @param nodeId the id of the node
+     * @return whether the node is alive now, false if it is unknown or the contribution failed
+     */
+    @Transactional
+    public boolean markNodeAlive(long nodeId) {
+        return changeLiveness(nodeId, true, CONTRIBUTE_NODE);
+    }
+
+    /**
+     * Changes whether a node is alive and adjusts the resources of its faculty.
+     * The node is claimed with a conditional update first: if a deletion or another check got to it in the meantime,
+     * no row is updated and the resources are left alone, as they have been adjusted already.
+     * If the faculty refuses the adjustment the claim is undone, so the adjustment is retried on the next check.
+     *
+     * @param nodeId the id of the node
+     * @param alive whether the node should be alive
+     * @param method the action to perform on the faculty of the node
+     * @return whether the node has the requested liveness now
+     */
+    private boolean changeLiveness(long nodeId, boolean alive, String method) {
+        Optional<Node> found = repo.findById(nodeId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        Node node = found.get();
+        if (node.isAlive() == alive) {
+            return true;
+        }
+        if (repo.updateAlive(nodeId, alive) == 0) {
+            return false;
+        }
+        try {
+            interactWithFaculty(method, node.getFacultyId(), node.getResource());
+        } catch (InnerRequestFailedException e) {
+            repo.updateAlive(nodeId, !alive);
+            return false;
+        }
+        node.setAlive(alive);
+        if (alive) {
+            afterCommit(() -> facultyNodeCapacity.add(node.getFacultyId(), node.getResource()));
+        } else {
+            afterCommit(() -> facultyNodeCapacity.subtract(node.getFacultyId(), node.getResource()));
+        }
+        return true;
+    }
+
+    /**
+     * Applies a change to the combined resources of the faculties once the transaction that caused it committed,
+     * so a rolled back registration, deletion or change in liveness leaves them untouched.
+     * Outside of a transaction the change is applied right away.
+     *
+     * @param update the change to the combined resources
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * Builds the chain of checks a request to delete a node has to pass.
+     *
+     * @param requesterNetId the netId of the employee which made the request
+     * @return the first handler of the chain
+     */
+    private Handler deletionChain(String requesterNetId) {
+        Handler nodeExistenceHandler = new NodeExistenceHandler();
+        Handler validOwnerHandler = new ValidOwnerHandler(requesterNetId);
+        Handler facultyExistenceHandler = new FacultyExistenceHandler(this);
+
+        nodeExistenceHandler.setNext(validOwnerHandler);
+        validOwnerHandler.setNext(facultyExistenceHandler);
+        return nodeExistenceHandler;
+    }
+
+    /**
+     * Sends one request per faculty to the resource pool microservice. If one of them fails,
+     * the faculties that were already adjusted are compensated with the opposite request.
+     *
+     * @param method the action to perform on every faculty
+     * @param compensation the action that undoes the method
+     * @param adjustments the combined resources to adjust, per faculty id
+     * @throws InnerRequestFailedException if one of the requests failed
+     */
+    private void adjustFaculties(String method, String compensation, Map<Long, Resources> adjustments)
+            throws InnerRequestFailedException {
+        List<Long> adjusted = new ArrayList<>();
+        try {
+            for (Map.Entry<Long, Resources> adjustment : adjustments.entrySet()) {
+                interactWithFaculty(method, adjustment.getKey(), adjustment.getValue());
+                adjusted.add(adjustment.getKey());
+            }
+        } catch (InnerRequestFailedException e) {
+            for (long facultyId : adjusted) {
+                try {
+                    interactWithFaculty(compensation, facultyId, adjustments.get(facultyId));
+                } catch (InnerRequestFailedException compensationFailure) {
+                    e.addSuppressed(compensationFailure);
+                }
+            }
+            throw e;
+        }
+    }
+
     /**
      * Sends an API-request to the resource pool microservice to either contribute or delete a node to/from a faculty.
      *
      * @param method the last part of the url to indicate the required action
      * @param facultyId the id of the faculty the node should be contributed to
      * @param resources the amount of resources the node contains
-     * @throws Exception if the request has failed because the faculty id was invalid
+     * @throws InnerRequestFailedException if the request has failed because the faculty id was invalid
      */
-    public void interactWithFaculty(String method, long facultyId, Resources resources) throws Exception {
-        String url = "http://localhost:8085/" + method;
+    public void interactWithFaculty(String method, long facultyId, Resources resources) throws InnerRequestFailedException {
+        String url = shardRouter.forFacultyId(facultyId) + "/" + method;
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(JwtRequestFilter.token);
 
         HttpEntity<FacultyInteractionRequestModel> entity = new HttpEntity<>(new FacultyInteractionRequestModel(facultyId,
                 resources.getCpu(), resources.getGpu(), resources.getMemory()), headers);
@@ -111,21 +391,28 @@ public class NodeManagementService {
 
     /**
      * Checks if the facultyId belongs to a faculty in the resourcePool microservice.
+     * Confirmed faculties are cached, unknown ones are asked again as they may have been created since.
      *
      * @param facultyId the id of the faculty to be checked
      * @return whether the faculty exists or not
      */
     public boolean verifyFaculty(long facultyId) {
-        String url = "http://localhost:8085/verifyFaculty";
+        if (verifiedFaculties.contains(facultyId)) {
+            return true;
+        }
+        String url = shardRouter.forFacultyId(facultyId) + "/verifyFaculty";
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(JwtRequestFilter.token);
 
         HttpEntity<VerifyFacultyRequestModel> entity = new HttpEntity<>(new VerifyFacultyRequestModel(facultyId), headers);
         try {
-            return restTemplate.exchange(url, HttpMethod.POST, entity,
+            boolean verified = restTemplate.exchange(url, HttpMethod.POST, entity,
                     VerifyFacultyResponseModel.class).getBody().isVerified();
+            if (verified) {
+                verifiedFaculties.add(facultyId);
+            }
+            return verified;
         } catch (Exception e) {
             return false;
         }
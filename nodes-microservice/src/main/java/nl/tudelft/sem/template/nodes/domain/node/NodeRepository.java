@@ -1,14 +1,22 @@
 package nl.tudelft.sem.template.nodes.domain.node;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
+import javax.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * A DDD repository for querying and persisting node aggregate roots.
  */
 @Repository
-public interface NodeRepository extends JpaRepository<Node, Long> {
+public interface NodeRepository extends JpaRepository<Node, Long>, NodeSearchRepository {
 
     Optional<Node> findByName(Name name);
 
@@ -20,4 +28,58 @@ public interface NodeRepository extends JpaRepository<Node, Long> {
     boolean existsByUrl(NodeUrl url);
 
     boolean existsByToken(Token token);
+
+    /**
+     * Finds the nodes of a faculty that answer their health checks, ordered by id.
+     */
+    List<Node> findAllByFacultyIdAndAliveTrueOrderByIdAsc(long facultyId);
+
+    /**
+     * Finds the ids of all nodes, without loading the nodes themselves.
+     */
+    @Query("SELECT n.id FROM Node n")
+    List<Long> findAllIds();
+
+    /**
+     * Finds which of the given names are already used by existing nodes.
+     */
+    @Query("SELECT n.name FROM Node n WHERE n.name IN :names")
+    List<Name> findNamesIn(@Param("names") Collection<Name> names);
+
+    /**
+     * Finds which of the given urls are already used by existing nodes.
+     */
+    @Query("SELECT n.url FROM Node n WHERE n.url IN :urls")
+    List<NodeUrl> findUrlsIn(@Param("urls") Collection<NodeUrl> urls);
+
+    /**
+     * Finds which of the given tokens are already used by existing nodes.
+     */
+    @Query("SELECT n.token FROM Node n WHERE n.token IN :tokens")
+    List<Token> findTokensIn(@Param("tokens") Collection<Token> tokens);
+
+    /**
+     * Find a node and lock it until the end of the transaction, so its liveness can't change while it is deleted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Node n WHERE n.id = :id")
+    Optional<Node> findByIdForUpdate(@Param("id") long id);
+
+    /**
+     * Find the given nodes and lock them until the end of the transaction,
+     * so their liveness can't change while they are deleted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Node n WHERE n.id IN :ids")
+    List<Node> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Changes whether a node is alive, but only if it does not have that liveness yet.
+     *
+     * @return the amount of nodes updated, 0 if the node is gone or its liveness was changed by someone else
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Node n SET n.alive = :alive WHERE n.id = :id AND n.alive <> :alive")
+    int updateAlive(@Param("id") long id, @Param("alive") boolean alive);
 }
@@ -0,0 +1,30 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+/**
+ * The faculty and owner a search for nodes is restricted to.
+ */
+public class NodeSearchFilter {
+
+    private final transient Long facultyId;
+
+    private final transient String owner;
+
+    /**
+     * Instantiates a new NodeSearchFilter.
+     *
+     * @param facultyId the id of the faculty of the nodes, or null for any faculty
+     * @param owner     the netId of the owner of the nodes, or null for any owner
+     */
+    public NodeSearchFilter(Long facultyId, String owner) {
+        this.facultyId = facultyId;
+        this.owner = owner;
+    }
+
+    public Long getFacultyId() {
+        return facultyId;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,24 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import java.util.List;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+
+/**
+ * Searching the nodes page by page, only filtering on what was asked for, so the indexes on the faculty
+ * and the owner can be used. Pages are continued from the id of the last node of the previous page
+ * (keyset pagination) instead of skipping rows, so later pages are as cheap as the first one.
+ */
+public interface NodeSearchRepository {
+
+    /**
+     * Finds the nodes matching all given filters with an id above the given one, ordered by id.
+     *
+     * @param facultyId  the id of the faculty of the nodes, or null for any faculty
+     * @param ownerNetId the netId of the owner of the nodes, or null for any owner
+     * @param minimum    the resources the nodes need to have at least
+     * @param afterId    the id of the last node of the previous page, 0 for the first page
+     * @param limit      the maximum amount of nodes to return
+     * @return the next page of matching nodes
+     */
+    List<Node> search(Long facultyId, String ownerNetId, Resources minimum, long afterId, int limit);
+}
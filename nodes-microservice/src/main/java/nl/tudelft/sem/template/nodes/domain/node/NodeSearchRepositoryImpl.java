@@ -0,0 +1,48 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+
+/**
+ * Criteria implementation of the node search, picked up by Spring Data as part of the NodeRepository.
+ */
+public class NodeSearchRepositoryImpl implements NodeSearchRepository {
+
+    @PersistenceContext
+    private transient EntityManager entityManager;
+
+    @Override
+    public List<Node> search(Long facultyId, String ownerNetId, Resources minimum, long afterId, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Node> query = builder.createQuery(Node.class);
+        Root<Node> node = query.from(Node.class);
+
+        List<Predicate> filters = new ArrayList<>();
+        filters.add(builder.greaterThan(node.get("id"), afterId));
+        if (facultyId != null) {
+            filters.add(builder.equal(node.get("facultyId"), facultyId));
+        }
+        if (ownerNetId != null) {
+            filters.add(builder.equal(node.get("ownerNetId"), ownerNetId));
+        }
+        if (minimum.getCpu() > 0) {
+            filters.add(builder.greaterThanOrEqualTo(node.get("cpu"), minimum.getCpu()));
+        }
+        if (minimum.getGpu() > 0) {
+            filters.add(builder.greaterThanOrEqualTo(node.get("gpu"), minimum.getGpu()));
+        }
+        if (minimum.getMemory() > 0) {
+            filters.add(builder.greaterThanOrEqualTo(node.get("memory"), minimum.getMemory()));
+        }
+
+        query.select(node).where(filters.toArray(new Predicate[0])).orderBy(builder.asc(node.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
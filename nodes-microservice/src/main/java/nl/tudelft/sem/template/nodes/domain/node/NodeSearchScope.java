@@ -0,0 +1,92 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import java.util.Set;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import nl.tudelft.sem.template.nodes.models.SearchScopeResponseModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * A DDD service restricting the searches for nodes to the nodes the caller may see.
+ * A sysadmin can search all nodes, a faculty account the nodes of its faculty
+ * and an employee the nodes of its faculties or its own nodes. These are the same rules the gateway applies,
+ * checked again here so the nodes microservice doesn't depend on being called through the gateway.
+ */
+@Service
+public class NodeSearchScope {
+
+    private static final String SYSADMIN = "Sysadmin";
+
+    private static final String FACULTY_ACCOUNT = "FacultyAccount";
+
+    private final transient RestTemplate restTemplate;
+
+    private final transient String usersUrl;
+
+    /**
+     * Instantiates a new NodeSearchScope.
+     *
+     * @param restTemplate the RestTemplate used to ask the users microservice, which forwards the token of the caller
+     * @param usersUrl     the url of the users microservice
+     */
+    public NodeSearchScope(RestTemplate restTemplate, @Value("${users.url:http://localhost:8086}") String usersUrl) {
+        this.restTemplate = restTemplate;
+        this.usersUrl = usersUrl;
+    }
+
+    /**
+     * Restricts the filters of a search to the nodes the caller may see.
+     * The other microservices search without restrictions.
+     *
+     * @param netId     the netId of the caller
+     * @param facultyId the requested faculty, or null for any faculty
+     * @param owner     the requested owner, or null for any owner
+     * @return the filters to search with
+     * @throws SearchNotAllowedException if the caller asked for nodes it may not see
+     * @throws InnerRequestFailedException if the users microservice didn't tell what the caller may see
+     */
+    public NodeSearchFilter restrict(String netId, Long facultyId, String owner)
+            throws SearchNotAllowedException, InnerRequestFailedException {
+        if (ServiceIdentity.isReserved(netId)) {
+            return new NodeSearchFilter(facultyId, owner);
+        }
+        SearchScopeResponseModel scope = fetchScope();
+        Set<Long> facultyIds = scope.getFacultyIds() == null ? Set.of() : scope.getFacultyIds();
+        if (SYSADMIN.equals(scope.getAccess())) {
+            return new NodeSearchFilter(facultyId, owner);
+        }
+        if (FACULTY_ACCOUNT.equals(scope.getAccess())) {
+            if (facultyIds.isEmpty()) {
+                throw new SearchNotAllowedException("(" + netId + ") is not assigned to a faculty");
+            }
+            long assignedFacultyId = facultyIds.iterator().next();
+            if (facultyId != null && facultyId != assignedFacultyId) {
+                throw new SearchNotAllowedException("(" + netId + ") can only search the nodes of its own faculty");
+            }
+            return new NodeSearchFilter(assignedFacultyId, owner);
+        }
+        if (facultyId != null && facultyIds.contains(facultyId)) {
+            return new NodeSearchFilter(facultyId, owner);
+        }
+        if (owner != null && !owner.equals(netId)) {
+            throw new SearchNotAllowedException("(" + netId + ") can only search its own nodes "
+                    + "or those of the faculties it works at");
+        }
+        return new NodeSearchFilter(facultyId, netId);
+    }
+
+    private SearchScopeResponseModel fetchScope() throws InnerRequestFailedException {
+        String url = usersUrl + "/searchScope";
+        try {
+            SearchScopeResponseModel scope = restTemplate.getForObject(url, SearchScopeResponseModel.class);
+            if (scope == null) {
+                throw new InnerRequestFailedException("Request to " + url + " returned nothing.");
+            }
+            return scope;
+        } catch (RestClientException e) {
+            throw new InnerRequestFailedException("Request to " + url + " failed.");
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package nl.tudelft.sem.template.nodes.domain.node;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import nl.tudelft.sem.template.nodes.domain.resources.Resources;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -111,4 +115,50 @@ public class NodeVerifier {
         checkTokenExistence(token);
         checkResourceRequirements(resources);
     }
+
+    /**
+     * Verifies a batch of nodes at once. The names, urls and tokens are checked against each other
+     * and against the repository with a single query per attribute, instead of three queries per node.
+     * Nodes registered concurrently can still slip through, those are caught by the unique constraints on insert.
+     *
+     * @param verifiers the attributes of the nodes to be verified
+     * @param repo the node repository
+     * @throws NameAlreadyInUseException if a name is used twice or already in use
+     * @throws UrlAlreadyInUseException if a url is used twice or already in use
+     * @throws TokenAlreadyInUseException if a token is used twice or already in use
+     * @throws ResourcesInvalidException if the resources of a node are invalid
+     */
+    public static void verifyAll(List<NodeVerifier> verifiers, NodeRepository repo) throws NameAlreadyInUseException,
+            UrlAlreadyInUseException, TokenAlreadyInUseException, ResourcesInvalidException {
+        Set<Name> names = new HashSet<>();
+        Set<NodeUrl> urls = new HashSet<>();
+        Set<Token> tokens = new HashSet<>();
+        for (NodeVerifier verifier : verifiers) {
+            verifier.checkResourceRequirements(verifier.getResources());
+            if (!names.add(verifier.getName())) {
+                throw new NameAlreadyInUseException(verifier.getName());
+            }
+            if (!urls.add(verifier.getUrl())) {
+                throw new UrlAlreadyInUseException(verifier.getUrl());
+            }
+            if (!tokens.add(verifier.getToken())) {
+                throw new TokenAlreadyInUseException(verifier.getToken());
+            }
+        }
+        if (verifiers.isEmpty()) {
+            return;
+        }
+        List<Name> usedNames = repo.findNamesIn(new ArrayList<>(names));
+        if (!usedNames.isEmpty()) {
+            throw new NameAlreadyInUseException(usedNames.get(0));
+        }
+        List<NodeUrl> usedUrls = repo.findUrlsIn(new ArrayList<>(urls));
+        if (!usedUrls.isEmpty()) {
+            throw new UrlAlreadyInUseException(usedUrls.get(0));
+        }
+        List<Token> usedTokens = repo.findTokensIn(new ArrayList<>(tokens));
+        if (!usedTokens.isEmpty()) {
+            throw new TokenAlreadyInUseException(usedTokens.get(0));
+        }
+    }
 }
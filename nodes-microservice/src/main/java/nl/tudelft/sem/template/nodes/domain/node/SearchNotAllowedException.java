@@ -0,0 +1,12 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+/**
+ * Exception to indicate a user searched for nodes it may not see.
+ */
+public class SearchNotAllowedException extends Exception {
+    static final long serialVersionUID = -3387516993124229949L;
+
+    public SearchNotAllowedException(String reason) {
+        super(reason);
+    }
+}
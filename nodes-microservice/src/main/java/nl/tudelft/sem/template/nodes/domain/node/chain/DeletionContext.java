@@ -0,0 +1,37 @@
+package nl.tudelft.sem.template.nodes.domain.node.chain;
+
+import nl.tudelft.sem.template.nodes.domain.node.Node;
+
+/**
+ * The request to delete a node, together with the node itself, loaded once before it is passed along the chain.
+ */
+public class DeletionContext {
+
+    private final transient long nodeId;
+
+    private final transient Node node;
+
+    /**
+     * Constructs a DeletionContext.
+     *
+     * @param nodeId the id of the node to be deleted
+     * @param node the node with that id, or null if it couldn't be found
+     */
+    public DeletionContext(long nodeId, Node node) {
+        this.nodeId = nodeId;
+        this.node = node;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Gets the node to be deleted.
+     *
+     * @return the node, or null if it couldn't be found
+     */
+    public Node getNode() {
+        return node;
+    }
+}
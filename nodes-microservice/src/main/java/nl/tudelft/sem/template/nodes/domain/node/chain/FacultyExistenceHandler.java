@@ -1,7 +1,6 @@
 package nl.tudelft.sem.template.nodes.domain.node.chain;
 
 import nl.tudelft.sem.template.nodes.domain.node.NodeManagementService;
-import nl.tudelft.sem.template.nodes.domain.node.NodeRepository;
 
 /**
  * The Handler that checks whether a facultyId exists in the ResourcePool-microservice.
@@ -13,28 +12,26 @@ public class FacultyExistenceHandler extends BaseHandler {
     /**
      * Constructs a FacultyExistenceHandler.
      *
-     * @param repo the NodeRepository of the system
      * @param nodeManagementService the service where we make a request to the ResourcePool-microservice
      */
-    public FacultyExistenceHandler(NodeRepository repo, NodeManagementService nodeManagementService) {
-        super(repo);
+    public FacultyExistenceHandler(NodeManagementService nodeManagementService) {
         this.nodeManagementService = nodeManagementService;
     }
 
     /**
      * Verifies whether a facultyId exists in the ResourcePool-microservice.
      *
-     * @param nodeId the id which is passed around and used to get the necessary information
+     * @param context the deletion request which is passed around, holding the already loaded node
      * @return whether the next handler passed recursively
      * @throws InvalidRequestException if the facultyId doesn't exist
      */
     @Override
-    public boolean handle(long nodeId) throws InvalidRequestException {
-        long facultyId = super.getRepo().findById(nodeId).get().getFacultyId();
+    public boolean handle(DeletionContext context) throws InvalidRequestException {
+        long facultyId = context.getNode().getFacultyId();
 
         if (!nodeManagementService.verifyFaculty(facultyId)) {
-            throw new FacultyDoesNotExistException(nodeId);
+            throw new FacultyDoesNotExistException(context.getNodeId());
         }
-        return super.checkNext(nodeId);
+        return super.checkNext(context);
     }
 }
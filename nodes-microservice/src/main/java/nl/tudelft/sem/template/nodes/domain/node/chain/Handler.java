@@ -7,7 +7,7 @@ public interface Handler {
 
     void setNext(Handler handler);
 
-    default boolean handle(long nodeId) throws InvalidRequestException {
+    default boolean handle(DeletionContext context) throws InvalidRequestException {
         return false;
     }
 }
@@ -1,7 +1,5 @@
 package nl.tudelft.sem.template.nodes.domain.node.chain;
 
-import nl.tudelft.sem.template.nodes.domain.node.NodeRepository;
-
 /**
  * The Handler that checks whether the requester is really the owner of the node.
  */
@@ -12,28 +10,26 @@ public class ValidOwnerHandler extends BaseHandler {
     /**
      * Constructs a ValidOwnerHandler.
      *
-     * @param repo the NodeRepository of the system
      * @param requesterNetId the netId of the employee who made the request
      */
-    public ValidOwnerHandler(NodeRepository repo, String requesterNetId) {
-        super(repo);
+    public ValidOwnerHandler(String requesterNetId) {
         this.requesterNetId = requesterNetId;
     }
 
     /**
      * Verifies whether the requester is really the owner of the node.
      *
-     * @param nodeId the id which is passed around and used to get the necessary information
+     * @param context the deletion request which is passed around, holding the already loaded node
      * @return whether the next handler passed recursively
      * @throws InvalidRequestException if the requester isn't the owner of the node
      */
     @Override
-    public boolean handle(long nodeId) throws InvalidRequestException {
-        String ownerNetId = super.getRepo().findById(nodeId).get().getOwnerNetId();
+    public boolean handle(DeletionContext context) throws InvalidRequestException {
+        String ownerNetId = context.getNode().getOwnerNetId();
 
         if (!ownerNetId.equals(requesterNetId)) {
-            throw new InvalidOwnerException(nodeId);
+            throw new InvalidOwnerException(context.getNodeId());
         }
-        return super.checkNext(nodeId);
+        return super.checkNext(context);
     }
 }
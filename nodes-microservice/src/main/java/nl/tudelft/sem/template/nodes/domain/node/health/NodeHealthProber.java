@@ -0,0 +1,335 @@
+package nl.tudelft.sem.template.nodes.domain.node.health;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import nl.tudelft.sem.template.nodes.domain.node.Node;
+import nl.tudelft.sem.template.nodes.domain.node.NodeManagementService;
+import nl.tudelft.sem.template.nodes.domain.node.NodeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically checks whether the registered nodes still answer on their url.
+ * The checks are sent with the non-blocking http client, so thousands of nodes are probed by a handful of threads:
+ * a single timer thread schedules the checks and the responses are handled by a small callback pool.
+ * Every node is probed on its own jittered interval so the checks don't all go out at the same moment.
+ * A node that fails several checks in a row is marked dead and its resources are withdrawn from its faculty,
+ * a dead node that answers again is marked alive and its resources are restored.
+ * Marking a node dead or alive calls the resource pool microservice, so it is handed to a separate bounded pool:
+ * a stalling resource pool microservice delays the changes, but never the checks.
+ */
+@Component
+public class NodeHealthProber {
+
+    private static final int JITTER_PERCENT = 20;
+
+    private static final int CALLBACK_THREADS = 4;
+
+    private static final int STATE_CHANGE_THREADS = 2;
+
+    private static final int STATE_CHANGE_QUEUE = 256;
+
+    private final transient NodeRepository repo;
+
+    private final transient NodeManagementService nodeManagementService;
+
+    private final transient boolean enabled;
+
+    private final transient long intervalMillis;
+
+    private final transient long timeoutMillis;
+
+    private final transient int failureThreshold;
+
+    private final transient Semaphore inFlight;
+
+    private final transient Map<Long, ProbeTarget> targets;
+
+    private transient ScheduledExecutorService timer;
+
+    private transient ExecutorService callbacks;
+
+    private transient ExecutorService stateChanges;
+
+    private transient HttpClient client;
+
+    private transient volatile boolean running;
+
+    /**
+     * Instantiates a new NodeHealthProber.
+     *
+     * @param repo                  the node repository
+     * @param nodeManagementService the service that marks nodes dead or alive
+     * @param enabled               whether the nodes are probed at all
+     * @param intervalMillis        the average time between two checks of the same node
+     * @param timeoutMillis         the time after which an unanswered check counts as failed
+     * @param failureThreshold      the amount of failed checks in a row after which a node is marked dead
+     * @param maxInFlight           the maximum amount of checks that are waiting for an answer at the same time
+     */
+    public NodeHealthProber(NodeRepository repo, NodeManagementService nodeManagementService,
+                            @Value("${nodes.health.enabled:true}") boolean enabled,
+                            @Value("${nodes.health.interval-millis:10000}") long intervalMillis,
+                            @Value("${nodes.health.timeout-millis:2000}") long timeoutMillis,
+                            @Value("${nodes.health.failure-threshold:3}") int failureThreshold,
+                            @Value("${nodes.health.max-in-flight:1024}") int maxInFlight) {
+        this.repo = repo;
+        this.nodeManagementService = nodeManagementService;
+        this.enabled = enabled;
+        this.intervalMillis = intervalMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.failureThreshold = failureThreshold;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.targets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts probing the registered nodes, unless the prober is disabled.
+     * The list of nodes is refreshed from the repository once every interval.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("node-health-timer"));
+        callbacks = Executors.newFixedThreadPool(CALLBACK_THREADS, daemonThreads("node-health-callback"));
+        stateChanges = new ThreadPoolExecutor(STATE_CHANGE_THREADS, STATE_CHANGE_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(STATE_CHANGE_QUEUE), daemonThreads("node-health-state"));
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMillis))
+                .executor(callbacks)
+                .build();
+        running = true;
+        timer.scheduleWithFixedDelay(this::refresh, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops probing the nodes.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        targets.clear();
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        if (callbacks != null) {
+            callbacks.shutdownNow();
+        }
+        if (stateChanges != null) {
+            stateChanges.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts probing nodes that were registered since the last refresh and stops probing nodes that were deleted.
+     * Only the ids of the nodes are read every time, the nodes themselves only when they are new.
+     */
+    public void refresh() {
+        try {
+            Set<Long> registered = new HashSet<>(repo.findAllIds());
+            targets.keySet().retainAll(registered);
+            registered.removeAll(targets.keySet());
+            if (!registered.isEmpty()) {
+                for (Node node : repo.findAllById(registered)) {
+                    track(node);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Refreshing the nodes to probe failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a single health check to a url. Any answer below 500 counts as alive,
+     * server errors, refused connections and timeouts count as dead.
+     *
+     * @param uri the url to check
+     * @return a future that completes with whether the url answered
+     */
+    public CompletableFuture<Boolean> probe(URI uri) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() < 500)
+                .exceptionally(e -> false);
+    }
+
+    /**
+     * Creates the probe state of a node and schedules its first check at a random moment within the first interval.
+     * Nodes whose url can't be probed are remembered, so they are not read again, but never checked.
+     *
+     * @param node the node to probe
+     */
+    private void track(Node node) {
+        URI uri = toUri(node.getUrl().toString());
+        ProbeTarget target = new ProbeTarget(node.getId(), uri, node.isAlive());
+        targets.put(node.getId(), target);
+        if (uri == null) {
+            return;
+        }
+        schedule(target, ThreadLocalRandom.current().nextLong(intervalMillis + 1));
+    }
+
+    private void schedule(ProbeTarget target, long delayMillis) {
+        if (running) {
+            timer.schedule(() -> check(target), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Checks a node once and schedules its next check, unless the node has been deleted in the meantime.
+     * If too many checks are waiting for an answer, the check is postponed by a fraction of the interval.
+     *
+     * @param target the probe state of the node
+     */
+    private void check(ProbeTarget target) {
+        if (!running || !targets.containsKey(target.nodeId)) {
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            schedule(target, jittered(intervalMillis / 10));
+            return;
+        }
+        probe(target.uri).whenComplete((answered, e) -> {
+            inFlight.release();
+            try {
+                record(target, Boolean.TRUE.equals(answered));
+            } catch (RuntimeException recordFailure) {
+                System.err.println("Recording the health of node " + target.nodeId + " failed: "
+                        + recordFailure.getMessage());
+            }
+            schedule(target, jittered(intervalMillis));
+        });
+    }
+
+    /**
+     * Updates the probe state of a node with the outcome of a check and marks the node dead or alive when it flips.
+     *
+     * @param target   the probe state of the node
+     * @param answered whether the node answered the check
+     */
+    private void record(ProbeTarget target, boolean answered) {
+        if (answered) {
+            target.failures = 0;
+            if (!target.alive) {
+                changeLiveness(target, true);
+            }
+            return;
+        }
+        target.failures++;
+        if (target.alive && target.failures >= failureThreshold) {
+            changeLiveness(target, false);
+        }
+    }
+
+    /**
+     * Marks a node dead or alive on the state change pool, at most one change per node at a time.
+     * If the change can't be made, because the pool is full or the resource pool microservice can't be reached,
+     * the node keeps its old state and the change is retried after the next check.
+     *
+     * @param target the probe state of the node
+     * @param alive  whether the node is to be marked alive or dead
+     */
+    private void changeLiveness(ProbeTarget target, boolean alive) {
+        if (!target.changing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            stateChanges.execute(() -> {
+                try {
+                    boolean changed = alive
+                            ? nodeManagementService.markNodeAlive(target.nodeId)
+                            : nodeManagementService.markNodeDead(target.nodeId);
+                    if (changed) {
+                        target.alive = alive;
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Changing the health of node " + target.nodeId + " failed: " + e.getMessage());
+                } finally {
+                    target.changing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            target.changing.set(false);
+        }
+    }
+
+    /**
+     * Spreads a delay uniformly over plus or minus twenty percent, so the checks of different nodes drift apart.
+     *
+     * @param baseMillis the average delay
+     * @return the jittered delay
+     */
+    private static long jittered(long baseMillis) {
+        long spread = baseMillis * JITTER_PERCENT / 100;
+        return baseMillis - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1);
+    }
+
+    /**
+     * Parses the url of a node, only absolute http and https urls can be probed.
+     *
+     * @param url the url of the node
+     * @return the parsed url, or null if it can't be probed
+     */
+    private static URI toUri(String url) {
+        try {
+            URI uri = URI.create(url);
+            if ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) {
+                return uri;
+            }
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The probe state of a single node. Checks of the same node never overlap, so the failures are only touched
+     * by one thread at a time. The liveness is changed on the state change pool while no change is in progress.
+     */
+    private static class ProbeTarget {
+        private final transient long nodeId;
+        private final transient URI uri;
+        private final transient AtomicBoolean changing = new AtomicBoolean();
+        private transient volatile boolean alive;
+        private transient int failures;
+
+        ProbeTarget(long nodeId, URI uri, boolean alive) {
+            this.nodeId = nodeId;
+            this.uri = uri;
+            this.alive = alive;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package nl.tudelft.sem.template.nodes.domain.node.placement;
+
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.NoArgsConstructor;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import nl.tudelft.sem.template.nodes.domain.resources.ResourcesAttributeConverter;
+
+/**
+ * A DDD entity recording which node runs an approved request on the day it is scheduled on,
+ * together with the resources it takes from that node.
+ */
+@Entity
+@Table(name = "node_assignments", indexes = @Index(name = "idx_node_assignments_day_node", columnList = "day, node_id"))
+@NoArgsConstructor
+public class NodeAssignment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private long id;
+    @Column(name = "request_id", nullable = false, unique = true)
+    private long requestId;
+    @Column(name = "node_id", nullable = false)
+    private long nodeId;
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+    @Column(name = "resource", nullable = false)
+    @Convert(converter = ResourcesAttributeConverter.class)
+    private Resources resource;
+
+    /**
+     * Instantiates a new NodeAssignment.
+     *
+     * @param requestId the id of the request
+     * @param nodeId    the id of the node running the request
+     * @param day       the day the request is executed on
+     * @param resource  the resources the request takes from the node
+     */
+    public NodeAssignment(long requestId, long nodeId, LocalDate day, Resources resource) {
+        this.requestId = requestId;
+        this.nodeId = nodeId;
+        this.day = day;
+        this.resource = resource;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Resources getResource() {
+        return resource;
+    }
+}
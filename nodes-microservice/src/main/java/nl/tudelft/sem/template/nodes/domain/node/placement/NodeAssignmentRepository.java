@@ -0,0 +1,22 @@
+package nl.tudelft.sem.template.nodes.domain.node.placement;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * A DDD repository for querying and persisting the assignments of requests to nodes.
+ */
+@Repository
+public interface NodeAssignmentRepository extends JpaRepository<NodeAssignment, Long> {
+
+    Optional<NodeAssignment> findByRequestId(long requestId);
+
+    /**
+     * Finds the assignments of the given nodes on a day.
+     */
+    List<NodeAssignment> findAllByDayAndNodeIdIn(LocalDate day, Collection<Long> nodeIds);
+}
@@ -0,0 +1,184 @@
+package nl.tudelft.sem.template.nodes.domain.node.placement;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import nl.tudelft.sem.template.nodes.domain.node.Node;
+import nl.tudelft.sem.template.nodes.domain.node.NodeRepository;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import org.springframework.stereotype.Service;
+
+/**
+ * Assigns approved requests to the concrete nodes of the resource pool they are scheduled in.
+ * The schedules of the resource pools only track the combined resources of a pool per day, which says nothing
+ * about whether a single node can run a request, so every request is put on the node that fits it most tightly
+ * in all three dimensions (best fit). This keeps large nodes free for large requests and lets admission ask
+ * whether a request would still fit on one node, instead of only in the sum of the nodes.
+ * Resource pools without alive nodes are not modelled here, their capacity consists of base resources only.
+ */
+@Service
+public class NodePlacementService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final transient NodeRepository nodeRepo;
+
+    private final transient NodeAssignmentRepository assignmentRepo;
+
+    private final transient Object[] dayLocks;
+
+    /**
+     * Instantiates a new NodePlacementService.
+     *
+     * @param nodeRepo       the node repository
+     * @param assignmentRepo the repository of the assignments of requests to nodes
+     */
+    public NodePlacementService(NodeRepository nodeRepo, NodeAssignmentRepository assignmentRepo) {
+        this.nodeRepo = nodeRepo;
+        this.assignmentRepo = assignmentRepo;
+        this.dayLocks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            dayLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Assigns a request to the alive node of a resource pool that has the least room left after taking it.
+     * Assigning a request twice returns the assignment it already has.
+     *
+     * @param requestId      the id of the request
+     * @param resourcePoolId the id of the faculty, or of the free pool, the request is scheduled in
+     * @param day            the day the request is executed on
+     * @param required       the resources of the request
+     * @return the assignment, or empty if no single node has enough resources left on that day
+     */
+    public Optional<NodeAssignment> assign(long requestId, long resourcePoolId, LocalDate day, Resources required) {
+        synchronized (lockFor(day)) {
+            Optional<NodeAssignment> existing = assignmentRepo.findByRequestId(requestId);
+            if (existing.isPresent()) {
+                return existing;
+            }
+            Optional<Node> node = bestFit(freeResources(resourcePoolId, day), required);
+            if (node.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(assignmentRepo.save(new NodeAssignment(requestId, node.get().getId(), day, required)));
+        }
+    }
+
+    /**
+     * Removes the assignment of a request, giving the resources back to its node.
+     *
+     * @param requestId the id of the request
+     * @return true iff the request was assigned to a node
+     */
+    public boolean release(long requestId) {
+        Optional<NodeAssignment> assignment = assignmentRepo.findByRequestId(requestId);
+        if (assignment.isEmpty()) {
+            return false;
+        }
+        synchronized (lockFor(assignment.get().getDay())) {
+            assignmentRepo.delete(assignment.get());
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a single node of a resource pool could still run a request on a day.
+     * A resource pool without alive nodes can always host it as far as the nodes are concerned.
+     * The answer is only advice: the base resources of a faculty do not belong to any node,
+     * so a request no node can run may still be run on them.
+     *
+     * @param resourcePoolId the id of the faculty, or of the free pool
+     * @param day            the day the request would be executed on
+     * @param required       the resources of the request
+     * @return true iff some node has enough resources left, or the resource pool has no nodes
+     */
+    public boolean canHost(long resourcePoolId, LocalDate day, Resources required) {
+        Map<Node, Resources> free = freeResources(resourcePoolId, day);
+        return free.isEmpty() || bestFit(free, required).isPresent();
+    }
+
+    /**
+     * Computes the resources every alive node of a resource pool has left on a day.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param day            the day
+     * @return the resources left per node, ordered by node id
+     */
+    private Map<Node, Resources> freeResources(long resourcePoolId, LocalDate day) {
+        List<Node> nodes = nodeRepo.findAllByFacultyIdAndAliveTrueOrderByIdAsc(resourcePoolId);
+        Map<Node, Resources> free = new LinkedHashMap<>();
+        if (nodes.isEmpty()) {
+            return free;
+        }
+        List<Long> nodeIds = new ArrayList<>();
+        for (Node node : nodes) {
+            nodeIds.add(node.getId());
+        }
+        Map<Long, Resources> taken = new HashMap<>();
+        for (NodeAssignment assignment : assignmentRepo.findAllByDayAndNodeIdIn(day, nodeIds)) {
+            taken.merge(assignment.getNodeId(), assignment.getResource(), Resources::add);
+        }
+        for (Node node : nodes) {
+            Resources used = taken.get(node.getId());
+            free.put(node, used == null ? node.getResource() : Resources.subtract(node.getResource(), used));
+        }
+        return free;
+    }
+
+    /**
+     * Picks the node that fits the request most tightly. The leftover of every dimension is taken relative to the
+     * size of the node, so no dimension dominates the others, and the node with the smallest total leftover wins.
+     * Ties go to the node with the lowest id.
+     *
+     * @param free     the resources left per node
+     * @param required the resources of the request
+     * @return the best fitting node, or empty if the request fits on none of them
+     */
+    static Optional<Node> bestFit(Map<Node, Resources> free, Resources required) {
+        Node best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (Map.Entry<Node, Resources> entry : free.entrySet()) {
+            Resources left = entry.getValue();
+            if (left.getCpu() < required.getCpu() || left.getGpu() < required.getGpu()
+                    || left.getMemory() < required.getMemory()) {
+                continue;
+            }
+            Resources size = entry.getKey().getResource();
+            double score = leftover(left.getCpu() - required.getCpu(), size.getCpu())
+                    + leftover(left.getGpu() - required.getGpu(), size.getGpu())
+                    + leftover(left.getMemory() - required.getMemory(), size.getMemory());
+            if (score < bestScore) {
+                best = entry.getKey();
+                bestScore = score;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Computes the leftover of one dimension relative to the size of the node in that dimension.
+     *
+     * @param leftover the amount left after taking the request
+     * @param size     the amount the node has in total
+     * @return the fraction of the node that is left, 0 if the node has none of it
+     */
+    private static double leftover(int leftover, int size) {
+        return size > 0 ? (double) leftover / size : 0;
+    }
+
+    /**
+     * Gets the lock serialising the assignments on a day, so two requests can never be put on the same room.
+     *
+     * @param day the day
+     * @return the lock of the day
+     */
+    private Object lockFor(LocalDate day) {
+        return dayLocks[Math.floorMod(day.hashCode(), LOCK_STRIPES)];
+    }
+}
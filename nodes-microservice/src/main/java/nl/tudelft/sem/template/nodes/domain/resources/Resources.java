@@ -50,6 +50,30 @@ public class Resources {
         return memory;
     }
 
+    /**
+     * Adds the resources of two Resources classes together.
+     *
+     * @param resources1 the first Resources class
+     * @param resources2 the second Resources class
+     * @return the result of the operation
+     */
+    public static Resources add(Resources resources1, Resources resources2) {
+        return new Resources(resources1.getCpu() + resources2.getCpu(),
+                resources1.getGpu() + resources2.getGpu(), resources1.getMemory() + resources2.getMemory());
+    }
+
+    /**
+     * Subtracts the resources of one Resources class from the resources of another.
+     *
+     * @param resources1 the original Resources class
+     * @param resources2 the Resources we subtract
+     * @return the result of the operation
+     */
+    public static Resources subtract(Resources resources1, Resources resources2) {
+        return new Resources(resources1.getCpu() - resources2.getCpu(),
+                resources1.getGpu() - resources2.getGpu(), resources1.getMemory() - resources2.getMemory());
+    }
+
     /**
      * Equality is based on all fields.
      *
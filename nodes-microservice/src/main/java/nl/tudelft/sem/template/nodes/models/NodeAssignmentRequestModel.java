@@ -0,0 +1,24 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import java.util.Calendar;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a request to put an approved request on a node of the resource pool it is scheduled in.
+ * When asking whether a request fits on a node the request id is ignored.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodeAssignmentRequestModel {
+
+    private long requestId;
+    private long resourcePoolId;
+    private Calendar day;
+
+    private int cpu;
+    private int gpu;
+    private int memory;
+}
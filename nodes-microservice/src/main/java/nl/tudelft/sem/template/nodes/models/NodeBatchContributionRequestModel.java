@@ -0,0 +1,13 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Model representing the contribution of a batch of nodes.
+ */
+@Data
+public class NodeBatchContributionRequestModel {
+
+    private List<NodeContributionRequestModel> nodes;
+}
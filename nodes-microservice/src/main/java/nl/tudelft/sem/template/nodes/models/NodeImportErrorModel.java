@@ -0,0 +1,17 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a row of a node inventory that couldn't be imported.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodeImportErrorModel {
+
+    private long line;
+    private String reason;
+}
@@ -0,0 +1,17 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Model representing the outcome of importing a node inventory.
+ * Only the first errors are listed, failed counts all rows that couldn't be imported.
+ */
+@Data
+public class NodeImportResponseModel {
+
+    private long imported;
+    private long failed;
+    private List<NodeImportErrorModel> errors = new ArrayList<>();
+}
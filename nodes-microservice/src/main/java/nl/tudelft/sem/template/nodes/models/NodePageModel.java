@@ -0,0 +1,19 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a page of a node search, with the id to continue the search after if there may be more nodes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodePageModel {
+
+    private List<NodeSummaryModel> nodes;
+
+    private Long nextAfterId;
+}
@@ -0,0 +1,25 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a repair of the node resources of a resource pool.
+ * The expected resources are the ones the nodes service saw when it detected the drift.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodeResourcesCorrectionModel {
+
+    private long facultyId;
+
+    private int expectedCpu;
+    private int expectedGpu;
+    private int expectedMemory;
+
+    private int cpu;
+    private int gpu;
+    private int memory;
+}
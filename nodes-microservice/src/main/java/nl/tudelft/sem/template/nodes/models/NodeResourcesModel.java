@@ -0,0 +1,20 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing the total resources the nodes of a resource pool contribute.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodeResourcesModel {
+
+    private long facultyId;
+
+    private int cpu;
+    private int gpu;
+    private int memory;
+}
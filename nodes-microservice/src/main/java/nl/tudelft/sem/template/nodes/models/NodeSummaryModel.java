@@ -0,0 +1,26 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a node in a search result. The token of the node is left out on purpose.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodeSummaryModel {
+
+    private long id;
+    private String name;
+    private String url;
+    private String ownerNetId;
+    private long facultyId;
+
+    private int cpu;
+    private int gpu;
+    private int memory;
+
+    private boolean alive;
+}
@@ -0,0 +1,17 @@
+package nl.tudelft.sem.template.nodes.models;
+
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing what a user may search, as answered by the users microservice.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchScopeResponseModel {
+    private String access;
+    private Set<Long> facultyIds;
+}
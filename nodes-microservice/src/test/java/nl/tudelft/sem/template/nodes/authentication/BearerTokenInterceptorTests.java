@@ -0,0 +1,76 @@
+package nl.tudelft.sem.template.nodes.authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class BearerTokenInterceptorTests {
+    private transient AuthManager mockAuthManager;
+    private transient ServiceTokenProvider mockServiceTokenProvider;
+    private transient ClientHttpRequestExecution mockExecution;
+    private transient BearerTokenInterceptor interceptor;
+    private transient MockClientHttpRequest request;
+
+    @BeforeEach
+    public void setup() {
+        mockAuthManager = mock(AuthManager.class);
+        mockServiceTokenProvider = mock(ServiceTokenProvider.class);
+        mockExecution = mock(ClientHttpRequestExecution.class);
+        interceptor = new BearerTokenInterceptor(mockAuthManager, mockServiceTokenProvider);
+        request = new MockClientHttpRequest(HttpMethod.POST, URI.create("http://localhost:8085/contributeNode"));
+    }
+
+    @Test
+    public void forwardsTokenOfCurrentUser() throws IOException {
+        when(mockAuthManager.getToken()).thenReturn("userToken");
+
+        interceptor.intercept(request, new byte[0], mockExecution);
+
+        assertThat(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer userToken");
+        verifyNoInteractions(mockServiceTokenProvider);
+        verify(mockExecution).execute(request, new byte[0]);
+    }
+
+    @Test
+    public void usesServiceTokenOutsideOfRequests() throws IOException {
+        when(mockServiceTokenProvider.getToken()).thenReturn("serviceToken");
+
+        interceptor.intercept(request, new byte[0], mockExecution);
+
+        assertThat(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer serviceToken");
+    }
+
+    @Test
+    public void keepsTokenSetByCaller() throws IOException {
+        request.getHeaders().setBearerAuth("explicit");
+
+        interceptor.intercept(request, new byte[0], mockExecution);
+
+        assertThat(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer explicit");
+        verifyNoInteractions(mockAuthManager, mockServiceTokenProvider);
+    }
+
+    @Test
+    public void serviceTokenIsAcceptedByVerifier() {
+        String token = new ServiceTokenProvider(ServiceIdentity.NODES, "exampleSecret").getToken();
+        JwtTokenVerifier verifier = new JwtTokenVerifier();
+        ReflectionTestUtils.setField(verifier, "jwtSecret", "exampleSecret");
+
+        assertThat(verifier.validateToken(token)).isTrue();
+        assertThat(verifier.getNetIdFromToken(token)).isEqualTo(ServiceIdentity.NODES);
+    }
+}
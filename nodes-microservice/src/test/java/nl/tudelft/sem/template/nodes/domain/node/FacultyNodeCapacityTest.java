@@ -0,0 +1,44 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import org.junit.jupiter.api.Test;
+
+class FacultyNodeCapacityTest {
+
+    @Test
+    void load_sumsAliveNodesPerFaculty() {
+        NodeRepository repo = mock(NodeRepository.class);
+        Node dead = new Node(new Name("c"), new NodeUrl("urlC"), "owner", 2L, new Token("tokenC"), new Resources(8, 8, 8));
+        dead.setAlive(false);
+        when(repo.findAll()).thenReturn(List.of(
+                new Node(new Name("a"), new NodeUrl("urlA"), "owner", 2L, new Token("tokenA"), new Resources(4, 2, 2)),
+                new Node(new Name("b"), new NodeUrl("urlB"), "owner", 3L, new Token("tokenB"), new Resources(1, 0, 1)),
+                new Node(new Name("d"), new NodeUrl("urlD"), "owner", 2L, new Token("tokenD"), new Resources(2, 1, 1)),
+                dead));
+        FacultyNodeCapacity capacity = new FacultyNodeCapacity(repo);
+
+        capacity.load();
+
+        assertThat(capacity.get(2L)).isEqualTo(new Resources(6, 3, 3));
+        assertThat(capacity.get(3L)).isEqualTo(new Resources(1, 0, 1));
+        assertThat(capacity.get(4L)).isEqualTo(new Resources(0, 0, 0));
+    }
+
+    @Test
+    void addAndSubtract_updateIncrementally() {
+        FacultyNodeCapacity capacity = new FacultyNodeCapacity(mock(NodeRepository.class));
+
+        capacity.addAll(Map.of(2L, new Resources(10, 5, 5), 3L, new Resources(2, 2, 2)));
+        capacity.subtract(2L, new Resources(4, 1, 2));
+        capacity.subtractAll(Map.of(3L, new Resources(2, 2, 2)));
+
+        assertThat(capacity.get(2L)).isEqualTo(new Resources(6, 4, 3));
+        assertThat(capacity.get(3L)).isEqualTo(new Resources(0, 0, 0));
+    }
+}
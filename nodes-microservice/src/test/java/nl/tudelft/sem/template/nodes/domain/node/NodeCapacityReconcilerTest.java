@@ -0,0 +1,72 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import nl.tudelft.sem.template.nodes.models.NodeResourcesCorrectionModel;
+import nl.tudelft.sem.template.nodes.models.NodeResourcesModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+class NodeCapacityReconcilerTest {
+
+    private static final String SHARD = "http://localhost:8085";
+
+    private transient RestTemplate restTemplate;
+
+    private transient FacultyNodeCapacity facultyNodeCapacity;
+
+    private transient NodeCapacityReconciler reconciler;
+
+    @BeforeEach
+    void setup() {
+        restTemplate = mock(RestTemplate.class);
+        facultyNodeCapacity = new FacultyNodeCapacity(mock(NodeRepository.class));
+        reconciler = new NodeCapacityReconciler(facultyNodeCapacity, restTemplate, new ResourcePoolShardRouter(SHARD),
+                true);
+        facultyNodeCapacity.add(2L, new Resources(10, 4, 4));
+        facultyNodeCapacity.add(3L, new Resources(6, 2, 2));
+        when(restTemplate.exchange(eq(SHARD + "/nodeResources"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(NodeResourcesModel[].class))).thenReturn(ResponseEntity.ok(new NodeResourcesModel[] {
+                    new NodeResourcesModel(2L, 10, 4, 4), new NodeResourcesModel(3L, 9, 2, 2)}));
+        when(restTemplate.exchange(eq(SHARD + "/reconcileNodeResources"), eq(HttpMethod.POST), any(HttpEntity.class),
+                eq(Long[].class))).thenReturn(ResponseEntity.ok(new Long[] {3L}));
+    }
+
+    @Test
+    void reconcile_repairsDriftSeenTwice() {
+        assertThat(reconciler.reconcile()).isZero();
+        verify(restTemplate, never()).exchange(eq(SHARD + "/reconcileNodeResources"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(Long[].class));
+
+        assertThat(reconciler.reconcile()).isEqualTo(1);
+        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq(SHARD + "/reconcileNodeResources"), eq(HttpMethod.POST), captor.capture(),
+                eq(Long[].class));
+        assertThat(captor.getValue().getBody()).isEqualTo(List.of(
+                new NodeResourcesCorrectionModel(3L, 9, 2, 2, 6, 2, 2)));
+    }
+
+    @Test
+    void reconcile_transientDrift_isNotRepaired() {
+        reconciler.reconcile();
+        facultyNodeCapacity.add(3L, new Resources(3, 0, 0));
+
+        assertThat(reconciler.reconcile()).isZero();
+        verify(restTemplate, never()).exchange(eq(SHARD + "/reconcileNodeResources"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(Long[].class));
+    }
+}
@@ -0,0 +1,118 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.StringReader;
+import java.util.List;
+import nl.tudelft.sem.template.nodes.models.NodeImportErrorModel;
+import nl.tudelft.sem.template.nodes.models.NodeImportResponseModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class NodeImportServiceTest {
+
+    private transient NodeRepository repo;
+
+    private transient NodeManagementService nodeManagementService;
+
+    private transient NodeImportService nodeImportService;
+
+    @BeforeEach
+    void setup() {
+        repo = mock(NodeRepository.class);
+        nodeManagementService = mock(NodeManagementService.class);
+        nodeImportService = new NodeImportService(repo, nodeManagementService, 2);
+        when(nodeManagementService.verifyFaculty(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void importCsv_registersInBatchesAndReportsRows() throws Exception {
+        when(repo.findNamesIn(anyList())).thenReturn(List.of(), List.of(new Name("a")));
+        when(repo.findTokensIn(anyList())).thenReturn(List.of(new Token("taken")));
+        String inventory = "name,url,facultyId,token,cpu,gpu,memory\n"
+                + "a,http://a,2,ta,4,2,2\n"
+                + "b,http://b,3,tb,1,2,1\n"
+                + "c,http://c,2,tc,4,1,1\n"
+                + "\n"
+                + "d,http://d,2,taken,4,1,1\n"
+                + "a,http://e,2,te,4,1,1\n"
+                + "f,http://f,two,tf,4,1,1\n";
+
+        NodeImportResponseModel report = nodeImportService.importNodes(new StringReader(inventory),
+                InventoryFormat.CSV, "owner");
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting(NodeImportErrorModel::getLine).containsExactly(3L, 6L, 7L, 8L);
+
+        ArgumentCaptor<List<Node>> captor = ArgumentCaptor.forClass(List.class);
+        verify(nodeManagementService, times(1)).registerVerifiedNodes(captor.capture());
+        verify(nodeManagementService, never()).registerNodes(any());
+        assertThat(captor.getValue()).extracting(node -> node.getNodeName().toString()).containsExactly("a", "c");
+    }
+
+    @Test
+    void importJsonl_reportsMalformedRows() throws Exception {
+        String inventory = "{\"name\":\"a\",\"url\":\"http://a\",\"facultyId\":2,\"token\":\"ta\","
+                + "\"cpu\":4,\"gpu\":2,\"memory\":2}\n"
+                + "{\"name\":\"b\",\"url\":\n"
+                + "{\"url\":\"http://c\",\"facultyId\":2,\"token\":\"tc\",\"cpu\":4,\"gpu\":2,\"memory\":2}\n";
+
+        NodeImportResponseModel report = nodeImportService.importNodes(new StringReader(inventory),
+                InventoryFormat.JSONL, "owner");
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(NodeImportErrorModel::getLine).containsExactly(2L, 3L);
+        assertThat(report.getErrors().get(1).getReason()).isEqualTo("Missing name");
+    }
+
+    @Test
+    void importBatch_rejectedRegistration_reportsEveryRow() throws Exception {
+        when(nodeManagementService.registerVerifiedNodes(any())).thenThrow(new InnerRequestFailedException("unreachable"));
+        String inventory = "name,url,facultyId,token,cpu,gpu,memory\n"
+                + "a,http://a,2,ta,4,2,2\n"
+                + "b,http://b,2,tb,4,2,2\n";
+
+        NodeImportResponseModel report = nodeImportService.importNodes(new StringReader(inventory),
+                InventoryFormat.CSV, "owner");
+
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getErrors()).extracting(NodeImportErrorModel::getReason)
+                .containsOnly("Batch rejected: unreachable");
+    }
+
+    @Test
+    void importBatch_unknownFaculty_onlyRejectsItsRows() throws Exception {
+        when(nodeManagementService.verifyFaculty(9L)).thenReturn(false);
+        String inventory = "name,url,facultyId,token,cpu,gpu,memory\n"
+                + "b,http://b,9,tb,4,2,2\n"
+                + "c,http://c,9,tc,4,2,2\n"
+                + "a,http://a,2,ta,4,2,2\n";
+
+        NodeImportResponseModel report = nodeImportService.importNodes(new StringReader(inventory),
+                InventoryFormat.CSV, "owner");
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(NodeImportErrorModel::getReason)
+                .containsExactly("Unknown faculty: 9", "Unknown faculty: 9");
+        assertThat(report.getErrors()).extracting(NodeImportErrorModel::getLine).containsExactly(2L, 3L);
+        // the faculty is only asked once per batch
+        verify(nodeManagementService, times(1)).verifyFaculty(9L);
+    }
+
+    @Test
+    void importCsv_missingColumn_throws() {
+        assertThrows(IllegalArgumentException.class, () -> nodeImportService.importNodes(
+                new StringReader("name,url,token,cpu,gpu,memory\n"), InventoryFormat.CSV, "owner"));
+    }
+}
@@ -3,18 +3,34 @@ package nl.tudelft.sem.template.nodes.domain.node;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.Optional;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.nodes.domain.node.chain.InvalidOwnerException;
 import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import nl.tudelft.sem.template.nodes.models.FacultyInteractionRequestModel;
+import nl.tudelft.sem.template.nodes.models.VerifyFacultyResponseModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
 @ExtendWith(SpringExtension.class)
@@ -30,11 +46,15 @@ public class NodeManagementServiceTests {
     @Autowired
     private transient RestTemplate restTemplate;
 
+    private transient FacultyNodeCapacity facultyNodeCapacity;
+
     @BeforeEach
     void setUp() {
         nodeRepository = mock(NodeRepository.class);
         restTemplate = mock(RestTemplate.class);
-        nodeManagementService = new NodeManagementService(nodeRepository, restTemplate);
+        facultyNodeCapacity = new FacultyNodeCapacity(nodeRepository);
+        nodeManagementService = new NodeManagementService(nodeRepository, restTemplate,
+                new ResourcePoolShardRouter("http://localhost:8085"), facultyNodeCapacity);
     }
 
     @Test
@@ -139,4 +159,211 @@ public class NodeManagementServiceTests {
         assertThrows(TokenAlreadyInUseException.class, () ->
                 nodeManagementService.registerNode(sameToken, ownerNetId, facultyId));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void registerNodes_contributesOncePerFaculty() throws Exception {
+        List<Node> nodes = List.of(
+                new Node(new Name("a"), new NodeUrl("urlA"), "owner", 2L, new Token("tokenA"), new Resources(10, 5, 5)),
+                new Node(new Name("b"), new NodeUrl("urlB"), "owner", 3L, new Token("tokenB"), new Resources(4, 0, 2)),
+                new Node(new Name("c"), new NodeUrl("urlC"), "owner", 2L, new Token("tokenC"), new Resources(6, 1, 3)));
+        when(nodeRepository.saveAll(nodes)).thenReturn(nodes);
+
+        List<Node> registered = nodeManagementService.registerNodes(nodes);
+
+        assertThat(registered).isEqualTo(nodes);
+        verify(nodeRepository).findNamesIn(anyList());
+        verify(nodeRepository).findUrlsIn(anyList());
+        verify(nodeRepository).findTokensIn(anyList());
+        verify(nodeRepository, never()).existsByName(any());
+        verify(nodeRepository).flush();
+        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(eq("http://localhost:8085/contributeNode"), eq(HttpMethod.POST),
+                captor.capture(), eq(Void.class));
+        assertThat(captor.getAllValues()).extracting(HttpEntity::getBody).containsExactly(
+                new FacultyInteractionRequestModel(2L, 16, 6, 8),
+                new FacultyInteractionRequestModel(3L, 4, 0, 2));
+        assertThat(nodeManagementService.getFacultyNodeResources(2L)).isEqualTo(new Resources(16, 6, 8));
+        assertThat(nodeManagementService.getFacultyNodeResources(3L)).isEqualTo(new Resources(4, 0, 2));
+    }
+
+    @Test
+    public void registerNodes_duplicateNameInBatch_throws() {
+        List<Node> nodes = List.of(
+                new Node(new Name("a"), new NodeUrl("urlA"), "owner", 2L, new Token("tokenA"), new Resources(1, 1, 1)),
+                new Node(new Name("a"), new NodeUrl("urlB"), "owner", 2L, new Token("tokenB"), new Resources(1, 1, 1)));
+
+        assertThrows(NameAlreadyInUseException.class, () -> nodeManagementService.registerNodes(nodes));
+        verify(nodeRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void registerNodes_urlAlreadyInUse_throws() {
+        List<Node> nodes = List.of(
+                new Node(new Name("a"), new NodeUrl("urlA"), "owner", 2L, new Token("tokenA"), new Resources(1, 1, 1)));
+        when(nodeRepository.findUrlsIn(anyList())).thenReturn(List.of(new NodeUrl("urlA")));
+
+        assertThrows(UrlAlreadyInUseException.class, () -> nodeManagementService.registerNodes(nodes));
+        verify(nodeRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void registerNodes_failedContribution_compensatesEarlierFaculties() {
+        List<Node> nodes = List.of(
+                new Node(new Name("a"), new NodeUrl("urlA"), "owner", 2L, new Token("tokenA"), new Resources(3, 1, 1)),
+                new Node(new Name("b"), new NodeUrl("urlB"), "owner", 3L, new Token("tokenB"), new Resources(2, 1, 1)));
+        when(restTemplate.exchange(eq("http://localhost:8085/contributeNode"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(Void.class)))
+                .thenReturn(null)
+                .thenThrow(new RuntimeException("Faculty 3 does not exist"));
+
+        assertThrows(InnerRequestFailedException.class, () -> nodeManagementService.registerNodes(nodes));
+        assertThat(nodeManagementService.getFacultyNodeResources(2L)).isEqualTo(new Resources(0, 0, 0));
+        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq("http://localhost:8085/deleteNode"), eq(HttpMethod.POST),
+                captor.capture(), eq(Void.class));
+        assertThat(captor.getValue().getBody()).isEqualTo(new FacultyInteractionRequestModel(2L, 3, 1, 1));
+    }
+
+    private Node storedNode(long id, String name, long facultyId, Resources resources) {
+        Node node = new Node(new Name(name), new NodeUrl("url" + name), "owner", facultyId, new Token("token" + name),
+                resources);
+        ReflectionTestUtils.setField(node, "id", id);
+        return node;
+    }
+
+    private void verifyAllFaculties() {
+        when(restTemplate.exchange(eq("http://localhost:8085/verifyFaculty"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(VerifyFacultyResponseModel.class)))
+                .thenReturn(ResponseEntity.ok(new VerifyFacultyResponseModel(true)));
+    }
+
+    @Test
+    public void deleteNode_loadsNodeOnce() throws Exception {
+        Node node = storedNode(5L, "a", 2L, new Resources(3, 1, 1));
+        when(nodeRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(node));
+        verifyAllFaculties();
+
+        assertThat(nodeManagementService.deleteNode(5L, "owner")).isEqualTo("a");
+        verify(nodeRepository, times(1)).findByIdForUpdate(5L);
+        verify(nodeRepository, never()).findById(any());
+        verify(nodeRepository, never()).existsById(any());
+        verify(nodeRepository).delete(node);
+    }
+
+    @Test
+    public void deleteNode_notOwner_isInvalid() throws Exception {
+        Node node = storedNode(5L, "a", 2L, new Resources(3, 1, 1));
+        when(nodeRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(node));
+
+        assertThat(nodeManagementService.deleteNode(5L, "someone else")).isEqualTo("Invalid request");
+        verify(nodeRepository, never()).delete(any());
+    }
+
+    @Test
+    public void verifyFaculty_cachesConfirmedFaculties() {
+        verifyAllFaculties();
+
+        assertThat(nodeManagementService.verifyFaculty(2L)).isTrue();
+        assertThat(nodeManagementService.verifyFaculty(2L)).isTrue();
+        verify(restTemplate, times(1)).exchange(eq("http://localhost:8085/verifyFaculty"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(VerifyFacultyResponseModel.class));
+    }
+
+    @Test
+    public void deleteNodes_deletesOncePerFaculty() throws Exception {
+        Node first = storedNode(5L, "a", 2L, new Resources(3, 1, 1));
+        Node second = storedNode(6L, "b", 3L, new Resources(2, 0, 1));
+        Node third = storedNode(7L, "c", 2L, new Resources(4, 2, 2));
+        when(nodeRepository.findAllByIdForUpdate(List.of(5L, 6L, 7L))).thenReturn(List.of(third, first, second));
+        verifyAllFaculties();
+
+        List<String> names = nodeManagementService.deleteNodes(List.of(5L, 6L, 7L), "owner");
+
+        assertThat(names).containsExactly("a", "b", "c");
+        verify(nodeRepository, never()).findById(any());
+        verify(nodeRepository).deleteInBatch(List.of(first, second, third));
+        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(eq("http://localhost:8085/deleteNode"), eq(HttpMethod.POST),
+                captor.capture(), eq(Void.class));
+        assertThat(captor.getAllValues()).extracting(HttpEntity::getBody).containsExactly(
+                new FacultyInteractionRequestModel(2L, 7, 3, 3),
+                new FacultyInteractionRequestModel(3L, 2, 0, 1));
+    }
+
+    @Test
+    public void deleteNodes_invalidNode_deletesNothing() {
+        Node first = storedNode(5L, "a", 2L, new Resources(3, 1, 1));
+        Node foreign = new Node(new Name("b"), new NodeUrl("urlb"), "someone else", 2L, new Token("tokenb"),
+                new Resources(1, 1, 1));
+        ReflectionTestUtils.setField(foreign, "id", 6L);
+        when(nodeRepository.findAllByIdForUpdate(List.of(5L, 6L))).thenReturn(List.of(first, foreign));
+        verifyAllFaculties();
+
+        assertThrows(InvalidOwnerException.class, () -> nodeManagementService.deleteNodes(List.of(5L, 6L), "owner"));
+        verify(nodeRepository, never()).deleteInBatch(any());
+        verify(restTemplate, never()).exchange(eq("http://localhost:8085/deleteNode"), any(HttpMethod.class),
+                any(HttpEntity.class), eq(Void.class));
+    }
+
+    @Test
+    public void markNodeDead_withdrawsResourcesOnce() {
+        Node node = storedNode(5L, "a", 2L, new Resources(3, 1, 1));
+        when(nodeRepository.findById(5L)).thenReturn(Optional.of(node));
+        when(nodeRepository.updateAlive(5L, false)).thenReturn(1);
+
+        facultyNodeCapacity.add(2L, new Resources(10, 4, 4));
+
+        assertThat(nodeManagementService.markNodeDead(5L)).isTrue();
+        assertThat(node.isAlive()).isFalse();
+        assertThat(nodeManagementService.markNodeDead(5L)).isTrue();
+        assertThat(nodeManagementService.getFacultyNodeResources(2L)).isEqualTo(new Resources(7, 3, 3));
+
+        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(1)).exchange(eq("http://localhost:8085/deleteNode"), eq(HttpMethod.POST),
+                captor.capture(), eq(Void.class));
+        assertThat(captor.getValue().getBody()).isEqualTo(new FacultyInteractionRequestModel(2L, 3, 1, 1));
+        verify(nodeRepository, times(1)).updateAlive(5L, false);
+    }
+
+    @Test
+    public void markNodeDead_nodeClaimedByDeletion_leavesResourcesAlone() {
+        Node node = storedNode(5L, "a", 2L, new Resources(3, 1, 1));
+        when(nodeRepository.findById(5L)).thenReturn(Optional.of(node));
+        // a concurrent deletion removed the row before the conditional update got to it
+        when(nodeRepository.updateAlive(5L, false)).thenReturn(0);
+
+        facultyNodeCapacity.add(2L, new Resources(10, 4, 4));
+
+        assertThat(nodeManagementService.markNodeDead(5L)).isFalse();
+        assertThat(nodeManagementService.getFacultyNodeResources(2L)).isEqualTo(new Resources(10, 4, 4));
+        verify(restTemplate, never()).exchange(eq("http://localhost:8085/deleteNode"), any(HttpMethod.class),
+                any(HttpEntity.class), eq(Void.class));
+    }
+
+    @Test
+    public void markNodeAlive_failedContribution_keepsNodeDead() {
+        Node node = storedNode(5L, "a", 2L, new Resources(3, 1, 1));
+        node.setAlive(false);
+        when(nodeRepository.findById(5L)).thenReturn(Optional.of(node));
+        when(nodeRepository.updateAlive(5L, true)).thenReturn(1);
+        when(restTemplate.exchange(eq("http://localhost:8085/contributeNode"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(Void.class))).thenThrow(new RuntimeException("unreachable"));
+
+        assertThat(nodeManagementService.markNodeAlive(5L)).isFalse();
+        assertThat(node.isAlive()).isFalse();
+        verify(nodeRepository).updateAlive(5L, false);
+    }
+
+    @Test
+    public void deleteNode_deadNode_doesNotWithdrawAgain() throws Exception {
+        Node node = storedNode(5L, "a", 2L, new Resources(3, 1, 1));
+        node.setAlive(false);
+        when(nodeRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(node));
+        verifyAllFaculties();
+
+        assertThat(nodeManagementService.deleteNode(5L, "owner")).isEqualTo("a");
+        verify(restTemplate, never()).exchange(eq("http://localhost:8085/deleteNode"), any(HttpMethod.class),
+                any(HttpEntity.class), eq(Void.class));
+        verify(nodeRepository).delete(node);
+    }
+}
@@ -0,0 +1,74 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles({"test"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class NodeSearchRepositoryTest {
+
+    private static final Resources NONE = new Resources(0, 0, 0);
+
+    @Autowired
+    private transient NodeRepository nodeRepository;
+
+    @BeforeEach
+    void setUp() {
+        nodeRepository.saveAll(List.of(
+                node("a", "alice", 2L, new Resources(8, 0, 16)),
+                node("b", "bob", 2L, new Resources(32, 4, 64)),
+                node("c", "alice", 3L, new Resources(64, 8, 128)),
+                node("d", "alice", 2L, new Resources(16, 2, 32)),
+                node("e", "bob", 3L, new Resources(4, 0, 8))));
+    }
+
+    @Test
+    void search_filtersOnFacultyOwnerAndResources() {
+        assertThat(names(nodeRepository.search(2L, null, NONE, 0, 10))).containsExactly("a", "b", "d");
+        assertThat(names(nodeRepository.search(null, "alice", NONE, 0, 10))).containsExactly("a", "c", "d");
+        assertThat(names(nodeRepository.search(2L, "alice", new Resources(10, 1, 0), 0, 10))).containsExactly("d");
+        assertThat(names(nodeRepository.search(null, null, new Resources(0, 0, 100), 0, 10))).containsExactly("c");
+    }
+
+    @Test
+    void search_continuesAfterLastId() {
+        List<Node> first = nodeRepository.search(null, null, NONE, 0, 2);
+        List<Node> second = nodeRepository.search(null, null, NONE, first.get(1).getId(), 2);
+        List<Node> third = nodeRepository.search(null, null, NONE, second.get(1).getId(), 2);
+
+        assertThat(names(first)).containsExactly("a", "b");
+        assertThat(names(second)).containsExactly("c", "d");
+        assertThat(names(third)).containsExactly("e");
+    }
+
+    @Test
+    void search_seesUpdatedResources() {
+        Node node = nodeRepository.findByName(new Name("e")).orElseThrow();
+        node.updateResource(new Resources(128, 16, 256));
+        nodeRepository.save(node);
+
+        assertThat(names(nodeRepository.search(null, null, new Resources(100, 0, 0), 0, 10))).containsExactly("e");
+    }
+
+    private static Node node(String name, String owner, long facultyId, Resources resources) {
+        return new Node(new Name(name), new NodeUrl("http://" + name), owner, facultyId, new Token(name + "Token"),
+                resources);
+    }
+
+    private static List<String> names(List<Node> nodes) {
+        return nodes.stream().map(node -> node.getNodeName().toString()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package nl.tudelft.sem.template.nodes.domain.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import nl.tudelft.sem.template.nodes.models.SearchScopeResponseModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+class NodeSearchScopeTest {
+
+    private transient RestTemplate restTemplate;
+
+    private transient NodeSearchScope sut;
+
+    @BeforeEach
+    void setup() {
+        restTemplate = mock(RestTemplate.class);
+        sut = new NodeSearchScope(restTemplate, "http://localhost:8086");
+    }
+
+    private void scope(String access, Set<Long> facultyIds) {
+        when(restTemplate.getForObject("http://localhost:8086/searchScope", SearchScopeResponseModel.class))
+                .thenReturn(new SearchScopeResponseModel(access, facultyIds));
+    }
+
+    @Test
+    void sysadminSearchesEverything() throws Exception {
+        scope("Sysadmin", Set.of());
+
+        NodeSearchFilter filter = sut.restrict("admin", null, "someone");
+
+        assertThat(filter.getFacultyId()).isNull();
+        assertThat(filter.getOwner()).isEqualTo("someone");
+    }
+
+    @Test
+    void facultyAccountIsLimitedToItsFaculty() throws Exception {
+        scope("FacultyAccount", Set.of(5L));
+
+        assertThat(sut.restrict("math", null, null).getFacultyId()).isEqualTo(5L);
+        assertThrows(SearchNotAllowedException.class, () -> sut.restrict("math", 6L, null));
+    }
+
+    @Test
+    void employeeSearchesItsFacultiesOrItsOwnNodes() throws Exception {
+        scope("Employee", Set.of(2L));
+
+        NodeSearchFilter ofFaculty = sut.restrict("mayte", 2L, "someone");
+        assertThat(ofFaculty.getFacultyId()).isEqualTo(2L);
+        assertThat(ofFaculty.getOwner()).isEqualTo("someone");
+
+        NodeSearchFilter elsewhere = sut.restrict("mayte", 3L, null);
+        assertThat(elsewhere.getFacultyId()).isEqualTo(3L);
+        assertThat(elsewhere.getOwner()).isEqualTo("mayte");
+
+        assertThrows(SearchNotAllowedException.class, () -> sut.restrict("mayte", null, "someone"));
+    }
+
+    @Test
+    void servicesAreNotRestricted() throws Exception {
+        NodeSearchFilter filter = sut.restrict(ServiceIdentity.REQUESTS, 4L, null);
+
+        assertThat(filter.getFacultyId()).isEqualTo(4L);
+        assertThat(filter.getOwner()).isNull();
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void unreachableUsersMicroserviceFailsTheSearch() {
+        when(restTemplate.getForObject(anyString(), any())).thenThrow(new ResourceAccessException("down"));
+
+        assertThrows(InnerRequestFailedException.class, () -> sut.restrict("mayte", null, null));
+        verify(restTemplate).getForObject("http://localhost:8086/searchScope", SearchScopeResponseModel.class);
+    }
+}
@@ -1,16 +1,15 @@
 package nl.tudelft.sem.template.nodes.domain.node.chain;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Optional;
 import nl.tudelft.sem.template.nodes.domain.node.Name;
 import nl.tudelft.sem.template.nodes.domain.node.Node;
 import nl.tudelft.sem.template.nodes.domain.node.NodeManagementService;
-import nl.tudelft.sem.template.nodes.domain.node.NodeRepository;
 import nl.tudelft.sem.template.nodes.domain.node.NodeUrl;
 import nl.tudelft.sem.template.nodes.domain.node.Token;
 import nl.tudelft.sem.template.nodes.domain.resources.Resources;
@@ -30,39 +29,45 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class BaseHandlerTest {
 
-    @Mock
-    private transient NodeRepository repo;
-
     @Mock
     private transient NodeManagementService nodeManagementService;
 
     @BeforeEach
     void setup() {
-        when(repo.existsById(0L)).thenReturn(true);
         when(nodeManagementService.verifyFaculty(0L)).thenReturn(true);
     }
 
-    @Test
-    void getRepo() {
-        BaseHandler handler = new NodeExistenceHandler(repo);
-        assertEquals(handler.getRepo(), repo);
-    }
-
     @Test
     void nodeExistenceTest() throws InvalidRequestException {
-        BaseHandler handler = new NodeExistenceHandler(repo);
-        boolean result = handler.handle(0L);
-        assertThat(result == true);
+        Node node = new Node(new Name("name"), new NodeUrl("url"), "owner", 0L, new Token("token"),
+                new Resources(100, 100, 100));
+
+        BaseHandler handler = new NodeExistenceHandler();
+        boolean result = handler.handle(new DeletionContext(0L, node));
+        assertThat(result).isTrue();
     }
 
     @Test
     void nodeNonExistenceTest() throws InvalidRequestException {
-        BaseHandler handler = new NodeExistenceHandler(repo);
+        BaseHandler handler = new NodeExistenceHandler();
         assertThrows(NodeIdNotFoundException.class, () -> {
-            handler.handle(1L);
+            handler.handle(new DeletionContext(1L, null));
         });
     }
 
+    @Test
+    void chainStopsAtFirstFailure() {
+        Node node = new Node(new Name("name"), new NodeUrl("url"), "owner", 1L, new Token("token"),
+                new Resources(100, 100, 100));
+
+        BaseHandler handler = new ValidOwnerHandler("not owner");
+        handler.setNext(new FacultyExistenceHandler(nodeManagementService));
+        assertThrows(InvalidOwnerException.class, () -> {
+            handler.handle(new DeletionContext(0L, node));
+        });
+        verify(nodeManagementService, never()).verifyFaculty(anyLong());
+    }
+
     @Test
     void facultyExistenceTest() throws InvalidRequestException {
         Name name = new Name("name");
@@ -74,10 +79,8 @@ class BaseHandlerTest {
 
         Node node = new Node(name, nodeUrl, owner, facultyId, token, resources);
 
-        when(repo.findById(anyLong())).thenReturn(Optional.of(node));
-
-        BaseHandler handler = new FacultyExistenceHandler(repo, nodeManagementService);
-        boolean result = handler.handle(0L);
+        BaseHandler handler = new FacultyExistenceHandler(nodeManagementService);
+        boolean result = handler.handle(new DeletionContext(0L, node));
         assertThat(result == true);
     }
 
@@ -92,11 +95,9 @@ class BaseHandlerTest {
 
         Node node = new Node(name, nodeUrl, owner, facultyId, token, resources);
 
-        when(repo.findById(anyLong())).thenReturn(Optional.of(node));
-
-        BaseHandler handler = new FacultyExistenceHandler(repo, nodeManagementService);
+        BaseHandler handler = new FacultyExistenceHandler(nodeManagementService);
         assertThrows(FacultyDoesNotExistException.class, () -> {
-            handler.handle(0L);
+            handler.handle(new DeletionContext(0L, node));
         });
     }
 
@@ -111,10 +112,8 @@ class BaseHandlerTest {
 
         Node node = new Node(name, nodeUrl, owner, facultyId, token, resources);
 
-        when(repo.findById(anyLong())).thenReturn(Optional.of(node));
-
-        BaseHandler handler = new ValidOwnerHandler(repo, "owner");
-        boolean result = handler.handle(0L);
+        BaseHandler handler = new ValidOwnerHandler("owner");
+        boolean result = handler.handle(new DeletionContext(0L, node));
         assertThat(result == true);
     }
 
@@ -129,11 +128,9 @@ class BaseHandlerTest {
 
         Node node = new Node(name, nodeUrl, owner, facultyId, token, resources);
 
-        when(repo.findById(anyLong())).thenReturn(Optional.of(node));
-
-        BaseHandler handler = new ValidOwnerHandler(repo, "not owner");
+        BaseHandler handler = new ValidOwnerHandler("not owner");
         assertThrows(InvalidOwnerException.class, () -> {
-            handler.handle(0L);
+            handler.handle(new DeletionContext(0L, node));
         });
     }
 
@@ -0,0 +1,186 @@
+package nl.tudelft.sem.template.nodes.domain.node.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.tudelft.sem.template.nodes.domain.node.Name;
+import nl.tudelft.sem.template.nodes.domain.node.Node;
+import nl.tudelft.sem.template.nodes.domain.node.NodeManagementService;
+import nl.tudelft.sem.template.nodes.domain.node.NodeRepository;
+import nl.tudelft.sem.template.nodes.domain.node.NodeUrl;
+import nl.tudelft.sem.template.nodes.domain.node.Token;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class NodeHealthProberTest {
+
+    private transient HttpServer healthy;
+
+    private transient HttpServer failing;
+
+    private transient NodeRepository repo;
+
+    private transient NodeManagementService nodeManagementService;
+
+    private transient NodeHealthProber prober;
+
+    @BeforeEach
+    void setup() throws IOException {
+        healthy = stubServer(200);
+        failing = stubServer(503);
+        repo = mock(NodeRepository.class);
+        nodeManagementService = mock(NodeManagementService.class);
+        prober = new NodeHealthProber(repo, nodeManagementService, true, 50, 500, 2, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prober.stop();
+        healthy.stop(0);
+        failing.stop(0);
+    }
+
+    private static HttpServer stubServer(int status) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static String urlOf(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort() + "/health";
+    }
+
+    private static Node node(long id, String url, boolean alive) {
+        Node node = new Node(new Name("node" + id), new NodeUrl(url), "owner", 2L, new Token("token" + id),
+                new Resources(4, 2, 2));
+        ReflectionTestUtils.setField(node, "id", id);
+        node.setAlive(alive);
+        return node;
+    }
+
+    private void registered(Node... nodes) {
+        List<Long> ids = new ArrayList<>();
+        for (Node node : nodes) {
+            ids.add(node.getId());
+        }
+        when(repo.findAllIds()).thenReturn(ids);
+        when(repo.findAllById(any())).thenReturn(List.of(nodes));
+    }
+
+    @Test
+    void probe_distinguishesAnsweringNodes() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        registered();
+        prober.start();
+
+        assertThat(prober.probe(URI.create(urlOf(healthy))).get()).isTrue();
+        assertThat(prober.probe(URI.create(urlOf(failing))).get()).isFalse();
+        assertThat(prober.probe(URI.create("http://localhost:" + closedPort + "/health")).get()).isFalse();
+    }
+
+    @Test
+    void failingNode_isMarkedDead() {
+        registered(node(1L, urlOf(failing), true));
+        when(nodeManagementService.markNodeDead(1L)).thenReturn(true);
+
+        prober.start();
+
+        verify(nodeManagementService, timeout(5000)).markNodeDead(1L);
+        verify(nodeManagementService, never()).markNodeAlive(anyLong());
+    }
+
+    @Test
+    void answeringDeadNode_isMarkedAlive() {
+        registered(node(1L, urlOf(healthy), false));
+        when(nodeManagementService.markNodeAlive(1L)).thenReturn(true);
+
+        prober.start();
+
+        verify(nodeManagementService, timeout(5000)).markNodeAlive(1L);
+        verify(nodeManagementService, never()).markNodeDead(anyLong());
+    }
+
+    @Test
+    void answeringAliveNode_isLeftAlone() {
+        registered(node(1L, urlOf(healthy), true), node(2L, "not a url", true));
+
+        prober.start();
+
+        verify(nodeManagementService, after(500).never()).markNodeDead(anyLong());
+        verify(nodeManagementService, never()).markNodeAlive(anyLong());
+    }
+
+    @Test
+    void refresh_onlyReadsNewNodes() {
+        registered(node(1L, urlOf(healthy), true), node(2L, "not a url", true));
+        prober.start();
+        verify(repo, timeout(5000)).findAllById(Set.of(1L, 2L));
+
+        prober.refresh();
+
+        verify(repo, times(1)).findAllById(any());
+    }
+
+    @Test
+    void stallingStateChange_doesNotStopTheChecks() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        HttpServer counting = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        counting.createContext("/", exchange -> {
+            checks.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        counting.start();
+        CountDownLatch resourcePoolAnswers = new CountDownLatch(1);
+        try {
+            registered(node(1L, urlOf(counting), true));
+            when(nodeManagementService.markNodeDead(1L)).thenAnswer(invocation -> {
+                resourcePoolAnswers.await();
+                return true;
+            });
+            prober.start();
+            verify(nodeManagementService, timeout(5000)).markNodeDead(1L);
+
+            int checksWhenStalled = checks.get();
+            long giveUpAt = System.currentTimeMillis() + 5000;
+            while (checks.get() < checksWhenStalled + 3 && System.currentTimeMillis() < giveUpAt) {
+                Thread.sleep(20);
+            }
+
+            assertThat(checks.get()).isGreaterThanOrEqualTo(checksWhenStalled + 3);
+            // the node is only marked dead once while the first change is in progress
+            verify(nodeManagementService, times(1)).markNodeDead(1L);
+        } finally {
+            resourcePoolAnswers.countDown();
+            counting.stop(0);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package nl.tudelft.sem.template.nodes.domain.node.placement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import nl.tudelft.sem.template.nodes.domain.node.Name;
+import nl.tudelft.sem.template.nodes.domain.node.Node;
+import nl.tudelft.sem.template.nodes.domain.node.NodeRepository;
+import nl.tudelft.sem.template.nodes.domain.node.NodeUrl;
+import nl.tudelft.sem.template.nodes.domain.node.Token;
+import nl.tudelft.sem.template.nodes.domain.resources.Resources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class NodePlacementServiceTest {
+
+    private final LocalDate day = LocalDate.of(2023, 1, 10);
+
+    private NodeRepository nodeRepo;
+
+    private NodeAssignmentRepository assignmentRepo;
+
+    private NodePlacementService placementService;
+
+    private Node large;
+
+    private Node small;
+
+    @BeforeEach
+    void setup() {
+        nodeRepo = mock(NodeRepository.class);
+        assignmentRepo = mock(NodeAssignmentRepository.class);
+        placementService = new NodePlacementService(nodeRepo, assignmentRepo);
+        large = node(1L, "large", new Resources(64, 8, 256));
+        small = node(2L, "small", new Resources(16, 2, 64));
+        when(nodeRepo.findAllByFacultyIdAndAliveTrueOrderByIdAsc(2L)).thenReturn(List.of(large, small));
+        when(assignmentRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void assign_picksTightestNode() {
+        Optional<NodeAssignment> assignment = placementService.assign(7L, 2L, day, new Resources(12, 1, 48));
+
+        assertThat(assignment).isPresent();
+        assertThat(assignment.get().getNodeId()).isEqualTo(2L);
+        assertThat(assignment.get().getRequestId()).isEqualTo(7L);
+        assertThat(assignment.get().getDay()).isEqualTo(day);
+    }
+
+    @Test
+    void assign_takesExistingAssignmentsIntoAccount() {
+        when(assignmentRepo.findAllByDayAndNodeIdIn(eq(day), any()))
+                .thenReturn(List.of(new NodeAssignment(3L, 2L, day, new Resources(8, 2, 32))));
+
+        Optional<NodeAssignment> assignment = placementService.assign(7L, 2L, day, new Resources(12, 1, 48));
+
+        assertThat(assignment).isPresent();
+        assertThat(assignment.get().getNodeId()).isEqualTo(1L);
+    }
+
+    @Test
+    void assign_failsWhenOnlyTheSumOfTheNodesFits() {
+        Optional<NodeAssignment> assignment = placementService.assign(7L, 2L, day, new Resources(70, 1, 48));
+
+        assertThat(assignment).isEmpty();
+        verify(assignmentRepo, never()).save(any());
+    }
+
+    @Test
+    void assign_returnsExistingAssignmentOfRequest() {
+        NodeAssignment existing = new NodeAssignment(7L, 1L, day, new Resources(12, 1, 48));
+        when(assignmentRepo.findByRequestId(7L)).thenReturn(Optional.of(existing));
+
+        assertThat(placementService.assign(7L, 2L, day, new Resources(12, 1, 48))).contains(existing);
+        verify(assignmentRepo, never()).save(any());
+    }
+
+    @Test
+    void canHost_checksSingleNodes() {
+        assertThat(placementService.canHost(2L, day, new Resources(64, 8, 256))).isTrue();
+        assertThat(placementService.canHost(2L, day, new Resources(65, 1, 1))).isFalse();
+    }
+
+    @Test
+    void canHost_poolWithoutNodes() {
+        when(nodeRepo.findAllByFacultyIdAndAliveTrueOrderByIdAsc(anyLong())).thenReturn(List.of());
+
+        assertThat(placementService.canHost(3L, day, new Resources(1000, 1000, 1000))).isTrue();
+    }
+
+    @Test
+    void release_deletesAssignment() {
+        NodeAssignment existing = new NodeAssignment(7L, 1L, day, new Resources(12, 1, 48));
+        when(assignmentRepo.findByRequestId(7L)).thenReturn(Optional.of(existing));
+
+        assertThat(placementService.release(7L)).isTrue();
+        assertThat(placementService.release(8L)).isFalse();
+        verify(assignmentRepo).delete(existing);
+    }
+
+    private static Node node(long id, String name, Resources resources) {
+        Node node = new Node(new Name(name), new NodeUrl("http://" + name), "owner", 2L, new Token(name + "Token"),
+                resources);
+        ReflectionTestUtils.setField(node, "id", id);
+        return node;
+    }
+}
@@ -1,14 +1,33 @@
 package nl.tudelft.sem.template.requests;
 
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 
 /**
  * requests microservice application.
  */
 @SpringBootApplication
+@Import(ResourcePoolShardRouter.class)
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
     }
+
+    /**
+     * The provider of the token used for the calls that are not made on behalf of a user,
+     * such as those of the daily processing and of the processing after a change of the free pool.
+     *
+     * @param jwtSecret the secret the JWT tokens are signed with
+     * @return the provider of the requests service token
+     */
+    @Bean
+    public ServiceTokenProvider serviceTokenProvider(@Value("${jwt.secret}") String jwtSecret) {
+        return new ServiceTokenProvider(ServiceIdentity.REQUESTS, jwtSecret);
+    }
 }
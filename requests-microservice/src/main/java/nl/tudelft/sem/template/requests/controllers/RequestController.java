@@ -5,6 +5,7 @@ import static nl.tudelft.sem.template.requests.authentication.JwtRequestFilter.A
 import java.util.Calendar;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import nl.tudelft.sem.template.requests.authentication.AuthManager;
 import nl.tudelft.sem.template.requests.domain.AppRequest;
 import nl.tudelft.sem.template.requests.domain.InvalidResourcesException;
@@ -78,8 +79,8 @@ public class RequestController {
             final String owner = authManager.getNetId();
             final String facultyName = request.getFacultyName();
             final long facultyId = resourcePoolService.getIdByName(facultyName, token);
-            final Resources availableResources = resourcePoolService.getFacultyResourcesById(facultyId, token);
-            final Resources availableFreePoolResources = resourcePoolService.getFacultyResourcesById(1L, token);
+            final Resources availableResources = resourcePoolService.getFacultyResourcesById(facultyId);
+            final Resources availableFreePoolResources = resourcePoolService.getFacultyResourcesById(1L);
 
             String deadlineStr = request.getDeadline(); //convert to Calendar immediately
             Calendar deadline = Calendar.getInstance();
@@ -103,6 +104,25 @@ public class RequestController {
     }
 
 
+    /**
+     * Called by the RP MS when the resources of the free pool changed,
+     * processes the requests that are waiting for the free pool right away.
+     * Only the RP MS itself, authenticated with its service token, may trigger the processing.
+     *
+     * @return the amount of requests that got approved
+     */
+    @PostMapping("/freePoolCapacityChanged")
+    public ResponseEntity<Integer> freePoolCapacityChanged() {
+        if (!ServiceIdentity.is(ServiceIdentity.RESOURCEPOOL, authManager.getNetId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the RP MS can report capacity changes");
+        }
+        try {
+            return ResponseEntity.ok(registrationService.processPendingRequestsOnCapacityChange());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
     /**
      * Gets the status of a request.
      *
@@ -113,18 +133,34 @@ public class RequestController {
         return ResponseEntity.ok(statusService.getStatus(id));
     }
 
+    /**
+     * Gets the status of a request of the authenticated user.
+     *
+     * @param id the id of the request
+     * @return the status of the request, 403 if it does not exist or was submitted by someone else
+     */
+    @PostMapping("/getOwnStatus")
+    public ResponseEntity<Integer> getOwnStatus(@RequestBody long id) {
+        return statusService.getStatusForOwner(id, authManager.getNetId())
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN,
+                        "Request " + id + " is not a request of " + authManager.getNetId()));
+    }
+
     /**
      * Sets the status of a request.
      *
      * @return whether the status was successfully set
      */
     @PostMapping("/status")
-    public ResponseEntity setStatus(@RequestBody SetStatusModel setStatusModel) throws ResponseStatusException {
+    public ResponseEntity setStatus(@RequestBody SetStatusModel setStatusModel, HttpServletRequest requested)
+            throws ResponseStatusException {
         long id = setStatusModel.getId();
         int status = setStatusModel.getStatus();
+        String token = requested.getHeader(AUTHORIZATION_HEADER).split(" ")[1];
 
         try {
-            statusService.setStatus(id, status);
+            statusService.setStatus(id, status, token);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -176,10 +212,11 @@ public class RequestController {
 
         try {
             if (approved) {
-                statusService.setStatus(id, 1);
+                // the RP MS refuses the request if the faculty does not have the resources left on that day
                 resourcePoolService.approval(dayOfExecution, id, false, token);
+                statusService.setStatus(id, 1, token);
             } else {
-                statusService.setStatus(id, 2);
+                statusService.setStatus(id, 2, token);
             }
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
@@ -66,6 +66,12 @@ public class AppRequest extends HasEvents {
     3 pending and waiting for the free RP to get resources at the 6h before end of day deadline
     */
 
+    @Getter
+    @Setter
+    @Column(name = "executionDay")
+    private Calendar executionDay;
+    //the day the request is scheduled on once it is approved, null while it is not scheduled
+
 
     /**
      * Creates a resource request.
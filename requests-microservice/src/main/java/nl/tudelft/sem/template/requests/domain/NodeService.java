@@ -0,0 +1,107 @@
+package nl.tudelft.sem.template.requests.domain;
+
+import java.util.Calendar;
+import java.util.Optional;
+import nl.tudelft.sem.template.requests.models.NodeAssignmentRequestModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Communicates with the nodes microservice, which assigns approved requests to the concrete nodes of a resource pool.
+ */
+@Service
+public class NodeService {
+
+    private final transient String nodesUrl;
+
+    /**
+     * Instantiates a new NodeService.
+     *
+     * @param nodesUrl the url of the nodes microservice
+     */
+    public NodeService(@Value("${nodes.url:http://localhost:8083}") String nodesUrl) {
+        this.nodesUrl = nodesUrl;
+    }
+
+    /**
+     * Asks the nodes MS whether a single node of a resource pool could still run a request on a day.
+     * The schedules of the resource pools only know the sum of the nodes, this tells whether that sum is usable.
+     * When the nodes MS can't be reached the request is not held back.
+     *
+     * @param resourcePoolId the id of the faculty or of the free pool
+     * @param day            the day the request would be executed on
+     * @param resources      the resources of the request
+     * @param token          the jwtToken
+     * @return false iff the nodes MS answered that no node has room for the request
+     */
+    public boolean fitsOnNode(long resourcePoolId, Calendar day, Resources resources, String token) {
+        HttpEntity<NodeAssignmentRequestModel> request =
+                new HttpEntity<>(model(0L, resourcePoolId, day, resources), setup(token));
+        try {
+            Boolean fits = new RestTemplate().postForObject(nodesUrl + "/fitsOnNode", request, Boolean.class);
+            return !Boolean.FALSE.equals(fits);
+        } catch (RestClientException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Tells the nodes MS to run a scheduled request on the best fitting node of its resource pool.
+     *
+     * @param requestId      the id of the request
+     * @param resourcePoolId the id of the faculty or of the free pool the request is scheduled in
+     * @param day            the day the request is executed on
+     * @param resources      the resources of the request
+     * @param token          the jwtToken
+     * @return the id of the node, or empty if no node has room or the nodes MS could not be reached
+     */
+    public Optional<Long> assignToNode(long requestId, long resourcePoolId, Calendar day, Resources resources,
+                                       String token) {
+        HttpEntity<NodeAssignmentRequestModel> request =
+                new HttpEntity<>(model(requestId, resourcePoolId, day, resources), setup(token));
+        try {
+            return Optional.ofNullable(new RestTemplate().postForObject(nodesUrl + "/assignRequestToNode",
+                    request, Long.class));
+        } catch (RestClientException e) {
+            // a 409 means no single node has room for the request
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Tells the nodes MS that a request no longer runs on the node it was assigned to,
+     * because it was rejected, put back up for review or moved to another day.
+     * When the nodes MS can't be reached the assignment stays until the day has passed.
+     *
+     * @param requestId the id of the request
+     * @param token     the jwtToken
+     * @return true iff the request was assigned to a node and is released from it
+     */
+    public boolean releaseFromNode(long requestId, String token) {
+        HttpEntity<Long> request = new HttpEntity<>(requestId, setup(token));
+        try {
+            Boolean released = new RestTemplate().postForObject(nodesUrl + "/releaseRequestFromNode",
+                    request, Boolean.class);
+            return Boolean.TRUE.equals(released);
+        } catch (RestClientException e) {
+            System.out.println("Request " + requestId + " could not be released from its node: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static NodeAssignmentRequestModel model(long requestId, long resourcePoolId, Calendar day,
+                                                    Resources resources) {
+        return new NodeAssignmentRequestModel(requestId, resourcePoolId, day,
+                resources.getCpu(), resources.getGpu(), resources.getMemory());
+    }
+
+    private static HttpHeaders setup(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", "Bearer " + token);
+        return headers;
+    }
+}
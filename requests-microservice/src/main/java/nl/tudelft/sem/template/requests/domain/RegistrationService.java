@@ -1,8 +1,12 @@
 package nl.tudelft.sem.template.requests.domain;
 
 import java.util.Calendar;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -12,13 +16,14 @@ import org.springframework.stereotype.Service;
 @SuppressWarnings({"PMD.DataflowAnomalyAnalysis", "PMD.AvoidLiteralsInIfCondition"})
 
 public class RegistrationService {
+    private static final long FREE_POOL_ID = ResourcePoolShardRouter.FREE_POOL_ID;
+
     private final transient RequestRepository requestRepository;
     private final transient ResourcePoolService resourcePoolService;
     private final transient RequestHandler requestHandler;
     private final transient RequestChecker requestChecker;
-
-    private transient String initialToken = null;
-    //when tokens are not needed anymore, delete this and rework a bit the functions
+    private final transient RequestMetrics requestMetrics;
+    private final transient ServiceTokenProvider serviceTokenProvider;
 
     /**
      * Instantiates a new RegistrationService.
@@ -27,14 +32,19 @@ public class RegistrationService {
      * @param resourcePoolService the service that communicates with the resource pool
      * @param requestHandler      the request handler service
      * @param requestChecker the request checker helper service
+     * @param requestMetrics the metrics of the request processing
+     * @param serviceTokenProvider the provider of the token used when no user is behind the processing
      */
     public RegistrationService(RequestRepository requestRepository,
                                ResourcePoolService resourcePoolService,
-                               RequestHandler requestHandler, RequestChecker requestChecker) {
+                               RequestHandler requestHandler, RequestChecker requestChecker,
+                               RequestMetrics requestMetrics, ServiceTokenProvider serviceTokenProvider) {
         this.requestRepository = requestRepository;
         this.resourcePoolService = resourcePoolService;
         this.requestHandler = requestHandler;
         this.requestChecker = requestChecker;
+        this.requestMetrics = requestMetrics;
+        this.serviceTokenProvider = serviceTokenProvider;
     }
 
     /**
@@ -52,19 +62,22 @@ public class RegistrationService {
         if (resources.getGpu() > resources.getCpu()) {
             throw new InvalidResourcesException("Resource object must provide at least the same amount of CPU as GPU");
         }
-        if (initialToken == null) {
-            initialToken = token;
-        }
-
         AppRequest request = new AppRequest(description, resources, owner, facultyName, deadline, -1);
         int timePeriod = getTimePeriod(Calendar.getInstance());
         final boolean facultyHasEnoughResources = hasEnoughResources(availableResources, resources);
-        final boolean frpHasEnoughResources = hasEnoughResources(freePoolResources, resources);
         final boolean isForTomorrow = isForTomorrow(deadline);
+        boolean frpHasEnoughResources = hasEnoughResources(freePoolResources, resources);
+        Optional<ResourceHold> hold = Optional.empty();
+        if (frpHasEnoughResources
+                && requestChecker.isRequestAutoApproved(timePeriod, isForTomorrow, true, facultyHasEnoughResources)) {
+            // the free pool resources were fetched earlier, only a hold makes sure they are still there
+            hold = holdFreePoolTomorrow(resources, token);
+            frpHasEnoughResources = hold.isPresent();
+        }
         int status = requestChecker.decideStatusOfRequest(timePeriod,
                 isForTomorrow, frpHasEnoughResources, facultyHasEnoughResources);
 
-        requestHandler.registerRequestOnceStatusDecided(status, request, token);
+        requestHandler.registerRequestOnceStatusDecided(status, request, hold.orElse(null), token);
         return request;
     }
 
@@ -90,30 +103,46 @@ public class RegistrationService {
      */
     public AppRequest processRequestInPeriodOne(AppRequest request, String token) {
         Calendar deadline = request.getDeadline();
-        Resources resources = new Resources(request.getMem(), request.getCpu(), request.getGpu());
-        final Resources freePoolResources = resourcePoolService.getFacultyResourcesById(1L, token);
-        int status = getStatus(deadline, resources, freePoolResources);
+        Resources resources = new Resources(request.getCpu(), request.getGpu(), request.getMem());
+        final Resources freePoolResources = resourcePoolService.getFacultyResourcesById(FREE_POOL_ID);
+        Optional<ResourceHold> hold = Optional.empty();
+        if (hasEnoughResources(freePoolResources, resources)) {
+            hold = holdFreePoolTomorrow(resources, token);
+        }
+        int status = getStatus(deadline, hold.isPresent());
         request.setStatus(status);
-        requestRepository.save(request);
         if (status == 1) {
-            //update RP/Schedule MS so that it can update the schedule for the corresponding faculty for tomorrow
-            Calendar tomorrow = Calendar.getInstance();
-            tomorrow.add(Calendar.DAY_OF_MONTH, 1);
-            resourcePoolService.approval(tomorrow, request.getId(), true, token);
+            //update RP/Schedule MS so that it can update the schedule for the chosen day before the deadline
+            requestHandler.scheduleApprovedRequest(request, hold.orElse(null), token);
+        } else {
+            hold.ifPresent(held -> resourcePoolService.releaseHold(held, token));
+            requestRepository.save(request);
         }
         return request;
     }
 
+    /**
+     * Holds the resources of a request in the free pool tomorrow, so no other request can be approved on them.
+     *
+     * @param resources the resources of the request
+     * @param token     the jwtToken
+     * @return the hold, or empty if the free pool does not have the resources left
+     */
+    private Optional<ResourceHold> holdFreePoolTomorrow(Resources resources, String token) {
+        Calendar tomorrow = Calendar.getInstance();
+        tomorrow.add(Calendar.DAY_OF_MONTH, 1);
+        return resourcePoolService.tryReserve(FREE_POOL_ID, tomorrow, resources,
+                RequestPlacementService.HOLD_TTL_MILLIS, token);
+    }
+
     /**
      * Helper method for finding the status of a request.
      *
      * @param deadline the deadline of the request
-     * @param resources the resources of the request
-     * @param freePoolResources the resources of the free pool
+     * @param frpHasEnoughResources whether the resources of the request could be held in the free pool
      * @return the status of a request
      */
-    private int getStatus(Calendar deadline, Resources resources, Resources freePoolResources) {
-        boolean frpHasEnoughResources = hasEnoughResources(freePoolResources, resources);
+    private int getStatus(Calendar deadline, boolean frpHasEnoughResources) {
         int timePeriod = 1;
         boolean isForTomorrow = isForTomorrow(deadline);
         boolean facHasEnoughResources = false;
@@ -126,14 +155,78 @@ public class RegistrationService {
      * At 18PM every day, all requests that are left pending to be processed when the FRP gets more resources, get processed.
      * Gets automatically called at the proper time. (5 minute after 18PM,
      * in order to give time for the resources to be released from all faculties)
+     * No user is behind the run, so it is made with the service token of this microservice.
      */
     @Scheduled(cron = "0 5 18 * * *")
-    public void processAllPendingRequests() {
-        List<AppRequest> allRequests = requestRepository.findAll().stream()
-                .filter(x -> x.getStatus() == 3).collect(Collectors.toList());
-        for (AppRequest thisRequest : allRequests) {
-            processRequestInPeriodOne(thisRequest, initialToken);
+    public synchronized void processAllPendingRequests() {
+        requestMetrics.timePendingRun(() -> {
+            List<AppRequest> allRequests = requestRepository.findAll().stream()
+                    .filter(x -> x.getStatus() == 3).collect(Collectors.toList());
+            String token = serviceTokenProvider.getToken();
+            for (AppRequest thisRequest : allRequests) {
+                processRequestInPeriodOne(thisRequest, token);
+            }
+        });
+    }
+
+    /**
+     * Processes the requests waiting for the free pool as soon as its resources changed,
+     * instead of waiting for the daily run. The free pool is asked for its resources once and the requests are
+     * approved one by one in order of their deadline, as long as they fit in what is left.
+     * Requests that do not fit keep waiting for the next change or the daily run.
+     * No user is behind the change, so the requests are processed with the service token of this microservice.
+     *
+     * @return the amount of requests that got approved
+     */
+    public synchronized int processPendingRequestsOnCapacityChange() {
+        return processPendingRequests(getTimePeriod(Calendar.getInstance()), serviceTokenProvider.getToken());
+    }
+
+    /**
+     * Approves the requests waiting for the free pool that fit in its current resources, in order of their deadline.
+     * The resources of every request are held before it is approved, so requests admitted concurrently
+     * through a registration never share the same resources. Only the requests that end up in the free pool
+     * use up its resources, those that are placed in their own faculty leave them for the next requests.
+     *
+     * @param timePeriod the current time period
+     * @param token      the jwtToken
+     * @return the amount of requests that got approved
+     */
+    public synchronized int processPendingRequests(int timePeriod, String token) {
+        List<AppRequest> pendingRequests = requestRepository.findAll().stream()
+                .filter(x -> x.getStatus() == 3)
+                .sorted(Comparator.comparing(AppRequest::getDeadline))
+                .collect(Collectors.toList());
+        if (pendingRequests.isEmpty()) {
+            return 0;
+        }
+        Resources remaining = resourcePoolService.getFacultyResourcesById(FREE_POOL_ID);
+        int approved = 0;
+        for (AppRequest pendingRequest : pendingRequests) {
+            Resources resources = new Resources(pendingRequest.getCpu(), pendingRequest.getGpu(), pendingRequest.getMem());
+            boolean fits = hasEnoughResources(remaining, resources);
+            boolean isForTomorrow = isForTomorrow(pendingRequest.getDeadline());
+            if (!requestChecker.isRequestAutoApproved(timePeriod, isForTomorrow, fits, false)) {
+                continue;
+            }
+            Optional<ResourceHold> hold = holdFreePoolTomorrow(resources, token);
+            if (hold.isPresent()) {
+                pendingRequest.setStatus(1);
+                Optional<RequestPlacement> placement =
+                        requestHandler.scheduleApprovedRequest(pendingRequest, hold.get(), token);
+                if (placement.isEmpty()) {
+                    // the request could not be scheduled on the hold and is left for manual review
+                    requestMetrics.recordDecision(0);
+                    continue;
+                }
+                requestMetrics.recordDecision(1);
+                if (placement.get().isToFreePool()) {
+                    remaining = Resources.subtract(remaining, resources);
+                }
+                approved++;
+            }
         }
+        return approved;
     }
 
     /**
@@ -5,6 +5,17 @@ import org.springframework.stereotype.Service;
 @Service
 public class RequestChecker {
 
+    private final transient RequestMetrics requestMetrics;
+
+    /**
+     * Instantiates a new RequestChecker.
+     *
+     * @param requestMetrics the metrics counting the outcomes of the decisions
+     */
+    public RequestChecker(RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
     /**
      * Decides what happens with a request when it arrives - it can be approved, rejected,
      * left pending for manual review, or left pending until the FRP gets more resources at 18PM.
@@ -17,6 +28,22 @@ public class RequestChecker {
      */
     public int decideStatusOfRequest(int timePeriod, boolean isForTomorrow, boolean frpHasEnoughResources,
                                      boolean facultyHasEnoughResources) {
+        int status = decide(timePeriod, isForTomorrow, frpHasEnoughResources, facultyHasEnoughResources);
+        requestMetrics.recordDecision(status);
+        return status;
+    }
+
+    /**
+     * Decides the status of a request, see {@link #decideStatusOfRequest(int, boolean, boolean, boolean)}.
+     *
+     * @param timePeriod                the time period at which the request is submitted
+     * @param isForTomorrow             whether the request is for tomorrow
+     * @param frpHasEnoughResources     whether the FRP has enough resources for this request
+     * @param facultyHasEnoughResources whether the faculty the request is scheduled to has enough resources for this request
+     * @return the status of the request
+     */
+    private int decide(int timePeriod, boolean isForTomorrow, boolean frpHasEnoughResources,
+                       boolean facultyHasEnoughResources) {
         // 0 for pending manual approval,
         // 1 for approved,
         // 2 for rejected,
@@ -1,11 +1,11 @@
 package nl.tudelft.sem.template.requests.domain;
 
-import java.util.Calendar;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -14,10 +14,23 @@ import org.springframework.web.server.ResponseStatusException;
 public class RequestHandler {
     private final transient RequestRepository requestRepository;
     private final transient ResourcePoolService resourcePoolService;
+    private final transient RequestPlacementService requestPlacementService;
+    private final transient NodeService nodeService;
 
-    public RequestHandler(RequestRepository requestRepository, ResourcePoolService resourcePoolService) {
+    /**
+     * Instantiates a new RequestHandler.
+     *
+     * @param requestRepository       the request repository
+     * @param resourcePoolService     the service that communicates with the resource pool
+     * @param requestPlacementService the service choosing the execution day of approved requests
+     * @param nodeService             the service that communicates with the nodes
+     */
+    public RequestHandler(RequestRepository requestRepository, ResourcePoolService resourcePoolService,
+                          RequestPlacementService requestPlacementService, NodeService nodeService) {
         this.requestRepository = requestRepository;
         this.resourcePoolService = resourcePoolService;
+        this.requestPlacementService = requestPlacementService;
+        this.nodeService = nodeService;
     }
 
     /**
@@ -77,6 +90,23 @@ public class RequestHandler {
      * @param token   the JWT token
      */
     public void registerRequestOnceStatusDecided(int status, AppRequest request, String token) {
+        registerRequestOnceStatusDecided(status, request, null, token);
+    }
+
+    /**
+     * Once the status is decided in the registerRequest method, the actual registering of the request
+     * and all communication happens here. An approved request is scheduled on the resources held for its approval.
+     *
+     * @param status        the status of the request
+     * @param request       the request
+     * @param admissionHold the hold on the free pool taken for the approval, or null if there is none
+     * @param token         the JWT token
+     */
+    public void registerRequestOnceStatusDecided(int status, AppRequest request, ResourceHold admissionHold,
+                                                 String token) {
+        if (status != 1 && admissionHold != null) {
+            resourcePoolService.releaseHold(admissionHold, token);
+        }
         if (status == 0) {
             //pending for manual review
             request.setStatus(0);
@@ -84,10 +114,7 @@ public class RequestHandler {
         } else if (status == 1) {
             //auto approve
             request.setStatus(1);
-            requestRepository.save(request);
-            Calendar tomorrow = Calendar.getInstance();
-            tomorrow.add(Calendar.DAY_OF_MONTH, 1);
-            resourcePoolService.approval(tomorrow, request.getId(), true, token);
+            scheduleApprovedRequest(request, admissionHold, token);
         } else if (status == 2) {
             //auto reject
             request.setStatus(2);
@@ -98,4 +125,86 @@ public class RequestHandler {
             requestRepository.save(request);
         }
     }
+
+    /**
+     * Places an approved request on a day between tomorrow and its deadline, records that day on the request
+     * and tells the RP MS to schedule it.
+     *
+     * @param request the approved request
+     * @param token   the JWT token
+     */
+    public void scheduleApprovedRequest(AppRequest request, String token) {
+        scheduleApprovedRequest(request, null, token);
+    }
+
+    /**
+     * Places an approved request on a day between tomorrow and its deadline, records that day on the request
+     * and schedules it on the resources held there. A request is never scheduled without a hold, as nothing
+     * would keep others from taking the resources first. Should no day before the deadline be held,
+     * the RP MS be unreachable or the hold have expired in the meantime,
+     * the request is left for manual review instead of being scheduled on resources that may be gone.
+     * A scheduled request is assigned to a node of the resource pool it ended up in.
+     * A request that already had an execution day is released from its old node first.
+     *
+     * @param request       the approved request
+     * @param admissionHold the hold on the free pool taken for the approval, or null if there is none
+     * @param token         the JWT token
+     * @return the placement the request was scheduled on, or empty if it was left for manual review
+     */
+    public Optional<RequestPlacement> scheduleApprovedRequest(AppRequest request, ResourceHold admissionHold,
+                                                              String token) {
+        if (request.getExecutionDay() != null) {
+            nodeService.releaseFromNode(request.getId(), token);
+        }
+        Optional<RequestPlacement> placed;
+        try {
+            placed = requestPlacementService.place(request, admissionHold, token);
+        } catch (RestClientException e) {
+            System.out.println("Request " + request.getId() + " could not be placed: " + e.getMessage());
+            if (admissionHold != null) {
+                resourcePoolService.releaseHold(admissionHold, token);
+            }
+            placed = Optional.empty();
+        }
+        if (placed.isEmpty() || placed.get().getHold() == null) {
+            leaveForManualReview(request);
+            return Optional.empty();
+        }
+        RequestPlacement placement = placed.get();
+        request.setExecutionDay(placement.getDay());
+        requestRepository.save(request);
+        if (!resourcePoolService.commitHold(placement.getHold(), request.getId(), token)) {
+            leaveForManualReview(request);
+            return Optional.empty();
+        }
+        assignToNode(request, placement, token);
+        return placed;
+    }
+
+    /**
+     * Puts an approved request that could not be scheduled back up for manual review.
+     *
+     * @param request the request
+     */
+    private void leaveForManualReview(AppRequest request) {
+        request.setStatus(0);
+        request.setExecutionDay(null);
+        requestRepository.save(request);
+    }
+
+    /**
+     * Assigns a scheduled request to a node of the resource pool it is scheduled in.
+     * The request stays scheduled when no node can take it, the schedule of the pool had room for it.
+     *
+     * @param request   the scheduled request
+     * @param placement the placement of the request
+     * @param token     the JWT token
+     */
+    private void assignToNode(AppRequest request, RequestPlacement placement, String token) {
+        long resourcePoolId = placement.getHold().getResourcePoolId();
+        Resources resources = new Resources(request.getCpu(), request.getGpu(), request.getMem());
+        if (nodeService.assignToNode(request.getId(), resourcePoolId, placement.getDay(), resources, token).isEmpty()) {
+            System.out.println("Request " + request.getId() + " is scheduled but could not be assigned to a node");
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package nl.tudelft.sem.template.requests.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the outcomes of the admission decisions and the duration of the deferred-request runs as metrics.
+ */
+@Component
+public class RequestMetrics {
+
+    public static final String ADMISSION_METRIC = "requests.admission";
+
+    public static final String PENDING_RUN_METRIC = "requests.pending.processing";
+
+    private final transient Counter manualReview;
+
+    private final transient Counter approved;
+
+    private final transient Counter rejected;
+
+    private final transient Counter deferred;
+
+    private final transient Timer pendingRun;
+
+    /**
+     * Instantiates a new RequestMetrics.
+     *
+     * @param registry the registry the metrics are published to
+     */
+    public RequestMetrics(MeterRegistry registry) {
+        this.manualReview = admissionCounter(registry, "manual_review");
+        this.approved = admissionCounter(registry, "approved");
+        this.rejected = admissionCounter(registry, "rejected");
+        this.deferred = admissionCounter(registry, "deferred");
+        this.pendingRun = Timer.builder(PENDING_RUN_METRIC)
+                .description("Duration of processing the requests waiting for the free pool")
+                .register(registry);
+    }
+
+    /**
+     * Counts the outcome of an admission decision.
+     *
+     * @param status the decided status of the request
+     */
+    public void recordDecision(int status) {
+        switch (status) {
+            case 0:
+                manualReview.increment();
+                break;
+            case 1:
+                approved.increment();
+                break;
+            case 2:
+                rejected.increment();
+                break;
+            default:
+                deferred.increment();
+                break;
+        }
+    }
+
+    /**
+     * Times a run over the requests waiting for the free pool.
+     *
+     * @param run the run to time
+     */
+    public void timePendingRun(Runnable run) {
+        pendingRun.record(run);
+    }
+
+    private static Counter admissionCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder(ADMISSION_METRIC)
+                .description("Outcomes of the automatic admission decisions")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
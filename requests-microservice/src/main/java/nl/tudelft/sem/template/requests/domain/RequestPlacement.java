@@ -0,0 +1,27 @@
+package nl.tudelft.sem.template.requests.domain;
+
+import java.util.Calendar;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The day and resource pool an approved request is scheduled on,
+ * together with the hold on the resources of that pool and day if they could be held.
+ */
+@Data
+@AllArgsConstructor
+public class RequestPlacement {
+    private Calendar day;
+    private boolean toFreePool;
+    private ResourceHold hold;
+
+    /**
+     * Instantiates a new RequestPlacement without a hold.
+     *
+     * @param day        the day the request is scheduled on
+     * @param toFreePool whether the request is scheduled in the free pool
+     */
+    public RequestPlacement(Calendar day, boolean toFreePool) {
+        this(day, toFreePool, null);
+    }
+}
@@ -0,0 +1,230 @@
+package nl.tudelft.sem.template.requests.domain;
+
+import java.util.Calendar;
+import java.util.Optional;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Decides on which day and in which resource pool an automatically approved request is executed.
+ * Instead of piling every approved request onto tomorrow, the request is placed on the earliest day
+ * between tomorrow and its deadline on which the faculty itself still has room.
+ * Only when the faculty has no room before the deadline the free pool is used, again on its earliest day with room.
+ * The resources of the chosen pool and day are held right away, so no other request can take them in the meantime.
+ * A request is never placed after its deadline, nor on resources that are not held for it.
+ * A day on which a single node of the pool can still run the request is preferred,
+ * as the combined resources of a pool may be spread over nodes that are each too small.
+ * That check is advisory: the nodes MS does not know the base resources of a faculty,
+ * so when no day before the deadline has a fitting node the first day with room in the schedule is held anyway.
+ * The days with room come from the timeline of the pool, which does not know about holds or nodes,
+ * so when a day turns out not to have room after all the next day with room before the deadline is tried.
+ */
+@Service
+public class RequestPlacementService {
+
+    /**
+     * The time a hold lives before it expires if the request is never scheduled on it.
+     */
+    public static final long HOLD_TTL_MILLIS = 30_000;
+
+    /**
+     * The amount of days tried in a resource pool before giving up on it.
+     */
+    static final int MAX_DAY_ATTEMPTS = 5;
+
+    static final long FREE_POOL_ID = ResourcePoolShardRouter.FREE_POOL_ID;
+
+    private final transient ResourcePoolService resourcePoolService;
+
+    private final transient NodeService nodeService;
+
+    /**
+     * Instantiates a new RequestPlacementService.
+     *
+     * @param resourcePoolService the service that communicates with the resource pool
+     * @param nodeService         the service that communicates with the nodes
+     */
+    public RequestPlacementService(ResourcePoolService resourcePoolService, NodeService nodeService) {
+        this.resourcePoolService = resourcePoolService;
+        this.nodeService = nodeService;
+    }
+
+    /**
+     * Chooses the execution day and resource pool of an approved request and holds its resources there.
+     *
+     * @param request the approved request
+     * @param token   the jwtToken
+     * @return the placement of the request, or empty if no day before the deadline could be held
+     */
+    public Optional<RequestPlacement> place(AppRequest request, String token) {
+        return place(request, null, token);
+    }
+
+    /**
+     * Chooses the execution day and resource pool of an approved request and holds its resources there.
+     * Falls back to the free pool tomorrow, on which the approval was based, if no better placement could be held
+     * and tomorrow is not after the deadline. The hold taken for the approval is released
+     * if the request ends up somewhere else or nowhere at all.
+     *
+     * @param request       the approved request
+     * @param admissionHold the hold on the free pool tomorrow taken for the approval, or null if there is none
+     * @param token         the jwtToken
+     * @return the placement of the request with the hold to schedule it on, or empty if no day could be held
+     * @throws RestClientException if the RP MS could not tell which days have room
+     */
+    public Optional<RequestPlacement> place(AppRequest request, ResourceHold admissionHold, String token) {
+        Calendar tomorrow = Calendar.getInstance();
+        tomorrow.add(Calendar.DAY_OF_MONTH, 1);
+        Resources resources = new Resources(request.getCpu(), request.getGpu(), request.getMem());
+
+        Optional<RequestPlacement> placement = holdFacultyDay(request, tomorrow, resources, token);
+        if (placement.isEmpty()) {
+            placement = holdFreePoolDay(request, tomorrow, resources, admissionHold, token);
+        }
+        if (placement.isEmpty() && admissionHold != null && isNotAfterDeadline(tomorrow, request.getDeadline())) {
+            placement = Optional.of(new RequestPlacement(tomorrow, true, admissionHold));
+        }
+        if (admissionHold != null && placement.map(RequestPlacement::getHold).filter(admissionHold::equals).isEmpty()) {
+            resourcePoolService.releaseHold(admissionHold, token);
+        }
+        return placement;
+    }
+
+    /**
+     * Holds the resources of the request in its faculty on the earliest day before the deadline that has room for it.
+     *
+     * @param request   the approved request
+     * @param tomorrow  the first day the request can be executed on
+     * @param resources the resources of the request
+     * @param token     the jwtToken
+     * @return the placement in the faculty, or empty if there is no day before the deadline or it could not be held
+     */
+    private Optional<RequestPlacement> holdFacultyDay(AppRequest request, Calendar tomorrow, Resources resources,
+                                                      String token) {
+        long facultyId;
+        try {
+            facultyId = resourcePoolService.getIdByName(request.getFacultyName(), token);
+        } catch (RestClientException e) {
+            return Optional.empty();
+        }
+        if (facultyId == FREE_POOL_ID) {
+            return Optional.empty();
+        }
+        return holdEarliestDay(facultyId, request, tomorrow, resources, null, token);
+    }
+
+    /**
+     * Holds the resources of the request in the free pool on the earliest day before the deadline that has room for it.
+     * When that day is tomorrow the hold taken for the approval is used.
+     *
+     * @param request       the approved request
+     * @param tomorrow      the first day the request can be executed on
+     * @param resources     the resources of the request
+     * @param admissionHold the hold on the free pool tomorrow taken for the approval, or null if there is none
+     * @param token         the jwtToken
+     * @return the placement in the free pool, or empty if there is no day before the deadline or it could not be held
+     */
+    private Optional<RequestPlacement> holdFreePoolDay(AppRequest request, Calendar tomorrow, Resources resources,
+                                                       ResourceHold admissionHold, String token) {
+        return holdEarliestDay(FREE_POOL_ID, request, tomorrow, resources, admissionHold, token);
+    }
+
+    /**
+     * Holds the resources of the request in a resource pool on the earliest day before the deadline that has room.
+     * A day the timeline offers may still turn out to have no room, because its resources are held by others
+     * or no single node can run the request. Then the earliest day after it is asked for,
+     * until the deadline passes or {@link #MAX_DAY_ATTEMPTS} days have been tried.
+     * When none of the tried days has a fitting node, the first of them is held regardless,
+     * as the base resources of the faculty, which no node accounts for, may still run the request.
+     *
+     * @param resourcePoolId the id of the faculty or of the free pool
+     * @param request        the approved request
+     * @param tomorrow       the first day the request can be executed on
+     * @param resources      the resources of the request
+     * @param admissionHold  the hold taken for the approval, used when the pool is the free pool and the day tomorrow,
+     *                       or null if there is none
+     * @param token          the jwtToken
+     * @return the placement in the resource pool, or empty if no day before the deadline could be held
+     */
+    private Optional<RequestPlacement> holdEarliestDay(long resourcePoolId, AppRequest request, Calendar tomorrow,
+                                                      Resources resources, ResourceHold admissionHold, String token) {
+        Calendar from = tomorrow;
+        Calendar withoutNode = null;
+        for (int attempt = 0; attempt < MAX_DAY_ATTEMPTS; attempt++) {
+            Optional<Calendar> earliest = resourcePoolService
+                    .getEarliestAvailableDay(resourcePoolId, from, resources, token)
+                    .filter(day -> isNotAfterDeadline(day, request.getDeadline()));
+            if (earliest.isEmpty()) {
+                break;
+            }
+            Calendar day = earliest.get();
+            if (nodeService.fitsOnNode(resourcePoolId, day, resources, token)) {
+                Optional<RequestPlacement> placement =
+                        holdDay(resourcePoolId, day, tomorrow, resources, admissionHold, token);
+                if (placement.isPresent()) {
+                    return placement;
+                }
+            } else if (withoutNode == null) {
+                withoutNode = day;
+            }
+            from = (Calendar) day.clone();
+            from.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        if (withoutNode == null) {
+            return Optional.empty();
+        }
+        return holdDay(resourcePoolId, withoutNode, tomorrow, resources, admissionHold, token);
+    }
+
+    /**
+     * Holds the resources of the request in a resource pool on a day.
+     *
+     * @param resourcePoolId the id of the faculty or of the free pool
+     * @param day            the day to hold
+     * @param tomorrow       the first day the request can be executed on
+     * @param resources      the resources of the request
+     * @param admissionHold  the hold taken for the approval, used when the pool is the free pool and the day tomorrow,
+     *                       or null if there is none
+     * @param token          the jwtToken
+     * @return the placement on the day, or empty if its resources could not be held
+     */
+    private Optional<RequestPlacement> holdDay(long resourcePoolId, Calendar day, Calendar tomorrow,
+                                               Resources resources, ResourceHold admissionHold, String token) {
+        boolean toFreePool = resourcePoolId == FREE_POOL_ID;
+        if (toFreePool && admissionHold != null && isSameDay(day, tomorrow)) {
+            return Optional.of(new RequestPlacement(day, true, admissionHold));
+        }
+        return resourcePoolService.tryReserve(resourcePoolId, day, resources, HOLD_TTL_MILLIS, token)
+                .map(hold -> new RequestPlacement(day, toFreePool, hold));
+    }
+
+    /**
+     * Checks whether two calendars fall on the same day.
+     *
+     * @param day   the first day
+     * @param other the second day
+     * @return true iff both are on the same day of the same year
+     */
+    private static boolean isSameDay(Calendar day, Calendar other) {
+        return day.get(Calendar.YEAR) == other.get(Calendar.YEAR)
+                && day.get(Calendar.DAY_OF_YEAR) == other.get(Calendar.DAY_OF_YEAR);
+    }
+
+    /**
+     * Checks whether a day is not after the day of the deadline.
+     *
+     * @param day      the day to check
+     * @param deadline the deadline of the request
+     * @return true iff the day is on or before the day of the deadline
+     */
+    public static boolean isNotAfterDeadline(Calendar day, Calendar deadline) {
+        if (deadline == null) {
+            return false;
+        }
+        if (day.get(Calendar.YEAR) != deadline.get(Calendar.YEAR)) {
+            return day.get(Calendar.YEAR) < deadline.get(Calendar.YEAR);
+        }
+        return day.get(Calendar.DAY_OF_YEAR) <= deadline.get(Calendar.DAY_OF_YEAR);
+    }
+}
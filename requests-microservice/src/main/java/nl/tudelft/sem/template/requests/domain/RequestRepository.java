@@ -2,6 +2,8 @@ package nl.tudelft.sem.template.requests.domain;
 
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,4 +15,10 @@ public interface RequestRepository extends JpaRepository<AppRequest, String> {
      * Find request by id.
      */
     Optional<AppRequest> findById(long id);
+
+    /**
+     * Find the status of a request by id, only if it was submitted by the given owner.
+     */
+    @Query("SELECT r.status FROM AppRequest r WHERE r.id = :id AND r.owner = :owner")
+    Optional<Integer> findStatusByIdAndOwner(@Param("id") long id, @Param("owner") String owner);
 }
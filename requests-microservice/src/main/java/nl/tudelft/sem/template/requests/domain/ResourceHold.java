@@ -0,0 +1,14 @@
+package nl.tudelft.sem.template.requests.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resources held in a resource pool for a request that is being admitted, until the hold is committed or released.
+ */
+@Data
+@AllArgsConstructor
+public class ResourceHold {
+    private long resourcePoolId;
+    private String holdId;
+}
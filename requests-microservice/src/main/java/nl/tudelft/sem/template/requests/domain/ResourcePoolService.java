@@ -3,12 +3,23 @@ package nl.tudelft.sem.template.requests.domain;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Calendar;
+import java.util.Optional;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.commons.SingleFlight;
+import nl.tudelft.sem.template.requests.models.CommitHoldRequestModel;
+import nl.tudelft.sem.template.requests.models.EarliestAvailableDayRequestModel;
+import nl.tudelft.sem.template.requests.models.EarliestAvailableDayResponseModel;
 import nl.tudelft.sem.template.requests.models.ResourcesDto;
+import nl.tudelft.sem.template.requests.models.TryReserveRequestModel;
+import nl.tudelft.sem.template.requests.models.TryReserveResponseModel;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -17,8 +28,24 @@ public class ResourcePoolService {
 
     private final transient RequestRepository requestRepo;
 
-    public ResourcePoolService(RequestRepository requestRepo) {
+    private final transient ResourcePoolShardRouter shardRouter;
+
+    private final transient ServiceTokenProvider serviceTokenProvider;
+
+    private final transient SingleFlight<Long, String> resourcesLookups = new SingleFlight<>();
+
+    /**
+     * Instantiates a new ResourcePoolService.
+     *
+     * @param requestRepo          the repository of the requests
+     * @param shardRouter          the routing table of the resourcepool instances
+     * @param serviceTokenProvider the provider of the token this microservice makes shared requests with
+     */
+    public ResourcePoolService(RequestRepository requestRepo, ResourcePoolShardRouter shardRouter,
+                               ServiceTokenProvider serviceTokenProvider) {
         this.requestRepo = requestRepo;
+        this.shardRouter = shardRouter;
+        this.serviceTokenProvider = serviceTokenProvider;
     }
 
     /**
@@ -47,10 +74,13 @@ public class ResourcePoolService {
         int month = day.get(Calendar.MONTH);
         String dayString = day.get(Calendar.DAY_OF_MONTH) + "-" + month + "-" + day.get(Calendar.YEAR);
         String facultyName;
+        String shard;
         if (toFreePool) {
             facultyName = "Free Pool";
+            shard = shardRouter.forFreePool();
         } else {
             facultyName = requestRepo.findById(requestId).get().getFacultyName();
+            shard = shardRouter.forFacultyName(facultyName);
         }
         String requestBody = "{\"day\": \"" + dayString + "\",\"requestId\": \"" + requestId
                 + "\",\"facultyName\": \"" + facultyName + "\"}";
@@ -60,7 +90,7 @@ public class ResourcePoolService {
         RestTemplate restTemplate = new RestTemplate();
 
         ResponseEntity<Boolean> response =
-                restTemplate.postForEntity("http://localhost:8085/automaticApproval", request, Boolean.class);
+                restTemplate.postForEntity(shard + "/automaticApproval", request, Boolean.class);
 
         return response;
     }
@@ -78,7 +108,7 @@ public class ResourcePoolService {
 
         RestTemplate restTemplate = new RestTemplate();
         ResponseEntity<String> response =
-                restTemplate.postForEntity("http://localhost:8085/getFacultyName", request, String.class);
+                restTemplate.postForEntity(shardRouter.forFacultyId(facultyId) + "/getFacultyName", request, String.class);
         if (response.getStatusCode().equals(HttpStatus.NOT_FOUND)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
@@ -97,30 +127,137 @@ public class ResourcePoolService {
         HttpEntity<String> request = new HttpEntity<>(facultyName, headers);
 
         RestTemplate restTemplate = new RestTemplate();
-        long facultyId = restTemplate.postForObject("http://localhost:8085/getFacultyId", request, Long.class);
+        long facultyId = restTemplate.postForObject(shardRouter.forFacultyName(facultyName) + "/getFacultyId",
+                request, Long.class);
         return facultyId;
     }
 
     /**
      * Requests the available resources from the RP MS.
+     * The RP MS is asked with the service token of this microservice, as the callers have been authenticated already,
+     * so concurrent requests for the same faculty share a single request and every caller gets its own copy.
      *
      * @param facultyId id of the faculty.
      * @return the available resources
      */
-    public Resources getFacultyResourcesById(long facultyId, String token) {
-        HttpHeaders headers = setup(token);
-        HttpEntity<Long> request = new HttpEntity<>(facultyId, headers);
-        RestTemplate restTemplate = new RestTemplate();
-        ResponseEntity<String> response =
-                restTemplate.postForEntity("http://localhost:8085/availableFacultyResources",
-                        request, String.class);
+    public Resources getFacultyResourcesById(long facultyId) {
+        String body = resourcesLookups.execute(facultyId, () -> {
+            HttpHeaders headers = setup(serviceTokenProvider.getToken());
+            HttpEntity<Long> request = new HttpEntity<>(facultyId, headers);
+            RestTemplate restTemplate = new RestTemplate();
+            return restTemplate.postForEntity(shardRouter.forFacultyId(facultyId) + "/availableFacultyResources",
+                    request, String.class).getBody();
+        });
         ObjectMapper objectMapper = new ObjectMapper();
         try {
-            ResourcesDto availableResources = objectMapper.readValue(response.getBody(), ResourcesDto.class);
+            ResourcesDto availableResources = objectMapper.readValue(body, ResourcesDto.class);
             return new Resources(availableResources.getCpu(), availableResources.getGpu(), availableResources.getMemory());
         } catch (JsonProcessingException j) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Asks the RP MS for the earliest day from the given day onwards on which a resource pool can fit the resources.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param from           the first day that may be returned
+     * @param resources      the resources that need to fit
+     * @param token          the jwtToken
+     * @return the earliest day with enough resources, or empty if there is none within the horizon
+     * @throws RestClientException if the RP MS could not be reached or failed to answer
+     */
+    public Optional<Calendar> getEarliestAvailableDay(long resourcePoolId, Calendar from,
+                                                      Resources resources, String token) {
+        HttpHeaders headers = setup(token);
+        EarliestAvailableDayRequestModel body = new EarliestAvailableDayRequestModel(resourcePoolId, from,
+                resources.getCpu(), resources.getGpu(), resources.getMemory());
+        HttpEntity<EarliestAvailableDayRequestModel> request = new HttpEntity<>(body, headers);
+        RestTemplate restTemplate = new RestTemplate();
+        try {
+            ResponseEntity<EarliestAvailableDayResponseModel> response =
+                    restTemplate.postForEntity(shardRouter.forFacultyId(resourcePoolId) + "/earliestAvailableDay",
+                            request, EarliestAvailableDayResponseModel.class);
+            if (response.getBody() == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(response.getBody().getDay());
+        } catch (HttpClientErrorException.NotFound e) {
+            // no day within the horizon fits, any other failure is not an answer and is left to the caller
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Asks the RP MS to hold resources of a resource pool on a day for a request that is being admitted.
+     * The check and the hold happen atomically, so two requests can never be given the same resources.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param day            the day to hold the resources on
+     * @param resources      the resources to hold
+     * @param ttlMillis      the time after which the hold expires if it is not committed
+     * @param token          the jwtToken
+     * @return the hold, or empty if there are not enough resources left or the RP MS could not be reached
+     */
+    public Optional<ResourceHold> tryReserve(long resourcePoolId, Calendar day, Resources resources, long ttlMillis,
+                                       String token) {
+        HttpHeaders headers = setup(token);
+        TryReserveRequestModel body = new TryReserveRequestModel(resourcePoolId, day,
+                resources.getCpu(), resources.getGpu(), resources.getMemory(), ttlMillis);
+        HttpEntity<TryReserveRequestModel> request = new HttpEntity<>(body, headers);
+        RestTemplate restTemplate = new RestTemplate();
+        try {
+            ResponseEntity<TryReserveResponseModel> response =
+                    restTemplate.postForEntity(shardRouter.forFacultyId(resourcePoolId) + "/tryReserve",
+                            request, TryReserveResponseModel.class);
+            if (response.getBody() == null || response.getBody().getHoldId() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new ResourceHold(resourcePoolId, response.getBody().getHoldId()));
+        } catch (RestClientException e) {
+            // a 409 means the resources are not available, any other failure is treated the same way
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Tells the RP MS to schedule a request on the resources held for it.
+     *
+     * @param hold      the hold
+     * @param requestId the id of the request
+     * @param token     the jwtToken
+     * @return true iff the request got scheduled, false if the hold expired or the RP MS could not be reached
+     */
+    public boolean commitHold(ResourceHold hold, long requestId, String token) {
+        HttpHeaders headers = setup(token);
+        HttpEntity<CommitHoldRequestModel> request =
+                new HttpEntity<>(new CommitHoldRequestModel(hold.getHoldId(), requestId), headers);
+        RestTemplate restTemplate = new RestTemplate();
+        try {
+            Boolean committed = restTemplate.postForObject(shardRouter.forFacultyId(hold.getResourcePoolId())
+                    + "/commitHold", request, Boolean.class);
+            return Boolean.TRUE.equals(committed);
+        } catch (RestClientException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tells the RP MS that resources held for a request are not needed after all.
+     * Failures are ignored, the hold expires on its own.
+     *
+     * @param hold  the hold
+     * @param token the jwtToken
+     */
+    public void releaseHold(ResourceHold hold, String token) {
+        HttpHeaders headers = setup(token);
+        HttpEntity<String> request = new HttpEntity<>(hold.getHoldId(), headers);
+        RestTemplate restTemplate = new RestTemplate();
+        try {
+            restTemplate.postForObject(shardRouter.forFacultyId(hold.getResourcePoolId()) + "/releaseHold",
+                    request, Boolean.class);
+        } catch (RestClientException e) {
+            System.out.println("Could not release hold " + hold.getHoldId() + ", it will expire: " + e.getMessage());
+        }
+    }
 }
@@ -47,4 +47,16 @@ public class Resources {
     public int hashCode() {
         return Objects.hash(memory, cpu, gpu);
     }
+
+    /**
+     * Subtracts the resources of one Resources object from the resources of another.
+     *
+     * @param resources1 the original resources
+     * @param resources2 the resources that are subtracted
+     * @return the remaining resources
+     */
+    public static Resources subtract(Resources resources1, Resources resources2) {
+        return new Resources(resources1.getCpu() - resources2.getCpu(),
+                resources1.getGpu() - resources2.getGpu(), resources1.getMemory() - resources2.getMemory());
+    }
 }
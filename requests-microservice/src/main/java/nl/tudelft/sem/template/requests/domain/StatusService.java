@@ -1,5 +1,6 @@
 package nl.tudelft.sem.template.requests.domain;
 
+import java.util.Optional;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -7,14 +8,17 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class StatusService {
     private final transient RequestRepository requestRepository;
+    private final transient NodeService nodeService;
 
     /**
      * Instantiates a new RegistrationService.
      *
      * @param requestRepository the request repository
+     * @param nodeService       the service that communicates with the nodes
      */
-    public StatusService(RequestRepository requestRepository) {
+    public StatusService(RequestRepository requestRepository, NodeService nodeService) {
         this.requestRepository = requestRepository;
+        this.nodeService = nodeService;
     }
 
     /**
@@ -27,17 +31,33 @@ public class StatusService {
         return requestRepository.findById(id).get().getStatus();
     }
 
+    /**
+     * Get the status of a request by id, if it was submitted by the given owner.
+     * Checks the ownership and reads the status with a single lookup by primary key.
+     *
+     * @param id The id of the request.
+     * @param owner The netId of the user asking for the status.
+     * @return The status of the request, empty if it does not exist or belongs to someone else
+     */
+    public Optional<Integer> getStatusForOwner(long id, String owner) {
+        return requestRepository.findStatusByIdAndOwner(id, owner);
+    }
+
     /**
      * Set the status of a request by id.
+     * A request that is no longer approved is released from the node it was assigned to.
      *
      * @param id The id of the request.
      * @param status The new status to which the request should be changed.
+     * @param token The jwtToken.
      */
-    public void setStatus(long id, int status) {
+    public void setStatus(long id, int status, String token) {
         AppRequest request = requestRepository.findById(id).get();
         request.setStatus(status);
         requestRepository.save(request);
-
+        if (status != 1) {
+            nodeService.releaseFromNode(id, token);
+        }
     }
 }
 
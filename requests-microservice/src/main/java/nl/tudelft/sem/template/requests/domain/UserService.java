@@ -1,5 +1,6 @@
 package nl.tudelft.sem.template.requests.domain;
 
+import nl.tudelft.sem.template.commons.SingleFlight;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
@@ -9,26 +10,33 @@ import org.springframework.web.client.RestTemplate;
 @Service
 public class UserService {
 
+    private final transient SingleFlight<String, Long> facultyIdLookups = new SingleFlight<>();
+
     public UserService() {
         
     }
 
     /**
      * Gets the facultyId for the manager.
+     * The answer depends on the manager the token belongs to, so only concurrent lookups with the same token
+     * share a request to the users microservice.
      *
      * @param token the jwtToken
      * @return the facultyId
      */
     public Long getFacultyIdForManager(String token) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Content-Type", "application/json");
-        headers.add("Authorization", "Bearer " + token);
+        return facultyIdLookups.execute(token, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Content-Type", "application/json");
+            headers.add("Authorization", "Bearer " + token);
 
-        HttpEntity<String> request = new HttpEntity<>("", headers);
+            HttpEntity<String> request = new HttpEntity<>("", headers);
 
-        RestTemplate restTemplate = new RestTemplate();
-        ResponseEntity<Long> response = restTemplate.postForEntity("http://localhost:8086/getFacultyIdForManager", request, Long.class);
-        return response.getBody();
+            RestTemplate restTemplate = new RestTemplate();
+            ResponseEntity<Long> response = restTemplate.postForEntity("http://localhost:8086/getFacultyIdForManager",
+                    request, Long.class);
+            return response.getBody();
+        });
     }
 
 }
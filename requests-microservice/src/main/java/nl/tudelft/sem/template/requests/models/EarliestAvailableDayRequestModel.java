@@ -0,0 +1,20 @@
+package nl.tudelft.sem.template.requests.models;
+
+import java.util.Calendar;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a request for the earliest day on which a resource pool has enough resources available.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EarliestAvailableDayRequestModel {
+    private long resourcePoolId;
+    private Calendar from;
+    private int cpu;
+    private int gpu;
+    private int memory;
+}
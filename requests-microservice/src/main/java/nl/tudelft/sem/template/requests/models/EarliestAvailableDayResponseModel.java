@@ -0,0 +1,16 @@
+package nl.tudelft.sem.template.requests.models;
+
+import java.util.Calendar;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing the earliest day on which a resource pool has enough resources available.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EarliestAvailableDayResponseModel {
+    private Calendar day;
+}
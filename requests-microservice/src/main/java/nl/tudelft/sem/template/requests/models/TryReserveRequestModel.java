@@ -0,0 +1,21 @@
+package nl.tudelft.sem.template.requests.models;
+
+import java.util.Calendar;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a request to hold resources of a resource pool on a day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TryReserveRequestModel {
+    private long resourcePoolId;
+    private Calendar day;
+    private int cpu;
+    private int gpu;
+    private int memory;
+    private long ttlMillis;
+}
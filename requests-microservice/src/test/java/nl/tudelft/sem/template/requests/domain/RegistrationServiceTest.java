@@ -19,6 +19,8 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Optional;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -59,6 +61,12 @@ class RegistrationServiceTest {
     @Autowired
     private transient RequestChecker requestChecker;
 
+    @Autowired
+    private transient RequestMetrics requestMetrics;
+
+    @Mock
+    private transient ServiceTokenProvider mockServiceTokenProvider;
+
     @Captor
     ArgumentCaptor<Calendar> tomorrowCaptor;
 
@@ -87,9 +95,9 @@ class RegistrationServiceTest {
         freePoolResources = new Resources(75, 75, 75);
         token = "token";
         registrationServiceWithMock = new RegistrationService(mockRequestRepository,
-                mockResourcePoolService, requestHandler, requestChecker);
+                mockResourcePoolService, requestHandler, requestChecker, requestMetrics, mockServiceTokenProvider);
         registrationServiceWithoutMock = new RegistrationService(requestRepository,
-                mockResourcePoolService, requestHandler, requestChecker);
+                mockResourcePoolService, requestHandler, requestChecker, requestMetrics, mockServiceTokenProvider);
     }
 
     @Test
@@ -207,18 +215,23 @@ class RegistrationServiceTest {
         deadline.set(Calendar.MINUTE, 59);
         deadline.set(Calendar.SECOND, 59);
         deadline.set(Calendar.MILLISECOND, 999);
+        deadline.add(Calendar.DAY_OF_MONTH, 1);
 
         AppRequest request4 = new AppRequest("Request4", new Resources(50, 50, 50),
                 "me", "math", deadline, 3);
-        when(mockResourcePoolService.getFacultyResourcesById(anyLong(), anyString()))
+        when(mockResourcePoolService.getFacultyResourcesById(anyLong()))
                 .thenReturn(new Resources(150, 150, 150));
+        ResourceHold hold = holdEverythingInFreePool();
 
         assertThat(registrationServiceWithMock.processRequestInPeriodOne(request4, "token")).isEqualTo(request4);
 
 
-        verify(mockResourcePoolService, times(1)).getFacultyResourcesById(1L, "token");
-        verify(mockResourcePoolService, times(1)).approval(tomorrowCaptor.capture(),
-                eq(request4.getId()), eq(true), eq("token"));
+        verify(mockResourcePoolService, times(1)).getFacultyResourcesById(1L);
+        verify(mockResourcePoolService, times(1)).tryReserve(eq(1L), tomorrowCaptor.capture(),
+                eq(new Resources(50, 50, 50)), anyLong(), eq("token"));
+        verify(mockResourcePoolService, times(1)).commitHold(hold, request4.getId(), "token");
+        verify(mockResourcePoolService, never()).approval(any(), anyLong(), anyBoolean(), anyString());
+        assertEquals(1, request4.getStatus());
 
         Calendar received = tomorrowCaptor.getValue();
 
@@ -237,7 +250,7 @@ class RegistrationServiceTest {
 
         AppRequest request4 = new AppRequest("Request4", new Resources(50, 50, 50),
                 "me", "math", deadline, 3);
-        when(mockResourcePoolService.getFacultyResourcesById(anyLong(), anyString()))
+        when(mockResourcePoolService.getFacultyResourcesById(anyLong()))
                 .thenReturn(new Resources(49, 49, 49));
 
         Calendar tomorrow = Calendar.getInstance();
@@ -250,6 +263,23 @@ class RegistrationServiceTest {
 
         verify(mockResourcePoolService, never()).approval(any(),
                 eq(request4.getId()), anyBoolean(), eq("token"));
+        verify(mockResourcePoolService, never()).tryReserve(anyLong(), any(), any(), anyLong(), anyString());
+    }
+
+    @Test
+    public void processRequestInPeriodOneNotAcceptedWhenHoldFails() {
+        AppRequest request4 = new AppRequest("Request4", new Resources(50, 50, 50),
+                "me", "math", daysFromNow(1), 3);
+        when(mockResourcePoolService.getFacultyResourcesById(anyLong()))
+                .thenReturn(new Resources(150, 150, 150));
+        when(mockResourcePoolService.tryReserve(anyLong(), any(), any(), anyLong(), anyString()))
+                .thenReturn(Optional.empty());
+
+        registrationServiceWithMock.processRequestInPeriodOne(request4, "token");
+
+        assertThat(request4.getStatus()).isNotEqualTo(1);
+        verify(mockResourcePoolService, never()).approval(any(), anyLong(), anyBoolean(), anyString());
+        verify(mockResourcePoolService, never()).commitHold(any(), anyLong(), anyString());
     }
 
     @Test
@@ -259,6 +289,7 @@ class RegistrationServiceTest {
         deadline.set(Calendar.MINUTE, 59);
         deadline.set(Calendar.SECOND, 59);
         deadline.set(Calendar.MILLISECOND, 999);
+        deadline.add(Calendar.DAY_OF_MONTH, 1);
 
         AppRequest request1 = new AppRequest("Request1", new Resources(1, 1, 1),
                 "me", "math", deadline, 1);
@@ -275,7 +306,8 @@ class RegistrationServiceTest {
 
         List<AppRequest> currRequests = new ArrayList<>(List.of(request1, request2, request3, request4, request5, request6));
         when(mockRequestRepository.findAll()).thenReturn(currRequests);
-        when(mockResourcePoolService.getFacultyResourcesById(anyLong(), any())).thenReturn(new Resources(150, 150, 150));
+        when(mockResourcePoolService.getFacultyResourcesById(anyLong())).thenReturn(new Resources(150, 150, 150));
+        holdEverythingInFreePool();
 
         registrationServiceWithMock.processAllPendingRequests();
 
@@ -422,7 +454,125 @@ class RegistrationServiceTest {
         assertEquals(resources, requestHandler.getResourcesForId(returnedRequest.getId()));
     }
 
+    @Test
+    public void processPendingRequestsApprovesInDeadlineOrderWhileTheyFit() {
+        AppRequest late = new AppRequest("late", new Resources(50, 50, 50), "me", "math", daysFromNow(3), 3);
+        AppRequest first = new AppRequest("first", new Resources(60, 60, 60), "me", "math", daysFromNow(1), 3);
+        AppRequest second = new AppRequest("second", new Resources(40, 40, 40), "me", "math", daysFromNow(2), 3);
+        AppRequest notWaiting = new AppRequest("other", new Resources(1, 1, 1), "me", "math", daysFromNow(1), 0);
+        when(mockRequestRepository.findAll()).thenReturn(List.of(late, first, second, notWaiting));
+        when(mockResourcePoolService.getFacultyResourcesById(1L)).thenReturn(new Resources(100, 100, 100));
+        holdEverythingInFreePool();
+
+        assertThat(registrationServiceWithMock.processPendingRequests(1, "token")).isEqualTo(2);
+
+        assertEquals(1, first.getStatus());
+        assertEquals(1, second.getStatus());
+        assertEquals(3, late.getStatus());
+        assertEquals(0, notWaiting.getStatus());
+        verify(mockResourcePoolService, times(1)).getFacultyResourcesById(1L);
+    }
+
+    @Test
+    public void processPendingRequestsOnlyApprovesRequestsForTomorrowBeforeSix() {
+        AppRequest tomorrow = new AppRequest("tomorrow", new Resources(10, 10, 10), "me", "math", daysFromNow(1), 3);
+        AppRequest later = new AppRequest("later", new Resources(10, 10, 10), "me", "math", daysFromNow(4), 3);
+        when(mockRequestRepository.findAll()).thenReturn(List.of(tomorrow, later));
+        when(mockResourcePoolService.getFacultyResourcesById(1L)).thenReturn(new Resources(100, 100, 100));
+        holdEverythingInFreePool();
+
+        assertThat(registrationServiceWithMock.processPendingRequests(0, "token")).isEqualTo(1);
+
+        assertEquals(1, tomorrow.getStatus());
+        assertEquals(3, later.getStatus());
+    }
+
+    @Test
+    public void processPendingRequestsOnCapacityChangeUsesTheServiceToken() {
+        AppRequest waiting = new AppRequest("waiting", new Resources(10, 10, 10), "me", "math", daysFromNow(1), 3);
+        when(mockRequestRepository.findAll()).thenReturn(List.of(waiting));
+        when(mockServiceTokenProvider.getToken()).thenReturn("service token");
+        when(mockResourcePoolService.getFacultyResourcesById(1L))
+                .thenReturn(new Resources(100, 100, 100));
 
+        registrationServiceWithMock.processPendingRequestsOnCapacityChange();
 
+        verify(mockResourcePoolService).getFacultyResourcesById(1L);
+        verify(mockResourcePoolService).tryReserve(eq(1L), any(), any(), anyLong(), eq("service token"));
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void processPendingRequestsOnlyUsesUpTheFreePoolForRequestsPlacedThere() {
+        AppRequest first = new AppRequest("first", new Resources(60, 60, 60), "me", "math", daysFromNow(1), 3);
+        AppRequest second = new AppRequest("second", new Resources(60, 60, 60), "me", "math", daysFromNow(2), 3);
+        when(mockRequestRepository.findAll()).thenReturn(List.of(first, second));
+        when(mockResourcePoolService.getFacultyResourcesById(1L)).thenReturn(new Resources(100, 100, 100));
+        holdEverythingInFreePool();
+        // the faculty itself has room tomorrow, so neither request ends up in the free pool
+        when(mockResourcePoolService.getIdByName("math", "token")).thenReturn(2L);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), anyString()))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(1)));
+        when(mockResourcePoolService.tryReserve(eq(2L), any(), any(), anyLong(), anyString()))
+                .thenReturn(Optional.of(new ResourceHold(2L, "faculty-hold")));
+
+        assertThat(registrationServiceWithMock.processPendingRequests(1, "token")).isEqualTo(2);
+
+        assertEquals(1, first.getStatus());
+        assertEquals(1, second.getStatus());
+    }
+
+    @Test
+    public void processPendingRequestsSkipsRequestsWhoseResourcesCannotBeHeld() {
+        AppRequest first = new AppRequest("first", new Resources(60, 60, 60), "me", "math", daysFromNow(1), 3);
+        AppRequest second = new AppRequest("second", new Resources(40, 40, 40), "me", "math", daysFromNow(2), 3);
+        when(mockRequestRepository.findAll()).thenReturn(List.of(first, second));
+        when(mockResourcePoolService.getFacultyResourcesById(1L)).thenReturn(new Resources(100, 100, 100));
+        // another registration took part of the free pool after its resources were fetched
+        when(mockResourcePoolService.tryReserve(eq(1L), any(), eq(new Resources(60, 60, 60)), anyLong(), anyString()))
+                .thenReturn(Optional.empty());
+        when(mockResourcePoolService.tryReserve(eq(1L), any(), eq(new Resources(40, 40, 40)), anyLong(), anyString()))
+                .thenReturn(Optional.of(new ResourceHold(1L, "second-hold")));
+        when(mockResourcePoolService.commitHold(any(), anyLong(), anyString())).thenReturn(true);
+
+        assertThat(registrationServiceWithMock.processPendingRequests(1, "token")).isEqualTo(1);
+
+        assertEquals(3, first.getStatus());
+        assertEquals(1, second.getStatus());
+        verify(mockResourcePoolService).commitHold(new ResourceHold(1L, "second-hold"), second.getId(), "token");
+        verify(mockResourcePoolService, never()).approval(any(), anyLong(), anyBoolean(), anyString());
+    }
+
+    @Test
+    public void processPendingRequestsCountsAFailedPlacementAsManualReview() {
+        AppRequest waiting = new AppRequest("waiting", new Resources(10, 10, 10), "me", "math", daysFromNow(1), 3);
+        when(mockRequestRepository.findAll()).thenReturn(List.of(waiting));
+        when(mockResourcePoolService.getFacultyResourcesById(1L)).thenReturn(new Resources(100, 100, 100));
+        when(mockResourcePoolService.tryReserve(eq(1L), any(), any(), anyLong(), any()))
+                .thenReturn(Optional.of(new ResourceHold(1L, "hold")));
+        // the hold expired before the request could be scheduled on it
+        when(mockResourcePoolService.commitHold(any(), anyLong(), any())).thenReturn(false);
+        RequestMetrics mockRequestMetrics = Mockito.mock(RequestMetrics.class);
+        RegistrationService registrationService = new RegistrationService(mockRequestRepository,
+                mockResourcePoolService, requestHandler, requestChecker, mockRequestMetrics, mockServiceTokenProvider);
+
+        assertThat(registrationService.processPendingRequests(1, "token")).isZero();
+
+        assertEquals(0, waiting.getStatus());
+        verify(mockRequestMetrics).recordDecision(0);
+        verify(mockRequestMetrics, never()).recordDecision(1);
+    }
+
+    private ResourceHold holdEverythingInFreePool() {
+        ResourceHold hold = new ResourceHold(1L, "hold");
+        when(mockResourcePoolService.tryReserve(eq(1L), any(), any(), anyLong(), any()))
+                .thenReturn(Optional.of(hold));
+        when(mockResourcePoolService.commitHold(any(), anyLong(), any())).thenReturn(true);
+        return hold;
+    }
+
+    private static Calendar daysFromNow(int days) {
+        Calendar day = Calendar.getInstance();
+        day.add(Calendar.DAY_OF_MONTH, days);
+        return day;
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -25,6 +27,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.server.ResponseStatusException;
 
 @ExtendWith(SpringExtension.class)
@@ -42,6 +45,9 @@ public class RequestHandlerTest {
     @MockBean
     private transient ResourcePoolService mockResourcePoolService;
 
+    @MockBean
+    private transient NodeService mockNodeService;
+
     @Autowired
     private transient RequestHandler requestHandler;
 
@@ -71,7 +77,9 @@ public class RequestHandlerTest {
         deadline = Calendar.getInstance();
         freePoolResources = new Resources(75, 75, 75);
         token = "token";
-        requestHandler = new RequestHandler(requestRepository, mockResourcePoolService);
+        when(mockNodeService.fitsOnNode(anyLong(), any(), any(), any())).thenReturn(true);
+        requestHandler = new RequestHandler(requestRepository, mockResourcePoolService,
+                new RequestPlacementService(mockResourcePoolService, mockNodeService), mockNodeService);
 
         appRequestArgumentCaptor = ArgumentCaptor.forClass(AppRequest.class);
         r1 = registrationService.registerRequest(description, resources, owner,
@@ -130,11 +138,11 @@ public class RequestHandlerTest {
 
         requestHandler.registerRequestOnceStatusDecided(1, r1, token);
 
-        verify(mockResourcePoolService).approval(any(),
-                eq(r1.getId()), eq(true), eq(token));
+        // nothing is held for the request, so it is not scheduled on resources that may not be there
+        verify(mockResourcePoolService, times(0)).approval(any(), anyLong(), anyBoolean(), any());
         verify(requestRepository).save(appRequestArgumentCaptor.capture());
 
-        assertEquals(1, appRequestArgumentCaptor.getValue().getStatus());
+        assertEquals(0, appRequestArgumentCaptor.getValue().getStatus());
     }
 
     @Test
@@ -156,5 +164,112 @@ public class RequestHandlerTest {
         assertEquals(3, appRequestArgumentCaptor.getValue().getStatus());
     }
 
+    @Test
+    void registerRequest1PlacesRequestOnFacultyDayBeforeDeadline() {
+        Calendar laterDeadline = Calendar.getInstance();
+        laterDeadline.add(Calendar.DAY_OF_MONTH, 7);
+        AppRequest request = new AppRequest(description, resources, owner, facultyName, laterDeadline, -1);
+        Calendar facultyDay = Calendar.getInstance();
+        facultyDay.add(Calendar.DAY_OF_MONTH, 3);
+        when(mockResourcePoolService.getIdByName(facultyName, token)).thenReturn(2L);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(facultyDay));
+        ResourceHold hold = new ResourceHold(2L, "hold");
+        when(mockResourcePoolService.tryReserve(eq(2L), eq(facultyDay), any(), anyLong(), eq(token)))
+                .thenReturn(Optional.of(hold));
+        when(mockResourcePoolService.commitHold(hold, request.getId(), token)).thenReturn(true);
+
+        requestHandler.registerRequestOnceStatusDecided(1, request, token);
+
+        verify(requestRepository).save(appRequestArgumentCaptor.capture());
+        assertEquals(facultyDay, appRequestArgumentCaptor.getValue().getExecutionDay());
+        verify(mockResourcePoolService).commitHold(hold, request.getId(), token);
+        verify(mockResourcePoolService, times(0)).approval(any(), anyLong(), anyBoolean(), any());
+        verify(mockResourcePoolService, times(0)).getEarliestAvailableDay(eq(1L), any(), any(), any());
+        verify(mockNodeService).assignToNode(request.getId(), 2L, facultyDay, resources, token);
+    }
+
+    @Test
+    void reschedulingReleasesTheRequestFromItsOldNode() {
+        AppRequest request = new AppRequest(description, resources, owner, facultyName, deadline, 1);
+        request.setExecutionDay(Calendar.getInstance());
+        when(mockResourcePoolService.getEarliestAvailableDay(anyLong(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        requestHandler.scheduleApprovedRequest(request, token);
+
+        verify(mockNodeService).releaseFromNode(request.getId(), token);
+    }
+
+    @Test
+    void schedulingANewRequestReleasesNoNode() {
+        AppRequest request = new AppRequest(description, resources, owner, facultyName, deadline, 1);
+        when(mockResourcePoolService.getEarliestAvailableDay(anyLong(), any(), any(), any()))
+                .thenReturn(Optional.empty());
 
+        requestHandler.scheduleApprovedRequest(request, token);
+
+        verify(mockNodeService, times(0)).releaseFromNode(anyLong(), any());
+    }
+
+    @Test
+    void registerRequest1LeavesRequestForManualReviewWhenHoldExpired() {
+        Calendar tomorrow = Calendar.getInstance();
+        tomorrow.add(Calendar.DAY_OF_MONTH, 1);
+        AppRequest request = new AppRequest(description, resources, owner, facultyName, tomorrow, -1);
+        ResourceHold admissionHold = new ResourceHold(1L, "expired");
+        when(mockResourcePoolService.getEarliestAvailableDay(anyLong(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(mockResourcePoolService.commitHold(admissionHold, request.getId(), token)).thenReturn(false);
+
+        requestHandler.registerRequestOnceStatusDecided(1, request, admissionHold, token);
+
+        assertEquals(0, request.getStatus());
+        verify(mockResourcePoolService).commitHold(admissionHold, request.getId(), token);
+        verify(mockResourcePoolService, times(0)).approval(any(), anyLong(), anyBoolean(), any());
+        verify(mockNodeService, times(0)).assignToNode(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void registerRequestNotApprovedReleasesAdmissionHold() {
+        ResourceHold admissionHold = new ResourceHold(1L, "admission");
+
+        requestHandler.registerRequestOnceStatusDecided(0, r1, admissionHold, token);
+
+        verify(mockResourcePoolService).releaseHold(admissionHold, token);
+        verify(mockResourcePoolService, times(0)).commitHold(any(), anyLong(), any());
+    }
+
+    @Test
+    void registerRequest1FallsBackToFreePoolTomorrow() {
+        Calendar tomorrow = Calendar.getInstance();
+        tomorrow.add(Calendar.DAY_OF_MONTH, 1);
+        AppRequest request = new AppRequest(description, resources, owner, facultyName, tomorrow, -1);
+        ResourceHold admissionHold = new ResourceHold(1L, "admission");
+        when(mockResourcePoolService.getEarliestAvailableDay(anyLong(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(mockResourcePoolService.commitHold(admissionHold, request.getId(), token)).thenReturn(true);
+
+        requestHandler.registerRequestOnceStatusDecided(1, request, admissionHold, token);
+
+        verify(requestRepository).save(appRequestArgumentCaptor.capture());
+        assertEquals(tomorrow.get(Calendar.DAY_OF_YEAR),
+                appRequestArgumentCaptor.getValue().getExecutionDay().get(Calendar.DAY_OF_YEAR));
+        verify(mockResourcePoolService).commitHold(admissionHold, request.getId(), token);
+        verify(mockNodeService).assignToNode(eq(request.getId()), eq(1L), any(), eq(resources), eq(token));
+    }
+
+    @Test
+    void registerRequest1LeavesRequestForManualReviewWhenRpMsFails() {
+        ResourceHold admissionHold = new ResourceHold(1L, "admission");
+        when(mockResourcePoolService.getIdByName(facultyName, token)).thenReturn(2L);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), any()))
+                .thenThrow(new ResourceAccessException("RP MS is down"));
+
+        requestHandler.registerRequestOnceStatusDecided(1, r1, admissionHold, token);
+
+        assertEquals(0, r1.getStatus());
+        verify(mockResourcePoolService).releaseHold(admissionHold, token);
+        verify(mockResourcePoolService, times(0)).commitHold(any(), anyLong(), any());
+    }
 }
@@ -0,0 +1,49 @@
+package nl.tudelft.sem.template.requests.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RequestMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    private RequestChecker requestChecker;
+
+    private RequestMetrics requestMetrics;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        requestMetrics = new RequestMetrics(registry);
+        requestChecker = new RequestChecker(requestMetrics);
+    }
+
+    @Test
+    void decisionsAreCountedPerOutcome() {
+        // approved, rejected, deferred and manual review respectively
+        requestChecker.decideStatusOfRequest(1, false, true, false);
+        requestChecker.decideStatusOfRequest(2, true, true, true);
+        requestChecker.decideStatusOfRequest(0, false, false, false);
+        requestChecker.decideStatusOfRequest(0, false, false, true);
+        requestChecker.decideStatusOfRequest(0, false, false, true);
+
+        assertThat(count("approved")).isEqualTo(1.0);
+        assertThat(count("rejected")).isEqualTo(1.0);
+        assertThat(count("deferred")).isEqualTo(1.0);
+        assertThat(count("manual_review")).isEqualTo(2.0);
+    }
+
+    @Test
+    void pendingRunIsTimed() {
+        requestMetrics.timePendingRun(() -> { });
+
+        assertThat(registry.get(RequestMetrics.PENDING_RUN_METRIC).timer().count()).isEqualTo(1L);
+    }
+
+    private double count(String outcome) {
+        return registry.get(RequestMetrics.ADMISSION_METRIC).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,278 @@
+package nl.tudelft.sem.template.requests.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Calendar;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+public class RequestPlacementServiceTest {
+
+    private ResourcePoolService mockResourcePoolService;
+
+    private NodeService mockNodeService;
+
+    private RequestPlacementService requestPlacementService;
+
+    private AppRequest request;
+
+    private final String token = "token";
+
+    @BeforeEach
+    void setup() {
+        mockResourcePoolService = mock(ResourcePoolService.class);
+        mockNodeService = mock(NodeService.class);
+        requestPlacementService = new RequestPlacementService(mockResourcePoolService, mockNodeService);
+
+        Calendar deadline = Calendar.getInstance();
+        deadline.add(Calendar.DAY_OF_MONTH, 5);
+        request = new AppRequest("request", new Resources(10, 5, 20), "me", "EEMCS", deadline, 1);
+        when(mockResourcePoolService.getIdByName("EEMCS", token)).thenReturn(2L);
+        when(mockResourcePoolService.tryReserve(anyLong(), any(), any(), anyLong(), eq(token)))
+                .thenAnswer(invocation -> Optional.of(new ResourceHold(invocation.getArgument(0), "hold")));
+        when(mockNodeService.fitsOnNode(anyLong(), any(), any(), eq(token))).thenReturn(true);
+    }
+
+    @Test
+    void placesOnEarliestFacultyDay() {
+        Calendar facultyDay = daysFromNow(2);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(facultyDay));
+
+        RequestPlacement placement = requestPlacementService.place(request, token).orElseThrow();
+
+        assertThat(placement.getDay()).isEqualTo(facultyDay);
+        assertThat(placement.isToFreePool()).isFalse();
+        assertThat(placement.getHold()).isEqualTo(new ResourceHold(2L, "hold"));
+    }
+
+    @Test
+    void usesFreePoolWhenFacultyDayCannotBeHeld() {
+        Calendar facultyDay = daysFromNow(2);
+        Calendar freePoolDay = daysFromNow(3);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(facultyDay));
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(1L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(freePoolDay));
+        when(mockResourcePoolService.tryReserve(eq(2L), any(), any(), anyLong(), eq(token)))
+                .thenReturn(Optional.empty());
+
+        RequestPlacement placement = requestPlacementService.place(request, token).orElseThrow();
+
+        assertThat(placement.getDay()).isEqualTo(freePoolDay);
+        assertThat(placement.getHold()).isEqualTo(new ResourceHold(1L, "hold"));
+    }
+
+    @Test
+    void holdsFirstFacultyDayWhenNoDayHasAFittingNode() {
+        Calendar facultyDay = daysFromNow(2);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(facultyDay), Optional.of(daysFromNow(3)), Optional.empty());
+        when(mockNodeService.fitsOnNode(eq(2L), any(), any(), eq(token))).thenReturn(false);
+
+        RequestPlacement placement = requestPlacementService.place(request, token).orElseThrow();
+
+        assertThat(placement.getDay()).isEqualTo(facultyDay);
+        assertThat(placement.isToFreePool()).isFalse();
+        verify(mockResourcePoolService, times(1)).tryReserve(eq(2L), any(), any(), anyLong(), any());
+        verify(mockResourcePoolService, never()).getEarliestAvailableDay(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void usesFreePoolWhenFacultyDayWithoutFittingNodeCannotBeHeld() {
+        Calendar freePoolDay = daysFromNow(3);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(daysFromNow(2)), Optional.empty());
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(1L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(freePoolDay));
+        when(mockNodeService.fitsOnNode(eq(2L), any(), any(), eq(token))).thenReturn(false);
+        when(mockResourcePoolService.tryReserve(eq(2L), any(), any(), anyLong(), eq(token)))
+                .thenReturn(Optional.empty());
+
+        RequestPlacement placement = requestPlacementService.place(request, token).orElseThrow();
+
+        assertThat(placement.getDay()).isEqualTo(freePoolDay);
+        assertThat(placement.isToFreePool()).isTrue();
+    }
+
+    @Test
+    void triesTheNextFacultyDayWhenTheEarliestCannotBeHeld() {
+        Calendar heldDay = daysFromNow(2);
+        Calendar nextDay = daysFromNow(4);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(heldDay), Optional.of(nextDay));
+        when(mockResourcePoolService.tryReserve(eq(2L), eq(heldDay), any(), anyLong(), eq(token)))
+                .thenReturn(Optional.empty());
+
+        RequestPlacement placement = requestPlacementService.place(request, token).orElseThrow();
+
+        assertThat(placement.getDay()).isEqualTo(nextDay);
+        assertThat(placement.isToFreePool()).isFalse();
+        verify(mockResourcePoolService).getEarliestAvailableDay(eq(2L),
+                argThat(from -> from.get(Calendar.DAY_OF_YEAR) == daysFromNow(3).get(Calendar.DAY_OF_YEAR)),
+                any(), eq(token));
+        verify(mockResourcePoolService, never()).getEarliestAvailableDay(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void triesTheNextFacultyDayWhenNoNodeFitsOnTheEarliest() {
+        Calendar fullDay = daysFromNow(2);
+        Calendar nextDay = daysFromNow(3);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(fullDay), Optional.of(nextDay));
+        when(mockNodeService.fitsOnNode(eq(2L), eq(fullDay), any(), eq(token))).thenReturn(false);
+
+        RequestPlacement placement = requestPlacementService.place(request, token).orElseThrow();
+
+        assertThat(placement.getDay()).isEqualTo(nextDay);
+        verify(mockResourcePoolService, never()).tryReserve(eq(2L), eq(fullDay), any(), anyLong(), any());
+    }
+
+    @Test
+    void givesUpOnTheFacultyAfterTheMaximumAmountOfDays() {
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(daysFromNow(2)));
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(1L), any(), any(), eq(token)))
+                .thenReturn(Optional.empty());
+        when(mockResourcePoolService.tryReserve(eq(2L), any(), any(), anyLong(), eq(token)))
+                .thenReturn(Optional.empty());
+
+        assertThat(requestPlacementService.place(request, token)).isEmpty();
+        verify(mockResourcePoolService, times(RequestPlacementService.MAX_DAY_ATTEMPTS))
+                .tryReserve(eq(2L), any(), any(), anyLong(), eq(token));
+    }
+
+    @Test
+    void reusesAdmissionHoldForFreePoolTomorrow() {
+        ResourceHold admissionHold = new ResourceHold(1L, "admission");
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.empty());
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(1L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(daysFromNow(1)));
+
+        RequestPlacement placement = requestPlacementService.place(request, admissionHold, token).orElseThrow();
+
+        assertThat(placement.getHold()).isEqualTo(admissionHold);
+        assertThat(placement.isToFreePool()).isTrue();
+        verify(mockResourcePoolService, never()).tryReserve(eq(1L), any(), any(), anyLong(), any());
+        verify(mockResourcePoolService, never()).releaseHold(any(), any());
+    }
+
+    @Test
+    void releasesAdmissionHoldWhenPlacedInFaculty() {
+        ResourceHold admissionHold = new ResourceHold(1L, "admission");
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(daysFromNow(2)));
+
+        RequestPlacement placement = requestPlacementService.place(request, admissionHold, token).orElseThrow();
+
+        assertThat(placement.getHold()).isEqualTo(new ResourceHold(2L, "hold"));
+        verify(mockResourcePoolService).releaseHold(admissionHold, token);
+    }
+
+    @Test
+    void usesFreePoolWhenFacultyDayIsAfterDeadline() {
+        Calendar freePoolDay = daysFromNow(3);
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(daysFromNow(6)));
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(1L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(freePoolDay));
+
+        RequestPlacement placement = requestPlacementService.place(request, token).orElseThrow();
+
+        assertThat(placement.getDay()).isEqualTo(freePoolDay);
+        assertThat(placement.isToFreePool()).isTrue();
+        assertThat(placement.getHold()).isEqualTo(new ResourceHold(1L, "hold"));
+    }
+
+    @Test
+    void fallsBackToAdmissionHoldWithoutAnyFittingDay() {
+        ResourceHold admissionHold = new ResourceHold(1L, "admission");
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.empty());
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(1L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(daysFromNow(10)));
+
+        RequestPlacement placement = requestPlacementService.place(request, admissionHold, token).orElseThrow();
+
+        assertThat(placement.getDay().get(Calendar.DAY_OF_YEAR)).isEqualTo(daysFromNow(1).get(Calendar.DAY_OF_YEAR));
+        assertThat(placement.isToFreePool()).isTrue();
+        assertThat(placement.getHold()).isEqualTo(admissionHold);
+    }
+
+    @Test
+    void noPlacementWithoutAnyFittingDayOrAdmissionHold() {
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenReturn(Optional.empty());
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(1L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(daysFromNow(10)));
+
+        assertThat(requestPlacementService.place(request, token)).isEmpty();
+    }
+
+    @Test
+    void admissionHoldIsNotUsedAfterTheDeadline() {
+        ResourceHold admissionHold = new ResourceHold(1L, "admission");
+        request = new AppRequest("request", new Resources(10, 5, 20), "me", "EEMCS", Calendar.getInstance(), 1);
+        when(mockResourcePoolService.getEarliestAvailableDay(anyLong(), any(), any(), eq(token)))
+                .thenReturn(Optional.empty());
+
+        assertThat(requestPlacementService.place(request, admissionHold, token)).isEmpty();
+        verify(mockResourcePoolService).releaseHold(admissionHold, token);
+    }
+
+    @Test
+    void failingSearchIsNotTakenForNoDay() {
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(2L), any(), any(), eq(token)))
+                .thenThrow(new ResourceAccessException("RP MS is down"));
+
+        assertThatThrownBy(() -> requestPlacementService.place(request, token))
+                .isInstanceOf(ResourceAccessException.class);
+        verify(mockResourcePoolService, never()).getEarliestAvailableDay(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void unknownFacultyOnlyConsidersFreePool() {
+        Calendar freePoolDay = daysFromNow(2);
+        when(mockResourcePoolService.getIdByName(anyString(), eq(token))).thenThrow(new RestClientException("down"));
+        when(mockResourcePoolService.getEarliestAvailableDay(eq(1L), any(), any(), eq(token)))
+                .thenReturn(Optional.of(freePoolDay));
+
+        RequestPlacement placement = requestPlacementService.place(request, token).orElseThrow();
+
+        assertThat(placement.getDay()).isEqualTo(freePoolDay);
+        assertThat(placement.isToFreePool()).isTrue();
+    }
+
+    @Test
+    void isNotAfterDeadlineComparesDaysOnly() {
+        Calendar deadline = daysFromNow(2);
+        deadline.set(Calendar.HOUR_OF_DAY, 0);
+        Calendar sameDay = daysFromNow(2);
+        sameDay.set(Calendar.HOUR_OF_DAY, 23);
+
+        assertThat(RequestPlacementService.isNotAfterDeadline(sameDay, deadline)).isTrue();
+        assertThat(RequestPlacementService.isNotAfterDeadline(daysFromNow(3), deadline)).isFalse();
+        assertThat(RequestPlacementService.isNotAfterDeadline(daysFromNow(1), null)).isFalse();
+    }
+
+    private static Calendar daysFromNow(int days) {
+        Calendar day = Calendar.getInstance();
+        day.add(Calendar.DAY_OF_MONTH, days);
+        return day;
+    }
+}
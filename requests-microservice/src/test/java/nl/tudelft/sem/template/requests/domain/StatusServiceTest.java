@@ -2,6 +2,10 @@ package nl.tudelft.sem.template.requests.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import java.util.Calendar;
 import java.util.NoSuchElementException;
@@ -9,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -24,6 +29,8 @@ class StatusServiceTest {
     private transient StatusService statusService;
     @Autowired
     private transient RequestRepository requestRepository;
+    @MockBean
+    private transient NodeService mockNodeService;
 
     @Test
     public void getStatusOnExistingRequestTest() {
@@ -73,7 +80,7 @@ class StatusServiceTest {
         AppRequest savedRequest = requestRepository.save(appRequest);
         long requestId = savedRequest.getId();
 
-        statusService.setStatus(requestId, 3);
+        statusService.setStatus(requestId, 3, "token");
         int status = statusService.getStatus(requestId);
         assertThat(status == 3);
     }
@@ -92,7 +99,46 @@ class StatusServiceTest {
         long requestId = savedRequest.getId();
 
         assertThrows(NoSuchElementException.class, () -> {
-            statusService.setStatus(requestId + 1, 3);
+            statusService.setStatus(requestId + 1, 3, "token");
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void rejectingReleasesTheRequestFromItsNodeTest() {
+        final Calendar deadline = Calendar.getInstance();
+        deadline.set(Calendar.YEAR, 2010);
+        AppRequest appRequest = new AppRequest("give me resources", new Resources(50, 30, 50), "The Boss", "CSE",
+                deadline, 1);
+        long requestId = requestRepository.save(appRequest).getId();
+
+        statusService.setStatus(requestId, 2, "token");
+
+        verify(mockNodeService).releaseFromNode(requestId, "token");
+    }
+
+    @Test
+    public void approvingKeepsTheRequestOnItsNodeTest() {
+        final Calendar deadline = Calendar.getInstance();
+        deadline.set(Calendar.YEAR, 2010);
+        AppRequest appRequest = new AppRequest("give me resources", new Resources(50, 30, 50), "The Boss", "CSE",
+                deadline, 0);
+        long requestId = requestRepository.save(appRequest).getId();
+
+        statusService.setStatus(requestId, 1, "token");
+
+        verify(mockNodeService, never()).releaseFromNode(anyLong(), any());
+    }
+
+    @Test
+    public void getStatusForOwnerTest() {
+        final Calendar deadline = Calendar.getInstance();
+        deadline.set(Calendar.YEAR, 2010);
+        AppRequest appRequest = new AppRequest("give me resources", new Resources(50, 30, 50), "The Boss", "CSE",
+                deadline, 2);
+        long requestId = requestRepository.save(appRequest).getId();
+
+        assertThat(statusService.getStatusForOwner(requestId, "The Boss")).contains(2);
+        assertThat(statusService.getStatusForOwner(requestId, "The Intern")).isEmpty();
+        assertThat(statusService.getStatusForOwner(requestId + 1, "The Boss")).isEmpty();
+    }
+}
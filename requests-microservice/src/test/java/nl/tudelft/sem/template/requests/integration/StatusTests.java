@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Calendar;
@@ -160,4 +161,38 @@ public class StatusTests {
             int status = requestRepository.findById(requestId + 1).get().getStatus();
         });
     }
+
+    @Test
+    public void getOwnStatus_ofOwnRequest_returnsStatus() throws Exception {
+        AppRequest appRequest = new AppRequest("give me resources", new Resources(50, 30, 50), "User", "CSE",
+                Calendar.getInstance(), 3);
+        final long requestId = requestRepository.save(appRequest).getId();
+
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockAuthenticationManager.getNetId()).thenReturn("User");
+
+        ResultActions resultActions = mockMvc.perform(post("/getOwnStatus")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer MockedToken")
+                .content(JsonUtil.serialize(requestId)));
+
+        resultActions.andExpect(status().isOk()).andExpect(content().string("3"));
+    }
+
+    @Test
+    public void getOwnStatus_ofSomeoneElsesRequest_isForbidden() throws Exception {
+        AppRequest appRequest = new AppRequest("give me resources", new Resources(50, 30, 50), "User", "CSE",
+                Calendar.getInstance(), 3);
+        final long requestId = requestRepository.save(appRequest).getId();
+
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockAuthenticationManager.getNetId()).thenReturn("SomeoneElse");
+
+        ResultActions resultActions = mockMvc.perform(post("/getOwnStatus")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer MockedToken")
+                .content(JsonUtil.serialize(requestId)));
+
+        resultActions.andExpect(status().isForbidden());
+    }
 }
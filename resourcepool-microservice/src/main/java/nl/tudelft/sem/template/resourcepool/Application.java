@@ -1,14 +1,32 @@
 package nl.tudelft.sem.template.resourcepool;
 
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 
 /**
  * resourcepool microservice application.
  */
 @SpringBootApplication
+@Import(ResourcePoolShardRouter.class)
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
     }
+
+    /**
+     * The provider of the token the shards use to call each other.
+     *
+     * @param jwtSecret the secret the JWT tokens are signed with
+     * @return the provider of the resourcepool service token
+     */
+    @Bean
+    public ServiceTokenProvider serviceTokenProvider(@Value("${jwt.secret}") String jwtSecret) {
+        return new ServiceTokenProvider(ServiceIdentity.RESOURCEPOOL, jwtSecret);
+    }
 }
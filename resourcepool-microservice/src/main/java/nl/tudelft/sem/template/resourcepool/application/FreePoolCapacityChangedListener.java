@@ -0,0 +1,33 @@
+package nl.tudelft.sem.template.resourcepool.application;
+
+import nl.tudelft.sem.template.resourcepool.domain.RequestService;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FreePoolCapacityChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * This event listener is automatically called when the resources of the free pool changed,
+ * after a release, a node contribution or a redistribution. It pushes the change to the Request MS,
+ * which processes the requests waiting for the free pool immediately instead of at a fixed time.
+ */
+@Component
+public class FreePoolCapacityChangedListener {
+
+    private final transient RequestService requestService;
+
+    public FreePoolCapacityChangedListener(RequestService requestService) {
+        this.requestService = requestService;
+    }
+
+    /**
+     * The name of the function indicated which event is listened to.
+     * The format is onEVENTNAME. Runs once the change is committed, or right away outside of a transaction.
+     *
+     * @param event The event to react to
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFreePoolCapacityChanged(FreePoolCapacityChangedEvent event) {
+        System.out.println("Free pool capacity changed (" + event.getCause() + ").");
+        requestService.notifyFreePoolCapacityChanged();
+    }
+}
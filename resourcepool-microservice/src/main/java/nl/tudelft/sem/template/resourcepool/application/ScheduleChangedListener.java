@@ -0,0 +1,56 @@
+package nl.tudelft.sem.template.resourcepool.application;
+
+import nl.tudelft.sem.template.resourcepool.domain.ScheduleChangeNotifier;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.ScheduleChangedEvent;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyWasCreatedEvent;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.NodeResourcesChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * This event listener is automatically called when the schedules of a resource pool changed,
+ * its resources changed or a faculty was created, and pushes the change to the Users MS,
+ * which drops the schedule views it cached for that resource pool.
+ */
+@Component
+public class ScheduleChangedListener {
+
+    private final transient ScheduleChangeNotifier scheduleChangeNotifier;
+
+    public ScheduleChangedListener(ScheduleChangeNotifier scheduleChangeNotifier) {
+        this.scheduleChangeNotifier = scheduleChangeNotifier;
+    }
+
+    /**
+     * The name of the function indicated which event is listened to.
+     * The format is onEVENTNAME. Runs once the change is committed, or right away outside of a transaction.
+     *
+     * @param event The event to react to
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        scheduleChangeNotifier.changed(event.getResourcePoolId());
+    }
+
+    /**
+     * The name of the function indicated which event is listened to.
+     * The format is onEVENTNAME. Runs once the change is committed, or right away outside of a transaction.
+     *
+     * @param event The event to react to
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNodeResourcesChanged(NodeResourcesChangedEvent event) {
+        scheduleChangeNotifier.changed(event.getResourcePoolId());
+    }
+
+    /**
+     * The name of the function indicated which event is listened to.
+     * The format is onEVENTNAME. Runs once the change is committed, or right away outside of a transaction.
+     *
+     * @param event The event to react to
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFacultyWasCreated(FacultyWasCreatedEvent event) {
+        scheduleChangeNotifier.overviewChanged();
+    }
+}
@@ -0,0 +1,47 @@
+package nl.tudelft.sem.template.resourcepool.application;
+
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.ScheduleSavedEvent;
+import nl.tudelft.sem.template.resourcepool.domain.journal.MutationType;
+import nl.tudelft.sem.template.resourcepool.domain.journal.ScheduleJournal;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.NodeResourcesChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * This event listener is automatically called when a daily schedule is saved or a domain entity is saved
+ * which has stored events of type: NodeResourcesChanged, and writes the change to the schedule journal.
+ * Changes are only journaled once they are committed, so a rolled back change never reaches the journal
+ * and waiting for the journal to be durable never holds up the transaction.
+ */
+@Component
+public class ScheduleJournalListener {
+    private final transient ScheduleJournal scheduleJournal;
+
+    public ScheduleJournalListener(ScheduleJournal scheduleJournal) {
+        this.scheduleJournal = scheduleJournal;
+    }
+
+    /**
+     * The name of the function indicated which event is listened to.
+     * The format is onEVENTNAME. Runs once the change is committed, or right away outside of a transaction.
+     *
+     * @param event The event to react to
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleSaved(ScheduleSavedEvent event) {
+        scheduleJournal.append(event.getType(), event.getResourcePoolId(), event.getDay(),
+                event.getAvailableResources(), event.getTotalResources());
+    }
+
+    /**
+     * The name of the function indicated which event is listened to.
+     * The format is onEVENTNAME. Runs once the change is committed, or right away outside of a transaction.
+     *
+     * @param event The event to react to
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNodeResourcesChanged(NodeResourcesChangedEvent event) {
+        MutationType type = event.isContributed() ? MutationType.NODE_CONTRIBUTE : MutationType.NODE_DELETE;
+        scheduleJournal.recordNodeResources(type, event.getResourcePoolId(), event.getNodeResources());
+    }
+}
@@ -0,0 +1,32 @@
+package nl.tudelft.sem.template.resourcepool.application;
+
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.DailyScheduleService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * This event listener is automatically called when the service has started,
+ * and restores the schedules the database lost from the schedule journal.
+ */
+@Component
+public class ScheduleJournalRecoveryListener {
+    private final transient DailyScheduleService dailyScheduleService;
+
+    public ScheduleJournalRecoveryListener(DailyScheduleService dailyScheduleService) {
+        this.dailyScheduleService = dailyScheduleService;
+    }
+
+    /**
+     * Restores the schedules from the state the journal rebuilt from its latest snapshot and the entries after it.
+     *
+     * @param event The event to react to
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        int restored = dailyScheduleService.restoreSchedulesFromJournal();
+        if (restored > 0) {
+            System.out.println("Restored " + restored + " daily schedules from the schedule journal.");
+        }
+    }
+}
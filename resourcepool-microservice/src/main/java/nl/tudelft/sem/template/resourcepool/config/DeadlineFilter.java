@@ -0,0 +1,55 @@
+package nl.tudelft.sem.template.resourcepool.config;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Drops requests the gateway already gave up on.
+ * The gateway sends the deadline of every request in the X-Request-Deadline header, as epoch milliseconds.
+ * A request that waited past it, for example while the daily release held the schedules,
+ * is answered with 503 instead of doing work nobody waits for.
+ */
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    /**
+     * Answers with 503 if the deadline of the request passed, passes it on otherwise.
+     *
+     * @param request     The current request we are handling.
+     * @param response    The current response we are building.
+     * @param filterChain The next link in the filter chain.
+     * @throws ServletException Exception.
+     * @throws IOException      Exception
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String deadline = request.getHeader(DEADLINE_HEADER);
+        if (deadline != null && isPast(deadline)) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "The deadline of the request passed.");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Returns whether a deadline passed, a deadline that cannot be read never does.
+     *
+     * @param deadline the deadline in epoch milliseconds
+     * @return true iff the deadline passed
+     */
+    private static boolean isPast(String deadline) {
+        try {
+            return Long.parseLong(deadline.trim()) < System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
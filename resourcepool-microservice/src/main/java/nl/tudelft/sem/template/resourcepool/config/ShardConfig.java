@@ -0,0 +1,28 @@
+package nl.tudelft.sem.template.resourcepool.config;
+
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePoolShard;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ShardedIdGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The shard config, hands the position of this instance in the routing table to Hibernate for the id generation.
+ */
+@Configuration
+public class ShardConfig {
+
+    /**
+     * Passes the shard index and the amount of shards to the ShardedIdGenerator.
+     *
+     * @param shard the identity of this instance
+     * @return the customizer adding the shard settings to the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardPropertiesCustomizer(ResourcePoolShard shard) {
+        return properties -> {
+            properties.put(ShardedIdGenerator.SHARD_INDEX, shard.getIndex());
+            properties.put(ShardedIdGenerator.SHARD_COUNT, shard.getCount());
+        };
+    }
+}
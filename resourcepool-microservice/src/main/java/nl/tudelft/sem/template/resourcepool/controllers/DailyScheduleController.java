@@ -6,14 +6,23 @@ import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import nl.tudelft.sem.template.resourcepool.authentication.AuthManager;
 import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.DailyScheduleService;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.NotEnoughResourcesException;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import nl.tudelft.sem.template.resourcepool.models.AbsorbReleasedResourcesModel;
 import nl.tudelft.sem.template.resourcepool.models.AutomaticApprovalModel;
+import nl.tudelft.sem.template.resourcepool.models.AvailableResourcesAtRequestModel;
+import nl.tudelft.sem.template.resourcepool.models.CommitHoldRequestModel;
+import nl.tudelft.sem.template.resourcepool.models.EarliestAvailableDayRequestModel;
+import nl.tudelft.sem.template.resourcepool.models.EarliestAvailableDayResponseModel;
 import nl.tudelft.sem.template.resourcepool.models.ReleaseResourcesRequestModel;
 import nl.tudelft.sem.template.resourcepool.models.RequestTomorrowResourcesRequestModel;
 import nl.tudelft.sem.template.resourcepool.models.ScheduleRequestModel;
 import nl.tudelft.sem.template.resourcepool.models.ScheduleResponseModel;
+import nl.tudelft.sem.template.resourcepool.models.TryReserveRequestModel;
+import nl.tudelft.sem.template.resourcepool.models.TryReserveResponseModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -66,6 +75,8 @@ public class DailyScheduleController {
             } else {
                 dailyScheduleService.scheduleFaculty(day, request.getRequestId(), request.getFacultyName(), token);
             }
+        } catch (NotEnoughResourcesException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
         } catch (Exception e) {
             System.out.println(e.getMessage());
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
@@ -92,6 +103,94 @@ public class DailyScheduleController {
         }
     }
 
+    /**
+     * Finds the earliest day on which a resource pool has enough resources available for a request.
+     *
+     * @param request the request body
+     * @return the earliest day, or 404 if there is no such day within the horizon of the capacity timelines
+     */
+    @PostMapping("/earliestAvailableDay")
+    public ResponseEntity<EarliestAvailableDayResponseModel> getEarliestAvailableDay(
+            @RequestBody EarliestAvailableDayRequestModel request) {
+        Resources required = new Resources(request.getCpu(), request.getGpu(), request.getMemory());
+        try {
+            return dailyScheduleService.findEarliestAvailableDay(request.getResourcePoolId(), request.getFrom(), required)
+                    .map(day -> ResponseEntity.ok(new EarliestAvailableDayResponseModel(day)))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Holds resources of a resource pool on a day if they are still available, for a request that is being admitted.
+     *
+     * @param request the request body
+     * @return the hold, or 409 if the resource pool does not have enough resources left on that day
+     */
+    @PostMapping("/tryReserve")
+    public ResponseEntity<TryReserveResponseModel> tryReserve(@RequestBody TryReserveRequestModel request) {
+        Resources resources = new Resources(request.getCpu(), request.getGpu(), request.getMemory());
+        try {
+            return dailyScheduleService.tryReserve(request.getResourcePoolId(), request.getDay(), resources,
+                            request.getTtlMillis())
+                    .map(hold -> ResponseEntity.ok(new TryReserveResponseModel(hold.getId(), hold.getExpiresAt())))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Schedules a request on the resources held for it.
+     *
+     * @param request the request body
+     * @return true if the request was scheduled, 410 if the hold does not exist or has expired
+     */
+    @PostMapping("/commitHold")
+    public ResponseEntity<Boolean> commitHold(@RequestBody CommitHoldRequestModel request) {
+        try {
+            if (!dailyScheduleService.commitHold(request.getHoldId(), request.getRequestId())) {
+                throw new ResponseStatusException(HttpStatus.GONE, "The hold does not exist or has expired");
+            }
+            return ResponseEntity.ok(true);
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Releases resources held for a request that was not admitted after all.
+     *
+     * @param holdId the id of the hold
+     * @return true if the hold was released, false if it did not exist or had already expired
+     */
+    @PostMapping("/releaseHold")
+    public ResponseEntity<Boolean> releaseHold(@RequestBody String holdId) {
+        return ResponseEntity.ok(dailyScheduleService.releaseHold(holdId));
+    }
+
+    /**
+     * Rebuilds the available resources of a resource pool on a day as they were at a point in time,
+     * from the schedule journal.
+     *
+     * @param request the request body
+     * @return the available resources at that time, or 404 if the schedule did not exist yet
+     */
+    @PostMapping("/availableResourcesAt")
+    public ResponseEntity<Resources> getAvailableResourcesAt(@RequestBody AvailableResourcesAtRequestModel request) {
+        try {
+            return dailyScheduleService.getAvailableResourcesAt(request.getResourcePoolId(), request.getDay(),
+                            request.getTimestamp())
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /**
      * Ends point to view all schedules available.
      *
@@ -148,4 +247,24 @@ public class DailyScheduleController {
         }
     }
 
+    /**
+     * End point through which the other shards hand the resources released by their faculties to the free pool.
+     * Only accessible for the resourcepool shards.
+     *
+     * @param request the day and the released resources
+     * @return 200 OK if the resources were added to the free pool
+     */
+    @PostMapping("/absorbReleasedResources")
+    public ResponseEntity<Void> absorbReleasedResources(@RequestBody AbsorbReleasedResourcesModel request) {
+        if (!ServiceIdentity.is(ServiceIdentity.RESOURCEPOOL, authManager.getNetId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only resourcepool shards can release to the free pool");
+        }
+        try {
+            dailyScheduleService.absorbReleasedResources(request.getDay(),
+                    new Resources(request.getCpu(), request.getGpu(), request.getMemory()));
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 }
@@ -1,8 +1,12 @@
 package nl.tudelft.sem.template.resourcepool.controllers;
 
+import java.util.List;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import nl.tudelft.sem.template.resourcepool.authentication.AuthManager;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.distribution.DistributionService;
 import nl.tudelft.sem.template.resourcepool.models.DistributionModel;
+import nl.tudelft.sem.template.resourcepool.models.PoolResourcesModel;
+import nl.tudelft.sem.template.resourcepool.models.ShardDistributionModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -89,6 +93,59 @@ public class DistributionController {
         return ResponseEntity.ok("The proposed distribution was successfully saved!");
     }
 
+    /**
+     * Validates and applies a complete distribution in one go, also updating the existing future schedules.
+     *
+     * @param distributions the wanted percentages of resources for every resource pool
+     * @return 200 OK if the distribution is applied
+     * @throws Exception if the distribution is invalid
+     */
+    @PostMapping("/distribution/apply")
+    public ResponseEntity<String> applyDistribution(@RequestBody List<DistributionModel> distributions) throws Exception {
+        try {
+            distributionService.applyDistribution(distributions);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.ok("The distribution was successfully applied!");
+    }
+
+    /**
+     * End point through which the free pool shard gathers the resource pools of this shard for a distribution.
+     * Only accessible for the resourcepool shards.
+     *
+     * @return 200 OK with the base resources of the resource pools on this shard
+     */
+    @GetMapping("/distribution/pools")
+    public ResponseEntity<List<PoolResourcesModel>> getLocalPools() {
+        checkShardCaller();
+        return ResponseEntity.ok(distributionService.getLocalPools());
+    }
+
+    /**
+     * End point through which the free pool shard hands this shard its part of a distribution.
+     * Only accessible for the resourcepool shards.
+     *
+     * @param distribution the new base resources of every resource pool on this shard
+     * @return 200 OK if the part can be applied, or was applied
+     */
+    @PostMapping("/distribution/shard")
+    public ResponseEntity<Void> applyShardDistribution(@RequestBody ShardDistributionModel distribution) {
+        checkShardCaller();
+        try {
+            distributionService.applyShardDistribution(distribution.getPools(), distribution.isDryRun());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    private void checkShardCaller() {
+        if (!ServiceIdentity.is(ServiceIdentity.RESOURCEPOOL, authManager.getNetId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only resourcepool shards can distribute a shard");
+        }
+    }
+
     /**
      * Clears the queue with all the current faculty distributions.
      *
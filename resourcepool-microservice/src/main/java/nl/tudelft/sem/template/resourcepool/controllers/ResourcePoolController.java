@@ -1,14 +1,18 @@
 package nl.tudelft.sem.template.resourcepool.controllers;
 
+import java.util.List;
 import java.util.Optional;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import nl.tudelft.sem.template.resourcepool.authentication.AuthManager;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.Faculty;
-import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePool;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ManagerAssignments;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpManagementService;
 import nl.tudelft.sem.template.resourcepool.models.FacultyCreationModel;
 import nl.tudelft.sem.template.resourcepool.models.FacultyCreationResponseModel;
 import nl.tudelft.sem.template.resourcepool.models.NodeInteractionRequestModel;
 import nl.tudelft.sem.template.resourcepool.models.NodeInteractionResponseModel;
+import nl.tudelft.sem.template.resourcepool.models.NodeResourcesCorrectionModel;
+import nl.tudelft.sem.template.resourcepool.models.NodeResourcesModel;
 import nl.tudelft.sem.template.resourcepool.models.RequestTomorrowResourcesRequestModel;
 import nl.tudelft.sem.template.resourcepool.models.VerifyFacultyRequestModel;
 import nl.tudelft.sem.template.resourcepool.models.VerifyFacultyResponseModel;
@@ -31,16 +35,21 @@ public class ResourcePoolController {
 
     private final transient RpManagementService rpManagementService;
 
+    private final transient ManagerAssignments managerAssignments;
+
     /**
      * Instantiates a new ResourcePoolController.
      *
      * @param authManager         Spring Security component used to authenticate and authorize the user
      * @param rpManagementService The service which will handle the business logic for managing the faculties
+     * @param managerAssignments  The managers assigned to a faculty on any shard
      */
     @Autowired
-    public ResourcePoolController(AuthManager authManager, RpManagementService rpManagementService) {
+    public ResourcePoolController(AuthManager authManager, RpManagementService rpManagementService,
+                                  ManagerAssignments managerAssignments) {
         this.authManager = authManager;
         this.rpManagementService = rpManagementService;
+        this.managerAssignments = managerAssignments;
     }
 
     /**
@@ -70,6 +79,50 @@ public class ResourcePoolController {
         }
     }
 
+    /**
+     * End point through which the other shards claim the manager of a faculty they are about to create.
+     * Only accessible for the resourcepool shards, on the free pool shard.
+     *
+     * @param managerNetId the netId of the manager
+     * @return 200 OK if the manager was claimed, 409 CONFLICT if the manager already manages a faculty
+     */
+    @PostMapping("/claimManager")
+    public ResponseEntity<Void> claimManager(@RequestBody String managerNetId) {
+        checkShardCaller();
+        try {
+            if (!managerAssignments.claimLocally(managerNetId)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, managerNetId + " already manages a faculty");
+            }
+            return ResponseEntity.ok().build();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * End point through which the other shards release the manager of a faculty they could not create.
+     * Only accessible for the resourcepool shards, on the free pool shard.
+     *
+     * @param managerNetId the netId of the manager
+     * @return 200 OK if the manager is no longer claimed
+     */
+    @PostMapping("/releaseManager")
+    public ResponseEntity<Void> releaseManager(@RequestBody String managerNetId) {
+        checkShardCaller();
+        try {
+            managerAssignments.releaseLocally(managerNetId);
+            return ResponseEntity.ok().build();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private void checkShardCaller() {
+        if (!ServiceIdentity.is(ServiceIdentity.RESOURCEPOOL, authManager.getNetId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only resourcepool shards can assign managers");
+        }
+    }
+
     /**
      * Verifies whether a faculty exists or not.
      *
@@ -138,6 +191,36 @@ public class ResourcePoolController {
         }
     }
 
+    /**
+     * Endpoint for the node resources of all resource pools on this instance, only for the nodes microservice.
+     *
+     * @return 200 OK with the node resources per resource pool
+     */
+    @GetMapping("/nodeResources")
+    public ResponseEntity<List<NodeResourcesModel>> getNodeResources() {
+        checkNodesCaller();
+        return ResponseEntity.ok(rpManagementService.getAllNodeResources());
+    }
+
+    /**
+     * Endpoint for repairing node resources that drifted from the nodes registered in the nodes microservice.
+     * Only the nodes microservice knows which nodes are registered, so only it may repair them.
+     *
+     * @param corrections the node resources that were seen and the ones they should be
+     * @return 200 OK with the ids of the resource pools that were corrected
+     */
+    @PostMapping("/reconcileNodeResources")
+    public ResponseEntity<List<Long>> reconcileNodeResources(@RequestBody List<NodeResourcesCorrectionModel> corrections) {
+        checkNodesCaller();
+        return ResponseEntity.ok(rpManagementService.reconcileNodeResources(corrections));
+    }
+
+    private void checkNodesCaller() {
+        if (!ServiceIdentity.is(ServiceIdentity.NODES, authManager.getNetId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the nodes microservice can reconcile nodes");
+        }
+    }
+
     /**
      * Returns a string-representation of all the resource pools in the database.
      *
@@ -156,8 +239,8 @@ public class ResourcePoolController {
      */
     @PostMapping("/getFacultyName")
     public ResponseEntity<String> getFacultyName(@RequestBody long facultyId) {
-        Optional<ResourcePool> optional = rpManagementService.findById(facultyId);
-        return optional.map(resourcePool -> ResponseEntity.ok(resourcePool.getName()))
+        Optional<String> optional = rpManagementService.findNameById(facultyId);
+        return optional.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -169,8 +252,8 @@ public class ResourcePoolController {
      */
     @PostMapping("/getFacultyId")
     public ResponseEntity<Long> getFacultyName(@RequestBody String facultyName) {
-        Optional<ResourcePool> optional = rpManagementService.findByName(facultyName);
-        return optional.map(resourcePool -> ResponseEntity.ok(resourcePool.getId()))
+        Optional<Long> optional = rpManagementService.findIdByName(facultyName);
+        return optional.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,53 @@
+package nl.tudelft.sem.template.resourcepool.domain;
+
+import java.util.Calendar;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePoolShard;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import nl.tudelft.sem.template.resourcepool.models.AbsorbReleasedResourcesModel;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Sends the resources released by the faculties of this shard to the shard owning the free pool.
+ */
+@Component
+public class FreePoolShardService {
+
+    private final transient ResourcePoolShard shard;
+
+    private final transient ServiceTokenProvider serviceTokenProvider;
+
+    private final transient RestTemplate restTemplate;
+
+    /**
+     * Instantiates a new FreePoolShardService.
+     *
+     * @param shard                the identity of this instance
+     * @param serviceTokenProvider the provider of the tokens used between the shards
+     */
+    public FreePoolShardService(ResourcePoolShard shard, ServiceTokenProvider serviceTokenProvider) {
+        this.shard = shard;
+        this.serviceTokenProvider = serviceTokenProvider;
+        this.restTemplate = new RestTemplate();
+    }
+
+    /**
+     * Adds released resources to the free pool schedule of a day on the free pool shard.
+     *
+     * @param day       the day of the schedule
+     * @param resources the released resources
+     * @throws org.springframework.web.client.RestClientException if the free pool shard did not accept the resources
+     */
+    public void absorbReleasedResources(Calendar day, Resources resources) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Type", "application/json");
+        headers.add("Authorization", "Bearer " + serviceTokenProvider.getToken());
+        AbsorbReleasedResourcesModel body = new AbsorbReleasedResourcesModel(day,
+                resources.getCpu(), resources.getGpu(), resources.getMemory());
+        restTemplate.postForEntity(shard.getFreePoolShardUrl() + "/absorbReleasedResources",
+                new HttpEntity<>(body, headers), Void.class);
+    }
+}
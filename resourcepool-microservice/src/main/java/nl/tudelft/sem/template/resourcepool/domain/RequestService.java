@@ -2,17 +2,30 @@ package nl.tudelft.sem.template.resourcepool.domain;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
 import nl.tudelft.sem.template.resourcepool.models.ResourcesByIdModel;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 @Component
 public class RequestService {
 
+    private final transient ServiceTokenProvider serviceTokenProvider;
+
+    /**
+     * Instantiates a new RequestService.
+     *
+     * @param serviceTokenProvider the provider of the token the RP MS notifies the Request MS with
+     */
+    public RequestService(ServiceTokenProvider serviceTokenProvider) {
+        this.serviceTokenProvider = serviceTokenProvider;
+    }
+
     /**
      * Requests the resources from the Request MS.
      *
@@ -34,4 +47,26 @@ public class RequestService {
         ResourcesByIdModel requestedResources = objectMapper.readValue(response.getBody(), ResourcesByIdModel.class);
         return new Resources(requestedResources.getCpu(), requestedResources.getGpu(), requestedResources.getMemory());
     }
+
+    /**
+     * Tells the Request MS that the resources of the free pool changed,
+     * so it can process the requests waiting for the free pool right away.
+     * The change is not made on behalf of a user, so the notification carries the service token of the RP MS.
+     * Failures are only logged, the daily run of the Request MS picks the waiting requests up anyway.
+     *
+     * @return true iff the Request MS received the notification
+     */
+    public boolean notifyFreePoolCapacityChanged() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", "Bearer " + serviceTokenProvider.getToken());
+        RestTemplate restTemplate = new RestTemplate();
+        try {
+            restTemplate.postForEntity("http://localhost:8084/freePoolCapacityChanged",
+                    new HttpEntity<>(headers), Integer.class);
+            return true;
+        } catch (RestClientException e) {
+            System.err.println("Could not notify the Request MS of the free pool capacity change: " + e.getMessage());
+            return false;
+        }
+    }
 }
@@ -0,0 +1,122 @@
+package nl.tudelft.sem.template.resourcepool.domain;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tells the Users MS which resource pools had their schedules changed, so it can drop its cached schedule views.
+ * Changes are collected for a short delay and sent as a single notification from a background thread,
+ * so saving a schedule never waits for the Users MS and a burst of changes costs one request.
+ * The notification carries the service token of the RP MS, the Users MS only accepts it from the RP MS.
+ */
+@Component
+public class ScheduleChangeNotifier {
+
+    private static final long FREE_POOL_ID = ResourcePoolShardRouter.FREE_POOL_ID;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final transient String usersUrl;
+
+    private final transient long delayMillis;
+
+    private final transient Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    private final transient AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final transient ScheduledExecutorService executor;
+
+    private final transient RestTemplate restTemplate;
+
+    private final transient ServiceTokenProvider serviceTokenProvider;
+
+    /**
+     * Instantiates a new ScheduleChangeNotifier.
+     *
+     * @param usersUrl             the url of the Users MS
+     * @param delayMillis          the time changes are collected before they are sent
+     * @param restTemplateBuilder  the builder of the RestTemplate the notifications are sent with
+     * @param serviceTokenProvider the provider of the token the notifications are signed with
+     */
+    public ScheduleChangeNotifier(@Value("${users.url:http://localhost:8086}") String usersUrl,
+                                  @Value("${schedules.notify.delay-millis:100}") long delayMillis,
+                                  RestTemplateBuilder restTemplateBuilder, ServiceTokenProvider serviceTokenProvider) {
+        this.usersUrl = usersUrl;
+        this.delayMillis = delayMillis;
+        this.restTemplate = restTemplateBuilder.setConnectTimeout(TIMEOUT).setReadTimeout(TIMEOUT).build();
+        this.serviceTokenProvider = serviceTokenProvider;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-change-notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Marks the schedules of a resource pool as changed.
+     *
+     * @param resourcePoolId the id of the resource pool
+     */
+    public void changed(long resourcePoolId) {
+        changed.add(resourcePoolId);
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Marks the overview of all schedules as changed, without a specific resource pool, like when a faculty is created.
+     * The free pool only shows up in that overview, so it stands in for it.
+     */
+    public void overviewChanged() {
+        changed(FREE_POOL_ID);
+    }
+
+    /**
+     * Sends the collected changes to the Users MS.
+     * Failures are only logged, the Users MS expires its cached views after a while anyway.
+     * A Users MS that does not answer in time counts as a failure, so the notifier thread never hangs on it.
+     *
+     * @return true iff there was nothing to send or the Users MS received the notification
+     */
+    public boolean flush() {
+        flushScheduled.set(false);
+        List<Long> resourcePoolIds = new ArrayList<>();
+        for (Long resourcePoolId : changed) {
+            if (changed.remove(resourcePoolId)) {
+                resourcePoolIds.add(resourcePoolId);
+            }
+        }
+        if (resourcePoolIds.isEmpty()) {
+            return true;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(serviceTokenProvider.getToken());
+        try {
+            restTemplate.postForEntity(usersUrl + "/schedules/changed", new HttpEntity<>(resourcePoolIds, headers),
+                    Void.class);
+            return true;
+        } catch (RestClientException e) {
+            System.err.println("Could not notify the Users MS of the schedule changes: " + e.getMessage());
+            return false;
+        }
+    }
+}
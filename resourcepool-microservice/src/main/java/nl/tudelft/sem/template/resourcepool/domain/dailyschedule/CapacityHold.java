@@ -0,0 +1,68 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import java.time.LocalDate;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+
+/**
+ * Resources of a resource pool on a day that are set aside for a request that is still being admitted.
+ * The hold is either committed, which schedules the request on the held resources, released, or it expires.
+ */
+public class CapacityHold {
+
+    private final transient String id;
+
+    private final transient long resourcePoolId;
+
+    private final transient LocalDate day;
+
+    private final transient Resources resources;
+
+    private final transient long expiresAt;
+
+    /**
+     * Instantiates a new CapacityHold.
+     *
+     * @param id             the id of the hold
+     * @param resourcePoolId the id of the resource pool the resources are held in
+     * @param day            the day the resources are held on
+     * @param resources      the held resources
+     * @param expiresAt      the time in milliseconds since the epoch after which the hold is no longer valid
+     */
+    public CapacityHold(String id, long resourcePoolId, LocalDate day, Resources resources, long expiresAt) {
+        this.id = id;
+        this.resourcePoolId = resourcePoolId;
+        this.day = day;
+        this.resources = resources;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getResourcePoolId() {
+        return resourcePoolId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Resources getResources() {
+        return resources;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Checks whether the hold has expired.
+     *
+     * @param now the current time in milliseconds since the epoch
+     * @return true iff the hold is no longer valid
+     */
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
@@ -0,0 +1,128 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.springframework.stereotype.Component;
+
+/**
+ * The capacity holds of the resource pools on this instance, together with the locks guarding the schedules.
+ * Every change to the schedule of a resource pool on a day happens under the lock of that pool and day,
+ * the locks are striped so unrelated schedules never wait for each other and there is no global lock.
+ * Holds expire on their own: expired holds are ignored and dropped whenever the holds of a schedule are summed.
+ */
+@Component
+public class CapacityHolds {
+
+    /**
+     * The time a hold lives when no time is given.
+     */
+    public static final long DEFAULT_TTL_MILLIS = 30_000;
+
+    /**
+     * The longest time a hold may live.
+     */
+    public static final long MAX_TTL_MILLIS = 300_000;
+
+    private static final int STRIPES = 64;
+
+    private final transient Map<String, CapacityHold> holds;
+
+    private final transient Lock[] locks;
+
+    /**
+     * Instantiates a new CapacityHolds without any holds.
+     */
+    public CapacityHolds() {
+        this.holds = new ConcurrentHashMap<>();
+        this.locks = new Lock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Gets the lock guarding the schedule of a resource pool on a day.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param day            the day of the schedule
+     * @return the lock of the schedule
+     */
+    public Lock lockFor(long resourcePoolId, LocalDate day) {
+        return locks[Math.floorMod(Objects.hash(resourcePoolId, day), STRIPES)];
+    }
+
+    /**
+     * Adds a hold. The caller must hold the lock of the schedule the hold is for.
+     *
+     * @param hold the hold to add
+     */
+    public void add(CapacityHold hold) {
+        holds.put(hold.getId(), hold);
+    }
+
+    /**
+     * Finds a hold that has not expired yet.
+     *
+     * @param holdId the id of the hold
+     * @return the hold, or empty if it does not exist or has expired
+     */
+    public Optional<CapacityHold> find(String holdId) {
+        CapacityHold hold = holds.get(holdId);
+        if (hold == null || hold.isExpired(System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        return Optional.of(hold);
+    }
+
+    /**
+     * Removes a hold.
+     *
+     * @param holdId the id of the hold
+     * @return the removed hold, or empty if it did not exist or had expired
+     */
+    public Optional<CapacityHold> remove(String holdId) {
+        CapacityHold hold = holds.remove(holdId);
+        if (hold == null || hold.isExpired(System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        return Optional.of(hold);
+    }
+
+    /**
+     * Sums the resources held in a resource pool on a day, dropping the holds that have expired.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param day            the day of the schedule
+     * @return the resources that are held and thereby not available to others
+     */
+    public Resources heldOn(long resourcePoolId, LocalDate day) {
+        long now = System.currentTimeMillis();
+        holds.values().removeIf(hold -> hold.isExpired(now));
+        Resources held = new Resources(0, 0, 0);
+        for (CapacityHold hold : holds.values()) {
+            if (hold.getResourcePoolId() == resourcePoolId && hold.getDay().equals(day)) {
+                held = Resources.add(held, hold.getResources());
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Clamps a requested time to live to the allowed range.
+     *
+     * @param ttlMillis the requested time to live, the default is used if it is not positive
+     * @return the time the hold will live
+     */
+    public static long clampTtl(long ttlMillis) {
+        if (ttlMillis <= 0) {
+            return DEFAULT_TTL_MILLIS;
+        }
+        return Math.min(ttlMillis, MAX_TTL_MILLIS);
+    }
+}
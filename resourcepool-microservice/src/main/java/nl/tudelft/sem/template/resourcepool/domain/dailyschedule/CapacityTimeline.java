@@ -0,0 +1,174 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Optional;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+
+/**
+ * The available resources of a single resource pool over a window of days, stored in a segment tree.
+ * Every node keeps the maximum available cpu, gpu and memory of the days below it,
+ * so searching for the earliest day with enough room skips every subtree in which one of the dimensions is too small.
+ *
+ * <p>The maxima of a node may come from different days, so a node can look like it fits while none of its days does.
+ * The search then descends into it and only the days themselves decide, which keeps the answer exact
+ * but not the cost: a search takes O(log n) steps when one dimension is short, or when the dimensions peak
+ * on the same days, and degrades to visiting every day of the window in the worst case.
+ * With a window of a year that is at most a few hundred days per search, which is why no structure that keeps
+ * the dominance of all three dimensions at once is used. Updates always take O(log n).
+ */
+public class CapacityTimeline {
+
+    private static final int UNUSABLE = -1;
+
+    private final transient LocalDate origin;
+
+    private final transient int days;
+
+    private final transient int leaves;
+
+    private final transient Resources capacity;
+
+    private final transient int[] cpu;
+
+    private final transient int[] gpu;
+
+    private final transient int[] memory;
+
+    /**
+     * Instantiates a new CapacityTimeline in which every day starts with the full capacity of the resource pool.
+     *
+     * @param origin   the first day of the window
+     * @param days     the amount of days in the window
+     * @param capacity the resources of the resource pool on days without a schedule
+     */
+    public CapacityTimeline(LocalDate origin, int days, Resources capacity) {
+        this.origin = origin;
+        this.days = days;
+        this.capacity = capacity;
+        int size = 1;
+        while (size < days) {
+            size *= 2;
+        }
+        this.leaves = size;
+        this.cpu = new int[2 * leaves];
+        this.gpu = new int[2 * leaves];
+        this.memory = new int[2 * leaves];
+        Arrays.fill(cpu, leaves, leaves + days, capacity.getCpu());
+        Arrays.fill(gpu, leaves, leaves + days, capacity.getGpu());
+        Arrays.fill(memory, leaves, leaves + days, capacity.getMemory());
+        Arrays.fill(cpu, leaves + days, 2 * leaves, UNUSABLE);
+        Arrays.fill(gpu, leaves + days, 2 * leaves, UNUSABLE);
+        Arrays.fill(memory, leaves + days, 2 * leaves, UNUSABLE);
+        for (int node = leaves - 1; node > 0; node--) {
+            pull(node);
+        }
+    }
+
+    /**
+     * Gets the first day of the window.
+     *
+     * @return the first day of the window
+     */
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Gets the resources of the resource pool on days without a schedule.
+     *
+     * @return the capacity of the resource pool
+     */
+    public Resources getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the available resources of a single day. Days outside the window are ignored.
+     *
+     * @param day       the day to update
+     * @param available the resources that are still available on that day
+     */
+    public synchronized void update(LocalDate day, Resources available) {
+        long index = ChronoUnit.DAYS.between(origin, day);
+        if (index < 0 || index >= days) {
+            return;
+        }
+        int node = leaves + (int) index;
+        cpu[node] = available.getCpu();
+        gpu[node] = available.getGpu();
+        memory[node] = available.getMemory();
+        for (node /= 2; node > 0; node /= 2) {
+            pull(node);
+        }
+    }
+
+    /**
+     * Finds the earliest day from the given day onwards with at least the required resources available.
+     *
+     * @param from     the first day that may be returned
+     * @param required the resources that need to be available
+     * @return the earliest day with enough resources, or empty if there is none within the window
+     */
+    public synchronized Optional<LocalDate> findEarliest(LocalDate from, Resources required) {
+        long start = Math.max(0, ChronoUnit.DAYS.between(origin, from));
+        if (start >= days) {
+            return Optional.empty();
+        }
+        int index = find(1, 0, leaves - 1, (int) start, required);
+        if (index == UNUSABLE || index >= days) {
+            return Optional.empty();
+        }
+        return Optional.of(origin.plusDays(index));
+    }
+
+    /**
+     * Descends the tree looking for the leftmost day at or after start with enough resources.
+     * Every subtree whose maxima are too small is skipped, see the class comment for the cost when they are not.
+     *
+     * @param node     the current node
+     * @param low      the first day covered by the node
+     * @param high     the last day covered by the node
+     * @param start    the first day that may be returned
+     * @param required the resources that need to be available
+     * @return the index of the day, or -1 if the node does not contain such a day
+     */
+    private int find(int node, int low, int high, int start, Resources required) {
+        if (high < start || !fits(node, required)) {
+            return UNUSABLE;
+        }
+        if (low == high) {
+            return low;
+        }
+        int middle = (low + high) / 2;
+        int left = find(2 * node, low, middle, start, required);
+        if (left != UNUSABLE) {
+            return left;
+        }
+        return find(2 * node + 1, middle + 1, high, start, required);
+    }
+
+    /**
+     * Checks whether the maxima of a node are all large enough.
+     *
+     * @param node     the node to check
+     * @param required the resources that need to be available
+     * @return whether the node could contain a day with enough resources
+     */
+    private boolean fits(int node, Resources required) {
+        return cpu[node] >= required.getCpu() && gpu[node] >= required.getGpu()
+                && memory[node] >= required.getMemory();
+    }
+
+    /**
+     * Recomputes the maxima of a node from its children.
+     *
+     * @param node the node to recompute
+     */
+    private void pull(int node) {
+        cpu[node] = Math.max(cpu[2 * node], cpu[2 * node + 1]);
+        gpu[node] = Math.max(gpu[2 * node], gpu[2 * node + 1]);
+        memory[node] = Math.max(memory[2 * node], memory[2 * node + 1]);
+    }
+}
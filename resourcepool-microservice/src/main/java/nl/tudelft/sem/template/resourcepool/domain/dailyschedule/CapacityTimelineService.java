@@ -0,0 +1,143 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyIdNotFoundException;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePool;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpFacultyRepository;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.springframework.stereotype.Service;
+
+/**
+ * A DDD service keeping an in-memory capacity timeline per resource pool,
+ * used to find the earliest day on which a resource pool has enough resources available.
+ */
+@Service
+public class CapacityTimelineService {
+
+    /**
+     * The amount of days, starting today, that the timelines cover.
+     */
+    public static final int HORIZON_DAYS = 366;
+
+    private final transient ScheduleRepository scheduleRepository;
+
+    private final transient RpFacultyRepository resourcePoolRepo;
+
+    private final transient Map<Long, CapacityTimeline> timelines;
+
+    /**
+     * The amount of schedule updates per resource pool, so a timeline built from an older read is not cached.
+     */
+    private final transient Map<Long, Long> versions;
+
+    /**
+     * Instantiates a new CapacityTimelineService.
+     *
+     * @param scheduleRepository the repository of the daily schedules
+     * @param resourcePoolRepo   the RpFaculty repository
+     */
+    public CapacityTimelineService(ScheduleRepository scheduleRepository, RpFacultyRepository resourcePoolRepo) {
+        this.scheduleRepository = scheduleRepository;
+        this.resourcePoolRepo = resourcePoolRepo;
+        this.timelines = new ConcurrentHashMap<>();
+        this.versions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Finds the earliest day from the given day onwards on which the resource pool has the required resources available.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param from           the first day that may be returned
+     * @param required       the resources that need to be available
+     * @return the earliest day with enough resources, or empty if there is none within the horizon
+     * @throws FacultyIdNotFoundException if the resource pool does not exist
+     */
+    public Optional<Calendar> findEarliestDay(long resourcePoolId, Calendar from, Resources required)
+            throws FacultyIdNotFoundException {
+        return getTimeline(resourcePoolId).findEarliest(toLocalDate(from), required)
+                .map(CapacityTimelineService::toCalendar);
+    }
+
+    /**
+     * Updates the timeline of a resource pool after its schedule for a day has been saved.
+     * Timelines that have not been built yet are left alone, they will read the schedule when they are built.
+     *
+     * @param dailySchedule the saved daily schedule
+     */
+    public void update(DailySchedule dailySchedule) {
+        timelines.compute(dailySchedule.getResourcePoolId(), (id, timeline) -> {
+            versions.merge(id, 1L, Long::sum);
+            if (timeline != null) {
+                timeline.update(toLocalDate(dailySchedule.getDay()), dailySchedule.getAvailableResources());
+            }
+            return timeline;
+        });
+    }
+
+    /**
+     * Drops all timelines, so they are rebuilt from the database on the next query.
+     */
+    public void invalidateAll() {
+        timelines.clear();
+    }
+
+    /**
+     * Returns the timeline of a resource pool, building it if it doesn't exist,
+     * starts on another day than today or was built for a different capacity of the resource pool.
+     * The schedules are read outside of the map, so a slow read never blocks the updates of other resource pools.
+     * A timeline is only cached if no schedule of the resource pool was saved while it was being built,
+     * otherwise it serves this query and is built again on the next one.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @return the up-to-date timeline of the resource pool
+     * @throws FacultyIdNotFoundException if the resource pool does not exist
+     */
+    private CapacityTimeline getTimeline(long resourcePoolId) throws FacultyIdNotFoundException {
+        ResourcePool resourcePool = resourcePoolRepo.findById(resourcePoolId)
+                .orElseThrow(() -> new FacultyIdNotFoundException(resourcePoolId));
+        Resources capacity = Resources.add(resourcePool.getNodeResources(), resourcePool.getBaseResources());
+        LocalDate today = LocalDate.now();
+        CapacityTimeline cached = timelines.get(resourcePoolId);
+        if (cached != null && cached.getOrigin().equals(today) && cached.getCapacity().equals(capacity)) {
+            return cached;
+        }
+
+        long version = versions.getOrDefault(resourcePoolId, 0L);
+        CapacityTimeline built = new CapacityTimeline(today, HORIZON_DAYS, capacity);
+        for (DailySchedule dailySchedule : scheduleRepository.findAllByResourcePoolId(resourcePoolId)) {
+            built.update(toLocalDate(dailySchedule.getDay()), dailySchedule.getAvailableResources());
+        }
+        timelines.compute(resourcePoolId, (id, timeline) ->
+                versions.getOrDefault(id, 0L) == version ? built : timeline);
+        return built;
+    }
+
+    /**
+     * Converts a calendar to the day it represents.
+     *
+     * @param day the calendar
+     * @return the day of the calendar
+     */
+    public static LocalDate toLocalDate(Calendar day) {
+        return LocalDate.of(day.get(Calendar.YEAR), day.get(Calendar.MONTH) + 1, day.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * Converts a day to a calendar in the same form as the days of the daily schedules.
+     *
+     * @param day the day
+     * @return the calendar representing the day
+     */
+    public static Calendar toCalendar(LocalDate day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(0);
+        calendar.set(Calendar.YEAR, day.getYear());
+        calendar.set(Calendar.MONTH, day.getMonthValue() - 1);
+        calendar.set(Calendar.DAY_OF_MONTH, day.getDayOfMonth());
+        return calendar;
+    }
+}
@@ -11,6 +11,7 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.IdClass;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.NoArgsConstructor;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
 import nl.tudelft.sem.template.resourcepool.domain.resources.ResourcesAttributeConverter;
@@ -48,6 +49,13 @@ public class DailySchedule {
     @Column(name = "total_resources", nullable = true)
     private Resources totalResources;
 
+    /**
+     * Makes saving a schedule fail when it was changed since it was read, so no change is silently overwritten.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     /**
      * Create a new DailySchedule per Resource Pool.
      *
@@ -1,19 +1,34 @@
 package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
 
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
+import nl.tudelft.sem.template.resourcepool.domain.FreePoolShardService;
 import nl.tudelft.sem.template.resourcepool.domain.RequestService;
+import nl.tudelft.sem.template.resourcepool.domain.journal.JournalState;
+import nl.tudelft.sem.template.resourcepool.domain.journal.MutationType;
+import nl.tudelft.sem.template.resourcepool.domain.journal.ScheduleJournal;
+import nl.tudelft.sem.template.resourcepool.domain.journal.ScheduleMutation;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyIdNotFoundException;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyNotFoundException;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FreePoolCapacityChangedEvent;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePool;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePoolShard;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpFacultyRepository;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpManagementService;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -22,22 +37,52 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class DailyScheduleService {
+    /**
+     * The amount of times a change to a schedule is tried when the schedule keeps being changed concurrently.
+     */
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     private final transient ScheduleRepository scheduleRepository;
     private final transient RpFacultyRepository resourcePoolRepo;
     private final transient RpManagementService rpManagementService;
     private final transient RequestService requestService;
+    private final transient CapacityTimelineService capacityTimelineService;
+    private final transient ScheduleMetrics scheduleMetrics;
+    private final transient ApplicationEventPublisher eventPublisher;
+    private final transient ResourcePoolShard shard;
+    private final transient FreePoolShardService freePoolShardService;
+    private final transient ScheduleJournal scheduleJournal;
+    private final transient CapacityHolds capacityHolds;
 
     /**
      * Instantiates a new DailyScheduleService.
      *
      * @param repo the ScheduleRepository repository
+     * @param capacityTimelineService the service keeping the capacity timelines up to date
+     * @param scheduleMetrics the metrics of the daily schedules
+     * @param eventPublisher the publisher of the domain events
+     * @param shard the identity of this instance among the resourcepool instances
+     * @param freePoolShardService the service sending released resources to the free pool shard
+     * @param scheduleJournal the journal of all changes to the schedules
+     * @param capacityHolds the capacity holds and the locks guarding the schedules
      */
     public DailyScheduleService(ScheduleRepository repo, RpManagementService rpManagementService,
-                                RequestService requestService, RpFacultyRepository resourcePoolRepo) {
+                                RequestService requestService, RpFacultyRepository resourcePoolRepo,
+                                CapacityTimelineService capacityTimelineService, ScheduleMetrics scheduleMetrics,
+                                ApplicationEventPublisher eventPublisher, ResourcePoolShard shard,
+                                FreePoolShardService freePoolShardService, ScheduleJournal scheduleJournal,
+                                CapacityHolds capacityHolds) {
         this.scheduleRepository = repo;
         this.rpManagementService = rpManagementService;
         this.resourcePoolRepo = resourcePoolRepo;
         this.requestService = requestService;
+        this.capacityTimelineService = capacityTimelineService;
+        this.scheduleMetrics = scheduleMetrics;
+        this.eventPublisher = eventPublisher;
+        this.shard = shard;
+        this.freePoolShardService = freePoolShardService;
+        this.scheduleJournal = scheduleJournal;
+        this.capacityHolds = capacityHolds;
     }
 
     /**
@@ -52,6 +97,7 @@ public class DailyScheduleService {
         dailySchedule.setAvailableResources(resources);
         dailySchedule.setTotalResources(resources);
         scheduleRepository.save(dailySchedule);
+        onScheduleSaved(dailySchedule, MutationType.INIT);
     }
 
     /**
@@ -68,51 +114,103 @@ public class DailyScheduleService {
     }
 
     /**
-     * Schedules a request in the free pool.
+     * Schedules a request in the free pool, if the free pool has its resources available that are not held.
      *
      * @param day the day that the request has to be scheduled on
      * @param requestId the id of the request
      * @param token the jwtToken
+     * @throws NotEnoughResourcesException if the free pool does not have the resources left
      * @throws Exception if something fails
      */
     public void scheduleFp(Calendar day, long requestId, String token) throws Exception {
-        DailyScheduleId id = new DailyScheduleId(day, 1);
-        if (!scheduleRepository.existsById(id)) {
-            DailySchedule toSave = new DailySchedule(day, 1);
-            saveDailyScheduleInit(toSave);
-            scheduleRepository.save(toSave);
+        Timer.Sample sample = scheduleMetrics.startTimer();
+        Resources requestedResources = requestService.getRequestedResourcesById(requestId, token);
+        Lock lock = capacityHolds.lockFor(1, CapacityTimelineService.toLocalDate(day));
+        lock.lock();
+        try {
+            DailySchedule dailySchedule = retryOnConflict(() -> {
+                DailyScheduleId id = new DailyScheduleId(day, 1);
+                if (!scheduleRepository.existsById(id)) {
+                    DailySchedule toSave = new DailySchedule(day, 1);
+                    saveDailyScheduleInit(toSave);
+                    scheduleRepository.save(toSave);
+                }
+                DailySchedule schedule = scheduleRepository.findByDayAndResourcePoolId(day, 1).get();
+                takeUnheldResources(schedule, requestedResources);
+                schedule.addRequest(requestId);
+                scheduleRepository.save(schedule);
+                return schedule;
+            });
+            onScheduleSaved(dailySchedule, MutationType.RESERVE);
+        } finally {
+            lock.unlock();
+            scheduleMetrics.stopTimer(sample, "scheduleFp");
         }
-        DailySchedule dailySchedule = scheduleRepository.findByDayAndResourcePoolId(day, 1).get();
-        dailySchedule.addRequest(requestId);
-        updateResources(dailySchedule, requestId, token);
-        scheduleRepository.save(dailySchedule);
     }
 
     /**
-     * Schedules a request in a faculty.
+     * Schedules a request in a faculty, if the faculty has its resources available that are not held.
      *
      * @param day the day that the request has to be scheduled on
      * @param requestId the id of the request
      * @param facultyName name of the faculty
      * @param token the jwtToken
+     * @throws NotEnoughResourcesException if the faculty does not have the resources left
      * @throws Exception if something fails
      */
     public void scheduleFaculty(Calendar day, long requestId, String facultyName, String token) throws Exception {
-        long facultyId = resourcePoolRepo.findByName(facultyName).get().getId();
-        DailyScheduleId id = new DailyScheduleId(day, facultyId); //change to not create per every new request
-        if (!scheduleRepository.existsById(id)) {
-            DailySchedule toSave = new DailySchedule(day, facultyId);
-            saveDailyScheduleInit(toSave);
-            scheduleRepository.save(toSave);
+        Timer.Sample sample = scheduleMetrics.startTimer();
+        Lock lock = null;
+        try {
+            long facultyId = rpManagementService.findIdByName(facultyName)
+                    .orElseThrow(() -> new FacultyNotFoundException(facultyName));
+            Resources requestedResources = requestService.getRequestedResourcesById(requestId, token);
+            lock = capacityHolds.lockFor(facultyId, CapacityTimelineService.toLocalDate(day));
+            lock.lock();
+            DailySchedule dailySchedule = retryOnConflict(() -> {
+                DailyScheduleId id = new DailyScheduleId(day, facultyId); //change to not create per every new request
+                if (!scheduleRepository.existsById(id)) {
+                    DailySchedule toSave = new DailySchedule(day, facultyId);
+                    saveDailyScheduleInit(toSave);
+                    scheduleRepository.save(toSave);
+                }
+                DailySchedule schedule = scheduleRepository.findByDayAndResourcePoolId(day, facultyId).get();
+                takeUnheldResources(schedule, requestedResources);
+                schedule.addRequest(requestId);
+                scheduleRepository.save(schedule);
+                return schedule;
+            });
+            onScheduleSaved(dailySchedule, MutationType.RESERVE);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+            scheduleMetrics.stopTimer(sample, "scheduleFaculty");
         }
-        DailySchedule dailySchedule = scheduleRepository.findByDayAndResourcePoolId(day, facultyId).get();
-        dailySchedule.addRequest(requestId);
-        updateResources(dailySchedule, requestId, token);
-        scheduleRepository.save(dailySchedule);
     }
 
     /**
-     * Retrieves the available resources of a resource pool.
+     * Takes resources from a schedule, as long as they are not held for requests being admitted.
+     * Must hold the lock of the schedule.
+     *
+     * @param dailySchedule the daily schedule
+     * @param resources the resources to take
+     * @throws NotEnoughResourcesException if the schedule does not have the resources left that are not held
+     */
+    private void takeUnheldResources(DailySchedule dailySchedule, Resources resources)
+            throws NotEnoughResourcesException {
+        LocalDate day = CapacityTimelineService.toLocalDate(dailySchedule.getDay());
+        Resources free = Resources.subtract(dailySchedule.getAvailableResources(),
+                capacityHolds.heldOn(dailySchedule.getResourcePoolId(), day));
+        if (free.getCpu() < resources.getCpu() || free.getGpu() < resources.getGpu()
+                || free.getMemory() < resources.getMemory()) {
+            throw new NotEnoughResourcesException(dailySchedule.getResourcePoolId());
+        }
+        dailySchedule.setAvailableResources(Resources.subtract(dailySchedule.getAvailableResources(), resources));
+    }
+
+    /**
+     * Retrieves the available resources of a resource pool, leaving out the resources held for requests being admitted.
      *
      * @param resourcePoolId the id of the resource pool
      * @return the available resources
@@ -125,13 +223,100 @@ public class DailyScheduleService {
         }
 
         if (scheduleRepository.findByDayAndResourcePoolId(tomorrow, resourcePoolId).isPresent()) {
-            return scheduleRepository.findByDayAndResourcePoolId(tomorrow, resourcePoolId).get().getAvailableResources();
+            Resources available = scheduleRepository.findByDayAndResourcePoolId(tomorrow, resourcePoolId).get()
+                    .getAvailableResources();
+            return Resources.subtract(available,
+                    capacityHolds.heldOn(resourcePoolId, CapacityTimelineService.toLocalDate(tomorrow)));
         } else {
             // Proper exception implemented in different branches
             throw new Exception("Resource pool not found");
         }
     }
 
+    /**
+     * Atomically checks whether a resource pool has the resources available on a day that are not held yet
+     * and holds them if it does. The hold keeps others from taking the resources until it is committed,
+     * released or expires.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param day the day to hold the resources on
+     * @param resources the resources to hold
+     * @param ttlMillis the time the hold lives if it is not committed, see {@link CapacityHolds#clampTtl(long)}
+     * @return the hold, or empty if there are not enough resources left
+     * @throws Exception if the schedule of the day cannot be initialized
+     */
+    public Optional<CapacityHold> tryReserve(long resourcePoolId, Calendar day, Resources resources, long ttlMillis)
+            throws Exception {
+        Calendar scheduleDay = toScheduleDay(day);
+        LocalDate localDay = CapacityTimelineService.toLocalDate(scheduleDay);
+        Lock lock = capacityHolds.lockFor(resourcePoolId, localDay);
+        lock.lock();
+        try {
+            DailySchedule dailySchedule = findOrCreateSchedule(scheduleDay, resourcePoolId);
+            Resources free = Resources.subtract(dailySchedule.getAvailableResources(),
+                    capacityHolds.heldOn(resourcePoolId, localDay));
+            if (free.getCpu() < resources.getCpu() || free.getGpu() < resources.getGpu()
+                    || free.getMemory() < resources.getMemory()) {
+                return Optional.empty();
+            }
+            CapacityHold hold = new CapacityHold(UUID.randomUUID().toString(), resourcePoolId, localDay, resources,
+                    System.currentTimeMillis() + CapacityHolds.clampTtl(ttlMillis));
+            capacityHolds.add(hold);
+            return Optional.of(hold);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Commits a hold: schedules the request on the day of the hold and takes the held resources from the schedule.
+     * The hold is only removed once the schedule is saved, so a failed commit leaves it to expire instead of losing it.
+     *
+     * @param holdId the id of the hold
+     * @param requestId the id of the request the resources were held for
+     * @return true iff the hold was committed, false if it does not exist or has expired
+     * @throws Exception if the schedule of the day cannot be initialized
+     */
+    public boolean commitHold(String holdId, long requestId) throws Exception {
+        Optional<CapacityHold> found = capacityHolds.find(holdId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        Lock lock = capacityHolds.lockFor(found.get().getResourcePoolId(), found.get().getDay());
+        lock.lock();
+        try {
+            Optional<CapacityHold> held = capacityHolds.find(holdId);
+            if (held.isEmpty()) {
+                return false;
+            }
+            CapacityHold hold = held.get();
+            DailySchedule dailySchedule = retryOnConflict(() -> {
+                DailySchedule schedule = findOrCreateSchedule(CapacityTimelineService.toCalendar(hold.getDay()),
+                        hold.getResourcePoolId());
+                schedule.addRequest(requestId);
+                schedule.setAvailableResources(Resources.subtract(schedule.getAvailableResources(),
+                        hold.getResources()));
+                scheduleRepository.save(schedule);
+                return schedule;
+            });
+            capacityHolds.remove(holdId);
+            onScheduleSaved(dailySchedule, MutationType.RESERVE);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a hold without scheduling anything, so its resources are available to others again.
+     *
+     * @param holdId the id of the hold
+     * @return true iff the hold existed and had not expired yet
+     */
+    public boolean releaseHold(String holdId) {
+        return capacityHolds.remove(holdId).isPresent();
+    }
+
     /**
      * Gets the date of the next day.
      *
@@ -148,6 +333,69 @@ public class DailyScheduleService {
         return tomorrow;
     }
 
+    /**
+     * Finds the earliest day from the given day onwards on which a resource pool has the required resources available.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param from the first day that may be returned, tomorrow if null
+     * @param required the resources that need to be available
+     * @return the earliest day with enough resources, or empty if there is none within the horizon
+     * @throws FacultyIdNotFoundException if the resource pool does not exist
+     */
+    public Optional<Calendar> findEarliestAvailableDay(long resourcePoolId, Calendar from, Resources required)
+            throws FacultyIdNotFoundException {
+        Calendar tomorrow = getTomorrow();
+        Calendar start = from == null || from.before(tomorrow) ? tomorrow : from;
+        return capacityTimelineService.findEarliestDay(resourcePoolId, start, required);
+    }
+
+    /**
+     * Restores the schedules from today onwards that are in the journal but missing from the database,
+     * for example because the database was recreated on startup. Only the resources of the schedules are restored,
+     * the scheduled requests are not part of the journal.
+     *
+     * @return the amount of restored schedules
+     */
+    public int restoreSchedulesFromJournal() {
+        JournalState journalState = scheduleJournal.getState();
+        LocalDate today = LocalDate.now();
+        int restored = 0;
+        for (long resourcePoolId : journalState.getResourcePoolIds()) {
+            if (!resourcePoolRepo.existsById(resourcePoolId)) {
+                continue;
+            }
+            for (ScheduleMutation entry : journalState.getSchedules(resourcePoolId).tailMap(today, true).values()) {
+                Calendar day = CapacityTimelineService.toCalendar(entry.getDay().get());
+                if (scheduleRepository.existsByDayAndResourcePoolId(day, resourcePoolId)) {
+                    continue;
+                }
+                DailySchedule dailySchedule = new DailySchedule(day, resourcePoolId);
+                dailySchedule.setAvailableResources(entry.getAvailable());
+                dailySchedule.setTotalResources(entry.getTotal());
+                scheduleRepository.save(dailySchedule);
+                capacityTimelineService.update(dailySchedule);
+                scheduleMetrics.record(dailySchedule);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Rebuilds the available resources of a resource pool on a day as they were at a point in time.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param day the day of the schedule
+     * @param timestamp the point in time in milliseconds since the epoch
+     * @return the available resources at that time, or empty if the schedule did not exist yet
+     * @throws IOException if the journal cannot be read
+     */
+    public Optional<Resources> getAvailableResourcesAt(long resourcePoolId, Calendar day, long timestamp)
+            throws IOException {
+        return scheduleJournal.replayUntil(timestamp)
+                .getAvailable(resourcePoolId, CapacityTimelineService.toLocalDate(day));
+    }
+
     /**
      * Gets all schedules in the repository.
      *
@@ -189,11 +437,11 @@ public class DailyScheduleService {
     public Map<String, List<String>> generateScheduleResponseContent(Set<Long> faculties) throws FacultyNotFoundException {
         Map<String, List<String>> allSchedulesMap = new HashMap<>();
         for (long faculty : faculties) {
-            if (resourcePoolRepo.findById(faculty).isPresent()) {
-                String facultyName = resourcePoolRepo.findById(faculty).get().getName();
+            Optional<String> facultyName = rpManagementService.findNameById(faculty);
+            if (facultyName.isPresent()) {
                 List<String> dailySchedules = getAllSchedulesPerFacultyId(faculty).stream()
                         .map(DailySchedule::toPrettyString).collect(Collectors.toList());
-                allSchedulesMap.put(facultyName, dailySchedules);
+                allSchedulesMap.put(facultyName.get(), dailySchedules);
             } else {
                 throw new FacultyNotFoundException("Faculty was not found");
             }
@@ -203,6 +451,10 @@ public class DailyScheduleService {
 
     /**
      * Releases resources of a faculty for a given day into the free resource pool of that day.
+     * Resources held for requests that are being admitted stay in the faculty.
+     * When the free pool lives on another shard, the leftover resources are taken away from the faculty first
+     * and then handed to that shard, without holding the lock of the faculty during the call.
+     * Should the free pool shard not accept them, they are given back to the faculty.
      *
      * @param day the day of the schedule
      * @param resourcePoolId the
@@ -213,34 +465,96 @@ public class DailyScheduleService {
         if (resourcePoolId == 1L) {
             throw new ReleaseResourcesException("The free resource pool cannot release resources!");
         }
-        Calendar dayCopy = Calendar.getInstance();
-        dayCopy.setTimeInMillis(0);
-        dayCopy.set(Calendar.YEAR, day.get(Calendar.YEAR));
-        dayCopy.set(Calendar.MONTH, day.get(Calendar.MONTH));
-        dayCopy.set(Calendar.DAY_OF_MONTH, day.get(Calendar.DAY_OF_MONTH));
-        day = dayCopy;
-        // Create resource pool daily schedule for that day if it does not exist
-        if (!scheduleRepository.existsByDayAndResourcePoolId(day, 1)) {
-            DailySchedule toSave = new DailySchedule(day, 1);
-            saveDailyScheduleInit(toSave);
+        Calendar scheduleDay = toScheduleDay(day);
+        Resources leftOverResources;
+        // The faculty lock is let go before the free pool lock is taken, so two releases never wait on each other
+        Lock lock = capacityHolds.lockFor(resourcePoolId, CapacityTimelineService.toLocalDate(scheduleDay));
+        lock.lock();
+        try {
+            leftOverResources = retryOnConflict(() -> {
+                // Instantiate daily schedule of the provided resource pool at the given day if it does not exist yet
+                DailySchedule dailySchedule = findOrCreateSchedule(scheduleDay, resourcePoolId);
+                Resources held = capacityHolds.heldOn(resourcePoolId, CapacityTimelineService.toLocalDate(scheduleDay));
+                Resources leftOver = Resources.subtract(dailySchedule.getAvailableResources(), held);
+                // Reset the available resources for that day in that faculty to what is held
+                dailySchedule.setAvailableResources(held);
+                scheduleRepository.save(dailySchedule);
+                onScheduleSaved(dailySchedule, MutationType.RELEASE);
+                return leftOver;
+            });
+        } finally {
+            lock.unlock();
         }
-        // Instantiate daily schedule of the provided resource pool at the given day if it does not exist yet
-        if (!scheduleRepository.existsByDayAndResourcePoolId(day, resourcePoolId)) {
-            DailySchedule newSchedule = new DailySchedule(day, resourcePoolId);
-            saveDailyScheduleInit(newSchedule);
+        if (shard.isFreePoolShard()) {
+            // Add the leftover resources in the faculty to the free resource pool
+            absorbReleasedResources(scheduleDay, leftOverResources);
+            return;
+        }
+        try {
+            freePoolShardService.absorbReleasedResources(scheduleDay, leftOverResources);
+        } catch (Exception e) {
+            giveBack(scheduleDay, resourcePoolId, leftOverResources);
+            throw e;
         }
+    }
 
-        // Retrieve the free pool schedule
-        DailySchedule freePoolSchedule = scheduleRepository.findByDayAndResourcePoolId(day, 1).get();
+    /**
+     * Gives resources the free pool shard did not accept back to the faculty that released them.
+     *
+     * @param day the day of the schedule
+     * @param resourcePoolId the id of the faculty
+     * @param resources the released resources
+     * @throws Exception when the daily schedule cannot be initialized
+     */
+    private void giveBack(Calendar day, long resourcePoolId, Resources resources) throws Exception {
+        Lock lock = capacityHolds.lockFor(resourcePoolId, CapacityTimelineService.toLocalDate(day));
+        lock.lock();
+        try {
+            DailySchedule dailySchedule = retryOnConflict(() -> {
+                DailySchedule schedule = findOrCreateSchedule(day, resourcePoolId);
+                schedule.setAvailableResources(Resources.add(schedule.getAvailableResources(), resources));
+                scheduleRepository.save(schedule);
+                return schedule;
+            });
+            onScheduleSaved(dailySchedule, MutationType.RELEASE);
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        // Retrieve the resource pool schedule
-        DailySchedule dailySchedule = scheduleRepository.findByDayAndResourcePoolId(day, resourcePoolId).get();
+    /**
+     * Adds resources released by a faculty on another shard to the free pool schedule of a day.
+     *
+     * @param day the day of the schedule
+     * @param releasedResources the resources released by the faculty
+     * @throws Exception when this shard does not own the free pool or the schedule cannot be initialized
+     */
+    public void absorbReleasedResources(Calendar day, Resources releasedResources) throws Exception {
+        if (!shard.isFreePoolShard()) {
+            throw new ReleaseResourcesException("The free resource pool does not live on this shard!");
+        }
+        Calendar scheduleDay = toScheduleDay(day);
+        Lock lock = capacityHolds.lockFor(1L, CapacityTimelineService.toLocalDate(scheduleDay));
+        lock.lock();
+        try {
+            DailySchedule freePoolSchedule = retryOnConflict(() -> {
+                DailySchedule schedule = findOrCreateSchedule(scheduleDay, 1L);
+                addToFreePool(schedule, releasedResources);
+                return schedule;
+            });
+            onScheduleSaved(freePoolSchedule, MutationType.RELEASE);
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        // Reset the available resources for that day in that faculty to 0
-        Resources leftOverResources = dailySchedule.getAvailableResources();
-        dailySchedule.setAvailableResources(new Resources(0, 0, 0));
-        scheduleRepository.save(dailySchedule);
-        // Add the leftover resources in the faculty to the free resource pool
+    /**
+     * Adds released resources to the available and total resources of a free pool schedule and saves it.
+     *
+     * @param freePoolSchedule the schedule of the free pool
+     * @param leftOverResources the released resources
+     */
+    private void addToFreePool(DailySchedule freePoolSchedule, Resources leftOverResources) {
         Resources availableInFreePool = freePoolSchedule.getAvailableResources();
         Resources totalInFreePool = freePoolSchedule.getAvailableResources();
         freePoolSchedule.setAvailableResources(Resources.add(availableInFreePool, leftOverResources));
@@ -248,6 +562,74 @@ public class DailyScheduleService {
         scheduleRepository.save(freePoolSchedule);
     }
 
+    /**
+     * Applies a change to a schedule, reading the schedule again and starting over when it was changed in between.
+     * The changes made here are serialized by the locks of the capacity holds, but a redistribution locks
+     * the schedules in the database instead, so its change is only noticed through the version of the schedule.
+     * Must hold the lock of the schedule.
+     *
+     * @param change the change, which reads the schedule, changes it and saves it
+     * @param <T> the type of the result of the change
+     * @return the result of the change
+     * @throws Exception if the change fails, or keeps conflicting with concurrent changes
+     */
+    private <T> T retryOnConflict(Callable<T> change) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return change.call();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_CONFLICT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the schedule of a resource pool for a day, initializing it if it does not exist yet.
+     *
+     * @param day the day of the schedule
+     * @param resourcePoolId the id of the resource pool
+     * @return the daily schedule
+     * @throws Exception when the daily schedule cannot be initialized
+     */
+    private DailySchedule findOrCreateSchedule(Calendar day, long resourcePoolId) throws Exception {
+        if (!scheduleRepository.existsByDayAndResourcePoolId(day, resourcePoolId)) {
+            DailySchedule newSchedule = new DailySchedule(day, resourcePoolId);
+            saveDailyScheduleInit(newSchedule);
+        }
+        return scheduleRepository.findByDayAndResourcePoolId(day, resourcePoolId).get();
+    }
+
+    /**
+     * Strips the time of a day, so it matches the days of the daily schedules.
+     *
+     * @param day the day
+     * @return a copy of the day at midnight
+     */
+    private static Calendar toScheduleDay(Calendar day) {
+        Calendar dayCopy = Calendar.getInstance();
+        dayCopy.setTimeInMillis(0);
+        dayCopy.set(Calendar.YEAR, day.get(Calendar.YEAR));
+        dayCopy.set(Calendar.MONTH, day.get(Calendar.MONTH));
+        dayCopy.set(Calendar.DAY_OF_MONTH, day.get(Calendar.DAY_OF_MONTH));
+        return dayCopy;
+    }
+
+    /**
+     * Keeps the capacity timeline and the metrics of a resource pool up to date after one of its schedules is saved,
+     * and announces the change to the journal and the views of its schedules, which pick it up once it is committed.
+     *
+     * @param dailySchedule the saved daily schedule
+     * @param type the kind of change
+     */
+    private void onScheduleSaved(DailySchedule dailySchedule, MutationType type) {
+        capacityTimelineService.update(dailySchedule);
+        scheduleMetrics.record(dailySchedule);
+        eventPublisher.publishEvent(new ScheduleSavedEvent(type, dailySchedule));
+        eventPublisher.publishEvent(new ScheduleChangedEvent(dailySchedule.getResourcePoolId()));
+    }
+
     /**
      * Gets the faculty name from the facultyId.
      *
@@ -256,19 +638,18 @@ public class DailyScheduleService {
      * @throws FacultyNotFoundException thrown when the faculty does not exist
      */
     public String getFacultyName(long facultyId) throws FacultyNotFoundException {
-        if (resourcePoolRepo.findById(facultyId).isPresent()) {
-            return resourcePoolRepo.findById(facultyId).get().getName();
-        } else {
-            throw new FacultyNotFoundException("Faculty was not found!");
-        }
+        return rpManagementService.findNameById(facultyId)
+                .orElseThrow(() -> new FacultyNotFoundException("Faculty was not found!"));
     }
 
     /**
      * At 18PM every day, all faculties release their resources to the free resource pool.
+     * Afterwards the requests waiting for the free pool are notified through a FreePoolCapacityChangedEvent.
      */
     @SuppressWarnings("PMD.AvoidLiteralsInIfCondition")
     @Scheduled(cron = "0 0 18 * * *")
     public void releaseAllResourcesToFreePool() {
+        Timer.Sample sample = scheduleMetrics.startTimer();
         List<Long> allIds = resourcePoolRepo.findAll().stream().map(x -> x.getId()).collect(Collectors.toList());
         for (long thisId : allIds) {
             if (thisId != 1L) {
@@ -280,6 +661,8 @@ public class DailyScheduleService {
                 }
             }
         }
+        scheduleMetrics.stopTimer(sample, "releaseAllResourcesToFreePool");
+        eventPublisher.publishEvent(new FreePoolCapacityChangedEvent("release"));
     }
 
     /**
@@ -0,0 +1,9 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+public class NotEnoughResourcesException extends Exception {
+    static final long serialVersionUID = 4630581532931487022L;
+
+    public NotEnoughResourcesException(long resourcePoolId) {
+        super("Resource pool " + resourcePoolId + " does not have enough resources left that are not held");
+    }
+}
@@ -0,0 +1,17 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+/**
+ * A DDD domain event that indicates one or more daily schedules of a resource pool changed,
+ * so views of its schedules elsewhere are outdated.
+ */
+public class ScheduleChangedEvent {
+    private final long resourcePoolId;
+
+    public ScheduleChangedEvent(long resourcePoolId) {
+        this.resourcePoolId = resourcePoolId;
+    }
+
+    public long getResourcePoolId() {
+        return this.resourcePoolId;
+    }
+}
@@ -0,0 +1,135 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the utilization of the daily schedules and the duration of the scheduling operations as metrics.
+ * Every saved schedule gets gauges for its total and available cpu, gpu and memory, tagged with the resource pool
+ * and the day. Gauges of days in the past are removed, so the amount of meters stays bounded.
+ */
+@Component
+public class ScheduleMetrics {
+
+    public static final String RESOURCES_METRIC = "resourcepool.schedule.resources";
+
+    public static final String SCHEDULING_METRIC = "resourcepool.scheduling";
+
+    private final transient MeterRegistry registry;
+
+    private final transient Map<String, ScheduleGauges> gauges;
+
+    /**
+     * Instantiates a new ScheduleMetrics.
+     *
+     * @param registry the registry the metrics are published to
+     */
+    public ScheduleMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.gauges = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Updates the gauges of a daily schedule after it has been saved.
+     *
+     * @param dailySchedule the saved daily schedule
+     */
+    public void record(DailySchedule dailySchedule) {
+        LocalDate day = CapacityTimelineService.toLocalDate(dailySchedule.getDay());
+        long resourcePoolId = dailySchedule.getResourcePoolId();
+        gauges.computeIfAbsent(resourcePoolId + "/" + day, key -> new ScheduleGauges(resourcePoolId, day))
+                .set(dailySchedule.getTotalResources(), dailySchedule.getAvailableResources());
+        removePastDays();
+    }
+
+    /**
+     * Starts timing a scheduling operation.
+     *
+     * @return the started sample
+     */
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Stops timing a scheduling operation and records its duration.
+     *
+     * @param sample    the sample started at the beginning of the operation
+     * @param operation the name of the operation
+     */
+    public void stopTimer(Timer.Sample sample, String operation) {
+        sample.stop(Timer.builder(SCHEDULING_METRIC)
+                .description("Duration of the scheduling operations")
+                .tag("operation", operation)
+                .register(registry));
+    }
+
+    /**
+     * Removes the gauges of all days before today.
+     */
+    private void removePastDays() {
+        LocalDate today = LocalDate.now();
+        Iterator<ScheduleGauges> iterator = gauges.values().iterator();
+        while (iterator.hasNext()) {
+            ScheduleGauges scheduleGauges = iterator.next();
+            if (scheduleGauges.day.isBefore(today)) {
+                scheduleGauges.meters.forEach(registry::remove);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * The gauges of a single daily schedule, reading the last recorded resources.
+     */
+    private final class ScheduleGauges {
+
+        private final transient LocalDate day;
+
+        private final transient List<Meter> meters;
+
+        private transient volatile Resources total;
+
+        private transient volatile Resources available;
+
+        private ScheduleGauges(long resourcePoolId, LocalDate day) {
+            this.day = day;
+            this.meters = new ArrayList<>();
+            this.total = new Resources(0, 0, 0);
+            this.available = new Resources(0, 0, 0);
+            Tags tags = Tags.of("pool", String.valueOf(resourcePoolId), "day", day.toString());
+            register(tags, "total", "cpu", g -> g.total.getCpu());
+            register(tags, "total", "gpu", g -> g.total.getGpu());
+            register(tags, "total", "memory", g -> g.total.getMemory());
+            register(tags, "available", "cpu", g -> g.available.getCpu());
+            register(tags, "available", "gpu", g -> g.available.getGpu());
+            register(tags, "available", "memory", g -> g.available.getMemory());
+        }
+
+        private void set(Resources total, Resources available) {
+            this.total = total == null ? new Resources(0, 0, 0) : total;
+            this.available = available == null ? new Resources(0, 0, 0) : available;
+        }
+
+        private void register(Tags tags, String kind, String resource, ToDoubleFunction<ScheduleGauges> value) {
+            meters.add(Gauge.builder(RESOURCES_METRIC, this, value)
+                    .description("Total and available resources of a resource pool on a day")
+                    .tags(tags)
+                    .tag("kind", kind)
+                    .tag("resource", resource)
+                    .register(registry));
+        }
+    }
+}
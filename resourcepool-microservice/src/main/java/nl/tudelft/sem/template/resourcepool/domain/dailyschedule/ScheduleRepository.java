@@ -4,7 +4,9 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 
@@ -18,4 +20,10 @@ public interface ScheduleRepository extends JpaRepository<DailySchedule, DailySc
     boolean existsByDayAndResourcePoolId(Calendar day, long resourcePoolId);
 
     List<DailySchedule> findAllByResourcePoolId(long resourcePoolId);
+
+    /**
+     * Find all schedules from the given day onwards and lock them until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<DailySchedule> findAllByDayGreaterThanEqual(Calendar day);
 }
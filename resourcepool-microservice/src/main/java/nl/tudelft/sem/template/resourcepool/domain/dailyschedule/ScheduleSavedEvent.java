@@ -0,0 +1,51 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import java.time.LocalDate;
+import nl.tudelft.sem.template.resourcepool.domain.journal.MutationType;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+
+/**
+ * A DDD domain event that indicates a daily schedule was saved.
+ * It holds the state of the schedule at the time of the save, so it can be journaled once the save is committed.
+ */
+public class ScheduleSavedEvent {
+    private final MutationType type;
+    private final long resourcePoolId;
+    private final LocalDate day;
+    private final Resources availableResources;
+    private final Resources totalResources;
+
+    /**
+     * Instantiates a new ScheduleSavedEvent.
+     *
+     * @param type          the kind of change
+     * @param dailySchedule the saved daily schedule
+     */
+    public ScheduleSavedEvent(MutationType type, DailySchedule dailySchedule) {
+        this.type = type;
+        this.resourcePoolId = dailySchedule.getResourcePoolId();
+        this.day = CapacityTimelineService.toLocalDate(dailySchedule.getDay());
+        this.availableResources = dailySchedule.getAvailableResources();
+        this.totalResources = dailySchedule.getTotalResources();
+    }
+
+    public MutationType getType() {
+        return this.type;
+    }
+
+    public long getResourcePoolId() {
+        return this.resourcePoolId;
+    }
+
+    public LocalDate getDay() {
+        return this.day;
+    }
+
+    public Resources getAvailableResources() {
+        return this.availableResources;
+    }
+
+    public Resources getTotalResources() {
+        return this.totalResources;
+    }
+}
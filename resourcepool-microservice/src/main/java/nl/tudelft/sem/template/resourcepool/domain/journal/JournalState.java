@@ -0,0 +1,163 @@
+package nl.tudelft.sem.template.resourcepool.domain.journal;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+
+/**
+ * The state rebuilt from the schedule journal: the latest entry of every schedule and of the nodes of every resource pool.
+ */
+public class JournalState {
+
+    private final transient Map<Long, NavigableMap<LocalDate, ScheduleMutation>> schedules;
+
+    private final transient Map<Long, ScheduleMutation> nodes;
+
+    private transient long lastSequence;
+
+    private transient long lastTimestamp;
+
+    /**
+     * Instantiates a new, empty JournalState.
+     */
+    public JournalState() {
+        this.schedules = new HashMap<>();
+        this.nodes = new HashMap<>();
+    }
+
+    /**
+     * Applies an entry of the journal. Entries that are not newer than the state are ignored.
+     *
+     * @param mutation the entry to apply
+     */
+    public void apply(ScheduleMutation mutation) {
+        if (mutation.getSequence() <= lastSequence) {
+            return;
+        }
+        put(mutation);
+        lastSequence = mutation.getSequence();
+        lastTimestamp = mutation.getTimestamp();
+    }
+
+    /**
+     * Stores an entry without looking at its sequence number, used to load the entries of a snapshot.
+     *
+     * @param mutation the entry to store
+     */
+    void put(ScheduleMutation mutation) {
+        Optional<LocalDate> day = mutation.getDay();
+        if (day.isPresent()) {
+            schedules.computeIfAbsent(mutation.getResourcePoolId(), id -> new TreeMap<>()).put(day.get(), mutation);
+        } else {
+            nodes.put(mutation.getResourcePoolId(), mutation);
+        }
+    }
+
+    /**
+     * Gets the ids of the resource pools that have schedules in the journal.
+     *
+     * @return the ids of the resource pools
+     */
+    public Set<Long> getResourcePoolIds() {
+        return Collections.unmodifiableSet(schedules.keySet());
+    }
+
+    /**
+     * Gets the sequence number of the last applied entry.
+     *
+     * @return the last sequence number, 0 if no entry was applied
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Gets the time of the last applied entry.
+     *
+     * @return the time in milliseconds since the epoch, 0 if no entry was applied
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Gets the available resources of a resource pool on a day.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param day            the day
+     * @return the available resources, or empty if the journal has no schedule for that day
+     */
+    public Optional<Resources> getAvailable(long resourcePoolId, LocalDate day) {
+        return Optional.ofNullable(schedules.getOrDefault(resourcePoolId, Collections.emptyNavigableMap()).get(day))
+                .map(ScheduleMutation::getAvailable);
+    }
+
+    /**
+     * Gets the latest entry of every schedule of a resource pool, ordered by day.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @return the entries per day
+     */
+    public NavigableMap<LocalDate, ScheduleMutation> getSchedules(long resourcePoolId) {
+        return Collections.unmodifiableNavigableMap(
+                schedules.getOrDefault(resourcePoolId, Collections.emptyNavigableMap()));
+    }
+
+    /**
+     * Gets the node resources of a resource pool.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @return the node resources, or empty if the journal has no node entry for the resource pool
+     */
+    public Optional<Resources> getNodeResources(long resourcePoolId) {
+        return Optional.ofNullable(nodes.get(resourcePoolId)).map(ScheduleMutation::getAvailable);
+    }
+
+    /**
+     * Gets all entries that make up the state, which is what a snapshot stores.
+     *
+     * @return the latest entry of every schedule and of the nodes of every resource pool
+     */
+    public List<ScheduleMutation> getEntries() {
+        List<ScheduleMutation> entries = new ArrayList<>(nodes.values());
+        for (NavigableMap<LocalDate, ScheduleMutation> days : schedules.values()) {
+            entries.addAll(days.values());
+        }
+        return entries;
+    }
+
+    /**
+     * Restores the position of a snapshot, after its entries have been applied.
+     *
+     * @param sequence  the sequence number of the last entry covered by the snapshot
+     * @param timestamp the time of the last entry covered by the snapshot
+     */
+    void restorePosition(long sequence, long timestamp) {
+        this.lastSequence = sequence;
+        this.lastTimestamp = timestamp;
+    }
+
+    /**
+     * Creates a copy of the state that is not affected by later changes.
+     *
+     * @return the copy
+     */
+    public JournalState copy() {
+        JournalState copy = new JournalState();
+        copy.nodes.putAll(nodes);
+        for (Map.Entry<Long, NavigableMap<LocalDate, ScheduleMutation>> entry : schedules.entrySet()) {
+            copy.schedules.put(entry.getKey(), new TreeMap<>(entry.getValue()));
+        }
+        copy.lastSequence = lastSequence;
+        copy.lastTimestamp = lastTimestamp;
+        return copy;
+    }
+}
@@ -0,0 +1,31 @@
+package nl.tudelft.sem.template.resourcepool.domain.journal;
+
+/**
+ * The kinds of changes that are written to the schedule journal.
+ */
+public enum MutationType {
+    /**
+     * A daily schedule was created with the full capacity of its resource pool.
+     */
+    INIT,
+    /**
+     * A request was scheduled, reserving resources of a daily schedule.
+     */
+    RESERVE,
+    /**
+     * Resources of a faculty were released to the free pool, or absorbed by it.
+     */
+    RELEASE,
+    /**
+     * The base resources of the resource pools were redistributed.
+     */
+    REDISTRIBUTE,
+    /**
+     * A node was contributed to a resource pool.
+     */
+    NODE_CONTRIBUTE,
+    /**
+     * A node was deleted from a resource pool.
+     */
+    NODE_DELETE
+}
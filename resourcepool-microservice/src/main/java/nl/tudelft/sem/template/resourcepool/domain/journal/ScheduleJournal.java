@@ -0,0 +1,488 @@
+package nl.tudelft.sem.template.resourcepool.domain.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * An append-only journal of all changes to the daily schedules and the node resources of the resource pools.
+ * Entries are written to memory-mapped segment files and made durable in groups: a background thread forces
+ * the mapped segment to disk every few milliseconds and every writer waits for the force that covers its entry,
+ * so concurrent writers share a single disk flush.
+ * Every so many entries the state is written to a snapshot and a new segment is started,
+ * so recovery only reads the latest snapshot and the segments after it.
+ * A number of older snapshots and the segments after the oldest of them are kept,
+ * so the state can be rebuilt for any point in time since that snapshot. Anything older is deleted.
+ * Writers wait for durability, so they should append once their change is committed, not while it is in progress.
+ */
+@Component
+public class ScheduleJournal {
+
+    private static final int SNAPSHOT_MAGIC = 0x534a534e;
+
+    private static final int SNAPSHOT_HEADER_SIZE = 4 + 8 + 8 + 4;
+
+    private static final long MAX_DURABILITY_WAIT_MILLIS = 1000;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final transient Path directory;
+
+    private final transient int segmentBytes;
+
+    private final transient long groupCommitMillis;
+
+    private final transient long snapshotEvery;
+
+    private final transient int retainedSnapshots;
+
+    private final transient Object durableLock = new Object();
+
+    private transient JournalState state;
+
+    private transient FileChannel channel;
+
+    private transient MappedByteBuffer segment;
+
+    private transient long entriesSinceSnapshot;
+
+    private transient long durableSequence;
+
+    private transient volatile boolean running;
+
+    private transient Thread flusher;
+
+    /**
+     * Instantiates a new ScheduleJournal.
+     *
+     * @param directory         the directory holding the segments and snapshots
+     * @param segmentBytes      the size of a segment file
+     * @param groupCommitMillis the time between two forces of the current segment
+     * @param snapshotEvery     the amount of entries after which a snapshot is taken
+     * @param retainedSnapshots the amount of snapshots kept, together with the segments after the oldest of them
+     */
+    public ScheduleJournal(@Value("${resourcepool.journal.dir:./resourcepool-microservice/journal}") String directory,
+                           @Value("${resourcepool.journal.segment-bytes:16777216}") int segmentBytes,
+                           @Value("${resourcepool.journal.group-commit-millis:2}") long groupCommitMillis,
+                           @Value("${resourcepool.journal.snapshot-every:10000}") long snapshotEvery,
+                           @Value("${resourcepool.journal.retained-snapshots:10}") int retainedSnapshots) {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes - segmentBytes % ScheduleMutation.RECORD_SIZE;
+        this.groupCommitMillis = groupCommitMillis;
+        this.snapshotEvery = snapshotEvery;
+        this.retainedSnapshots = Math.max(1, retainedSnapshots);
+    }
+
+    /**
+     * Rebuilds the state from the latest snapshot and the segments after it, and starts the group commit thread.
+     *
+     * @throws IOException if the journal cannot be read or the current segment cannot be opened
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        state = loadSnapshot(timestamp -> true).orElseGet(JournalState::new);
+        List<Path> segments = listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (int i = 0; i < segments.size(); i++) {
+            boolean coveredBySnapshot = i + 1 < segments.size()
+                    && firstSequence(segments.get(i + 1), SEGMENT_PREFIX, SEGMENT_SUFFIX) <= state.getLastSequence() + 1;
+            if (!coveredBySnapshot) {
+                replaySegment(segments.get(i), state, timestamp -> true);
+            }
+        }
+        durableSequence = state.getLastSequence();
+        if (segments.isEmpty()) {
+            openSegment(state.getLastSequence() + 1);
+        } else {
+            reopenLastSegment(segments.get(segments.size() - 1));
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "schedule-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops the group commit thread and makes all entries durable.
+     */
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        flush();
+        synchronized (this) {
+            closeSegment();
+        }
+    }
+
+    /**
+     * Appends the node resources of a resource pool after a node was contributed or deleted
+     * and waits until the entry is durable.
+     *
+     * @param type           NODE_CONTRIBUTE or NODE_DELETE
+     * @param resourcePoolId the id of the resource pool
+     * @param nodeResources  the node resources after the change
+     * @return the sequence number of the entry
+     */
+    public long recordNodeResources(MutationType type, long resourcePoolId, Resources nodeResources) {
+        return append(type, resourcePoolId, null, nodeResources, nodeResources);
+    }
+
+    /**
+     * Appends an entry and waits until it is durable.
+     *
+     * @param type           the kind of change
+     * @param resourcePoolId the id of the changed resource pool
+     * @param day            the day of the changed schedule, null for node entries
+     * @param available      the available resources after the change
+     * @param total          the total resources after the change
+     * @return the sequence number of the entry
+     */
+    public long append(MutationType type, long resourcePoolId, LocalDate day, Resources available, Resources total) {
+        long sequence;
+        synchronized (this) {
+            if (segment == null) {
+                throw new IllegalStateException("The schedule journal is not open");
+            }
+            if (segment.remaining() < ScheduleMutation.RECORD_SIZE) {
+                rollSegment();
+            }
+            long timestamp = Math.max(System.currentTimeMillis(), state.getLastTimestamp());
+            ScheduleMutation mutation = new ScheduleMutation(state.getLastSequence() + 1, timestamp, type,
+                    resourcePoolId, day, available, total);
+            mutation.encode(segment);
+            state.apply(mutation);
+            entriesSinceSnapshot++;
+            sequence = mutation.getSequence();
+        }
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Gets a copy of the current state.
+     *
+     * @return the state after all appended entries
+     */
+    public synchronized JournalState getState() {
+        return state.copy();
+    }
+
+    /**
+     * Rebuilds the state as it was at a point in time, from the latest snapshot before it and the entries after it.
+     *
+     * @param timestamp the point in time in milliseconds since the epoch
+     * @return the state after all entries up to and including the point in time, empty before the oldest snapshot kept
+     * @throws IOException if the journal cannot be read
+     */
+    public JournalState replayUntil(long timestamp) throws IOException {
+        JournalState replayed = loadSnapshot(snapshotTime -> snapshotTime <= timestamp).orElseGet(JournalState::new);
+        for (Path path : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (!replaySegment(path, replayed, entryTime -> entryTime <= timestamp)) {
+                break;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Writes the current state to a snapshot and starts a new segment, so recovery can skip the older segments.
+     * The snapshots beyond the retained amount are deleted afterwards, see {@link #prune()}.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        JournalState copy;
+        synchronized (this) {
+            copy = state.copy();
+            entriesSinceSnapshot = 0;
+            if (segment.position() > 0) {
+                rollSegment();
+            }
+        }
+        List<ScheduleMutation> entries = copy.getEntries();
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE + entries.size() * ScheduleMutation.RECORD_SIZE);
+        buffer.putInt(SNAPSHOT_MAGIC);
+        buffer.putLong(copy.getLastSequence());
+        buffer.putLong(copy.getLastTimestamp());
+        buffer.putInt(entries.size());
+        for (ScheduleMutation entry : entries) {
+            entry.encode(buffer);
+        }
+        buffer.flip();
+        Path target = directory.resolve(fileName(SNAPSHOT_PREFIX, copy.getLastSequence(), SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        prune();
+    }
+
+    /**
+     * Deletes the snapshots older than the retained ones and the segments whose entries are all covered
+     * by the oldest retained snapshot. The current segment is never deleted.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    private void prune() throws IOException {
+        List<Path> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        int deleted = snapshots.size() - retainedSnapshots;
+        if (deleted <= 0) {
+            return;
+        }
+        long covered = firstSequence(snapshots.get(deleted), SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (Path snapshot : snapshots.subList(0, deleted)) {
+            Files.deleteIfExists(snapshot);
+        }
+        List<Path> segments = listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (int i = 0; i + 1 < segments.size()
+                && firstSequence(segments.get(i + 1), SEGMENT_PREFIX, SEGMENT_SUFFIX) <= covered + 1; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * Forces the current segment to disk and wakes up the writers whose entries are now durable.
+     */
+    public void flush() {
+        MappedByteBuffer target;
+        long sequence;
+        synchronized (this) {
+            if (segment == null) {
+                return;
+            }
+            target = segment;
+            sequence = state.getLastSequence();
+        }
+        if (sequence > getDurableSequence()) {
+            target.force();
+            markDurable(sequence);
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                Thread.sleep(groupCommitMillis);
+                flush();
+                if (shouldSnapshot()) {
+                    snapshot();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Schedule journal flush failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized boolean shouldSnapshot() {
+        return entriesSinceSnapshot >= snapshotEvery;
+    }
+
+    private void awaitDurable(long sequence) {
+        long deadline = System.currentTimeMillis() + MAX_DURABILITY_WAIT_MILLIS;
+        synchronized (durableLock) {
+            while (durableSequence < sequence && running) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    System.err.println("Schedule journal entry " + sequence + " is not durable yet");
+                    return;
+                }
+                try {
+                    durableLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private long getDurableSequence() {
+        synchronized (durableLock) {
+            return durableSequence;
+        }
+    }
+
+    private void markDurable(long sequence) {
+        synchronized (durableLock) {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+                durableLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Forces and closes the current segment and starts a new one. Must hold the lock of the journal.
+     *
+     * @throws IllegalStateException if the new segment cannot be created
+     */
+    private void rollSegment() {
+        segment.force();
+        markDurable(state.getLastSequence());
+        closeSegment();
+        try {
+            openSegment(state.getLastSequence() + 1);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start a new schedule journal segment", e);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(fileName(SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    /**
+     * Opens the last segment for writing after the last complete entry.
+     * Slots after that entry still holding data, left behind by a crash in the middle of a group, are cleared,
+     * so they can never be mistaken for entries written after the recovery.
+     *
+     * @param path the last segment
+     * @throws IOException if the segment cannot be opened
+     */
+    private void reopenLastSegment(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentBytes));
+        long expected = firstSequence(path, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        while (true) {
+            int position = segment.position();
+            Optional<ScheduleMutation> entry = ScheduleMutation.decode(segment);
+            if (entry.isEmpty() || entry.get().getSequence() != expected) {
+                segment.position(position);
+                break;
+            }
+            expected++;
+        }
+        for (int slot = segment.position(); slot + ScheduleMutation.RECORD_SIZE <= segment.capacity()
+                && segment.getLong(slot) != 0; slot += ScheduleMutation.RECORD_SIZE) {
+            for (int i = 0; i < ScheduleMutation.RECORD_SIZE; i++) {
+                segment.put(slot + i, (byte) 0);
+            }
+        }
+        segment.force();
+    }
+
+    private void closeSegment() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not close the schedule journal segment: " + e.getMessage());
+        }
+        channel = null;
+        segment = null;
+    }
+
+    /**
+     * Applies the entries of a segment that continue the state and pass the time filter.
+     *
+     * @param path       the segment
+     * @param target     the state to apply the entries to
+     * @param timeFilter the filter on the time of the entries, replay stops at the first entry it rejects
+     * @return true iff the whole segment was applied, false if replay stopped because of the filter
+     * @throws IOException if the segment cannot be read
+     */
+    private static boolean replaySegment(Path path, JournalState target, LongPredicate timeFilter) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            Optional<ScheduleMutation> entry = ScheduleMutation.decode(buffer);
+            while (entry.isPresent()) {
+                ScheduleMutation mutation = entry.get();
+                if (mutation.getSequence() > target.getLastSequence() + 1) {
+                    return true;
+                }
+                if (!timeFilter.test(mutation.getTimestamp())) {
+                    return false;
+                }
+                target.apply(mutation);
+                entry = ScheduleMutation.decode(buffer);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Loads the latest snapshot whose time passes the filter.
+     *
+     * @param timeFilter the filter on the time of the last entry covered by the snapshot
+     * @return the state stored in the snapshot, or empty if there is no such snapshot
+     * @throws IOException if a snapshot cannot be read
+     */
+    private Optional<JournalState> loadSnapshot(LongPredicate timeFilter) throws IOException {
+        List<Path> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshots.get(i)));
+            if (buffer.remaining() < SNAPSHOT_HEADER_SIZE || buffer.getInt() != SNAPSHOT_MAGIC) {
+                continue;
+            }
+            long sequence = buffer.getLong();
+            long timestamp = buffer.getLong();
+            int count = buffer.getInt();
+            if (!timeFilter.test(timestamp) || buffer.remaining() < count * ScheduleMutation.RECORD_SIZE) {
+                continue;
+            }
+            JournalState loaded = new JournalState();
+            for (int entry = 0; entry < count; entry++) {
+                loaded.put(ScheduleMutation.decode(buffer)
+                        .orElseThrow(() -> new IOException("Corrupt schedule journal snapshot")));
+            }
+            loaded.restorePosition(sequence, timestamp);
+            return Optional.of(loaded);
+        }
+        return Optional.empty();
+    }
+
+    private List<Path> listFiles(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)
+                            && path.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String fileName(String prefix, long sequence, String suffix) {
+        return String.format("%s%020d%s", prefix, sequence, suffix);
+    }
+
+    private static long firstSequence(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+}
@@ -0,0 +1,166 @@
+package nl.tudelft.sem.template.resourcepool.domain.journal;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+
+/**
+ * A single entry of the schedule journal. Every entry holds the state after the change,
+ * not the difference, so replaying an entry twice gives the same result.
+ * Schedule entries hold the available and total resources of a resource pool on a day,
+ * node entries hold the new node resources of a resource pool and have no day.
+ */
+public class ScheduleMutation {
+
+    /**
+     * The size of an encoded entry in bytes: the fields followed by a CRC32 checksum of the fields.
+     */
+    public static final int RECORD_SIZE = 8 + 8 + 1 + 8 + 8 + 6 * 4 + 4;
+
+    private static final int CHECKSUMMED_SIZE = RECORD_SIZE - 4;
+
+    private static final long NO_DAY = Long.MIN_VALUE;
+
+    private final transient long sequence;
+
+    private final transient long timestamp;
+
+    private final transient MutationType type;
+
+    private final transient long resourcePoolId;
+
+    private final transient long epochDay;
+
+    private final transient Resources available;
+
+    private final transient Resources total;
+
+    /**
+     * Instantiates a new ScheduleMutation.
+     *
+     * @param sequence       the position of the entry in the journal, starting at 1
+     * @param timestamp      the time of the change in milliseconds since the epoch
+     * @param type           the kind of change
+     * @param resourcePoolId the id of the changed resource pool
+     * @param day            the day of the changed schedule, null for node entries
+     * @param available      the available resources after the change, or the node resources for node entries
+     * @param total          the total resources after the change, or the node resources for node entries
+     */
+    public ScheduleMutation(long sequence, long timestamp, MutationType type, long resourcePoolId,
+                            LocalDate day, Resources available, Resources total) {
+        this(sequence, timestamp, type, resourcePoolId, day == null ? NO_DAY : day.toEpochDay(), available, total);
+    }
+
+    private ScheduleMutation(long sequence, long timestamp, MutationType type, long resourcePoolId,
+                             long epochDay, Resources available, Resources total) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.resourcePoolId = resourcePoolId;
+        this.epochDay = epochDay;
+        this.available = available;
+        this.total = total;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public MutationType getType() {
+        return type;
+    }
+
+    public long getResourcePoolId() {
+        return resourcePoolId;
+    }
+
+    /**
+     * Gets the day of the changed schedule.
+     *
+     * @return the day, or empty for node entries
+     */
+    public Optional<LocalDate> getDay() {
+        return epochDay == NO_DAY ? Optional.empty() : Optional.of(LocalDate.ofEpochDay(epochDay));
+    }
+
+    public Resources getAvailable() {
+        return available;
+    }
+
+    public Resources getTotal() {
+        return total;
+    }
+
+    /**
+     * Writes the entry at the current position of the buffer.
+     *
+     * @param buffer the buffer with at least RECORD_SIZE bytes remaining
+     */
+    public void encode(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(sequence);
+        buffer.putLong(timestamp);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(resourcePoolId);
+        buffer.putLong(epochDay);
+        putResources(buffer, available);
+        putResources(buffer, total);
+        buffer.putInt(checksum(buffer, start));
+    }
+
+    /**
+     * Reads the entry at the current position of the buffer.
+     * An empty or torn entry, such as the unwritten end of a segment or an entry that was cut off by a crash,
+     * is not returned and the position of the buffer is left unchanged.
+     *
+     * @param buffer the buffer to read from
+     * @return the entry, or empty if there is no complete entry at the position
+     */
+    public static Optional<ScheduleMutation> decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_SIZE || buffer.getLong(start) == 0) {
+            return Optional.empty();
+        }
+        if (buffer.getInt(start + CHECKSUMMED_SIZE) != checksum(buffer, start)) {
+            return Optional.empty();
+        }
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        int type = buffer.get();
+        long resourcePoolId = buffer.getLong();
+        long epochDay = buffer.getLong();
+        Resources available = getResources(buffer);
+        Resources total = getResources(buffer);
+        buffer.getInt();
+        if (type < 0 || type >= MutationType.values().length) {
+            buffer.position(start);
+            return Optional.empty();
+        }
+        return Optional.of(new ScheduleMutation(sequence, timestamp, MutationType.values()[type],
+                resourcePoolId, epochDay, available, total));
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32 crc = new CRC32();
+        ByteBuffer fields = buffer.duplicate();
+        fields.position(start).limit(start + CHECKSUMMED_SIZE);
+        crc.update(fields);
+        return (int) crc.getValue();
+    }
+
+    private static void putResources(ByteBuffer buffer, Resources resources) {
+        buffer.putInt(resources.getCpu());
+        buffer.putInt(resources.getGpu());
+        buffer.putInt(resources.getMemory());
+    }
+
+    private static Resources getResources(ByteBuffer buffer) {
+        return new Resources(buffer.getInt(), buffer.getInt(), buffer.getInt());
+    }
+}
@@ -0,0 +1,114 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * A bidirectional cache between the names and the ids of the resource pools.
+ * The names and ids of the faculties are resolved on nearly every request, but almost never change,
+ * so they are only looked up in the database once and kept in memory until invalidated.
+ */
+@Component
+public class FacultyNameCache {
+
+    private final transient RpFacultyRepository repo;
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient Map<String, Long> idsByName;
+
+    private final transient Map<Long, String> namesById;
+
+    /**
+     * Instantiates a new FacultyNameCache.
+     *
+     * @param repo                 the RpFaculty repository
+     * @param entityManagerFactory the entity manager factory holding the second-level cache of the resource pools
+     */
+    public FacultyNameCache(RpFacultyRepository repo, EntityManagerFactory entityManagerFactory) {
+        this.repo = repo;
+        this.entityManagerFactory = entityManagerFactory;
+        this.idsByName = new ConcurrentHashMap<>();
+        this.namesById = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Resolves the id of a resource pool given its name.
+     *
+     * @param name the name of the resource pool
+     * @return the optional id of the resource pool
+     */
+    public Optional<Long> getIdByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Long cachedId = idsByName.get(name);
+        if (cachedId != null) {
+            return Optional.of(cachedId);
+        }
+        Optional<ResourcePool> resourcePool = repo.findByName(name);
+        resourcePool.ifPresent(this::put);
+        return resourcePool.map(ResourcePool::getId);
+    }
+
+    /**
+     * Resolves the name of a resource pool given its id.
+     *
+     * @param id the id of the resource pool
+     * @return the optional name of the resource pool
+     */
+    public Optional<String> getNameById(long id) {
+        String cachedName = namesById.get(id);
+        if (cachedName != null) {
+            return Optional.of(cachedName);
+        }
+        Optional<ResourcePool> resourcePool = repo.findById(id);
+        resourcePool.ifPresent(this::put);
+        return resourcePool.map(ResourcePool::getName);
+    }
+
+    /**
+     * Removes a single resource pool from both the name/id cache and the second-level entity cache.
+     *
+     * @param id the id of the resource pool
+     */
+    public void evict(long id) {
+        String name = namesById.remove(id);
+        if (name != null) {
+            idsByName.remove(name);
+        }
+        Cache cache = entityManagerFactory.getCache();
+        if (cache != null) {
+            cache.evict(ResourcePool.class, id);
+        }
+    }
+
+    /**
+     * Removes all resource pools from both the name/id cache and the second-level entity cache.
+     */
+    public void clear() {
+        idsByName.clear();
+        namesById.clear();
+        Cache cache = entityManagerFactory.getCache();
+        if (cache != null) {
+            cache.evict(ResourcePool.class);
+        }
+    }
+
+    /**
+     * Stores the name and id of a resource pool in both directions.
+     *
+     * @param resourcePool the resource pool to cache
+     */
+    private void put(ResourcePool resourcePool) {
+        if (resourcePool.getName() == null) {
+            return;
+        }
+        idsByName.put(resourcePool.getName(), resourcePool.getId());
+        namesById.put(resourcePool.getId(), resourcePool.getName());
+    }
+}
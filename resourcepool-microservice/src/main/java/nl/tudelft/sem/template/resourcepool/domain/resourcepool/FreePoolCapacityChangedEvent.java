@@ -0,0 +1,17 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+/**
+ * A DDD domain event that indicates the resources of the free pool changed,
+ * so requests waiting for the free pool might fit now.
+ */
+public class FreePoolCapacityChangedEvent {
+    private final String cause;
+
+    public FreePoolCapacityChangedEvent(String cause) {
+        this.cause = cause;
+    }
+
+    public String getCause() {
+        return this.cause;
+    }
+}
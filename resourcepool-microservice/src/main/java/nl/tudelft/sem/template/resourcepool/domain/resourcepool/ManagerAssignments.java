@@ -0,0 +1,117 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Keeps every manager assigned to at most one faculty over all shards.
+ * The faculties are spread over the shards by name, so a manager could otherwise manage a faculty on every shard:
+ * the free pool shard holds the claims of all managers, the other shards claim their managers there.
+ */
+@Service
+public class ManagerAssignments {
+
+    private final transient ManagerClaimRepository claims;
+
+    private final transient ResourcePoolShard shard;
+
+    private final transient ServiceTokenProvider serviceTokenProvider;
+
+    private final transient RestTemplate restTemplate;
+
+    /**
+     * Instantiates a new ManagerAssignments.
+     *
+     * @param claims               the repository of the claimed managers, only used on the free pool shard
+     * @param shard                the identity of this instance
+     * @param serviceTokenProvider the provider of the tokens used between the shards
+     */
+    public ManagerAssignments(ManagerClaimRepository claims, ResourcePoolShard shard,
+                              ServiceTokenProvider serviceTokenProvider) {
+        this.claims = claims;
+        this.shard = shard;
+        this.serviceTokenProvider = serviceTokenProvider;
+        this.restTemplate = new RestTemplate();
+    }
+
+    /**
+     * Claims a manager for a new faculty.
+     *
+     * @param managerNetId the netId of the manager
+     * @throws ManagerNetIdAlreadyAssignedException if the manager already manages a faculty on any shard
+     * @throws org.springframework.web.client.RestClientException if the free pool shard could not be reached
+     */
+    public void claim(String managerNetId) throws ManagerNetIdAlreadyAssignedException {
+        if (shard.isFreePoolShard()) {
+            if (!claimLocally(managerNetId)) {
+                throw new ManagerNetIdAlreadyAssignedException(managerNetId);
+            }
+            return;
+        }
+        try {
+            restTemplate.postForEntity(shard.getFreePoolShardUrl() + "/claimManager",
+                    new HttpEntity<>(managerNetId, headers()), Void.class);
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new ManagerNetIdAlreadyAssignedException(managerNetId);
+        }
+    }
+
+    /**
+     * Releases the claim of a manager whose faculty could not be created after all.
+     *
+     * @param managerNetId the netId of the manager
+     * @throws org.springframework.web.client.RestClientException if the free pool shard could not be reached
+     */
+    public void release(String managerNetId) {
+        if (shard.isFreePoolShard()) {
+            releaseLocally(managerNetId);
+            return;
+        }
+        restTemplate.postForEntity(shard.getFreePoolShardUrl() + "/releaseManager",
+                new HttpEntity<>(managerNetId, headers()), Void.class);
+    }
+
+    /**
+     * Claims a manager on this instance, which must be the free pool shard.
+     *
+     * @param managerNetId the netId of the manager
+     * @return true iff the manager was not claimed yet
+     */
+    public boolean claimLocally(String managerNetId) {
+        requireFreePoolShard();
+        try {
+            return claims.claim(managerNetId) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent claim of the same manager won
+            return false;
+        }
+    }
+
+    /**
+     * Releases the claim of a manager on this instance, which must be the free pool shard.
+     *
+     * @param managerNetId the netId of the manager
+     */
+    public void releaseLocally(String managerNetId) {
+        requireFreePoolShard();
+        claims.release(managerNetId);
+    }
+
+    private void requireFreePoolShard() {
+        if (!shard.isFreePoolShard()) {
+            throw new IllegalStateException("The managers are only claimed on the free pool shard");
+        }
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Type", "application/json");
+        headers.add("Authorization", "Bearer " + serviceTokenProvider.getToken());
+        return headers;
+    }
+}
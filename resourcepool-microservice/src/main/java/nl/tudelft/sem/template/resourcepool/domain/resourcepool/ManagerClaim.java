@@ -0,0 +1,29 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.NoArgsConstructor;
+
+/**
+ * A manager that has been assigned to a faculty on any of the shards.
+ * The claims only live on the free pool shard, whose primary key makes every manager manage at most one faculty.
+ */
+@Entity
+@Table(name = "ManagerClaims")
+@NoArgsConstructor
+public class ManagerClaim {
+
+    @Id
+    @Column(name = "managerNetId", nullable = false)
+    private String managerNetId;
+
+    public ManagerClaim(String managerNetId) {
+        this.managerNetId = managerNetId;
+    }
+
+    public String getManagerNetId() {
+        return managerNetId;
+    }
+}
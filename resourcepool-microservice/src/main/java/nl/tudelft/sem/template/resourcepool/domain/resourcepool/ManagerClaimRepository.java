@@ -0,0 +1,34 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import javax.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ManagerClaimRepository extends JpaRepository<ManagerClaim, String> {
+    /**
+     * Claims a manager if no faculty claimed it yet. Concurrent claims of the same manager are serialized
+     * by the primary key, the one that loses fails with a DataIntegrityViolationException.
+     *
+     * @return the amount of claims inserted, 0 if the manager was claimed already
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO manager_claims (manager_net_id) SELECT :managerNetId "
+            + "WHERE NOT EXISTS (SELECT 1 FROM manager_claims WHERE manager_net_id = :managerNetId)",
+            nativeQuery = true)
+    int claim(@Param("managerNetId") String managerNetId);
+
+    /**
+     * Releases the claim of a manager.
+     *
+     * @return the amount of claims deleted, 0 if the manager was not claimed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM manager_claims WHERE manager_net_id = :managerNetId", nativeQuery = true)
+    int release(@Param("managerNetId") String managerNetId);
+}
@@ -0,0 +1,37 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+
+/**
+ * A DDD domain event that indicates a node was contributed to or deleted from a resource pool.
+ */
+public class NodeResourcesChangedEvent {
+    private final long resourcePoolId;
+    private final Resources nodeResources;
+    private final boolean contributed;
+
+    /**
+     * Instantiates a new NodeResourcesChangedEvent.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @param nodeResources  the node resources after the change
+     * @param contributed    true if resources were added, false if they were removed
+     */
+    public NodeResourcesChangedEvent(long resourcePoolId, Resources nodeResources, boolean contributed) {
+        this.resourcePoolId = resourcePoolId;
+        this.nodeResources = nodeResources;
+        this.contributed = contributed;
+    }
+
+    public long getResourcePoolId() {
+        return this.resourcePoolId;
+    }
+
+    public Resources getNodeResources() {
+        return this.nodeResources;
+    }
+
+    public boolean isContributed() {
+        return this.contributed;
+    }
+}
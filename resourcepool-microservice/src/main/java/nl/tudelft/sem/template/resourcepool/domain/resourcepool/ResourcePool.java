@@ -1,29 +1,38 @@
 package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
 
 import java.util.Objects;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.NoArgsConstructor;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
 import nl.tudelft.sem.template.resourcepool.domain.HasEvents;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
 import nl.tudelft.sem.template.resourcepool.domain.resources.ResourcesAttributeConverter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 
 /**
  * The type Resource pool.
  */
 @Entity
 @Table(name = "RpFaculty")//contains both ResourcePools(which we should have only 1, the free resource pool) and Faculties
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)//second-level cache, shared with the Faculty subclass
 @NoArgsConstructor
 public class ResourcePool extends HasEvents {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sharded")
+    @GenericGenerator(name = "sharded",
+            strategy = "nl.tudelft.sem.template.resourcepool.domain.resourcepool.ShardedIdGenerator")
     @Column(name = "id", nullable = false)
     private long id;
     @Column(name = "name", nullable = false)
@@ -38,6 +47,10 @@ public class ResourcePool extends HasEvents {
     @Column(name = "managerNetId")//this is just here so the repo knows the column exists
     private String managerNetId;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     /**
      * Constructs a new ResourcePool with the specified id and name,
      * the other fields will be set to empty recourses.
@@ -87,23 +100,45 @@ public class ResourcePool extends HasEvents {
     }
 
     /**
-     * Sets base resources.
+     * Sets base resources. Records a FreePoolCapacityChangedEvent if this is the free pool and its resources changed.
      *
      * @param baseResources the base resources
      */
     public void setBaseResources(Resources baseResources) {
+        if (isFreePool() && !Objects.equals(this.baseResources, baseResources)) {
+            this.recordThat(new FreePoolCapacityChangedEvent("redistribution"));
+        }
         this.baseResources = baseResources;
     }
 
     /**
-     * Sets node resources.
+     * Sets node resources. Records a NodeResourcesChangedEvent if this is a saved resource pool and its resources changed,
+     * and a FreePoolCapacityChangedEvent as well if this is the free pool.
      *
      * @param nodeResources the node resources
      */
     public void setNodeResources(Resources nodeResources) {
+        if (id != 0 && this.nodeResources != null && !Objects.equals(this.nodeResources, nodeResources)) {
+            boolean contributed = nodeResources.getCpu() >= this.nodeResources.getCpu()
+                    && nodeResources.getGpu() >= this.nodeResources.getGpu()
+                    && nodeResources.getMemory() >= this.nodeResources.getMemory();
+            this.recordThat(new NodeResourcesChangedEvent(id, nodeResources, contributed));
+        }
+        if (isFreePool() && !Objects.equals(this.nodeResources, nodeResources)) {
+            this.recordThat(new FreePoolCapacityChangedEvent("node contribution"));
+        }
         this.nodeResources = nodeResources;
     }
 
+    /**
+     * Checks whether this is the free pool, which is always the first resource pool that is saved.
+     *
+     * @return true iff this is the free pool
+     */
+    public boolean isFreePool() {
+        return ResourcePoolShardRouter.isFreePool(id);
+    }
+
     /**
      * Sets the id.
      *
@@ -0,0 +1,88 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The identity of this instance among the resourcepool instances.
+ * The resource pools are partitioned by id over the instances listed in the routing table,
+ * the free pool (id 1) always lives on the first instance, the free pool shard.
+ */
+@Component
+public class ResourcePoolShard {
+
+    private final transient ResourcePoolShardRouter router;
+
+    private final transient int index;
+
+    /**
+     * Instantiates a new ResourcePoolShard.
+     *
+     * @param router the routing table of all resourcepool instances
+     * @param index  the position of this instance in the routing table
+     */
+    public ResourcePoolShard(ResourcePoolShardRouter router, @Value("${resourcepool.shard.index:0}") int index) {
+        if (index < 0 || index >= router.size()) {
+            throw new IllegalArgumentException("Shard index " + index + " is not in the routing table " + router.all());
+        }
+        this.router = router;
+        this.index = index;
+    }
+
+    /**
+     * Gets the position of this instance in the routing table.
+     *
+     * @return the index of this shard
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the amount of resourcepool instances.
+     *
+     * @return the amount of shards
+     */
+    public int getCount() {
+        return router.size();
+    }
+
+    /**
+     * Checks whether the free pool lives on this instance.
+     *
+     * @return true iff this is the free pool shard
+     */
+    public boolean isFreePoolShard() {
+        return index == 0;
+    }
+
+    /**
+     * Gets the url of the instance owning the free pool.
+     *
+     * @return the url of the free pool shard
+     */
+    public String getFreePoolShardUrl() {
+        return router.forFreePool();
+    }
+
+    /**
+     * Gets the url of the instance at a position of the routing table.
+     *
+     * @param shardIndex the index of the shard
+     * @return the url of the shard
+     */
+    public String getUrl(int shardIndex) {
+        return router.get(shardIndex);
+    }
+
+    /**
+     * Checks whether a resource pool lives on this instance.
+     *
+     * @param resourcePoolId the id of the resource pool
+     * @return true iff the resource pool belongs to this shard
+     */
+    public boolean owns(long resourcePoolId) {
+        return router.indexOf(resourcePoolId) == index;
+    }
+}
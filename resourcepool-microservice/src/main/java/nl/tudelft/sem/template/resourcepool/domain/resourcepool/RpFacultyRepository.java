@@ -1,7 +1,11 @@
 package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
 
+import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -22,7 +26,9 @@ public interface RpFacultyRepository  extends JpaRepository<ResourcePool, Long>
     boolean existsByName(String name);
 
     /**
-     * Checks if a RP/Faculty exists by managerNetId.
+     * Finds all RPs/Faculties and locks them until the end of the transaction.
      */
-    boolean existsByManagerNetId(String managerNetId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT rp FROM ResourcePool rp")
+    List<ResourcePool> findAllForUpdate();
 }
@@ -1,9 +1,16 @@
 package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
 import nl.tudelft.sem.template.resourcepool.models.NodeInteractionRequestModel;
+import nl.tudelft.sem.template.resourcepool.models.NodeResourcesCorrectionModel;
+import nl.tudelft.sem.template.resourcepool.models.NodeResourcesModel;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * A DDD service for managing the resource pools.
@@ -13,17 +20,27 @@ public class RpManagementService {
 
     private final transient RpFacultyRepository repo;
 
+    private final transient FacultyNameCache facultyNameCache;
+
+    private final transient ManagerAssignments managerAssignments;
+
     /**
      * Instantiates a new RpManagementService.
      *
-     * @param repo the RpFaculty repository
+     * @param repo               the RpFaculty repository
+     * @param facultyNameCache   the cache resolving faculty names and ids
+     * @param managerAssignments the managers assigned to a faculty on any shard
      */
-    public RpManagementService(RpFacultyRepository repo) {
+    public RpManagementService(RpFacultyRepository repo, FacultyNameCache facultyNameCache,
+                               ManagerAssignments managerAssignments) {
         this.repo = repo;
+        this.facultyNameCache = facultyNameCache;
+        this.managerAssignments = managerAssignments;
     }
 
     /**
-     * Creates a new Faculty.
+     * Creates a new Faculty. The name only has to be checked on this shard, as every name is created on the same shard,
+     * the manager is claimed on the free pool shard as the faculties of a manager could live on any shard.
      *
      * @param name    The name of the new faculty
      * @param managerNetId The NetId of the faculty manager
@@ -34,11 +51,15 @@ public class RpManagementService {
         if (repo.existsByName(name)) {
             throw new NameAlreadyInUseException(name);
         }
-        if (repo.existsByManagerNetId(managerNetId)) {
-            throw new ManagerNetIdAlreadyAssignedException(managerNetId);
-        }
+        managerAssignments.claim(managerNetId);
         Faculty faculty = new Faculty(name, managerNetId);
-        repo.save(faculty);
+        try {
+            repo.save(faculty);
+        } catch (RuntimeException e) {
+            managerAssignments.release(managerNetId);
+            throw e;
+        }
+        facultyNameCache.clear();
         return faculty;
     }
 
@@ -65,6 +86,7 @@ public class RpManagementService {
         Resources node = new Resources(nodeInfo.getCpu(), nodeInfo.getGpu(), nodeInfo.getMemory());
         faculty.setNodeResources(Resources.add(currentNodeResources, node));
         repo.save(faculty);
+        facultyNameCache.evict(faculty.getId());
         return true;
     }
 
@@ -101,9 +123,61 @@ public class RpManagementService {
         }
         faculty.setNodeResources(newNodeResources);
         repo.save(faculty);
+        facultyNameCache.evict(faculty.getId());
         return true;
     }
 
+    /**
+     * Gets the node resources of every resource pool on this instance, so the nodes service can check them.
+     *
+     * @return the node resources per resource pool
+     */
+    public List<NodeResourcesModel> getAllNodeResources() {
+        List<NodeResourcesModel> nodeResources = new ArrayList<>();
+        for (ResourcePool resourcePool : repo.findAll()) {
+            Resources resources = resourcePool.getNodeResources();
+            nodeResources.add(new NodeResourcesModel(resourcePool.getId(),
+                    resources.getCpu(), resources.getGpu(), resources.getMemory()));
+        }
+        return nodeResources;
+    }
+
+    /**
+     * Overwrites the node resources of resource pools that drifted from the nodes that are actually registered.
+     * A correction is only applied if the resource pool still has the node resources the nodes service saw,
+     * so a node contributed or deleted in the meantime isn't lost.
+     *
+     * @param corrections the node resources that were seen and the ones they should be
+     * @return the ids of the resource pools that were corrected
+     */
+    @Transactional
+    public List<Long> reconcileNodeResources(List<NodeResourcesCorrectionModel> corrections) {
+        Map<Long, NodeResourcesCorrectionModel> correctionsById = new HashMap<>();
+        for (NodeResourcesCorrectionModel correction : corrections) {
+            correctionsById.put(correction.getFacultyId(), correction);
+        }
+
+        List<ResourcePool> corrected = new ArrayList<>();
+        for (ResourcePool resourcePool : repo.findAllById(correctionsById.keySet())) {
+            NodeResourcesCorrectionModel correction = correctionsById.get(resourcePool.getId());
+            Resources expected = new Resources(correction.getExpectedCpu(), correction.getExpectedGpu(),
+                    correction.getExpectedMemory());
+            Resources target = new Resources(correction.getCpu(), correction.getGpu(), correction.getMemory());
+            if (resourcePool.getNodeResources().equals(expected) && checkEnoughResourcesRemaining(target)) {
+                resourcePool.setNodeResources(target);
+                corrected.add(resourcePool);
+            }
+        }
+        repo.saveAll(corrected);
+
+        List<Long> ids = new ArrayList<>();
+        for (ResourcePool resourcePool : corrected) {
+            facultyNameCache.evict(resourcePool.getId());
+            ids.add(resourcePool.getId());
+        }
+        return ids;
+    }
+
     /**
      * Returns the Faculty object if the ID can be found in the database.
      *
@@ -111,12 +185,8 @@ public class RpManagementService {
      * @return the Faculty object related with the ID
      * @throws FacultyIdNotFoundException if the ID couldn't be found in the database
      */
-    @SuppressWarnings("OptionalGetWithoutIsPresent")
     public ResourcePool getFacultyById(long facultyId) throws FacultyIdNotFoundException {
-        if (!repo.existsById(facultyId)) {
-            throw new FacultyIdNotFoundException(facultyId);
-        }
-        return repo.findById(facultyId).get();
+        return repo.findById(facultyId).orElseThrow(() -> new FacultyIdNotFoundException(facultyId));
     }
 
     /**
@@ -149,6 +219,26 @@ public class RpManagementService {
         return repo.findByName(facultyName);
     }
 
+    /**
+     * Resolves the name of a resource pool given its id, using the faculty name cache.
+     *
+     * @param resourcePoolId the id
+     * @return the optional name of the resourcePool
+     */
+    public Optional<String> findNameById(long resourcePoolId) {
+        return facultyNameCache.getNameById(resourcePoolId);
+    }
+
+    /**
+     * Resolves the id of a resource pool given its name, using the faculty name cache.
+     *
+     * @param facultyName the faculty name
+     * @return the optional id of the resourcePool
+     */
+    public Optional<Long> findIdByName(String facultyName) {
+        return facultyNameCache.getIdByName(facultyName);
+    }
+
 
     /**
      * Returns a string with all resource pools in the database.
@@ -0,0 +1,59 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Generates the ids of the resource pools so that every id maps back to the shard that created it,
+ * see {@link nl.tudelft.sem.template.commons.ResourcePoolShardRouter#indexOf(long)}.
+ * The ids come from a database sequence starting at the index of the shard + 1 and stepping by the amount of shards,
+ * so concurrent inserts never get the same id. With a single shard this is the same as counting up from 1.
+ */
+public class ShardedIdGenerator extends SequenceStyleGenerator {
+
+    /**
+     * The Hibernate setting holding the index of this shard.
+     */
+    public static final String SHARD_INDEX = "resourcepool.shard.index";
+
+    /**
+     * The Hibernate setting holding the amount of shards.
+     */
+    public static final String SHARD_COUNT = "resourcepool.shard.count";
+
+    /**
+     * The name of the sequence the ids are drawn from.
+     */
+    public static final String SEQUENCE_NAME = "resource_pool_ids";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService configuration = serviceRegistry.getService(ConfigurationService.class);
+        int index = configuration.getSetting(SHARD_INDEX, StandardConverters.INTEGER, 0);
+        int count = configuration.getSetting(SHARD_COUNT, StandardConverters.INTEGER, 1);
+        params.putAll(sequenceParameters(index, count));
+        super.configure(type, params, serviceRegistry);
+    }
+
+    /**
+     * Gets the parameters of the sequence of a shard. Every id is fetched from the sequence itself,
+     * as an optimizer handing out ids in between the fetched values would hand out ids of the other shards.
+     *
+     * @param index the index of the shard
+     * @param count the amount of shards
+     * @return the parameters of the sequence
+     */
+    static Properties sequenceParameters(int index, int count) {
+        Properties params = new Properties();
+        params.setProperty(SEQUENCE_PARAM, SEQUENCE_NAME);
+        params.setProperty(INITIAL_PARAM, String.valueOf(index + 1));
+        params.setProperty(INCREMENT_PARAM, String.valueOf(count));
+        params.setProperty(OPT_PARAM, "none");
+        return params;
+    }
+}
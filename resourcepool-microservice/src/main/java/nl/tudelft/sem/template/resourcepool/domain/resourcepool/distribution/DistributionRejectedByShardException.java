@@ -0,0 +1,14 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool.distribution;
+
+/**
+ * Exception to indicate that another shard refused to apply its part of a distribution,
+ * because it would leave one of its resource pools with less resources than already scheduled.
+ */
+public class DistributionRejectedByShardException extends Exception {
+    static final long serialVersionUID = 6012745120998731742L;
+
+    public DistributionRejectedByShardException(int shardIndex) {
+        super("The distribution leaves a resource pool of shard " + shardIndex
+                + " with less resources than already scheduled");
+    }
+}
@@ -1,14 +1,35 @@
 package nl.tudelft.sem.template.resourcepool.domain.resourcepool.distribution;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.PostConstruct;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.CapacityHolds;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.CapacityTimelineService;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.DailySchedule;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.DailyScheduleService;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.ScheduleChangedEvent;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.ScheduleRepository;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.ScheduleSavedEvent;
+import nl.tudelft.sem.template.resourcepool.domain.journal.MutationType;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyNameCache;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePool;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePoolShard;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpFacultyRepository;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
 import nl.tudelft.sem.template.resourcepool.models.DistributionModel;
+import nl.tudelft.sem.template.resourcepool.models.PoolResourcesModel;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * A DDD service for distributing the resources.
@@ -19,6 +40,20 @@ import org.springframework.stereotype.Service;
 public class DistributionService {
     private final transient RpFacultyRepository repo;
 
+    private final transient ScheduleRepository scheduleRepository;
+
+    private final transient FacultyNameCache facultyNameCache;
+
+    private final transient ResourcePoolShard shard;
+
+    private final transient ApplicationEventPublisher eventPublisher;
+
+    private final transient DistributionShards shards;
+
+    private final transient TransactionTemplate transactionTemplate;
+
+    private final transient CapacityHolds capacityHolds;
+
     private final transient Resources systemResources;
 
     private final transient List<ResourceDistribution> distributions;
@@ -28,31 +63,54 @@ public class DistributionService {
     /**
      * Instantiates a new DistributionService and sets the initial resources in the system.
      *
-     * @param repo the RpFaculty repository
+     * @param repo               the RpFaculty repository
+     * @param scheduleRepository the repository of the daily schedules
+     * @param facultyNameCache   the cache resolving faculty names and ids
+     * @param shard              the identity of this instance among the resourcepool instances
+     * @param eventPublisher     the publisher of the domain events
+     * @param shards             the other shards, holding the other resource pools
+     * @param transactionManager the manager of the transaction the queued distributions are saved in
+     * @param capacityHolds      the capacity holds, which a distribution may not take away
      */
-    public DistributionService(RpFacultyRepository repo) {
+    public DistributionService(RpFacultyRepository repo, ScheduleRepository scheduleRepository,
+                               FacultyNameCache facultyNameCache, ResourcePoolShard shard,
+                               ApplicationEventPublisher eventPublisher, DistributionShards shards,
+                               PlatformTransactionManager transactionManager, CapacityHolds capacityHolds) {
         this.repo = repo;
+        this.scheduleRepository = scheduleRepository;
+        this.facultyNameCache = facultyNameCache;
+        this.shard = shard;
+        this.eventPublisher = eventPublisher;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacityHolds = capacityHolds;
         systemResources = new Resources(1000, 200, 8000); //initial resources in the system
         distributions = new ArrayList<>();
     }
 
     /**
-     * Creates the free pool on service startup.
+     * Creates the free pool on service startup, only the free pool shard owns the free pool.
      */
     @PostConstruct
     public void createFreePool() {
+        if (!shard.isFreePoolShard()) {
+            return;
+        }
         ResourcePool freePool = new ResourcePool("Free pool");
         freePool.setBaseResources(systemResources);
         repo.save(freePool);
     }
 
     /**
-     * Returns a string with the current distribution of the resources in the system.
+     * Returns a string with the current distribution of the resources in the system, over all shards.
      *
      * @return String with the current distribution of the resources in the system
      */
     public String getCurrentDistribution() {
-        List<ResourcePool> rps = repo.findAll();
+        List<ResourcePool> rps = new ArrayList<>(repo.findAll());
+        for (List<PoolResourcesModel> pools : shards.getRemotePools().values()) {
+            rps.addAll(toResourcePools(pools));
+        }
         Resources totalResources = calculateTotalResources(rps);
         List<ResourceDistribution> distributionList = new ArrayList<>();
 
@@ -73,14 +131,14 @@ public class DistributionService {
      * @param distribution the wanted percentage of resources for a faculty
      * @throws Exception if the faculty name is invalid
      */
-    public void addDistribution(DistributionModel distribution) throws Exception {
+    public synchronized void addDistribution(DistributionModel distribution) throws Exception {
         String name = distribution.getName();
         List<String> names = new ArrayList<>();
         for (ResourceDistribution temp : distributions) {
             names.add(temp.getName());
         }
 
-        if (!repo.existsByName(name) || names.contains(name)) {
+        if (!existsOnAnyShard(name) || names.contains(name)) {
             throw new FacultyNameNotValidException(name);
         }
 
@@ -93,40 +151,286 @@ public class DistributionService {
      *
      * @return String with the current distributions in the queue
      */
-    public String statusDistribution() {
+    public synchronized String statusDistribution() {
         return distributions.toString();
     }
 
     /**
      * Saves all the current faculty distributions in the queue to the full system.
+     * The transaction is started and committed while the queue is locked, so no other save or change of the queue
+     * can slip in between, and the queue is only cleared once the distribution is committed.
      *
      * @throws Exception if there is a wrong amount of distributions or if the percentages don't add up
      */
-    public void saveDistribution() throws Exception {
+    public synchronized void saveDistribution() throws Exception {
         validateDistribution();
-        List<ResourcePool> rps = repo.findAll();
-        for (ResourceDistribution distribution : distributions) {
-            String name = distribution.getName();
-            ResourcePool resourcePool;
-            Optional<ResourcePool> tempResourcePool = repo.findByName(name);
-            if (tempResourcePool.isEmpty()) {
-                break;
+        List<ResourceDistribution> proposed = new ArrayList<>(distributions);
+        Exception failure = transactionTemplate.execute(status -> {
+            try {
+                applyDistributions(proposed);
+                return null;
+            } catch (Exception e) {
+                status.setRollbackOnly();
+                return e;
             }
-            resourcePool = tempResourcePool.get();
-            double cpu = distribution.getPercentageCpu() / 100.0 * systemResources.getCpu();
-            double gpu = distribution.getPercentageGpu() / 100.0 * systemResources.getGpu();
-            double memory = distribution.getPercentageMemory() / 100.0 * systemResources.getMemory();
-            Resources resources = new Resources((int) cpu, (int) gpu, (int) memory);
-            resourcePool.setBaseResources(resources);
-            repo.save(resourcePool);
+        });
+        if (failure != null) {
+            throw failure;
         }
         distributions.clear();
     }
 
+    /**
+     * Validates and applies a complete distribution at once, without going through the queue.
+     * All resource pools and the already existing schedules from tomorrow onwards are locked,
+     * so concurrent redistributions (also from other instances) are applied one after the other.
+     *
+     * @param models the wanted percentages of resources for every resource pool
+     * @throws Exception if a faculty name is invalid or submitted twice, if there is a wrong amount of distributions,
+     *                   if the percentages don't add up or if a resource pool ends up with less than it has scheduled
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void applyDistribution(List<DistributionModel> models) throws Exception {
+        List<ResourceDistribution> proposed = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (DistributionModel model : models) {
+            if (!names.add(model.getName())) {
+                throw new FacultyNameNotValidException(model.getName());
+            }
+            proposed.add(new ResourceDistribution(model.getName(), new Resources(0, 0, 0),
+                    model.getCpu(), model.getGpu(), model.getMemory()));
+        }
+        applyDistributions(proposed);
+    }
+
+    /**
+     * Applies the given distributions to the resource pools of all shards and their future schedules.
+     * This shard coordinates: it locks its own resource pools, gathers those of the other shards and validates
+     * the distribution against all of them. The other shards first check that they can apply their part,
+     * and only apply it once this shard applied its own part. If this shard does not commit after all,
+     * the other shards get their previous base resources back.
+     *
+     * @param proposed the distributions to apply
+     * @throws Exception if the distributions are invalid or a resource pool ends up with less than it has scheduled
+     */
+    private void applyDistributions(List<ResourceDistribution> proposed) throws Exception {
+        if (!shard.isFreePoolShard()) {
+            throw new IllegalStateException("Distributions are coordinated by the free pool shard");
+        }
+        List<ResourcePool> rps = repo.findAllForUpdate();
+        Map<Integer, List<PoolResourcesModel>> remotePools = shards.getRemotePools();
+        int numberOfPools = rps.size();
+        Map<String, Integer> remoteShardByName = new HashMap<>();
+        Map<String, Long> remoteIdByName = new HashMap<>();
+        for (Map.Entry<Integer, List<PoolResourcesModel>> entry : remotePools.entrySet()) {
+            numberOfPools += entry.getValue().size();
+            for (PoolResourcesModel pool : entry.getValue()) {
+                remoteShardByName.put(pool.getName(), entry.getKey());
+                remoteIdByName.put(pool.getName(), pool.getId());
+            }
+        }
+        validateDistribution(proposed, numberOfPools);
+
+        Map<String, ResourcePool> poolsByName = new HashMap<>();
+        for (ResourcePool rp : rps) {
+            poolsByName.put(rp.getName(), rp);
+        }
+        Map<Long, Resources> differences = new HashMap<>();
+        Map<Integer, List<PoolResourcesModel>> remoteTargets = new HashMap<>();
+        for (ResourceDistribution distribution : proposed) {
+            Resources resources = calculateBaseResources(distribution);
+            ResourcePool resourcePool = poolsByName.get(distribution.getName());
+            if (resourcePool != null) {
+                differences.put(resourcePool.getId(), Resources.subtract(resources, resourcePool.getBaseResources()));
+                resourcePool.setBaseResources(resources);
+                continue;
+            }
+            Integer remoteShard = remoteShardByName.get(distribution.getName());
+            if (remoteShard == null) {
+                throw new FacultyNameNotValidException(distribution.getName());
+            }
+            remoteTargets.computeIfAbsent(remoteShard, index -> new ArrayList<>())
+                    .add(toModel(remoteIdByName.get(distribution.getName()), distribution.getName(), resources));
+        }
+        for (Map.Entry<Integer, List<PoolResourcesModel>> target : remoteTargets.entrySet()) {
+            shards.apply(target.getKey(), target.getValue(), true);
+        }
+
+        saveFutureSchedules(changeFutureSchedules(differences, true), differences);
+        repo.saveAll(rps);
+        facultyNameCache.clear();
+
+        applyOnRemoteShards(remoteTargets, remotePools);
+    }
+
+    /**
+     * Applies the remote parts of a distribution, which were all checked already.
+     * The shards that applied their part get their previous base resources back if this shard does not commit.
+     *
+     * @param remoteTargets the new base resources of the resource pools, per shard
+     * @param remotePools   the previous base resources of the resource pools, per shard
+     * @throws DistributionRejectedByShardException if a shard refused its part after all
+     */
+    private void applyOnRemoteShards(Map<Integer, List<PoolResourcesModel>> remoteTargets,
+                                     Map<Integer, List<PoolResourcesModel>> remotePools)
+            throws DistributionRejectedByShardException {
+        if (remoteTargets.isEmpty()) {
+            return;
+        }
+        List<Integer> applied = new ArrayList<>();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        revertRemoteShards(applied, remotePools);
+                    }
+                }
+            });
+        }
+        for (Map.Entry<Integer, List<PoolResourcesModel>> target : remoteTargets.entrySet()) {
+            shards.apply(target.getKey(), target.getValue(), false);
+            applied.add(target.getKey());
+        }
+    }
+
+    /**
+     * Gives the shards that applied their part of a distribution that was rolled back their previous base resources.
+     *
+     * @param applied     the indices of the shards that applied their part
+     * @param remotePools the previous base resources of the resource pools, per shard
+     */
+    private void revertRemoteShards(List<Integer> applied, Map<Integer, List<PoolResourcesModel>> remotePools) {
+        for (int index : applied) {
+            try {
+                shards.apply(index, remotePools.get(index), false);
+            } catch (Exception e) {
+                System.err.println("Could not revert the distribution on shard " + index + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the base resources of all resource pools on this shard, for the shard coordinating a distribution.
+     *
+     * @return the base resources of the resource pools on this shard
+     */
+    public List<PoolResourcesModel> getLocalPools() {
+        List<PoolResourcesModel> pools = new ArrayList<>();
+        for (ResourcePool rp : repo.findAll()) {
+            pools.add(toModel(rp.getId(), rp.getName(), rp.getBaseResources()));
+        }
+        return pools;
+    }
+
+    /**
+     * Applies the part of a distribution handed to this shard by the shard coordinating it.
+     * The part has to cover every resource pool on this shard, which are locked while it is applied.
+     *
+     * @param pools  the new base resources of every resource pool on this shard
+     * @param dryRun whether to only check that the part can be applied
+     * @throws Exception if the part does not cover exactly the resource pools on this shard,
+     *                   or if a resource pool ends up with less than it has scheduled
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void applyShardDistribution(List<PoolResourcesModel> pools, boolean dryRun) throws Exception {
+        List<ResourcePool> rps = repo.findAllForUpdate();
+        Map<Long, PoolResourcesModel> poolsById = new HashMap<>();
+        for (PoolResourcesModel pool : pools) {
+            poolsById.put(pool.getId(), pool);
+        }
+        if (poolsById.size() != rps.size()) {
+            throw new WrongAmountOfFacultiesSubmittedException();
+        }
+
+        Map<Long, Resources> differences = new HashMap<>();
+        for (ResourcePool rp : rps) {
+            PoolResourcesModel pool = poolsById.get(rp.getId());
+            if (pool == null) {
+                throw new FacultyNameNotValidException(rp.getName());
+            }
+            Resources resources = new Resources(pool.getCpu(), pool.getGpu(), pool.getMemory());
+            differences.put(rp.getId(), Resources.subtract(resources, rp.getBaseResources()));
+            if (!dryRun) {
+                rp.setBaseResources(resources);
+            }
+        }
+        List<DailySchedule> changed = changeFutureSchedules(differences, !dryRun);
+        if (dryRun) {
+            return;
+        }
+        saveFutureSchedules(changed, differences);
+        repo.saveAll(rps);
+        facultyNameCache.clear();
+    }
+
+    /**
+     * Adds the change in base resources to the total and available resources of the existing future schedules.
+     * The resources held for requests being admitted are still to be taken from the schedules, so they have to remain.
+     *
+     * @param differences the change in base resources per resource pool id
+     * @param apply       whether to change the schedules, or only check that they can be changed
+     * @return the schedules that are changed
+     * @throws ScheduledResourcesExceededException if a schedule ends up with less available resources than are held
+     */
+    private List<DailySchedule> changeFutureSchedules(Map<Long, Resources> differences, boolean apply)
+            throws ScheduledResourcesExceededException {
+        List<DailySchedule> schedules = scheduleRepository.findAllByDayGreaterThanEqual(DailyScheduleService.getTomorrow());
+        List<DailySchedule> changed = new ArrayList<>();
+        for (DailySchedule schedule : schedules) {
+            Resources difference = differences.get(schedule.getResourcePoolId());
+            if (difference == null) {
+                continue;
+            }
+            Resources available = Resources.add(schedule.getAvailableResources(), difference);
+            Resources unheld = Resources.subtract(available, capacityHolds.heldOn(schedule.getResourcePoolId(),
+                    CapacityTimelineService.toLocalDate(schedule.getDay())));
+            if (unheld.getCpu() < 0 || unheld.getGpu() < 0 || unheld.getMemory() < 0) {
+                throw new ScheduledResourcesExceededException(schedule.getResourcePoolId());
+            }
+            if (apply) {
+                schedule.setAvailableResources(available);
+                schedule.setTotalResources(Resources.add(schedule.getTotalResources(), difference));
+            }
+            changed.add(schedule);
+        }
+        return changed;
+    }
+
+    /**
+     * Saves the changed future schedules and announces the change of every changed schedule,
+     * to be journaled once committed, and of every redistributed resource pool.
+     *
+     * @param changed     the changed schedules
+     * @param differences the change in base resources per resource pool id
+     */
+    private void saveFutureSchedules(List<DailySchedule> changed, Map<Long, Resources> differences) {
+        scheduleRepository.saveAll(changed);
+        for (DailySchedule schedule : changed) {
+            eventPublisher.publishEvent(new ScheduleSavedEvent(MutationType.REDISTRIBUTE, schedule));
+        }
+        for (long resourcePoolId : differences.keySet()) {
+            eventPublisher.publishEvent(new ScheduleChangedEvent(resourcePoolId));
+        }
+    }
+
+    /**
+     * Calculates the base resources of a resource pool given its share of the system resources.
+     *
+     * @param distribution the distribution of the resource pool
+     * @return the base resources of the resource pool
+     */
+    private Resources calculateBaseResources(ResourceDistribution distribution) {
+        double cpu = distribution.getPercentageCpu() / 100.0 * systemResources.getCpu();
+        double gpu = distribution.getPercentageGpu() / 100.0 * systemResources.getGpu();
+        double memory = distribution.getPercentageMemory() / 100.0 * systemResources.getMemory();
+        return new Resources((int) cpu, (int) gpu, (int) memory);
+    }
+
     /**
      * Clears the queue with all the current faculty distributions.
      */
-    public void clearDistribution() {
+    public synchronized void clearDistribution() {
         distributions.clear();
     }
 
@@ -135,16 +439,30 @@ public class DistributionService {
      *
      * @throws Exception if there is a wrong amount of distributions or if the percentages don't add up
      */
-    public void validateDistribution() throws Exception {
-        List<ResourcePool> rps = repo.findAll();
-        if (rps.size() != distributions.size()) {
+    public synchronized void validateDistribution() throws Exception {
+        int numberOfPools = repo.findAll().size();
+        for (List<PoolResourcesModel> pools : shards.getRemotePools().values()) {
+            numberOfPools += pools.size();
+        }
+        validateDistribution(distributions, numberOfPools);
+    }
+
+    /**
+     * Validates a distribution by checking its size and checking the percentages.
+     *
+     * @param proposed      the distributions to validate
+     * @param numberOfPools   the amount of resource pools in the system
+     * @throws Exception if there is a wrong amount of distributions or if the percentages don't add up
+     */
+    private void validateDistribution(List<ResourceDistribution> proposed, int numberOfPools) throws Exception {
+        if (numberOfPools != proposed.size()) {
             throw new WrongAmountOfFacultiesSubmittedException();
         }
 
         double totalCpu = 0.0;
         double totalGpu = 0.0;
         double totalMemory = 0.0;
-        for (ResourceDistribution distribution : distributions) {
+        for (ResourceDistribution distribution : proposed) {
             totalCpu += distribution.getPercentageCpu();
             totalGpu += distribution.getPercentageGpu();
             totalMemory += distribution.getPercentageMemory();
@@ -160,6 +478,41 @@ public class DistributionService {
         }
     }
 
+    /**
+     * Checks whether a resource pool with the given name exists on this or any other shard.
+     *
+     * @param name the name of the resource pool
+     * @return true iff the resource pool exists
+     */
+    private boolean existsOnAnyShard(String name) {
+        if (repo.existsByName(name)) {
+            return true;
+        }
+        for (List<PoolResourcesModel> pools : shards.getRemotePools().values()) {
+            for (PoolResourcesModel pool : pools) {
+                if (pool.getName().equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static PoolResourcesModel toModel(long id, String name, Resources resources) {
+        return new PoolResourcesModel(id, name, resources.getCpu(), resources.getGpu(), resources.getMemory());
+    }
+
+    private static List<ResourcePool> toResourcePools(List<PoolResourcesModel> pools) {
+        List<ResourcePool> rps = new ArrayList<>();
+        for (PoolResourcesModel pool : pools) {
+            ResourcePool rp = new ResourcePool(pool.getName());
+            rp.setId(pool.getId());
+            rp.setBaseResources(new Resources(pool.getCpu(), pool.getGpu(), pool.getMemory()));
+            rps.add(rp);
+        }
+        return rps;
+    }
+
     /**
      * Returns a Resources object with the total of all base resources in the list.
      *
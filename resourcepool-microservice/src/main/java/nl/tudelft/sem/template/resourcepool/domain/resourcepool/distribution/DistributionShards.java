@@ -0,0 +1,92 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool.distribution;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePoolShard;
+import nl.tudelft.sem.template.resourcepool.models.PoolResourcesModel;
+import nl.tudelft.sem.template.resourcepool.models.ShardDistributionModel;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * The other shards, as seen by the free pool shard when it coordinates a redistribution.
+ * Every shard only holds its own resource pools, so the free pool shard gathers all of them before validating
+ * a distribution and hands every shard the new base resources of its own resource pools.
+ */
+@Component
+public class DistributionShards {
+
+    private final transient ResourcePoolShard shard;
+
+    private final transient ServiceTokenProvider serviceTokenProvider;
+
+    private final transient RestTemplate restTemplate;
+
+    /**
+     * Instantiates a new DistributionShards.
+     *
+     * @param shard                the identity of this instance
+     * @param serviceTokenProvider the provider of the tokens used between the shards
+     */
+    public DistributionShards(ResourcePoolShard shard, ServiceTokenProvider serviceTokenProvider) {
+        this.shard = shard;
+        this.serviceTokenProvider = serviceTokenProvider;
+        this.restTemplate = new RestTemplate();
+    }
+
+    /**
+     * Gets the resource pools of all other shards.
+     *
+     * @return the resource pools per shard index, empty if this is the only shard
+     * @throws org.springframework.web.client.RestClientException if a shard could not be reached
+     */
+    public Map<Integer, List<PoolResourcesModel>> getRemotePools() {
+        Map<Integer, List<PoolResourcesModel>> pools = new LinkedHashMap<>();
+        for (int index = 0; index < shard.getCount(); index++) {
+            if (index == shard.getIndex()) {
+                continue;
+            }
+            PoolResourcesModel[] body = restTemplate.exchange(url(index, "/distribution/pools"), HttpMethod.GET,
+                    new HttpEntity<>(headers()), PoolResourcesModel[].class).getBody();
+            pools.put(index, body == null ? List.of() : Arrays.asList(body));
+        }
+        return pools;
+    }
+
+    /**
+     * Hands a shard the new base resources of all its resource pools.
+     *
+     * @param index  the index of the shard
+     * @param pools  the new base resources of the resource pools of the shard
+     * @param dryRun whether the shard should only check that it can apply them
+     * @throws DistributionRejectedByShardException if the shard refused the base resources
+     * @throws org.springframework.web.client.RestClientException if the shard could not be reached
+     */
+    public void apply(int index, List<PoolResourcesModel> pools, boolean dryRun)
+            throws DistributionRejectedByShardException {
+        try {
+            restTemplate.postForEntity(url(index, "/distribution/shard"),
+                    new HttpEntity<>(new ShardDistributionModel(dryRun, pools), headers()), Void.class);
+        } catch (HttpClientErrorException.BadRequest e) {
+            throw new DistributionRejectedByShardException(index);
+        }
+    }
+
+    private String url(int index, String path) {
+        return shard.getUrl(index) + path;
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Type", "application/json");
+        headers.add("Authorization", "Bearer " + serviceTokenProvider.getToken());
+        return headers;
+    }
+}
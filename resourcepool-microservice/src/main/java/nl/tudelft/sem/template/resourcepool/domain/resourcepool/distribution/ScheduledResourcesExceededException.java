@@ -0,0 +1,12 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool.distribution;
+
+/**
+ * Exception to indicate that a distribution leaves a resource pool with less resources than already scheduled.
+ */
+public class ScheduledResourcesExceededException extends Exception {
+    static final long serialVersionUID = -3387516993124229948L;
+
+    public ScheduledResourcesExceededException(long resourcePoolId) {
+        super("The distribution leaves resource pool " + resourcePoolId + " with less resources than already scheduled");
+    }
+}
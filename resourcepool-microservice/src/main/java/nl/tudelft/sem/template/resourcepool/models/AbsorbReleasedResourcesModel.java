@@ -0,0 +1,16 @@
+package nl.tudelft.sem.template.resourcepool.models;
+
+import java.util.Calendar;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class AbsorbReleasedResourcesModel {
+    private Calendar day;
+    private int cpu;
+    private int gpu;
+    private int memory;
+}
@@ -0,0 +1,15 @@
+package nl.tudelft.sem.template.resourcepool.models;
+
+import java.util.Calendar;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class AvailableResourcesAtRequestModel {
+    private long resourcePoolId;
+    private Calendar day;
+    private long timestamp;
+}
@@ -0,0 +1,16 @@
+package nl.tudelft.sem.template.resourcepool.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a request to schedule a request on the resources held for it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommitHoldRequestModel {
+    private String holdId;
+    private long requestId;
+}
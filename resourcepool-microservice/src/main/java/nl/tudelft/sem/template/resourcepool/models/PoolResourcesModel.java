@@ -0,0 +1,21 @@
+package nl.tudelft.sem.template.resourcepool.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing the base resources of a resource pool, exchanged between the shards when redistributing.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PoolResourcesModel {
+
+    private long id;
+    private String name;
+
+    private int cpu;
+    private int gpu;
+    private int memory;
+}
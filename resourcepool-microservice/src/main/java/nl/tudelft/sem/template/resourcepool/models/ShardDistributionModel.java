@@ -0,0 +1,20 @@
+package nl.tudelft.sem.template.resourcepool.models;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing the new base resources of all resource pools of a shard.
+ * A dry run only checks whether the shard can apply them.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShardDistributionModel {
+
+    private boolean dryRun;
+
+    private List<PoolResourcesModel> pools;
+}
@@ -0,0 +1,16 @@
+package nl.tudelft.sem.template.resourcepool.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing a hold on resources of a resource pool.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TryReserveResponseModel {
+    private String holdId;
+    private long expiresAt;
+}
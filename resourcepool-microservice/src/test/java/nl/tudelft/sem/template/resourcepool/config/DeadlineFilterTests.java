@@ -0,0 +1,71 @@
+package nl.tudelft.sem.template.resourcepool.config;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class DeadlineFilterTests {
+    private transient DeadlineFilter deadlineFilter;
+
+    private transient HttpServletRequest mockRequest;
+    private transient HttpServletResponse mockResponse;
+    private transient FilterChain mockFilterChain;
+
+    /**
+     * Set up mocks.
+     */
+    @BeforeEach
+    public void setup() {
+        mockRequest = Mockito.mock(HttpServletRequest.class);
+        mockResponse = Mockito.mock(HttpServletResponse.class);
+        mockFilterChain = Mockito.mock(FilterChain.class);
+
+        deadlineFilter = new DeadlineFilter();
+    }
+
+    @Test
+    public void noDeadline() throws ServletException, IOException {
+        deadlineFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
+
+        verify(mockFilterChain).doFilter(mockRequest, mockResponse);
+    }
+
+    @Test
+    public void deadlineAhead() throws ServletException, IOException {
+        when(mockRequest.getHeader(DeadlineFilter.DEADLINE_HEADER))
+                .thenReturn(String.valueOf(System.currentTimeMillis() + 60_000));
+
+        deadlineFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
+
+        verify(mockFilterChain).doFilter(mockRequest, mockResponse);
+    }
+
+    @Test
+    public void deadlinePassed() throws ServletException, IOException {
+        when(mockRequest.getHeader(DeadlineFilter.DEADLINE_HEADER))
+                .thenReturn(String.valueOf(System.currentTimeMillis() - 1));
+
+        deadlineFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
+
+        verify(mockResponse).sendError(503, "The deadline of the request passed.");
+        verify(mockFilterChain, never()).doFilter(mockRequest, mockResponse);
+    }
+
+    @Test
+    public void unreadableDeadline() throws ServletException, IOException {
+        when(mockRequest.getHeader(DeadlineFilter.DEADLINE_HEADER)).thenReturn("tomorrow");
+
+        deadlineFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
+
+        verify(mockFilterChain).doFilter(mockRequest, mockResponse);
+    }
+}
@@ -0,0 +1,88 @@
+package nl.tudelft.sem.template.resourcepool.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+class ScheduleChangeNotifierTest {
+
+    private HttpServer server;
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private ScheduleChangeNotifier sut;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/schedules/changed", exchange -> {
+            received.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        // a delay of an hour keeps the background flush out of the way, the tests flush themselves
+        ServiceTokenProvider serviceTokenProvider = mock(ServiceTokenProvider.class);
+        when(serviceTokenProvider.getToken()).thenReturn("service token");
+        sut = new ScheduleChangeNotifier("http://localhost:" + server.getAddress().getPort(), 3_600_000,
+                new RestTemplateBuilder(), serviceTokenProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void changesAreCoalescedIntoOneNotification() {
+        sut.changed(3L);
+        sut.changed(4L);
+        sut.changed(3L);
+
+        assertThat(sut.flush()).isTrue();
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0)).startsWith("[").contains("3").contains("4").endsWith("]");
+    }
+
+    @Test
+    void notificationCarriesTheServiceToken() {
+        sut.changed(3L);
+
+        assertThat(sut.flush()).isTrue();
+        assertThat(authorizations).containsExactly("Bearer service token");
+    }
+
+    @Test
+    void overviewChangeNotifiesTheFreePool() {
+        sut.overviewChanged();
+
+        assertThat(sut.flush()).isTrue();
+        assertThat(received).containsExactly("[1]");
+    }
+
+    @Test
+    void nothingChangedSendsNothing() {
+        assertThat(sut.flush()).isTrue();
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void unreachableUsersServiceIsOnlyLogged() {
+        sut.changed(3L);
+        server.stop(0);
+
+        assertThat(sut.flush()).isFalse();
+    }
+}
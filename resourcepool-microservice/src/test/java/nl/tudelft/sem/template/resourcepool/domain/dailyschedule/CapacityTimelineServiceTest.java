@@ -0,0 +1,114 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.Optional;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyIdNotFoundException;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePool;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpFacultyRepository;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CapacityTimelineServiceTest {
+
+    private ScheduleRepository mockScheduleRepository;
+
+    private RpFacultyRepository mockResourcePoolRepo;
+
+    private CapacityTimelineService capacityTimelineService;
+
+    private ResourcePool faculty;
+
+    private Calendar tomorrow;
+
+    @BeforeEach
+    void setup() {
+        mockScheduleRepository = mock(ScheduleRepository.class);
+        mockResourcePoolRepo = mock(RpFacultyRepository.class);
+        capacityTimelineService = new CapacityTimelineService(mockScheduleRepository, mockResourcePoolRepo);
+
+        faculty = new ResourcePool("EEMCS");
+        faculty.setId(6L);
+        faculty.setBaseResources(new Resources(100, 100, 100));
+        faculty.setNodeResources(new Resources(20, 20, 20));
+        when(mockResourcePoolRepo.findById(6L)).thenReturn(Optional.of(faculty));
+
+        tomorrow = DailyScheduleService.getTomorrow();
+    }
+
+    @Test
+    void findEarliestDaySkipsFullSchedules() throws Exception {
+        DailySchedule full = new DailySchedule(tomorrow, 6L);
+        full.setAvailableResources(new Resources(0, 0, 0));
+        when(mockScheduleRepository.findAllByResourcePoolId(6L)).thenReturn(List.of(full));
+
+        Optional<Calendar> result = capacityTimelineService.findEarliestDay(6L, tomorrow, new Resources(10, 10, 10));
+
+        Calendar dayAfterTomorrow = CapacityTimelineService.toCalendar(
+                CapacityTimelineService.toLocalDate(tomorrow).plusDays(1));
+        assertThat(result).contains(dayAfterTomorrow);
+    }
+
+    @Test
+    void savedSchedulesUpdateTheTimeline() throws Exception {
+        when(mockScheduleRepository.findAllByResourcePoolId(6L)).thenReturn(List.of());
+        assertThat(capacityTimelineService.findEarliestDay(6L, tomorrow, new Resources(10, 10, 10)))
+                .contains(tomorrow);
+
+        DailySchedule full = new DailySchedule(tomorrow, 6L);
+        full.setAvailableResources(new Resources(5, 5, 5));
+        capacityTimelineService.update(full);
+
+        Calendar dayAfterTomorrow = CapacityTimelineService.toCalendar(
+                CapacityTimelineService.toLocalDate(tomorrow).plusDays(1));
+        assertThat(capacityTimelineService.findEarliestDay(6L, tomorrow, new Resources(10, 10, 10)))
+                .contains(dayAfterTomorrow);
+        verify(mockScheduleRepository, times(1)).findAllByResourcePoolId(6L);
+    }
+
+    @Test
+    void timelineBuiltDuringAnUpdateIsNotCached() throws Exception {
+        DailySchedule saved = new DailySchedule(tomorrow, 6L);
+        saved.setAvailableResources(new Resources(5, 5, 5));
+        when(mockScheduleRepository.findAllByResourcePoolId(6L)).thenAnswer(invocation -> {
+            // the schedule is saved after this read, so the read does not contain it yet
+            capacityTimelineService.update(saved);
+            return List.of();
+        }).thenReturn(List.of(saved));
+
+        capacityTimelineService.findEarliestDay(6L, tomorrow, new Resources(10, 10, 10));
+
+        Calendar dayAfterTomorrow = CapacityTimelineService.toCalendar(
+                CapacityTimelineService.toLocalDate(tomorrow).plusDays(1));
+        assertThat(capacityTimelineService.findEarliestDay(6L, tomorrow, new Resources(10, 10, 10)))
+                .contains(dayAfterTomorrow);
+        verify(mockScheduleRepository, times(2)).findAllByResourcePoolId(6L);
+    }
+
+    @Test
+    void timelineIsRebuiltWhenCapacityChanges() throws Exception {
+        when(mockScheduleRepository.findAllByResourcePoolId(6L)).thenReturn(List.of());
+        assertThat(capacityTimelineService.findEarliestDay(6L, tomorrow, new Resources(150, 0, 0))).isEmpty();
+
+        faculty.setNodeResources(new Resources(50, 20, 20));
+
+        assertThat(capacityTimelineService.findEarliestDay(6L, tomorrow, new Resources(150, 0, 0)))
+                .contains(tomorrow);
+        verify(mockScheduleRepository, times(2)).findAllByResourcePoolId(6L);
+    }
+
+    @Test
+    void unknownResourcePoolThrows() {
+        when(mockResourcePoolRepo.findById(7L)).thenReturn(Optional.empty());
+        assertThrows(FacultyIdNotFoundException.class,
+                () -> capacityTimelineService.findEarliestDay(7L, tomorrow, new Resources(0, 0, 0)));
+    }
+}
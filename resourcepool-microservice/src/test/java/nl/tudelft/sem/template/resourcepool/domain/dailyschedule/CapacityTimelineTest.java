@@ -0,0 +1,69 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CapacityTimelineTest {
+
+    private LocalDate origin;
+
+    private CapacityTimeline timeline;
+
+    @BeforeEach
+    void setup() {
+        origin = LocalDate.of(2023, 1, 1);
+        timeline = new CapacityTimeline(origin, 10, new Resources(100, 50, 100));
+    }
+
+    @Test
+    void emptyTimelineReturnsFirstDay() {
+        assertThat(timeline.findEarliest(origin.plusDays(3), new Resources(100, 50, 100)))
+                .contains(origin.plusDays(3));
+    }
+
+    @Test
+    void requestLargerThanCapacityIsNotFound() {
+        assertThat(timeline.findEarliest(origin, new Resources(101, 0, 0))).isEmpty();
+    }
+
+    @Test
+    void skipsDaysWithoutEnoughResources() {
+        timeline.update(origin, new Resources(0, 0, 0));
+        timeline.update(origin.plusDays(1), new Resources(100, 10, 100));
+        timeline.update(origin.plusDays(2), new Resources(10, 50, 100));
+
+        assertThat(timeline.findEarliest(origin, new Resources(50, 20, 50))).contains(origin.plusDays(3));
+        assertThat(timeline.findEarliest(origin, new Resources(50, 10, 50))).contains(origin.plusDays(1));
+    }
+
+    @Test
+    void updatesAreIncremental() {
+        timeline.update(origin.plusDays(1), new Resources(0, 0, 0));
+        assertThat(timeline.findEarliest(origin.plusDays(1), new Resources(1, 1, 1))).contains(origin.plusDays(2));
+
+        timeline.update(origin.plusDays(1), new Resources(5, 5, 5));
+        assertThat(timeline.findEarliest(origin.plusDays(1), new Resources(1, 1, 1))).contains(origin.plusDays(1));
+    }
+
+    @Test
+    void daysOutsideTheWindowAreIgnored() {
+        timeline.update(origin.minusDays(1), new Resources(500, 500, 500));
+        timeline.update(origin.plusDays(10), new Resources(500, 500, 500));
+
+        assertThat(timeline.findEarliest(origin.minusDays(5), new Resources(100, 50, 100))).contains(origin);
+        assertThat(timeline.findEarliest(origin.plusDays(10), new Resources(0, 0, 0))).isEmpty();
+        assertThat(timeline.findEarliest(origin, new Resources(500, 500, 500))).isEmpty();
+    }
+
+    @Test
+    void lastDayOfTheWindowCanBeFound() {
+        for (int i = 0; i < 9; i++) {
+            timeline.update(origin.plusDays(i), new Resources(0, 0, 0));
+        }
+        assertThat(timeline.findEarliest(origin, new Resources(1, 1, 1))).contains(origin.plusDays(9));
+    }
+}
@@ -3,12 +3,17 @@ package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.any;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
@@ -17,9 +22,17 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.persistence.EntityManagerFactory;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.resourcepool.domain.FreePoolShardService;
 import nl.tudelft.sem.template.resourcepool.domain.RequestService;
+import nl.tudelft.sem.template.resourcepool.domain.journal.ScheduleJournal;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyNameCache;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyNotFoundException;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FreePoolCapacityChangedEvent;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ManagerAssignments;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePool;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePoolShard;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpFacultyRepository;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpManagementService;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
@@ -27,6 +40,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.client.ResourceAccessException;
 
 public class DailyScheduleServiceTest {
 
@@ -36,6 +52,9 @@ public class DailyScheduleServiceTest {
     private RpManagementService rpManagementService;
     private RequestService requestService;
     private RpFacultyRepository mockResourcePoolRepo;
+    private ApplicationEventPublisher mockEventPublisher;
+    private FreePoolShardService mockFreePoolShardService;
+    private CapacityHolds capacityHolds;
     private Calendar day;
 
     private Calendar day2;
@@ -52,9 +71,18 @@ public class DailyScheduleServiceTest {
         argumentCaptor = ArgumentCaptor.forClass(DailySchedule.class);
         mockScheduleRepository = mock(ScheduleRepository.class);
         mockResourcePoolRepo = mock(RpFacultyRepository.class);
-        rpManagementService = new RpManagementService(mockResourcePoolRepo);
+        mockEventPublisher = mock(ApplicationEventPublisher.class);
+        mockFreePoolShardService = mock(FreePoolShardService.class);
+        capacityHolds = new CapacityHolds();
+        rpManagementService = new RpManagementService(mockResourcePoolRepo,
+                new FacultyNameCache(mockResourcePoolRepo, mock(EntityManagerFactory.class)),
+                mock(ManagerAssignments.class));
         dailyScheduleService = new DailyScheduleService(mockScheduleRepository,
-                rpManagementService, requestService, mockResourcePoolRepo);
+                rpManagementService, requestService, mockResourcePoolRepo,
+                new CapacityTimelineService(mockScheduleRepository, mockResourcePoolRepo),
+                new ScheduleMetrics(new SimpleMeterRegistry()), mockEventPublisher,
+                new ResourcePoolShard(new ResourcePoolShardRouter("http://localhost:8085"), 0), mockFreePoolShardService,
+                mock(ScheduleJournal.class), capacityHolds);
         day = Calendar.getInstance();
         resourcePoolId = 6L;
     }
@@ -113,6 +141,8 @@ public class DailyScheduleServiceTest {
 
         dailyScheduleService.releaseResources(day, resourcePoolId);
         verify(mockScheduleRepository, times(2)).save(argumentCaptor.capture());
+        // the journal picks the change up from the event once it is committed
+        verify(mockEventPublisher, atLeastOnce()).publishEvent(isA(ScheduleSavedEvent.class));
         DailySchedule expectedDailySchedule = argumentCaptor.getAllValues().get(0);
         DailySchedule expectedFpSchedule = argumentCaptor.getAllValues().get(1);
 
@@ -251,10 +281,211 @@ public class DailyScheduleServiceTest {
         assertThat(expectedDailySchedule7.getAvailableResources()).isEqualTo(new Resources(0, 0, 0));
         assertThat(expectedDailySchedule7.getTotalResources()).isEqualTo(new Resources(100, 100, 100));
 
+        verify(mockEventPublisher, times(1)).publishEvent(isA(FreePoolCapacityChangedEvent.class));
+
         // assert that exception is thrown
         ReleaseResourcesException exc = assertThrows(ReleaseResourcesException.class,
             () -> dailyScheduleService.releaseAllResourcesToFreePoolMutated());
         assertThat(exc.getMessage()).isEqualTo("The free resource pool cannot release resources!");
 
     }
+
+    @Test
+    void releaseResourcesOnOtherShardHandsLeftoverToFreePoolShard() throws Exception {
+        DailyScheduleService secondShardService = new DailyScheduleService(mockScheduleRepository,
+                rpManagementService, requestService, mockResourcePoolRepo,
+                new CapacityTimelineService(mockScheduleRepository, mockResourcePoolRepo),
+                new ScheduleMetrics(new SimpleMeterRegistry()), mockEventPublisher,
+                new ResourcePoolShard(new ResourcePoolShardRouter("http://localhost:8085,http://localhost:8095"), 1),
+                mockFreePoolShardService,
+                mock(ScheduleJournal.class), new CapacityHolds());
+        Calendar scheduleDay = Calendar.getInstance();
+        scheduleDay.setTimeInMillis(0);
+        scheduleDay.set(Calendar.YEAR, day.get(Calendar.YEAR));
+        scheduleDay.set(Calendar.MONTH, day.get(Calendar.MONTH));
+        scheduleDay.set(Calendar.DAY_OF_MONTH, day.get(Calendar.DAY_OF_MONTH));
+        DailySchedule facultySchedule = new DailySchedule(scheduleDay, 2L);
+        facultySchedule.setAvailableResources(new Resources(30, 20, 10));
+        facultySchedule.setTotalResources(new Resources(100, 100, 100));
+        when(mockScheduleRepository.existsByDayAndResourcePoolId(scheduleDay, 2L)).thenReturn(true);
+        when(mockScheduleRepository.findByDayAndResourcePoolId(scheduleDay, 2L)).thenReturn(Optional.of(facultySchedule));
+
+        secondShardService.releaseResources(day, 2L);
+
+        verify(mockFreePoolShardService).absorbReleasedResources(scheduleDay, new Resources(30, 20, 10));
+        verify(mockScheduleRepository, times(1)).save(argumentCaptor.capture());
+        assertThat(argumentCaptor.getValue().getAvailableResources()).isEqualTo(new Resources(0, 0, 0));
+        verify(mockScheduleRepository, times(0)).findByDayAndResourcePoolId(scheduleDay, 1L);
+    }
+
+    @Test
+    void releaseResourcesOnOtherShardGivesLeftoverBackWhenFreePoolShardRefuses() throws Exception {
+        DailyScheduleService secondShardService = new DailyScheduleService(mockScheduleRepository,
+                rpManagementService, requestService, mockResourcePoolRepo,
+                new CapacityTimelineService(mockScheduleRepository, mockResourcePoolRepo),
+                new ScheduleMetrics(new SimpleMeterRegistry()), mockEventPublisher,
+                new ResourcePoolShard(new ResourcePoolShardRouter("http://localhost:8085,http://localhost:8095"), 1),
+                mockFreePoolShardService,
+                mock(ScheduleJournal.class), new CapacityHolds());
+        DailySchedule facultySchedule = new DailySchedule(day, 2L);
+        facultySchedule.setAvailableResources(new Resources(30, 20, 10));
+        facultySchedule.setTotalResources(new Resources(100, 100, 100));
+        when(mockScheduleRepository.existsByDayAndResourcePoolId(day, 2L)).thenReturn(true);
+        when(mockScheduleRepository.findByDayAndResourcePoolId(day, 2L)).thenReturn(Optional.of(facultySchedule));
+        doThrow(new ResourceAccessException("free pool shard is down"))
+                .when(mockFreePoolShardService).absorbReleasedResources(day, new Resources(30, 20, 10));
+
+        assertThrows(ResourceAccessException.class, () -> secondShardService.releaseResources(day, 2L));
+
+        verify(mockScheduleRepository, times(2)).save(facultySchedule);
+        assertThat(facultySchedule.getAvailableResources()).isEqualTo(new Resources(30, 20, 10));
+    }
+
+    @Test
+    void scheduleFpDoesNotTakeResourcesHeldForOthers() throws Exception {
+        RequestService mockRequestService = mock(RequestService.class);
+        DailyScheduleService service = new DailyScheduleService(mockScheduleRepository,
+                rpManagementService, mockRequestService, mockResourcePoolRepo,
+                new CapacityTimelineService(mockScheduleRepository, mockResourcePoolRepo),
+                new ScheduleMetrics(new SimpleMeterRegistry()), mockEventPublisher,
+                new ResourcePoolShard(new ResourcePoolShardRouter("http://localhost:8085"), 0), mockFreePoolShardService,
+                mock(ScheduleJournal.class), capacityHolds);
+        resourcePoolId = 1L;
+        DailySchedule freePoolSchedule = stubSchedule(new Resources(100, 100, 100));
+        when(mockScheduleRepository.existsById(isA(DailyScheduleId.class))).thenReturn(true);
+        when(mockRequestService.getRequestedResourcesById(7L, "token")).thenReturn(new Resources(50, 50, 50));
+        service.tryReserve(1L, day, new Resources(60, 60, 60), 10_000).orElseThrow();
+
+        assertThrows(NotEnoughResourcesException.class, () -> service.scheduleFp(day, 7L, "token"));
+
+        verify(mockScheduleRepository, times(0)).save(isA(DailySchedule.class));
+        assertThat(freePoolSchedule.getAvailableResources()).isEqualTo(new Resources(100, 100, 100));
+        assertThat(freePoolSchedule.getList()).doesNotContain(7L);
+    }
+
+    @Test
+    void absorbReleasedResourcesIsRejectedOutsideFreePoolShard() {
+        DailyScheduleService secondShardService = new DailyScheduleService(mockScheduleRepository,
+                rpManagementService, requestService, mockResourcePoolRepo,
+                new CapacityTimelineService(mockScheduleRepository, mockResourcePoolRepo),
+                new ScheduleMetrics(new SimpleMeterRegistry()), mockEventPublisher,
+                new ResourcePoolShard(new ResourcePoolShardRouter("http://localhost:8085,http://localhost:8095"), 1),
+                mockFreePoolShardService,
+                mock(ScheduleJournal.class), new CapacityHolds());
+
+        assertThrows(ReleaseResourcesException.class,
+            () -> secondShardService.absorbReleasedResources(day, new Resources(1, 1, 1)));
+    }
+
+    @Test
+    void tryReserveHoldsResourcesUntilTheyRunOut() throws Exception {
+        stubSchedule(new Resources(100, 100, 100));
+
+        assertThat(dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(60, 60, 60), 10_000)).isPresent();
+        assertThat(dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(60, 60, 60), 10_000)).isEmpty();
+        assertThat(dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(40, 40, 40), 10_000)).isPresent();
+        assertThat(dailyScheduleService.getAvailableResourcesById(resourcePoolId, day)).isEqualTo(new Resources(0, 0, 0));
+        verify(mockScheduleRepository, times(0)).save(isA(DailySchedule.class));
+    }
+
+    @Test
+    void commitHoldSchedulesRequestOnHeldResources() throws Exception {
+        DailySchedule dailySchedule = stubSchedule(new Resources(100, 100, 100));
+        CapacityHold hold = dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(30, 20, 10), 10_000)
+                .orElseThrow();
+
+        assertThat(dailyScheduleService.commitHold(hold.getId(), 42L)).isTrue();
+
+        verify(mockScheduleRepository).save(argumentCaptor.capture());
+        assertThat(argumentCaptor.getValue()).isSameAs(dailySchedule);
+        assertThat(dailySchedule.getAvailableResources()).isEqualTo(new Resources(70, 80, 90));
+        assertThat(dailySchedule.getList()).contains(42L);
+        assertThat(dailyScheduleService.commitHold(hold.getId(), 42L)).isFalse();
+        assertThat(dailyScheduleService.getAvailableResourcesById(resourcePoolId, day))
+                .isEqualTo(new Resources(70, 80, 90));
+    }
+
+    @Test
+    void commitHoldStartsOverWhenTheScheduleWasRedistributedInBetween() throws Exception {
+        DailySchedule stale = stubSchedule(new Resources(100, 100, 100));
+        CapacityHold hold = dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(30, 20, 10), 10_000)
+                .orElseThrow();
+        DailySchedule redistributed = new DailySchedule(day, resourcePoolId);
+        redistributed.setTotalResources(new Resources(200, 200, 200));
+        redistributed.setAvailableResources(new Resources(200, 200, 200));
+        when(mockScheduleRepository.findByDayAndResourcePoolId(day, resourcePoolId))
+                .thenReturn(Optional.of(stale), Optional.of(redistributed));
+        doThrow(new ObjectOptimisticLockingFailureException(DailySchedule.class, "schedule"))
+                .when(mockScheduleRepository).save(stale);
+
+        assertThat(dailyScheduleService.commitHold(hold.getId(), 42L)).isTrue();
+
+        verify(mockScheduleRepository).save(redistributed);
+        assertThat(redistributed.getAvailableResources()).isEqualTo(new Resources(170, 180, 190));
+        assertThat(redistributed.getTotalResources()).isEqualTo(new Resources(200, 200, 200));
+        assertThat(capacityHolds.find(hold.getId())).isEmpty();
+    }
+
+    @Test
+    void commitHoldKeepsTheHoldWhenTheScheduleKeepsConflicting() throws Exception {
+        DailySchedule dailySchedule = stubSchedule(new Resources(100, 100, 100));
+        CapacityHold hold = dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(30, 20, 10), 10_000)
+                .orElseThrow();
+        doThrow(new ObjectOptimisticLockingFailureException(DailySchedule.class, "schedule"))
+                .when(mockScheduleRepository).save(dailySchedule);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> dailyScheduleService.commitHold(hold.getId(), 42L));
+
+        verify(mockScheduleRepository, times(3)).save(dailySchedule);
+        assertThat(capacityHolds.find(hold.getId())).isPresent();
+    }
+
+    @Test
+    void releasedHoldFreesResources() throws Exception {
+        stubSchedule(new Resources(100, 100, 100));
+        CapacityHold hold = dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(100, 100, 100), 10_000)
+                .orElseThrow();
+
+        assertThat(dailyScheduleService.releaseHold(hold.getId())).isTrue();
+
+        assertThat(dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(100, 100, 100), 10_000)).isPresent();
+        assertThat(dailyScheduleService.commitHold(hold.getId(), 1L)).isFalse();
+    }
+
+    @Test
+    void expiredHoldCannotBeCommittedAndNoLongerCounts() throws Exception {
+        stubSchedule(new Resources(100, 100, 100));
+        LocalDate localDay = CapacityTimelineService.toLocalDate(day);
+        capacityHolds.add(new CapacityHold("expired", resourcePoolId, localDay, new Resources(100, 100, 100),
+                System.currentTimeMillis() - 1));
+
+        assertThat(dailyScheduleService.commitHold("expired", 1L)).isFalse();
+        assertThat(capacityHolds.heldOn(resourcePoolId, localDay)).isEqualTo(new Resources(0, 0, 0));
+        assertThat(dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(100, 100, 100), 10_000)).isPresent();
+    }
+
+    @Test
+    void releaseResourcesKeepsHeldResourcesInFaculty() throws Exception {
+        DailySchedule dailySchedule = stubSchedule(new Resources(70, 70, 70));
+        DailySchedule fpSchedule = new DailySchedule(day, 1L);
+        fpSchedule.setAvailableResources(new Resources(0, 0, 0));
+        when(mockScheduleRepository.existsByDayAndResourcePoolId(day, 1L)).thenReturn(true);
+        when(mockScheduleRepository.findByDayAndResourcePoolId(day, 1L)).thenReturn(Optional.of(fpSchedule));
+        dailyScheduleService.tryReserve(resourcePoolId, day, new Resources(20, 20, 20), 10_000).orElseThrow();
+
+        dailyScheduleService.releaseResources(day, resourcePoolId);
+
+        assertThat(dailySchedule.getAvailableResources()).isEqualTo(new Resources(20, 20, 20));
+        assertThat(fpSchedule.getAvailableResources()).isEqualTo(new Resources(50, 50, 50));
+    }
+
+    private DailySchedule stubSchedule(Resources available) {
+        DailySchedule dailySchedule = new DailySchedule(day, resourcePoolId);
+        dailySchedule.setTotalResources(new Resources(100, 100, 100));
+        dailySchedule.setAvailableResources(available);
+        when(mockScheduleRepository.existsByDayAndResourcePoolId(day, resourcePoolId)).thenReturn(true);
+        when(mockScheduleRepository.findByDayAndResourcePoolId(day, resourcePoolId)).thenReturn(Optional.of(dailySchedule));
+        return dailySchedule;
+    }
 }
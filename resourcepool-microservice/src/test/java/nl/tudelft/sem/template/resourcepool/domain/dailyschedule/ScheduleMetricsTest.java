@@ -0,0 +1,78 @@
+package nl.tudelft.sem.template.resourcepool.domain.dailyschedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ScheduleMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    private ScheduleMetrics scheduleMetrics;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        scheduleMetrics = new ScheduleMetrics(registry);
+    }
+
+    @Test
+    void recordPublishesTotalAndAvailableResources() {
+        DailySchedule schedule = schedule(LocalDate.now().plusDays(1), 6L);
+        schedule.setTotalResources(new Resources(100, 50, 200));
+        schedule.setAvailableResources(new Resources(40, 10, 150));
+
+        scheduleMetrics.record(schedule);
+
+        assertThat(gauge("6", LocalDate.now().plusDays(1), "total", "cpu")).isEqualTo(100.0);
+        assertThat(gauge("6", LocalDate.now().plusDays(1), "available", "gpu")).isEqualTo(10.0);
+        assertThat(gauge("6", LocalDate.now().plusDays(1), "available", "memory")).isEqualTo(150.0);
+    }
+
+    @Test
+    void recordUpdatesExistingGauges() {
+        DailySchedule schedule = schedule(LocalDate.now().plusDays(2), 1L);
+        schedule.setAvailableResources(new Resources(40, 10, 150));
+        scheduleMetrics.record(schedule);
+
+        schedule.setAvailableResources(new Resources(5, 5, 5));
+        scheduleMetrics.record(schedule);
+
+        assertThat(gauge("1", LocalDate.now().plusDays(2), "available", "cpu")).isEqualTo(5.0);
+        assertThat(registry.find(ScheduleMetrics.RESOURCES_METRIC).gauges()).hasSize(6);
+    }
+
+    @Test
+    void pastDaysAreRemoved() {
+        scheduleMetrics.record(schedule(LocalDate.now().minusDays(1), 1L));
+        scheduleMetrics.record(schedule(LocalDate.now(), 1L));
+
+        assertThat(registry.find(ScheduleMetrics.RESOURCES_METRIC)
+                .tag("day", LocalDate.now().minusDays(1).toString()).gauges()).isEmpty();
+        assertThat(registry.find(ScheduleMetrics.RESOURCES_METRIC)
+                .tag("day", LocalDate.now().toString()).gauges()).hasSize(6);
+    }
+
+    @Test
+    void stopTimerRecordsOperation() {
+        Timer.Sample sample = scheduleMetrics.startTimer();
+        scheduleMetrics.stopTimer(sample, "scheduleFp");
+
+        assertThat(registry.get(ScheduleMetrics.SCHEDULING_METRIC).tag("operation", "scheduleFp").timer().count())
+                .isEqualTo(1L);
+    }
+
+    private static DailySchedule schedule(LocalDate day, long resourcePoolId) {
+        return new DailySchedule(CapacityTimelineService.toCalendar(day), resourcePoolId);
+    }
+
+    private double gauge(String pool, LocalDate day, String kind, String resource) {
+        return registry.get(ScheduleMetrics.RESOURCES_METRIC).tag("pool", pool).tag("day", day.toString())
+                .tag("kind", kind).tag("resource", resource).gauge().value();
+    }
+}
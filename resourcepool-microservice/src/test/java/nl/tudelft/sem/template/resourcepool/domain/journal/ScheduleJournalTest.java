@@ -0,0 +1,170 @@
+package nl.tudelft.sem.template.resourcepool.domain.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ScheduleJournalTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 15);
+
+    @TempDir
+    Path directory;
+
+    private ScheduleJournal journal;
+
+    private ScheduleJournal open() throws IOException {
+        journal = new ScheduleJournal(directory.toString(), 10 * ScheduleMutation.RECORD_SIZE, 1, 1000, 2);
+        journal.open();
+        return journal;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        ScheduleMutation mutation = new ScheduleMutation(7, 1234, MutationType.RESERVE, 3, DAY,
+                new Resources(10, 5, 2), new Resources(100, 50, 20));
+        ByteBuffer buffer = ByteBuffer.allocate(ScheduleMutation.RECORD_SIZE);
+        mutation.encode(buffer);
+        buffer.flip();
+
+        ScheduleMutation decoded = ScheduleMutation.decode(buffer).orElseThrow();
+
+        assertThat(decoded.getSequence()).isEqualTo(7);
+        assertThat(decoded.getTimestamp()).isEqualTo(1234);
+        assertThat(decoded.getType()).isEqualTo(MutationType.RESERVE);
+        assertThat(decoded.getResourcePoolId()).isEqualTo(3);
+        assertThat(decoded.getDay()).contains(DAY);
+        assertThat(decoded.getAvailable()).isEqualTo(new Resources(10, 5, 2));
+        assertThat(decoded.getTotal()).isEqualTo(new Resources(100, 50, 20));
+    }
+
+    @Test
+    void decodeRejectsCorruptEntry() {
+        ByteBuffer buffer = ByteBuffer.allocate(ScheduleMutation.RECORD_SIZE);
+        new ScheduleMutation(1, 1, MutationType.INIT, 1, DAY, new Resources(1, 1, 1), new Resources(1, 1, 1))
+                .encode(buffer);
+        buffer.put(20, (byte) 42);
+        buffer.flip();
+
+        assertThat(ScheduleMutation.decode(buffer)).isEmpty();
+        assertThat(buffer.position()).isEqualTo(0);
+    }
+
+    @Test
+    void reopenRecoversAllEntries() throws IOException {
+        open().append(MutationType.INIT, 2, DAY, new Resources(100, 100, 100), new Resources(100, 100, 100));
+        journal.append(MutationType.RESERVE, 2, DAY, new Resources(60, 100, 100), new Resources(100, 100, 100));
+        journal.recordNodeResources(MutationType.NODE_CONTRIBUTE, 2, new Resources(10, 10, 10));
+        journal.close();
+
+        JournalState state = open().getState();
+
+        assertThat(state.getLastSequence()).isEqualTo(3);
+        assertThat(state.getAvailable(2, DAY)).contains(new Resources(60, 100, 100));
+        assertThat(state.getNodeResources(2)).contains(new Resources(10, 10, 10));
+    }
+
+    @Test
+    void reopenRecoversAcrossSegmentsAndSnapshots() throws IOException {
+        open();
+        for (int i = 0; i < 25; i++) {
+            journal.append(MutationType.RESERVE, 2, DAY.plusDays(i % 3), new Resources(i, i, i), new Resources(50, 50, 50));
+            if (i == 12) {
+                journal.snapshot();
+            }
+        }
+        journal.close();
+
+        JournalState state = open().getState();
+
+        assertThat(state.getLastSequence()).isEqualTo(25);
+        assertThat(state.getAvailable(2, DAY)).contains(new Resources(24, 24, 24));
+        assertThat(state.getAvailable(2, DAY.plusDays(1))).contains(new Resources(22, 22, 22));
+        assertThat(state.getAvailable(2, DAY.plusDays(2))).contains(new Resources(23, 23, 23));
+        assertThat(journal.append(MutationType.RELEASE, 2, DAY, new Resources(0, 0, 0), new Resources(50, 50, 50)))
+                .isEqualTo(26);
+    }
+
+    @Test
+    void replayUntilReturnsPastState() throws IOException, InterruptedException {
+        open().append(MutationType.INIT, 2, DAY, new Resources(100, 100, 100), new Resources(100, 100, 100));
+        long before = journal.getState().getLastTimestamp();
+        Thread.sleep(5);
+        journal.snapshot();
+        journal.append(MutationType.RESERVE, 2, DAY, new Resources(40, 100, 100), new Resources(100, 100, 100));
+
+        assertThat(journal.replayUntil(before).getAvailable(2, DAY)).contains(new Resources(100, 100, 100));
+        assertThat(journal.replayUntil(Long.MAX_VALUE).getAvailable(2, DAY)).contains(new Resources(40, 100, 100));
+        assertThat(journal.replayUntil(before - 1).getAvailable(2, DAY)).isEmpty();
+    }
+
+    @Test
+    void snapshotPrunesTheHistoryBeyondTheRetainedSnapshots() throws IOException {
+        open();
+        for (int i = 0; i < 3; i++) {
+            journal.append(MutationType.RESERVE, 2, DAY, new Resources(i, i, i), new Resources(50, 50, 50));
+            journal.snapshot();
+        }
+        journal.append(MutationType.RESERVE, 2, DAY, new Resources(3, 3, 3), new Resources(50, 50, 50));
+
+        // only the two latest snapshots and the segments after the older of them are left
+        assertThat(files(".bin")).isEqualTo(2);
+        assertThat(files(".log")).isEqualTo(2);
+        journal.close();
+
+        JournalState state = open().getState();
+        assertThat(state.getLastSequence()).isEqualTo(4);
+        assertThat(state.getAvailable(2, DAY)).contains(new Resources(3, 3, 3));
+    }
+
+    @Test
+    void tornTailIsIgnoredAndOverwritten() throws IOException {
+        open().append(MutationType.INIT, 2, DAY, new Resources(100, 100, 100), new Resources(100, 100, 100));
+        journal.close();
+        journal = null;
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(ScheduleMutation.RECORD_SIZE);
+            torn.putLong(2L);
+            torn.put((byte) 9);
+            torn.rewind();
+            channel.write(torn, ScheduleMutation.RECORD_SIZE);
+        }
+
+        assertThat(open().getState().getLastSequence()).isEqualTo(1);
+        journal.append(MutationType.RESERVE, 2, DAY, new Resources(1, 2, 3), new Resources(100, 100, 100));
+        journal.close();
+
+        JournalState state = open().getState();
+        assertThat(state.getLastSequence()).isEqualTo(2);
+        assertThat(state.getAvailable(2, DAY)).isEqualTo(Optional.of(new Resources(1, 2, 3)));
+    }
+
+    private long files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(suffix)).count();
+        }
+    }
+}
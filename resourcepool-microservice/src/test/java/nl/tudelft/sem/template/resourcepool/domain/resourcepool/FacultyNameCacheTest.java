@@ -0,0 +1,99 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FacultyNameCacheTest {
+
+    private RpFacultyRepository mockRepo;
+
+    private Cache mockSecondLevelCache;
+
+    private FacultyNameCache facultyNameCache;
+
+    private ResourcePool faculty;
+
+    @BeforeEach
+    void setup() {
+        mockRepo = mock(RpFacultyRepository.class);
+        mockSecondLevelCache = mock(Cache.class);
+        EntityManagerFactory mockEntityManagerFactory = mock(EntityManagerFactory.class);
+        when(mockEntityManagerFactory.getCache()).thenReturn(mockSecondLevelCache);
+        facultyNameCache = new FacultyNameCache(mockRepo, mockEntityManagerFactory);
+
+        faculty = new ResourcePool("EEMCS");
+        faculty.setId(6L);
+    }
+
+    @Test
+    void getIdByNameOnlyQueriesOnce() {
+        when(mockRepo.findByName("EEMCS")).thenReturn(Optional.of(faculty));
+
+        assertThat(facultyNameCache.getIdByName("EEMCS")).contains(6L);
+        assertThat(facultyNameCache.getIdByName("EEMCS")).contains(6L);
+        verify(mockRepo, times(1)).findByName("EEMCS");
+    }
+
+    @Test
+    void getNameByIdOnlyQueriesOnce() {
+        when(mockRepo.findById(6L)).thenReturn(Optional.of(faculty));
+
+        assertThat(facultyNameCache.getNameById(6L)).contains("EEMCS");
+        assertThat(facultyNameCache.getNameById(6L)).contains("EEMCS");
+        verify(mockRepo, times(1)).findById(6L);
+    }
+
+    @Test
+    void lookupIsCachedInBothDirections() {
+        when(mockRepo.findByName("EEMCS")).thenReturn(Optional.of(faculty));
+
+        facultyNameCache.getIdByName("EEMCS");
+
+        assertThat(facultyNameCache.getNameById(6L)).contains("EEMCS");
+        verify(mockRepo, times(0)).findById(6L);
+    }
+
+    @Test
+    void missingFacultyIsNotCached() {
+        when(mockRepo.findByName("EEMCS")).thenReturn(Optional.empty());
+        assertThat(facultyNameCache.getIdByName("EEMCS")).isEmpty();
+
+        when(mockRepo.findByName("EEMCS")).thenReturn(Optional.of(faculty));
+        assertThat(facultyNameCache.getIdByName("EEMCS")).contains(6L);
+    }
+
+    @Test
+    void evictRemovesFacultyFromBothCaches() {
+        when(mockRepo.findById(6L)).thenReturn(Optional.of(faculty));
+        when(mockRepo.findByName("EEMCS")).thenReturn(Optional.of(faculty));
+        facultyNameCache.getNameById(6L);
+
+        facultyNameCache.evict(6L);
+        facultyNameCache.getNameById(6L);
+        facultyNameCache.getIdByName("EEMCS");
+
+        verify(mockRepo, times(2)).findById(6L);
+        verify(mockSecondLevelCache).evict(ResourcePool.class, 6L);
+    }
+
+    @Test
+    void clearRemovesAllFaculties() {
+        when(mockRepo.findByName("EEMCS")).thenReturn(Optional.of(faculty));
+        facultyNameCache.getIdByName("EEMCS");
+
+        facultyNameCache.clear();
+        facultyNameCache.getIdByName("EEMCS");
+
+        verify(mockRepo, times(2)).findByName("EEMCS");
+        verify(mockSecondLevelCache).evict(ResourcePool.class);
+    }
+}
@@ -0,0 +1,58 @@
+package nl.tudelft.sem.template.resourcepool.domain.resourcepool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Properties;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.jupiter.api.Test;
+
+public class ResourcePoolShardTest {
+
+    @Test
+    void singleShardCountsUp() {
+        Properties params = ShardedIdGenerator.sequenceParameters(0, 1);
+
+        assertThat(params.getProperty(SequenceStyleGenerator.SEQUENCE_PARAM)).isEqualTo("resource_pool_ids");
+        assertThat(params.getProperty(SequenceStyleGenerator.INITIAL_PARAM)).isEqualTo("1");
+        assertThat(params.getProperty(SequenceStyleGenerator.INCREMENT_PARAM)).isEqualTo("1");
+        assertThat(params.getProperty(SequenceStyleGenerator.OPT_PARAM)).isEqualTo("none");
+    }
+
+    @Test
+    void generatedIdsMapBackToTheirShard() {
+        ResourcePoolShardRouter router =
+                new ResourcePoolShardRouter("http://localhost:8085, http://localhost:8095, http://localhost:8105");
+        for (int index = 0; index < 3; index++) {
+            Properties params = ShardedIdGenerator.sequenceParameters(index, 3);
+            long id = Long.parseLong(params.getProperty(SequenceStyleGenerator.INITIAL_PARAM));
+            long step = Long.parseLong(params.getProperty(SequenceStyleGenerator.INCREMENT_PARAM));
+            for (int i = 0; i < 10; i++) {
+                assertThat(router.indexOf(id)).isEqualTo(index);
+                id += step;
+            }
+        }
+    }
+
+    @Test
+    void freePoolLivesOnFirstShard() {
+        assertThat(ShardedIdGenerator.sequenceParameters(0, 3).getProperty(SequenceStyleGenerator.INITIAL_PARAM))
+                .isEqualTo("1");
+
+        ResourcePoolShardRouter router = new ResourcePoolShardRouter("http://localhost:8085, http://localhost:8095");
+        ResourcePoolShard first = new ResourcePoolShard(router, 0);
+        ResourcePoolShard second = new ResourcePoolShard(router, 1);
+        assertThat(first.isFreePoolShard()).isTrue();
+        assertThat(second.isFreePoolShard()).isFalse();
+        assertThat(second.getFreePoolShardUrl()).isEqualTo("http://localhost:8085");
+        assertThat(second.owns(2L)).isTrue();
+        assertThat(second.owns(3L)).isFalse();
+    }
+
+    @Test
+    void indexOutsideRoutingTableIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ResourcePoolShard(
+                new ResourcePoolShardRouter("http://localhost:8085"), 1));
+    }
+}
@@ -4,14 +4,22 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import java.util.List;
+import nl.tudelft.sem.template.resourcepool.domain.RequestService;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
 import nl.tudelft.sem.template.resourcepool.models.NodeInteractionRequestModel;
+import nl.tudelft.sem.template.resourcepool.models.NodeResourcesCorrectionModel;
+import nl.tudelft.sem.template.resourcepool.models.NodeResourcesModel;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.opentest4j.AssertionFailedError;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -30,6 +38,12 @@ class RpManagementServiceTest {
     @Autowired
     private transient RpFacultyRepository rpFacultyRepository;
 
+    @Autowired
+    private transient ManagerAssignments managerAssignments;
+
+    @MockBean
+    private transient RequestService mockRequestService;
+
     @Test
     public void createFaculty_withValidData_worksCorrectly() throws Exception {
         // Arrange
@@ -79,6 +93,29 @@ class RpManagementServiceTest {
         });
     }
 
+    @Test
+    public void createFaculty_withManagerClaimedByOtherShard_throwsException() {
+        // Arrange
+        final String managerNetId = "cse_manager";
+        managerAssignments.claimLocally(managerNetId);
+
+        // Assert
+        assertThrows(ManagerNetIdAlreadyAssignedException.class, () -> {
+            rpManagementService.createFaculty("CSE", managerNetId);
+        });
+        assertTrue(rpFacultyRepository.findByName("CSE").isEmpty());
+    }
+
+    @Test
+    public void releasedManagerCanBeClaimedAgain() {
+        assertTrue(managerAssignments.claimLocally("cse_manager"));
+        assertFalse(managerAssignments.claimLocally("cse_manager"));
+
+        managerAssignments.releaseLocally("cse_manager");
+
+        assertTrue(managerAssignments.claimLocally("cse_manager"));
+    }
+
     @Test
     public void checkEnoughResourcesRemainingTestTrue() {
         Resources resources = new Resources(100, 1, 0);
@@ -107,4 +144,38 @@ class RpManagementServiceTest {
             assertEquals(new Resources(100, 100, 100), after);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void contributeNodeToFreePool_notifiesRequestService() throws Exception {
+        rpManagementService.contributeNode(new NodeInteractionRequestModel(1L, 10, 10, 10));
+
+        verify(mockRequestService, times(1)).notifyFreePoolCapacityChanged();
+    }
+
+    @Test
+    public void contributeNodeToFaculty_doesNotNotifyRequestService() throws Exception {
+        Faculty faculty = rpManagementService.createFaculty("test", "id");
+
+        rpManagementService.contributeNode(new NodeInteractionRequestModel(faculty.getId(), 10, 10, 10));
+
+        verify(mockRequestService, never()).notifyFreePoolCapacityChanged();
+    }
+
+    @Test
+    public void reconcileNodeResources_onlyAppliesToUnchangedResourcePools() throws Exception {
+        Faculty drifted = rpManagementService.createFaculty("drifted", "manager1");
+        Faculty changed = rpManagementService.createFaculty("changed", "manager2");
+        rpManagementService.contributeNode(new NodeInteractionRequestModel(drifted.getId(), 10, 5, 5));
+        rpManagementService.contributeNode(new NodeInteractionRequestModel(changed.getId(), 10, 5, 5));
+
+        List<Long> corrected = rpManagementService.reconcileNodeResources(List.of(
+                new NodeResourcesCorrectionModel(drifted.getId(), 10, 5, 5, 6, 3, 3),
+                new NodeResourcesCorrectionModel(changed.getId(), 4, 2, 2, 0, 0, 0)));
+
+        assertEquals(List.of(drifted.getId()), corrected);
+        assertEquals(new Resources(6, 3, 3), rpManagementService.getFacultyById(drifted.getId()).getNodeResources());
+        assertEquals(new Resources(10, 5, 5), rpManagementService.getFacultyById(changed.getId()).getNodeResources());
+        assertTrue(rpManagementService.getAllNodeResources()
+                .contains(new NodeResourcesModel(drifted.getId(), 6, 3, 3)));
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
+import javax.persistence.EntityManagerFactory;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -47,7 +48,8 @@ public class RpManagementServiceTests {
         managerNetId = "managerNetId";
         facultyName = "math";
         mockRepo = mock(RpFacultyRepository.class);
-        rpManagementService = new RpManagementService(mockRepo);
+        rpManagementService = new RpManagementService(mockRepo,
+                new FacultyNameCache(mockRepo, mock(EntityManagerFactory.class)), mock(ManagerAssignments.class));
         facultyId = 6L;
 
     }
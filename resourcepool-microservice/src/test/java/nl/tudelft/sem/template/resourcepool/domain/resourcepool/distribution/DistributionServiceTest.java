@@ -2,19 +2,35 @@ package nl.tudelft.sem.template.resourcepool.domain.resourcepool.distribution;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.List;
+import java.util.Map;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.CapacityHold;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.CapacityHolds;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.CapacityTimelineService;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.DailySchedule;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.DailyScheduleService;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.ScheduleRepository;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePool;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpFacultyRepository;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
 import nl.tudelft.sem.template.resourcepool.models.DistributionModel;
+import nl.tudelft.sem.template.resourcepool.models.PoolResourcesModel;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -32,9 +48,18 @@ class DistributionServiceTest {
     @MockBean
     private transient RpFacultyRepository mockRepo;
 
+    @MockBean
+    private transient ScheduleRepository mockScheduleRepo;
+
+    @MockBean
+    private transient DistributionShards mockShards;
+
     @Autowired
     private transient DistributionService distributionService;
 
+    @Autowired
+    private transient CapacityHolds capacityHolds;
+
     @Test
     void createFreePoolTest() {
         distributionService.createFreePool();
@@ -180,6 +205,7 @@ class DistributionServiceTest {
 
         when(mockRepo.existsByName("name")).thenReturn(true);
         when(mockRepo.findAll()).thenReturn(resourcePools);
+        when(mockRepo.findAllForUpdate()).thenReturn(resourcePools);
 
         // Act
         distributionService.addDistribution(model);
@@ -188,7 +214,32 @@ class DistributionServiceTest {
         // Assert
         assertEquals("[]", distributionService.statusDistribution());
         verify(mockRepo, times(1)).save(any(ResourcePool.class));
+        verify(mockRepo, times(1)).saveAll(resourcePools);
+        assertEquals(new Resources(1000, 200, 8000), resourcePool.getBaseResources());
+
+    }
+
+    @Test
+    void saveDistributionKeepsTheQueueWhenTheSaveFails() throws Exception {
+        DistributionModel model = new DistributionModel();
+        model.setName("name");
+        model.setCpu(100);
+        model.setGpu(100);
+        model.setMemory(100);
+        ResourcePool resourcePool = new ResourcePool("name");
+        resourcePool.setBaseResources(new Resources(20, 20, 20));
+        List<ResourcePool> resourcePools = new ArrayList<>(List.of(resourcePool));
+        when(mockRepo.existsByName("name")).thenReturn(true);
+        when(mockRepo.findAll()).thenReturn(resourcePools);
+        when(mockRepo.findAllForUpdate()).thenReturn(resourcePools);
+        when(mockRepo.saveAll(resourcePools)).thenThrow(new IllegalStateException("database is down"));
 
+        distributionService.addDistribution(model);
+        IllegalStateException exc = assertThrows(IllegalStateException.class,
+                () -> distributionService.saveDistribution());
+
+        assertEquals("database is down", exc.getMessage());
+        assertTrue(distributionService.statusDistribution().contains("name"));
     }
 
     @Test
@@ -228,4 +279,199 @@ class DistributionServiceTest {
         assertEquals("[]", distributionService.statusDistribution());
         verify(mockRepo, times(1)).save(any(ResourcePool.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void applyDistributionUpdatesFutureSchedules() throws Exception {
+        // Arrange
+        ResourcePool resourcePool1 = new ResourcePool("name1");
+        resourcePool1.setId(2L);
+        resourcePool1.setBaseResources(new Resources(100, 100, 100));
+        ResourcePool resourcePool2 = new ResourcePool("name2");
+        resourcePool2.setId(3L);
+        resourcePool2.setBaseResources(new Resources(100, 100, 100));
+        List<ResourcePool> resourcePools = List.of(resourcePool1, resourcePool2);
+
+        DailySchedule schedule = new DailySchedule(DailyScheduleService.getTomorrow(), 2L);
+        schedule.setTotalResources(new Resources(100, 100, 100));
+        schedule.setAvailableResources(new Resources(50, 50, 50));
+
+        when(mockRepo.findAllForUpdate()).thenReturn(resourcePools);
+        when(mockScheduleRepo.findAllByDayGreaterThanEqual(any())).thenReturn(List.of(schedule));
+
+        // Act
+        distributionService.applyDistribution(List.of(distributionModel("name1", 80, 90, 60),
+                distributionModel("name2", 20, 10, 40)));
+
+        // Assert
+        assertEquals(new Resources(800, 180, 4800), resourcePool1.getBaseResources());
+        assertEquals(new Resources(200, 20, 3200), resourcePool2.getBaseResources());
+        assertEquals(new Resources(800, 180, 4800), schedule.getTotalResources());
+        assertEquals(new Resources(750, 130, 4750), schedule.getAvailableResources());
+        verify(mockRepo, times(1)).saveAll(resourcePools);
+        verify(mockScheduleRepo, times(1)).saveAll(List.of(schedule));
+    }
+
+    @Test
+    void applyDistributionRejectsOverbookedSchedule() {
+        // Arrange
+        ResourcePool resourcePool1 = new ResourcePool("name1");
+        resourcePool1.setId(2L);
+        resourcePool1.setBaseResources(new Resources(500, 100, 4000));
+        ResourcePool resourcePool2 = new ResourcePool("name2");
+        resourcePool2.setId(3L);
+        resourcePool2.setBaseResources(new Resources(500, 100, 4000));
+
+        DailySchedule schedule = new DailySchedule(DailyScheduleService.getTomorrow(), 3L);
+        schedule.setTotalResources(new Resources(500, 100, 4000));
+        schedule.setAvailableResources(new Resources(0, 0, 0));
+
+        when(mockRepo.findAllForUpdate()).thenReturn(List.of(resourcePool1, resourcePool2));
+        when(mockScheduleRepo.findAllByDayGreaterThanEqual(any())).thenReturn(List.of(schedule));
+
+        // Act and Assert
+        assertThrows(ScheduledResourcesExceededException.class, () -> distributionService.applyDistribution(
+                List.of(distributionModel("name1", 60, 50, 50), distributionModel("name2", 40, 50, 50))));
+        verify(mockRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void applyDistributionRejectsShrinkingBelowTheHeldResources() {
+        // Arrange
+        ResourcePool resourcePool1 = new ResourcePool("name1");
+        resourcePool1.setId(2L);
+        resourcePool1.setBaseResources(new Resources(500, 100, 4000));
+        ResourcePool resourcePool2 = new ResourcePool("name2");
+        resourcePool2.setId(3L);
+        resourcePool2.setBaseResources(new Resources(500, 100, 4000));
+
+        Calendar tomorrow = DailyScheduleService.getTomorrow();
+        DailySchedule schedule = new DailySchedule(tomorrow, 3L);
+        schedule.setTotalResources(new Resources(500, 100, 4000));
+        schedule.setAvailableResources(new Resources(200, 0, 0));
+        capacityHolds.add(new CapacityHold("hold", 3L, CapacityTimelineService.toLocalDate(tomorrow),
+                new Resources(150, 0, 0), System.currentTimeMillis() + 10_000));
+
+        when(mockRepo.findAllForUpdate()).thenReturn(List.of(resourcePool1, resourcePool2));
+        when(mockScheduleRepo.findAllByDayGreaterThanEqual(any())).thenReturn(List.of(schedule));
+
+        // Act and Assert: 100 cpus less would still leave the schedule 100, but 150 of them are held
+        assertThrows(ScheduledResourcesExceededException.class, () -> distributionService.applyDistribution(
+                List.of(distributionModel("name1", 60, 50, 50), distributionModel("name2", 40, 50, 50))));
+        verify(mockRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void applyDistributionRejectsDuplicateNames() {
+        assertThrows(FacultyNameNotValidException.class, () -> distributionService.applyDistribution(
+                List.of(distributionModel("name1", 50, 50, 50), distributionModel("name1", 50, 50, 50))));
+        verify(mockRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void applyDistributionHandsOtherShardsTheirPart() throws Exception {
+        // Arrange
+        ResourcePool resourcePool1 = new ResourcePool("name1");
+        resourcePool1.setId(1L);
+        resourcePool1.setBaseResources(new Resources(500, 100, 4000));
+        PoolResourcesModel remotePool = new PoolResourcesModel(2L, "name2", 500, 100, 4000);
+
+        when(mockRepo.findAllForUpdate()).thenReturn(List.of(resourcePool1));
+        when(mockShards.getRemotePools()).thenReturn(Map.of(1, List.of(remotePool)));
+
+        // Act
+        distributionService.applyDistribution(List.of(distributionModel("name1", 80, 90, 60),
+                distributionModel("name2", 20, 10, 40)));
+
+        // Assert
+        List<PoolResourcesModel> remotePart = List.of(new PoolResourcesModel(2L, "name2", 200, 20, 3200));
+        InOrder inOrder = inOrder(mockShards, mockRepo);
+        inOrder.verify(mockShards).apply(1, remotePart, true);
+        inOrder.verify(mockRepo).saveAll(List.of(resourcePool1));
+        inOrder.verify(mockShards).apply(1, remotePart, false);
+        assertEquals(new Resources(800, 180, 4800), resourcePool1.getBaseResources());
+    }
+
+    @Test
+    void applyDistributionRejectedByOtherShardChangesNothing() throws Exception {
+        // Arrange
+        ResourcePool resourcePool1 = new ResourcePool("name1");
+        resourcePool1.setId(1L);
+        resourcePool1.setBaseResources(new Resources(500, 100, 4000));
+
+        when(mockRepo.findAllForUpdate()).thenReturn(List.of(resourcePool1));
+        when(mockShards.getRemotePools()).thenReturn(Map.of(1,
+                List.of(new PoolResourcesModel(2L, "name2", 500, 100, 4000))));
+        doThrow(new DistributionRejectedByShardException(1)).when(mockShards).apply(eq(1), anyList(), eq(true));
+
+        // Act and Assert
+        assertThrows(DistributionRejectedByShardException.class, () -> distributionService.applyDistribution(
+                List.of(distributionModel("name1", 80, 90, 60), distributionModel("name2", 20, 10, 40))));
+        verify(mockRepo, never()).saveAll(anyList());
+        verify(mockShards, never()).apply(eq(1), anyList(), eq(false));
+    }
+
+    @Test
+    void applyDistributionCountsThePoolsOfAllShards() {
+        ResourcePool resourcePool1 = new ResourcePool("name1");
+        resourcePool1.setId(1L);
+        resourcePool1.setBaseResources(new Resources(500, 100, 4000));
+
+        when(mockRepo.findAllForUpdate()).thenReturn(List.of(resourcePool1));
+        when(mockShards.getRemotePools()).thenReturn(Map.of(1,
+                List.of(new PoolResourcesModel(2L, "name2", 500, 100, 4000))));
+
+        assertThrows(WrongAmountOfFacultiesSubmittedException.class, () -> distributionService.applyDistribution(
+                List.of(distributionModel("name1", 100, 100, 100))));
+    }
+
+    @Test
+    void applyShardDistributionDryRunChangesNothing() throws Exception {
+        // Arrange
+        ResourcePool resourcePool = new ResourcePool("name2");
+        resourcePool.setId(2L);
+        resourcePool.setBaseResources(new Resources(500, 100, 4000));
+
+        DailySchedule schedule = new DailySchedule(DailyScheduleService.getTomorrow(), 2L);
+        schedule.setTotalResources(new Resources(500, 100, 4000));
+        schedule.setAvailableResources(new Resources(400, 50, 3000));
+
+        when(mockRepo.findAllForUpdate()).thenReturn(List.of(resourcePool));
+        when(mockScheduleRepo.findAllByDayGreaterThanEqual(any())).thenReturn(List.of(schedule));
+
+        // Act
+        distributionService.applyShardDistribution(List.of(new PoolResourcesModel(2L, "name2", 200, 20, 3200)), true);
+
+        // Assert
+        assertEquals(new Resources(500, 100, 4000), resourcePool.getBaseResources());
+        assertEquals(new Resources(400, 50, 3000), schedule.getAvailableResources());
+        verify(mockRepo, never()).saveAll(anyList());
+        verify(mockScheduleRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void applyShardDistributionRejectsOverbookedSchedule() {
+        ResourcePool resourcePool = new ResourcePool("name2");
+        resourcePool.setId(2L);
+        resourcePool.setBaseResources(new Resources(500, 100, 4000));
+
+        DailySchedule schedule = new DailySchedule(DailyScheduleService.getTomorrow(), 2L);
+        schedule.setTotalResources(new Resources(500, 100, 4000));
+        schedule.setAvailableResources(new Resources(0, 0, 0));
+
+        when(mockRepo.findAllForUpdate()).thenReturn(List.of(resourcePool));
+        when(mockScheduleRepo.findAllByDayGreaterThanEqual(any())).thenReturn(List.of(schedule));
+
+        assertThrows(ScheduledResourcesExceededException.class, () -> distributionService.applyShardDistribution(
+                List.of(new PoolResourcesModel(2L, "name2", 200, 20, 3200)), false));
+        verify(mockRepo, never()).saveAll(anyList());
+    }
+
+    private DistributionModel distributionModel(String name, double cpu, double gpu, double memory) {
+        DistributionModel model = new DistributionModel();
+        model.setName(name);
+        model.setCpu(cpu);
+        model.setGpu(gpu);
+        model.setMemory(memory);
+        return model;
+    }
+}
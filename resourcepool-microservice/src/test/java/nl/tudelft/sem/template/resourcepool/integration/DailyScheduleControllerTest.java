@@ -4,12 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
@@ -17,13 +19,24 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.persistence.EntityManagerFactory;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
 import nl.tudelft.sem.template.resourcepool.authentication.AuthManager;
 import nl.tudelft.sem.template.resourcepool.authentication.JwtTokenVerifier;
+import nl.tudelft.sem.template.resourcepool.domain.FreePoolShardService;
 import nl.tudelft.sem.template.resourcepool.domain.RequestService;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.CapacityHolds;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.CapacityTimelineService;
 import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.DailySchedule;
 import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.DailyScheduleService;
+import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.ScheduleMetrics;
 import nl.tudelft.sem.template.resourcepool.domain.dailyschedule.ScheduleRepository;
+import nl.tudelft.sem.template.resourcepool.domain.journal.ScheduleJournal;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyNameCache;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ManagerAssignments;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePool;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ResourcePoolShard;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpFacultyRepository;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpManagementService;
 import nl.tudelft.sem.template.resourcepool.domain.resources.Resources;
@@ -37,6 +50,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
@@ -89,10 +103,16 @@ public class DailyScheduleControllerTest {
 
     @BeforeEach
     void setup() {
-        requestService = new RequestService();
-        rpManagementService = new RpManagementService(mockFacultyRepo);
+        requestService = new RequestService(mock(ServiceTokenProvider.class));
+        rpManagementService = new RpManagementService(mockFacultyRepo,
+                new FacultyNameCache(mockFacultyRepo, mock(EntityManagerFactory.class)), mock(ManagerAssignments.class));
         dailyScheduleService = new DailyScheduleService(
-                mockScheduleRepo, rpManagementService, requestService, mockFacultyRepo);
+                mockScheduleRepo, rpManagementService, requestService, mockFacultyRepo,
+                new CapacityTimelineService(mockScheduleRepo, mockFacultyRepo),
+                new ScheduleMetrics(new SimpleMeterRegistry()), mock(ApplicationEventPublisher.class),
+                new ResourcePoolShard(new ResourcePoolShardRouter("http://localhost:8085"), 0),
+                mock(FreePoolShardService.class),
+                mock(ScheduleJournal.class), new CapacityHolds());
         objectMapper = new ObjectMapper();
     }
 
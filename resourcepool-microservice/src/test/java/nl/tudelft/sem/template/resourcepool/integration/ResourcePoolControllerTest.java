@@ -1,16 +1,27 @@
 package nl.tudelft.sem.template.resourcepool.integration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import nl.tudelft.sem.template.resourcepool.authentication.AuthManager;
 import nl.tudelft.sem.template.resourcepool.authentication.JwtTokenVerifier;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.FacultyNameCache;
+import nl.tudelft.sem.template.resourcepool.domain.resourcepool.ManagerAssignments;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpFacultyRepository;
 import nl.tudelft.sem.template.resourcepool.domain.resourcepool.RpManagementService;
+import nl.tudelft.sem.template.resourcepool.models.NodeResourcesCorrectionModel;
 import nl.tudelft.sem.template.resourcepool.models.VerifyFacultyRequestModel;
 import nl.tudelft.sem.template.resourcepool.models.VerifyFacultyResponseModel;
 import org.junit.jupiter.api.BeforeEach;
@@ -56,7 +67,8 @@ public class ResourcePoolControllerTest {
 
     @BeforeEach
     void setup() {
-        rpManagementService = new RpManagementService(rpFacultyRepository);
+        rpManagementService = new RpManagementService(rpFacultyRepository,
+                new FacultyNameCache(rpFacultyRepository, mock(EntityManagerFactory.class)), mock(ManagerAssignments.class));
         facultyId = 6L;
     }
 
@@ -103,4 +115,32 @@ public class ResourcePoolControllerTest {
 
         assertThat(response).isEqualTo(objectMapper.writeValueAsString(new VerifyFacultyResponseModel(false)));
     }
+
+    @Test
+    public void reconcileNodeResourcesByUserIsForbidden() throws Exception {
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockAuthenticationManager.getNetId()).thenReturn("user");
+
+        ResultActions result = mockMvc.perform(post("/reconcileNodeResources")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer MockedToken")
+                .content(objectMapper.writeValueAsString(
+                        List.of(new NodeResourcesCorrectionModel(facultyId, 0, 0, 0, 10, 10, 10)))));
+
+        result.andExpect(status().isForbidden());
+        verify(rpFacultyRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void nodeResourcesByNodesMicroservice() throws Exception {
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockAuthenticationManager.getNetId()).thenReturn(ServiceIdentity.NODES);
+        when(rpFacultyRepository.findAll()).thenReturn(List.of());
+
+        ResultActions result = mockMvc.perform(get("/nodeResources")
+                .header("Authorization", "Bearer MockedToken"));
+
+        result.andExpect(status().isOk());
+        assertThat(result.andReturn().getResponse().getContentAsString()).isEqualTo("[]");
+    }
 }
@@ -1,22 +1,53 @@
 package nl.tudelft.sem.template.users;
 
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.users.facade.DownstreamGuard;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * users microservice application.
  */
 @SpringBootApplication
+@Import(ResourcePoolShardRouter.class)
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
     }
 
+    /**
+     * The RestTemplate for the blocking requests to the other microservices, which are given up on after a timeout
+     * and guarded by the bulkhead and circuit breaker of the microservice they go to.
+     *
+     * @param builder the builder of the RestTemplate
+     * @param downstreamGuard the guard of the requests to the other microservices
+     * @return the RestTemplate
+     */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, DownstreamGuard downstreamGuard) {
+        return builder
+                .setConnectTimeout(downstreamGuard.getTimeout())
+                .setReadTimeout(downstreamGuard.getTimeout())
+                .additionalInterceptors(downstreamGuard)
+                .build();
+    }
+
+    /**
+     * The provider of the token used for the calls that are not made on behalf of a user,
+     * such as the registration of a batch of users with the authentication microservice.
+     *
+     * @param jwtSecret the secret the JWT tokens are signed with
+     * @return the provider of the users service token
+     */
+    @Bean
+    public ServiceTokenProvider serviceTokenProvider(@Value("${jwt.secret}") String jwtSecret) {
+        return new ServiceTokenProvider(ServiceIdentity.USERS, jwtSecret);
     }
 }
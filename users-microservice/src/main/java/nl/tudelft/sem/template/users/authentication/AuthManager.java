@@ -1,5 +1,6 @@
 package nl.tudelft.sem.template.users.authentication;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
@@ -16,4 +17,19 @@ public class AuthManager {
     public String getNetId() {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
+
+    /**
+     * Gets the bearer token the user in the current context authenticated with, so calls to other services
+     * are made on behalf of that user. The context belongs to the request being handled,
+     * so concurrent requests never see each other's token.
+     *
+     * @return The token of the user, or null if the current context is not authenticated with a token.
+     */
+    public String getToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getCredentials() instanceof String)) {
+            return null;
+        }
+        return (String) authentication.getCredentials();
+    }
 }
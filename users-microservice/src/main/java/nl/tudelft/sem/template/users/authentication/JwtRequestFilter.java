@@ -32,8 +32,6 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final transient JwtTokenVerifier jwtTokenVerifier;
 
-    public static String token;
-
     @Autowired
     public JwtRequestFilter(JwtTokenVerifier jwtTokenVerifier) {
         this.jwtTokenVerifier = jwtTokenVerifier;
@@ -62,14 +60,13 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             // Check for the correct auth scheme
             if (directives.length == 2 && directives[0].equals(AUTHORIZATION_AUTH_SCHEME)) {
                 String token = directives[1];
-                this.token = token;
 
                 try {
                     if (jwtTokenVerifier.validateToken(token)) {
                         String netId = jwtTokenVerifier.getNetIdFromToken(token);
                         var authenticationToken = new UsernamePasswordAuthenticationToken(
                                 netId,
-                                null, List.of() // no credentials and no authorities
+                                token, List.of() // the token is kept to forward it to other services, no authorities
                         );
                         authenticationToken.setDetails(new WebAuthenticationDetailsSource()
                                 .buildDetails(request));
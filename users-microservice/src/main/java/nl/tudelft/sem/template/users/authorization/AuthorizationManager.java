@@ -1,6 +1,11 @@
 package nl.tudelft.sem.template.users.authorization;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import nl.tudelft.sem.template.users.domain.AccountType;
+import nl.tudelft.sem.template.users.domain.AccountTypeRepository;
 import nl.tudelft.sem.template.users.domain.EmployeeRepository;
 import nl.tudelft.sem.template.users.domain.FacultyAccountRepository;
 import nl.tudelft.sem.template.users.domain.NoSuchUserException;
@@ -9,12 +14,18 @@ import org.springframework.stereotype.Component;
 
 /**
  * A DDD component for authorizing users.
+ * The account type of a user is looked up in all account tables with a single query and then cached,
+ * the registration service evicts a user whenever its account type changes.
  */
 @Component
 public class AuthorizationManager {
     private final transient SysadminRepository sysadminRepository;
     private final transient EmployeeRepository employeeRepository;
     private final transient FacultyAccountRepository facultyAccountRepository;
+    private final transient AccountTypeRepository accountTypeRepository;
+
+    private final transient Map<String, AccountType> accountTypes = new ConcurrentHashMap<>();
+    private final transient AtomicLong evictions = new AtomicLong();
 
     /**
      * Constructor for initializing a new authorization service.
@@ -22,13 +33,16 @@ public class AuthorizationManager {
      * @param sysadminRepository the sysadmin accounts table
      * @param employeeRepository the employee accounts table
      * @param facultyAccountRepository the faculty accounts table
+     * @param accountTypeRepository the lookup of account types over all account tables
      */
     public AuthorizationManager(SysadminRepository sysadminRepository,
                                 EmployeeRepository employeeRepository,
-                                FacultyAccountRepository facultyAccountRepository) {
+                                FacultyAccountRepository facultyAccountRepository,
+                                AccountTypeRepository accountTypeRepository) {
         this.sysadminRepository = sysadminRepository;
         this.employeeRepository = employeeRepository;
         this.facultyAccountRepository = facultyAccountRepository;
+        this.accountTypeRepository = accountTypeRepository;
     }
 
     /**
@@ -63,6 +77,8 @@ public class AuthorizationManager {
 
     /**
      * Checks what the access of a User is.
+     * The account type is served from the cache if it was looked up before and the user did not change since,
+     * users that are not registered or have multiple roles are never cached.
      *
      * @param netId the netId of the user.
      * @return the role of the user as a string.
@@ -70,36 +86,36 @@ public class AuthorizationManager {
      * @throws NoSuchUserException if user was not found
      */
     public AccountType checkAccess(String netId) throws IllegalArgumentException, NoSuchUserException {
-        boolean isEmployee = isEmployee(netId);
-        boolean isFacultyAccount = isFacultyAccount(netId);
-        boolean isSysadmin = isSysadmin(netId);
-
-        if (!isEmployee && !isFacultyAccount && !isSysadmin) {
+        AccountType cached = accountTypes.get(netId);
+        if (cached != null) {
+            return cached;
+        }
+        long seenEvictions = evictions.get();
+        List<String> types = accountTypeRepository.findAccountTypesByNetId(netId);
+        if (types.isEmpty()) {
             throw new NoSuchUserException("User (" + netId + ") was not registered.");
-        } else if (atLeastTwo(isEmployee, isFacultyAccount, isSysadmin)) {
+        } else if (types.size() > 1) {
             throw new IllegalArgumentException("User with multiple roles!!!");
         }
 
-        if (isEmployee) {
-            return AccountType.EMPLOYEE;
-        } else if (isFacultyAccount) {
-            return AccountType.FAC_ACCOUNT;
-        } else {
-            return AccountType.SYSADMIN;
+        AccountType type = AccountType.valueOf(types.get(0));
+        accountTypes.put(netId, type);
+        if (evictions.get() != seenEvictions) {
+            // the account type may have changed while it was looked up, so it is not kept
+            accountTypes.remove(netId, type);
         }
+        return type;
     }
 
     /**
-     * Helper method that check if at least two of the input
-     * conditions are true.
+     * Forgets the cached account type of a user, to be called after the user was added to or removed from
+     * one of the account tables.
      *
-     * @param a first condition
-     * @param b second condition
-     * @param c third condition
-     * @return if at least 2 are true.
+     * @param netId the netId of the user.
      */
-    private boolean atLeastTwo(boolean a, boolean b, boolean c) {
-        return (a && b) || (a && c) || (b && c);
+    public void evict(String netId) {
+        evictions.incrementAndGet();
+        accountTypes.remove(netId);
     }
 
     /**
@@ -1,9 +1,9 @@
 package nl.tudelft.sem.template.users.controllers;
 
+import java.util.Map;
 import java.util.Set;
 import lombok.AllArgsConstructor;
 import nl.tudelft.sem.template.users.authentication.AuthManager;
-import nl.tudelft.sem.template.users.authentication.JwtRequestFilter;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
@@ -16,10 +16,12 @@ import nl.tudelft.sem.template.users.domain.PromotionAndEmploymentService;
 import nl.tudelft.sem.template.users.domain.RegistrationService;
 import nl.tudelft.sem.template.users.domain.Sysadmin;
 import nl.tudelft.sem.template.users.domain.User;
+import nl.tudelft.sem.template.users.models.BulkEmploymentRequestModel;
 import nl.tudelft.sem.template.users.models.CheckAccessResponseModel;
 import nl.tudelft.sem.template.users.models.FacultyAssignmentRequestModel;
 import nl.tudelft.sem.template.users.models.FacultyCreationRequestModel;
 import nl.tudelft.sem.template.users.models.PromotionRequestModel;
+import nl.tudelft.sem.template.users.models.SearchScopeResponseModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -71,11 +73,10 @@ public class UsersController {
     public ResponseEntity<String> assignFacultyToEmployee(@RequestBody FacultyAssignmentRequestModel request) {
         String employee = request.getNetId();
         String employer = authentication.getNetId();
-        String token = JwtRequestFilter.token;
         try {
             Set<Long> facultyIds = promotionAndEmploymentService.parseJsonFacultyIds(request.getFacultyIds());
             Set<Long> assignedFaculties = promotionAndEmploymentService
-                    .authorizeEmploymentAssignmentRequest(employer, employee, facultyIds, token);
+                    .authorizeEmploymentAssignmentRequest(employer, employee, facultyIds);
             if (assignedFaculties.size() > 1) {
                 return ResponseEntity.ok("User (" + employee
                         + ") was assigned to the following faculties: " + assignedFaculties);
@@ -103,11 +104,10 @@ public class UsersController {
     public ResponseEntity<String> removeFacultyFromEmployee(@RequestBody FacultyAssignmentRequestModel request) {
         String employee = request.getNetId();
         String employer = authentication.getNetId();
-        String token = JwtRequestFilter.token;
         try {
             Set<Long> facultyIds = promotionAndEmploymentService.parseJsonFacultyIds(request.getFacultyIds());
             Set<Long> assignedFaculties = promotionAndEmploymentService
-                    .authorizeEmploymentRemovalRequest(employer, employee, facultyIds, token);
+                    .authorizeEmploymentRemovalRequest(employer, employee, facultyIds);
             if (assignedFaculties.size() > 1) {
                 return ResponseEntity.ok("User (" + employee
                         + ") was removed from the following faculties: " + assignedFaculties);
@@ -124,6 +124,44 @@ public class UsersController {
         }
     }
 
+    /**
+     * Assign many users to the same faculties at once.
+     *
+     * @param request the request body with the netIds and the faculty ids
+     * @return the outcome per user
+     */
+    @PostMapping("/hireEmployees")
+    public ResponseEntity<Map<String, String>> assignFacultyToEmployees(@RequestBody BulkEmploymentRequestModel request) {
+        try {
+            Set<Long> facultyIds = promotionAndEmploymentService.parseJsonFacultyIds(request.getFacultyIds());
+            return ResponseEntity.ok(promotionAndEmploymentService.authorizeBulkEmploymentAssignmentRequest(
+                    authentication.getNetId(), request.getNetIds(), facultyIds));
+        } catch (UnauthorizedException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
+        } catch (EmploymentException | NoSuchUserException | FacultyException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove many users from the same faculties at once.
+     *
+     * @param request the request body with the netIds and the faculty ids
+     * @return the outcome per user
+     */
+    @PostMapping("/terminateEmployees")
+    public ResponseEntity<Map<String, String>> removeFacultyFromEmployees(@RequestBody BulkEmploymentRequestModel request) {
+        try {
+            Set<Long> facultyIds = promotionAndEmploymentService.parseJsonFacultyIds(request.getFacultyIds());
+            return ResponseEntity.ok(promotionAndEmploymentService.authorizeBulkEmploymentRemovalRequest(
+                    authentication.getNetId(), request.getNetIds(), facultyIds));
+        } catch (UnauthorizedException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
+        } catch (EmploymentException | NoSuchUserException | FacultyException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /**
      * Promotes an Employee to a Sysadmin.
      *
@@ -160,6 +198,35 @@ public class UsersController {
         }
     }
 
+    /**
+     * Request for the scope of the searches of a User, used by the other microservices to apply
+     * the same restrictions as the gateway. A faculty account belongs to its assigned faculty
+     * and an employee to the faculties it works at, a sysadmin belongs to none but may search everything.
+     *
+     * @return the access of the user and the faculties it belongs to
+     */
+    @GetMapping("/searchScope")
+    public ResponseEntity<SearchScopeResponseModel> getSearchScope() {
+        try {
+            String netId = authentication.getNetId();
+            AccountType access = authorization.checkAccess(netId);
+            Set<Long> facultyIds;
+            switch (access) {
+                case FAC_ACCOUNT:
+                    facultyIds = Set.of(facultyAccountService.getFacultyAssignedId(netId));
+                    break;
+                case EMPLOYEE:
+                    facultyIds = employeeService.getParentFacultyId(netId);
+                    break;
+                default:
+                    facultyIds = Set.of();
+            }
+            return ResponseEntity.ok(new SearchScopeResponseModel(access.getName(), facultyIds));
+        } catch (NoSuchUserException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /**
      * Request for checking the access of a User.
      *
@@ -0,0 +1,19 @@
+package nl.tudelft.sem.template.users.domain;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountTypeRepository extends JpaRepository<Sysadmin, String> {
+    /**
+     * Find the account types of a NetID in all account tables with a single query,
+     * one row for every table the NetID is in.
+     */
+    @Query(value = "SELECT 'SYSADMIN' FROM sysadmin_accounts WHERE net_id = :netId "
+            + "UNION ALL SELECT 'EMPLOYEE' FROM employee_accounts WHERE net_id = :netId "
+            + "UNION ALL SELECT 'FAC_ACCOUNT' FROM faculty_accounts WHERE net_id = :netId", nativeQuery = true)
+    List<String> findAccountTypesByNetId(@Param("netId") String netId);
+}
@@ -2,17 +2,26 @@ package nl.tudelft.sem.template.users.domain;
 
 import java.util.HashSet;
 import java.util.Set;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
 import javax.persistence.Table;
 
 @Entity
 @Table(name = "employee_accounts")
 public class Employee extends User {
 
+    /**
+     * The faculties the employee works at, one (netId, facultyId) row per employment.
+     * The rows are inserted and deleted one at a time by the EmployeeRepository, this is only a view of them.
+     */
     @ElementCollection
-    @Column(name = "parentFacultyId", nullable = true, unique = false)
+    @CollectionTable(name = "employments", joinColumns = @JoinColumn(name = "net_id"),
+            indexes = @Index(name = "idx_employments_faculty_id", columnList = "faculty_id"))
+    @Column(name = "faculty_id", nullable = false)
     private Set<Long> parentFacultyIds;
 
     /**
@@ -1,8 +1,13 @@
 package nl.tudelft.sem.template.users.domain;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import javax.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -17,9 +22,37 @@ public interface EmployeeRepository extends JpaRepository<Employee, String> {
      */
     boolean existsByNetId(String netId);
 
+    /**
+     * Find which of the given NetIDs are already used by an employee, with a single query.
+     */
+    @Query("SELECT e.netId FROM Employee e WHERE e.netId IN :netIds")
+    Set<String> findNetIdsIn(@Param("netIds") Collection<String> netIds);
+
     /**
      * Deletes a user with the given netId.
      */
     @Transactional
     void deleteByNetId(String netId);
+
+    /**
+     * Employ an employee at a faculty by inserting the single row of the employment, unless it exists already.
+     *
+     * @return the amount of inserted rows, 0 if the employee was already employed there
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO employments (net_id, faculty_id) SELECT :netId, :facultyId "
+            + "WHERE NOT EXISTS (SELECT 1 FROM employments WHERE net_id = :netId AND faculty_id = :facultyId)",
+            nativeQuery = true)
+    int insertEmployment(@Param("netId") String netId, @Param("facultyId") long facultyId);
+
+    /**
+     * End the employment of an employee at a faculty by deleting its single row.
+     *
+     * @return the amount of deleted rows, 0 if the employee was not employed there
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM employments WHERE net_id = :netId AND faculty_id = :facultyId", nativeQuery = true)
+    int deleteEmployment(@Param("netId") String netId, @Param("facultyId") long facultyId);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.AllArgsConstructor;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.models.ResourcesDto;
 import org.springframework.http.HttpEntity;
@@ -20,6 +21,7 @@ public class EmployeeService {
     private transient EmployeeRepository employeeRepository;
     private transient AuthorizationManager authorizationManager;
     private transient FacultyAccountService facultyAccountService;
+    private transient ResourcePoolShardRouter shardRouter;
 
     /**
      * Gets the set of parent faculty ids of employee if the employee exists.
@@ -69,7 +71,10 @@ public class EmployeeService {
         String requestBody = "{\"resourcePoolId\": \"" + facultyIds + "\"}";
         HttpEntity<String> request = new HttpEntity<>(requestBody, headers);
 
-        ResponseEntity<String> response = restTemplate.postForEntity("http://localhost:8085/availableFacultyResources", request, String.class);
+        String shard = facultyIds.isEmpty()
+                ? shardRouter.forFreePool() : shardRouter.forFacultyId(facultyIds.iterator().next());
+        ResponseEntity<String> response =
+                restTemplate.postForEntity(shard + "/availableFacultyResources", request, String.class);
         ObjectMapper objectMapper = new ObjectMapper();
         return objectMapper.readValue(response.getBody(), ResourcesDto.class);
     }
@@ -2,6 +2,9 @@ package nl.tudelft.sem.template.users.domain;
 
 import java.util.Objects;
 import lombok.AllArgsConstructor;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.commons.SingleFlight;
 import nl.tudelft.sem.template.users.models.VerifyFacultyRequestModel;
 import nl.tudelft.sem.template.users.models.VerifyFacultyResponseModel;
 import org.springframework.http.HttpEntity;
@@ -11,29 +14,43 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * Verifies the existence of faculties with the RP MS.
+ * Concurrent verifications of the same faculty share a single request to the RP MS.
+ */
 @Service
 @AllArgsConstructor
 public class FacultyVerificationService {
 
     private RestTemplate restTemplate;
 
+    private ResourcePoolShardRouter shardRouter;
+
+    private ServiceTokenProvider serviceTokenProvider;
+
+    private final transient SingleFlight<Long, ResponseEntity<VerifyFacultyResponseModel>> verifications =
+            new SingleFlight<>();
+
     /**
      * Verifies whether a faculty actually exists.
+     * The callers authorize the user first, the RP MS is asked with the service token of this microservice,
+     * so the answer does not depend on who asks and is shared by every concurrent verification of the faculty.
      *
      * @param facultyId the faculty id to be verified
-     * @param token the authentication token
      * @return whether a faculty exists
      * @throws FacultyException thrown when faculty does not exist
      */
-    public boolean verifyFaculty(long facultyId, String token) throws FacultyException {
-        String url = "http://localhost:8085/verifyFaculty";
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(token);
-        HttpEntity<VerifyFacultyRequestModel> entity = new HttpEntity<>(new VerifyFacultyRequestModel(facultyId), headers);
-
-        ResponseEntity<VerifyFacultyResponseModel> result = restTemplate.postForEntity(url, entity,
-                VerifyFacultyResponseModel.class);
+    public boolean verifyFaculty(long facultyId) throws FacultyException {
+        ResponseEntity<VerifyFacultyResponseModel> result = verifications.execute(facultyId, () -> {
+            String url = shardRouter.forFacultyId(facultyId) + "/verifyFaculty";
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(serviceTokenProvider.getToken());
+            HttpEntity<VerifyFacultyRequestModel> entity =
+                    new HttpEntity<>(new VerifyFacultyRequestModel(facultyId), headers);
+
+            return restTemplate.postForEntity(url, entity, VerifyFacultyResponseModel.class);
+        });
 
         if (result.getStatusCode().is2xxSuccessful() && Objects.requireNonNull(result.getBody()).isVerified()) {
             return true;
@@ -1,11 +1,16 @@
 package nl.tudelft.sem.template.users.domain;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 
@@ -14,6 +19,8 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class PromotionAndEmploymentService {
+    private static final String NO_SUCH_USER = "No such user was found";
+
     private final transient EmployeeRepository employeeRepository;
 
     private final transient UserServices userServices;
@@ -28,8 +35,8 @@ public class PromotionAndEmploymentService {
      * @param userServices the user services parameter object
      * @param authorization the authorization manager
      */
-    public PromotionAndEmploymentService(EmployeeRepository employeeRepository,
-                                         UserServices userServices, AuthorizationManager authorization) {
+    public PromotionAndEmploymentService(EmployeeRepository employeeRepository, UserServices userServices,
+                                         AuthorizationManager authorization) {
         this.employeeRepository = employeeRepository;
         this.userServices = userServices;
         this.authorization = authorization;
@@ -66,25 +73,136 @@ public class PromotionAndEmploymentService {
      * @throws EmploymentException employment handled incorrectly
      * @throws UnauthorizedException user is not authorized.
      */
+    public Set<Long> authorizeEmploymentAssignmentRequest(
+            String employerNetId, String employeeNetId, Set<Long> facultyIds)
+            throws EmploymentException, NoSuchUserException, UnauthorizedException, FacultyException {
+        Set<Long> authorizedFacultyIds = authorizeAssignment(employerNetId, facultyIds);
+        for (Long facultyId : authorizedFacultyIds) {
+            assignFacultyToEmployee(employeeNetId, facultyId);
+        }
+        return authorizedFacultyIds;
+    }
+
+    /**
+     * Authorizes an employee removal request from a user.
+     *
+     * @param employerNetId the netId of the employer
+     * @param employeeNetId the netId of the employee
+     * @param facultyIds the ids of the faculties
+     * @throws NoSuchUserException user not found
+     * @throws EmploymentException employment handled incorrectly
+     * @throws UnauthorizedException user is not authorized.
+     */
+    public Set<Long> authorizeEmploymentRemovalRequest(
+            String employerNetId, String employeeNetId, Set<Long> facultyIds)
+            throws EmploymentException, UnauthorizedException, NoSuchUserException, FacultyException {
+        Set<Long> authorizedFacultyIds = authorizeRemoval(employerNetId, facultyIds);
+        for (Long facultyId : authorizedFacultyIds) {
+            removeEmployeeFromFaculty(employeeNetId, facultyId);
+        }
+        return authorizedFacultyIds;
+    }
+
+    /**
+     * Authorizes the hiring of many employees at the same faculties.
+     * The employer and every distinct faculty are verified once for the whole batch,
+     * after which every employee is hired on their own, so one failing employee does not stop the others.
+     * Every employment is inserted in its own transaction, so a clash with a concurrent hire only fails that row.
+     *
+     * @param employerNetId the netId of the employer
+     * @param employeeNetIds the netIds of the employees
+     * @param facultyIds the ids of the faculties
+     * @return the outcome per employee
+     * @throws EmploymentException employment handled incorrectly
+     * @throws UnauthorizedException user is not authorized.
+     * @throws NoSuchUserException the employer was not found
+     * @throws FacultyException one of the faculties does not exist
+     */
+    public Map<String, String> authorizeBulkEmploymentAssignmentRequest(
+            String employerNetId, List<String> employeeNetIds, Set<Long> facultyIds)
+            throws EmploymentException, UnauthorizedException, NoSuchUserException, FacultyException {
+        Set<Long> authorizedFacultyIds = authorizeAssignment(employerNetId, facultyIds);
+        Set<String> registered = employeeRepository.findNetIdsIn(employeeNetIds);
+        Map<String, String> outcomes = new LinkedHashMap<>();
+        for (String netId : new LinkedHashSet<>(employeeNetIds)) {
+            if (!registered.contains(netId)) {
+                outcomes.put(netId, NO_SUCH_USER);
+                continue;
+            }
+            List<String> failures = new ArrayList<>();
+            for (Long facultyId : authorizedFacultyIds) {
+                if (!employ(netId, facultyId)) {
+                    failures.add(alreadyEmployed(netId, facultyId));
+                }
+            }
+            outcomes.put(netId, failures.isEmpty()
+                    ? "Assigned to faculties: " + authorizedFacultyIds : String.join("; ", failures));
+        }
+        return outcomes;
+    }
 
+    /**
+     * Authorizes the removal of many employees from the same faculties.
+     * The employer and every distinct faculty are verified once for the whole batch,
+     * after which every employee is removed on their own, so one failing employee does not stop the others.
+     * Every employment is deleted in its own transaction.
+     *
+     * @param employerNetId the netId of the employer
+     * @param employeeNetIds the netIds of the employees
+     * @param facultyIds the ids of the faculties
+     * @return the outcome per employee
+     * @throws EmploymentException employment handled incorrectly
+     * @throws UnauthorizedException user is not authorized.
+     * @throws NoSuchUserException the employer was not found
+     * @throws FacultyException one of the faculties does not exist
+     */
+    public Map<String, String> authorizeBulkEmploymentRemovalRequest(
+            String employerNetId, List<String> employeeNetIds, Set<Long> facultyIds)
+            throws EmploymentException, UnauthorizedException, NoSuchUserException, FacultyException {
+        Set<Long> authorizedFacultyIds = authorizeRemoval(employerNetId, facultyIds);
+        Set<String> registered = employeeRepository.findNetIdsIn(employeeNetIds);
+        Map<String, String> outcomes = new LinkedHashMap<>();
+        for (String netId : new LinkedHashSet<>(employeeNetIds)) {
+            if (!registered.contains(netId)) {
+                outcomes.put(netId, NO_SUCH_USER);
+                continue;
+            }
+            List<String> failures = new ArrayList<>();
+            for (Long facultyId : authorizedFacultyIds) {
+                if (employeeRepository.deleteEmployment(netId, facultyId) == 0) {
+                    failures.add(netId + " is not employed at faculty " + facultyId);
+                }
+            }
+            outcomes.put(netId, failures.isEmpty()
+                    ? "Removed from faculties: " + authorizedFacultyIds : String.join("; ", failures));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Verifies the faculties and checks whether the employer may employ employees at them.
+     *
+     * @param employerNetId the netId of the employer
+     * @param facultyIds the ids of the faculties
+     * @return the faculties the employees are assigned to
+     * @throws NoSuchUserException user not found
+     * @throws EmploymentException employment handled incorrectly
+     * @throws UnauthorizedException user is not authorized.
+     * @throws FacultyException one of the faculties does not exist
+     */
     @SuppressWarnings({"PMD.AvoidLiteralsInIfCondition", "PMD.DataflowAnomalyAnalysis"})
-    public Set<Long> authorizeEmploymentAssignmentRequest(
-            String employerNetId, String employeeNetId, Set<Long> facultyIds, String token)
+    private Set<Long> authorizeAssignment(String employerNetId, Set<Long> facultyIds)
             throws EmploymentException, NoSuchUserException, UnauthorizedException, FacultyException {
         for (long facultyId : facultyIds) {
-            userServices.getFacultyVerificationService().verifyFaculty(facultyId, token);
+            userServices.getFacultyVerificationService().verifyFaculty(facultyId);
         }
         if (authorization.isOfType(employerNetId, AccountType.SYSADMIN)) {
-            for (Long facultyId : facultyIds) {
-                assignFacultyToEmployee(employeeNetId, facultyId);
-            }
             return facultyIds;
         } else if (authorization.isOfType(employerNetId, AccountType.FAC_ACCOUNT)) {
             long employerFacultyId = userServices.getFacultyAccountService().getFacultyAssignedId(employerNetId);
             if (facultyIds.size() > 1) {
                 throw new EmploymentException("A faculty manager cannot authorize employment at other faculties");
             } else if (facultyIds.contains(employerFacultyId)) {
-                assignFacultyToEmployee(employeeNetId, employerFacultyId);
                 return Set.of(employerFacultyId);
             } else {
                 throw new EmploymentException("Faculty manager can only employ employees for their own faculty!");
@@ -95,26 +213,23 @@ public class PromotionAndEmploymentService {
     }
 
     /**
-     * Authorizes an employee removal request from a user.
+     * Verifies the faculties and checks whether the employer may remove employees from them.
      *
      * @param employerNetId the netId of the employer
-     * @param employeeNetId the netId of the employee
      * @param facultyIds the ids of the faculties
+     * @return the faculties the employees are removed from
      * @throws NoSuchUserException user not found
      * @throws EmploymentException employment handled incorrectly
      * @throws UnauthorizedException user is not authorized.
+     * @throws FacultyException one of the faculties does not exist
      */
     @SuppressWarnings({"PMD.AvoidLiteralsInIfCondition"})
-    public Set<Long> authorizeEmploymentRemovalRequest(
-            String employerNetId, String employeeNetId, Set<Long> facultyIds, String token)
+    private Set<Long> authorizeRemoval(String employerNetId, Set<Long> facultyIds)
             throws EmploymentException, UnauthorizedException, NoSuchUserException, FacultyException {
         for (long facultyId : facultyIds) {
-            userServices.getFacultyVerificationService().verifyFaculty(facultyId, token);
+            userServices.getFacultyVerificationService().verifyFaculty(facultyId);
         }
         if (authorization.isOfType(employerNetId, AccountType.SYSADMIN)) {
-            for (Long facultyId : facultyIds) {
-                removeEmployeeFromFaculty(employeeNetId, facultyId);
-            }
             return facultyIds;
         } else if (authorization.isOfType(employerNetId, AccountType.FAC_ACCOUNT)) {
             long employerFacultyId = userServices.getFacultyAccountService().getFacultyAssignedId(employerNetId);
@@ -122,7 +237,6 @@ public class PromotionAndEmploymentService {
                 throw new EmploymentException("Faculty manager of faculty " + employerFacultyId
                         + " cannot authorize removal of employment at other faculties: " + facultyIds);
             } else if (facultyIds.contains(employerFacultyId)) {
-                removeEmployeeFromFaculty(employeeNetId, employerFacultyId);
                 return Set.of(employerFacultyId);
             } else {
                 throw new EmploymentException("Faculty manager can only remove employees for their own faculty!");
@@ -151,32 +265,45 @@ public class PromotionAndEmploymentService {
     }
 
     /**
-     * Assign a new faculty to a employee.
+     * Assign a new faculty to a employee, by inserting the single row of the employment.
      *
      * @param netId the netId of the employee
      * @param facultyId the faculty to be assigned to
+     * @throws NoSuchUserException thrown when employee is not found
      * @throws EmploymentException thrown when employee is already employed at given faculty
      */
     public void assignFacultyToEmployee(String netId, long facultyId)
                 throws NoSuchUserException, EmploymentException {
-        if (employeeRepository.findByNetId(netId).isPresent()) {
-            Employee employee = employeeRepository.findByNetId(netId).get();
-            if (employee.getParentFacultyIds().contains(facultyId)) {
-                throw new EmploymentException(netId + " is already employed at faculty " + facultyId);
-            } else {
-                if (employee.addFaculty(facultyId)) {
-                    employeeRepository.saveAndFlush(employee);
-                } else {
-                    throw new IllegalArgumentException();
-                }
-            }
-        } else {
-            throw new NoSuchUserException("No such user was found");
+        if (!employeeRepository.existsByNetId(netId)) {
+            throw new NoSuchUserException(NO_SUCH_USER);
+        }
+        if (!employ(netId, facultyId)) {
+            throw new EmploymentException(alreadyEmployed(netId, facultyId));
+        }
+    }
+
+    /**
+     * Inserts the row of an employment, unless the employee is already employed at the faculty.
+     * A concurrent hire can still insert the same row in between, which the primary key rejects.
+     *
+     * @param netId the netId of the employee
+     * @param facultyId the faculty to be assigned to
+     * @return true iff the employment was inserted
+     */
+    private boolean employ(String netId, long facultyId) {
+        try {
+            return employeeRepository.insertEmployment(netId, facultyId) > 0;
+        } catch (DataIntegrityViolationException e) {
+            return false;
         }
     }
 
+    private static String alreadyEmployed(String netId, long facultyId) {
+        return netId + " is already employed at faculty " + facultyId;
+    }
+
     /**
-     * Remove a faculty an employee was assigned to.
+     * Remove a faculty an employee was assigned to, by deleting the single row of the employment.
      *
      * @param netId the employee netId
      * @param facultyId the faculty to be removed
@@ -185,18 +312,11 @@ public class PromotionAndEmploymentService {
      */
     public void removeEmployeeFromFaculty(String netId, long facultyId)
                 throws NoSuchUserException, EmploymentException {
-        if (employeeRepository.findByNetId(netId).isPresent()) {
-            Employee employee = employeeRepository.findByNetId(netId).get();
-            if (!employee.getParentFacultyIds().contains(facultyId)) {
-                throw new EmploymentException(netId + " is not employed at faculty " + facultyId);
-            } else {
-                Set<Long> newIds = new HashSet<>(Set.copyOf(employee.getParentFacultyIds()));
-                newIds.remove(facultyId);
-                Employee newEmployee = new Employee(netId, newIds);
-                employeeRepository.saveAndFlush(newEmployee);
-            }
-        } else {
-            throw new NoSuchUserException("No such user was found");
+        if (!employeeRepository.existsByNetId(netId)) {
+            throw new NoSuchUserException(NO_SUCH_USER);
+        }
+        if (employeeRepository.deleteEmployment(netId, facultyId) == 0) {
+            throw new EmploymentException(netId + " is not employed at faculty " + facultyId);
         }
     }
 }
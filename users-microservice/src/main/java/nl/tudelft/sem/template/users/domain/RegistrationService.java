@@ -1,15 +1,23 @@
 package nl.tudelft.sem.template.users.domain;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import org.springframework.stereotype.Service;
 
 /**
  * A DDD service for registering a new user.
+ * Every change of the account tables evicts the user from the account type cache of the authorization manager.
  */
 @Service
 public class RegistrationService {
     private final transient SysadminRepository sysadminRepository;
     private final transient EmployeeRepository employeeRepository;
     private final transient FacultyAccountRepository facultyAccountRepository;
+    private final transient AuthorizationManager authorization;
 
     /**
      * Instanciates a new Registration service.
@@ -17,13 +25,16 @@ public class RegistrationService {
      * @param sysadminRepository the system admin repository
      * @param employeeRepository the employee repository
      * @param facultyAccountRepository the faculty repository
+     * @param authorization the authorization manager caching the account types
      */
     public RegistrationService(SysadminRepository sysadminRepository,
                                EmployeeRepository employeeRepository,
-                               FacultyAccountRepository facultyAccountRepository) {
+                               FacultyAccountRepository facultyAccountRepository,
+                               AuthorizationManager authorization) {
         this.sysadminRepository = sysadminRepository;
         this.employeeRepository = employeeRepository;
         this.facultyAccountRepository = facultyAccountRepository;
+        this.authorization = authorization;
     }
 
     /**
@@ -35,16 +46,43 @@ public class RegistrationService {
         if (netId.equals("admin")) {
             Sysadmin admin = new Sysadmin(netId);
             sysadminRepository.save(admin);
+            authorization.evict(netId);
             System.out.println(netId + " was added as an admin.");
             return admin;
         } else {
             Employee employee = new Employee(netId);
             employeeRepository.save(employee);
+            authorization.evict(netId);
             System.out.println(netId + " was added as an employee.");
             return employee;
         }
     }
 
+    /**
+     * Registers a batch of new users with a single save of the employees.
+     * Like in registerUser, the user with the netId admin is added as a sysadmin.
+     * NetIDs that already have an account of any type are left as they are,
+     * so registering the same batch again only adds the users that are still missing.
+     *
+     * @param netIds the NetIDs of the users
+     * @return the employees that were added
+     */
+    public List<Employee> registerEmployees(Collection<String> netIds) {
+        Set<String> known = new HashSet<>(sysadminRepository.findNetIdsIn(netIds));
+        known.addAll(employeeRepository.findNetIdsIn(netIds));
+        known.addAll(facultyAccountRepository.findNetIdsIn(netIds));
+        if (netIds.contains("admin") && !known.contains("admin")) {
+            registerUser("admin");
+        }
+        List<Employee> employees = netIds.stream()
+                .filter(netId -> !netId.equals("admin") && !known.contains(netId))
+                .map(Employee::new)
+                .collect(Collectors.toList());
+        employeeRepository.saveAll(employees);
+        employees.forEach(employee -> authorization.evict(employee.getNetId()));
+        return employees;
+    }
+
     /**
      * Adds a new sysadmin account in the respective repository.
      *
@@ -54,6 +92,7 @@ public class RegistrationService {
     public Sysadmin addSysadmin(String netId) {
         Sysadmin newSysadmin = new Sysadmin(netId);
         sysadminRepository.save(newSysadmin);
+        authorization.evict(netId);
         return newSysadmin;
     }
 
@@ -66,6 +105,7 @@ public class RegistrationService {
     public Employee addEmployee(String netId) {
         Employee newEmployee = new Employee(netId);
         employeeRepository.save(newEmployee);
+        authorization.evict(netId);
         return newEmployee;
     }
 
@@ -79,6 +119,7 @@ public class RegistrationService {
     public FacultyAccount addFacultyAccount(String netId, long assignedFaculty) {
         FacultyAccount newFacultyAccount = new FacultyAccount(netId, assignedFaculty);
         facultyAccountRepository.save(newFacultyAccount);
+        authorization.evict(netId);
         return newFacultyAccount;
     }
 
@@ -94,6 +135,7 @@ public class RegistrationService {
             return false;
         } else {
             employeeRepository.deleteByNetId(netId);
+            authorization.evict(netId);
             return true;
         }
     }
@@ -1,7 +1,11 @@
 package nl.tudelft.sem.template.users.domain;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -15,4 +19,10 @@ public interface SysadminRepository extends JpaRepository<Sysadmin, String> {
      * Check if an existing user already uses a NetID.
      */
     boolean existsByNetId(String netId);
+
+    /**
+     * Find which of the given NetIDs are already used by a sysadmin, with a single query.
+     */
+    @Query("SELECT s.netId FROM Sysadmin s WHERE s.netId IN :netIds")
+    Set<String> findNetIdsIn(@Param("netIds") Collection<String> netIds);
 }
@@ -0,0 +1,201 @@
+package nl.tudelft.sem.template.users.facade;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
+import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends requests to the other microservices without blocking the calling thread.
+ * The requests are multiplexed by the selector of a single http client, so the amount of requests in flight
+ * is not bound to the amount of threads, only the few threads of the executor handle the responses.
+ * A request that is refused with 401 or 403 completes exceptionally with an UnauthorizedException,
+ * one that fails otherwise, or gets another non 2xx answer, with an InnerRequestFailedException.
+ * Requests go through the bulkhead and circuit breaker of their microservice, and fail right away when it is failing.
+ * Requests inherit the deadline of the inbound request that caused them, and are not sent once it passed.
+ */
+@Component
+public class AsyncRequestSender {
+    private final transient ObjectMapper objectMapper;
+    private final transient DownstreamGuard downstreamGuard;
+    private final transient HttpClient httpClient;
+    private final transient Duration timeout;
+
+    /**
+     * Instantiates a new AsyncRequestSender.
+     *
+     * @param objectMapper    the mapper for the request and response bodies
+     * @param downstreamGuard the guard of the requests to the other microservices
+     * @param threads         the amount of threads handling the responses
+     * @param timeoutMillis   the time after which a request is given up on
+     */
+    public AsyncRequestSender(ObjectMapper objectMapper, DownstreamGuard downstreamGuard,
+                              @Value("${facade.async.threads:4}") int threads,
+                              @Value("${facade.async.timeout-millis:10000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.downstreamGuard = downstreamGuard;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "facade-async");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Sends a get request.
+     *
+     * @param url   the url to send the request to
+     * @param token the token of the author
+     * @return the body of the response
+     */
+    public CompletableFuture<String> get(String url, String token) {
+        return get(url, token, String.class);
+    }
+
+    /**
+     * Sends a get request and reads the body of the response as the given type.
+     *
+     * @param url   the url to send the request to
+     * @param token the token of the author
+     * @param type  the type of the body of the response
+     * @param <T>   the type of the body of the response
+     * @return the body of the response, null if it is empty
+     */
+    public <T> CompletableFuture<T> get(String url, String token, Class<T> type) {
+        long deadline = DownstreamGuard.deadline(timeout);
+        return send(request(url, token, deadline).GET().build(), deadline, type);
+    }
+
+    /**
+     * Sends a post request with a JSON body and reads the body of the response as the given type.
+     * Strings are sent as they are, like the RestTemplate does.
+     *
+     * @param url   the url to send the request to
+     * @param token the token of the author
+     * @param body  the body of the request
+     * @param type  the type of the body of the response
+     * @param <T>   the type of the body of the response
+     * @return the body of the response, null if it is empty
+     */
+    public <T> CompletableFuture<T> post(String url, String token, Object body, Class<T> type) {
+        String json;
+        try {
+            json = body instanceof String ? (String) body : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new InnerRequestFailedException(failed(url)));
+        }
+        long deadline = DownstreamGuard.deadline(timeout);
+        HttpRequest request = request(url, token, deadline)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return send(request, deadline, type);
+    }
+
+    /**
+     * Starts building a request with its deadline, the time left until it as the timeout, and the token of the author.
+     *
+     * @param url      the url to send the request to
+     * @param token    the token of the author
+     * @param deadline the deadline of the request in epoch milliseconds
+     * @return the request builder
+     */
+    private HttpRequest.Builder request(String url, String token, long deadline) {
+        long left = Math.max(1, deadline - System.currentTimeMillis());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(left))
+                .header(DownstreamGuard.DEADLINE_HEADER, String.valueOf(deadline));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    /**
+     * Sends a request and maps the response, or its failure, to the result.
+     * The request is not sent if its deadline passed, or if its microservice is failing or has too many requests in flight.
+     *
+     * @param request  the request to send
+     * @param deadline the deadline of the request in epoch milliseconds
+     * @param type     the type of the body of the response
+     * @param <T>      the type of the body of the response
+     * @return the body of the response, null if it is empty
+     */
+    private <T> CompletableFuture<T> send(HttpRequest request, long deadline, Class<T> type) {
+        String url = request.uri().toString();
+        if (DownstreamGuard.isPast(deadline)) {
+            return CompletableFuture.failedFuture(new InnerRequestFailedException(failed(url)));
+        }
+        Downstream.Permit permit = downstreamGuard.downstream(request.uri()).tryAcquire();
+        if (permit == null) {
+            return CompletableFuture.failedFuture(new InnerRequestFailedException(failed(url)));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            permit.release(failure == null && response.statusCode() < 500);
+            if (failure != null) {
+                result.completeExceptionally(new InnerRequestFailedException(failed(url)));
+                return;
+            }
+            int status = response.statusCode();
+            if (status == 401 || status == 403) {
+                result.completeExceptionally(new UnauthorizedException("Request to " + url + " was not authorized."));
+                return;
+            }
+            if (status / 100 != 2) {
+                result.completeExceptionally(new InnerRequestFailedException(failed(url)));
+                return;
+            }
+            try {
+                result.complete(read(response.body(), type));
+            } catch (JsonProcessingException e) {
+                result.completeExceptionally(new InnerRequestFailedException(failed(url)));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Reads the body of a response as the given type.
+     *
+     * @param body the body of the response
+     * @param type the type to read the body as
+     * @param <T>  the type to read the body as
+     * @return the body as the given type, null if it is empty
+     * @throws JsonProcessingException if the body is not of the given type
+     */
+    private <T> T read(String body, Class<T> type) throws JsonProcessingException {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        if (type == String.class) {
+            return type.cast(body);
+        }
+        return objectMapper.readValue(body, type);
+    }
+
+    /**
+     * Creates the message of the InnerRequestFailedException.
+     *
+     * @param url the url of the request
+     * @return the message for the failed request
+     */
+    private static String failed(String url) {
+        return "Request to " + url + " failed.";
+    }
+}
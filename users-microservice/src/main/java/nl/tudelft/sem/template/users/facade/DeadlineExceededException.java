@@ -0,0 +1,16 @@
+package nl.tudelft.sem.template.users.facade;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request is not sent because the deadline of the request that caused it already passed.
+ * It is an IOException, so the RestTemplate reports it like a microservice that cannot be reached,
+ * but it does not count as a failure of the microservice.
+ */
+public class DeadlineExceededException extends IOException {
+    static final long serialVersionUID = 4820943512893044722L;
+
+    public DeadlineExceededException(String service) {
+        super("The request to " + service + " was not sent, its deadline passed.");
+    }
+}
@@ -0,0 +1,123 @@
+package nl.tudelft.sem.template.users.facade;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The bulkhead and circuit breaker of a single microservice the gateway sends requests to.
+ * The bulkhead bounds the amount of requests in flight towards the microservice, so a slow microservice
+ * can only hold a few of the threads of the gateway. The circuit breaker opens after a number of consecutive failures,
+ * after which requests fail right away until, once the open time passed, a single trial request succeeds again.
+ * Every request holds a permit, which remembers whether it is the trial, so only the trial itself can let the next one in.
+ */
+public class Downstream {
+    private static final long CLOSED = -1L;
+
+    private final transient Semaphore permits;
+    private final transient int failureThreshold;
+    private final transient long openNanos;
+    private final transient AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final transient AtomicBoolean trialInFlight = new AtomicBoolean();
+    private transient volatile long openedAt = CLOSED;
+    private final transient Permit regular = new Permit(false);
+    private final transient Permit trial = new Permit(true);
+
+    /**
+     * Instantiates a new Downstream.
+     *
+     * @param maxConcurrent    the maximum amount of requests in flight
+     * @param failureThreshold the amount of consecutive failures that opens the circuit
+     * @param openMillis       the time the circuit stays open before a trial request is let through
+     */
+    public Downstream(int maxConcurrent, int failureThreshold, long openMillis) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * Takes a place for a request, without waiting.
+     * Every permit that is handed out has to be released exactly once.
+     *
+     * @return the permit to send the request, or null if the circuit is open or the bulkhead is full
+     */
+    public Permit tryAcquire() {
+        boolean isTrial = false;
+        long opened = openedAt;
+        if (opened != CLOSED) {
+            if (System.nanoTime() - opened < openNanos || !trialInFlight.compareAndSet(false, true)) {
+                return null;
+            }
+            isTrial = true;
+        }
+        if (permits.tryAcquire()) {
+            return isTrial ? trial : regular;
+        }
+        if (isTrial) {
+            trialInFlight.set(false);
+        }
+        return null;
+    }
+
+    /**
+     * Gives back the place of a request and records its outcome.
+     * A success closes the circuit, a failure opens it once the threshold is reached, or right away if it was open.
+     * Requests that were already in flight when the circuit opened record their outcome as well,
+     * but only the end of the trial lets another trial in.
+     *
+     * @param succeeded whether the microservice answered without a server error
+     * @param isTrial   whether the request was the trial of an open circuit
+     */
+    private void release(boolean succeeded, boolean isTrial) {
+        permits.release();
+        if (succeeded) {
+            consecutiveFailures.set(0);
+            openedAt = CLOSED;
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold || openedAt != CLOSED) {
+            openedAt = System.nanoTime();
+        }
+        if (isTrial) {
+            trialInFlight.set(false);
+        }
+    }
+
+    /**
+     * Returns whether the circuit is open, so requests are failing right away.
+     *
+     * @return true iff the circuit is open
+     */
+    public boolean isOpen() {
+        return openedAt != CLOSED;
+    }
+
+    /**
+     * The place of a single request in flight.
+     */
+    public final class Permit {
+        private final transient boolean isTrial;
+
+        private Permit(boolean isTrial) {
+            this.isTrial = isTrial;
+        }
+
+        /**
+         * Gives back the place of the request and records its outcome.
+         *
+         * @param succeeded whether the microservice answered without a server error
+         */
+        public void release(boolean succeeded) {
+            Downstream.this.release(succeeded, isTrial);
+        }
+
+        /**
+         * Returns whether the request is the trial of an open circuit.
+         *
+         * @return true iff the request is the trial
+         */
+        public boolean isTrial() {
+            return isTrial;
+        }
+    }
+}
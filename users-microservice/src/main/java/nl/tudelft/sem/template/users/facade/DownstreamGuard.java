@@ -0,0 +1,160 @@
+package nl.tudelft.sem.template.users.facade;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Guards every request of the gateway to the other microservices with the bulkhead and circuit breaker
+ * of the microservice it goes to, so one slow microservice cannot take the routes to the others down with it.
+ * Microservices are told apart by host and port. Every request carries its deadline in the X-Request-Deadline header,
+ * as epoch milliseconds, so the microservice can drop it once the gateway gave up on it.
+ * All requests sent while handling one inbound request share its deadline, and are not sent once it passed.
+ * As an interceptor of the RestTemplate it guards the blocking requests; the AsyncRequestSender uses it directly.
+ */
+@Component
+public class DownstreamGuard implements ClientHttpRequestInterceptor {
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    private static final String DEADLINE_ATTRIBUTE = DownstreamGuard.class.getName() + ".deadline";
+
+    private final transient ConcurrentHashMap<String, Downstream> downstreams = new ConcurrentHashMap<>();
+    private final transient int maxConcurrent;
+    private final transient int failureThreshold;
+    private final transient long openMillis;
+    private final transient Duration timeout;
+
+    /**
+     * Instantiates a new DownstreamGuard.
+     *
+     * @param maxConcurrent    the maximum amount of requests in flight per microservice
+     * @param failureThreshold the amount of consecutive failures that opens the circuit of a microservice
+     * @param openMillis       the time a circuit stays open before a trial request is let through
+     * @param timeoutMillis    the time after which a blocking request is given up on
+     */
+    public DownstreamGuard(@Value("${downstream.max-concurrent:16}") int maxConcurrent,
+                           @Value("${downstream.failure-threshold:5}") int failureThreshold,
+                           @Value("${downstream.open-millis:10000}") long openMillis,
+                           @Value("${downstream.timeout-millis:10000}") long timeoutMillis) {
+        this.maxConcurrent = maxConcurrent;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    /**
+     * Returns the bulkhead and circuit breaker of the microservice a request goes to.
+     *
+     * @param uri the uri of the request
+     * @return the guard of the microservice
+     */
+    public Downstream downstream(URI uri) {
+        return downstreams.computeIfAbsent(uri.getAuthority(),
+                service -> new Downstream(maxConcurrent, failureThreshold, openMillis));
+    }
+
+    /**
+     * Returns the time after which a blocking request is given up on.
+     *
+     * @return the timeout of the blocking requests
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns the deadline of a request that is sent now, to be put in the X-Request-Deadline header.
+     * Requests sent while handling an inbound request inherit its deadline: the one in its X-Request-Deadline header,
+     * or otherwise the timeout after its first request, so a chain of calls doesn't get a fresh timeout for every hop.
+     * The deadline is never later than the timeout from now. Requests sent outside of an inbound request,
+     * like those of the callbacks of asynchronous requests, get the timeout from now.
+     *
+     * @param timeout the time after which the request is given up on
+     * @return the deadline in epoch milliseconds
+     */
+    public static long deadline(Duration timeout) {
+        long fresh = System.currentTimeMillis() + timeout.toMillis();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return fresh;
+        }
+        Object inherited = attributes.getAttribute(DEADLINE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (inherited == null && attributes instanceof ServletRequestAttributes) {
+            inherited = parse(((ServletRequestAttributes) attributes).getRequest().getHeader(DEADLINE_HEADER));
+        }
+        long deadline = inherited instanceof Long ? Math.min((Long) inherited, fresh) : fresh;
+        attributes.setAttribute(DEADLINE_ATTRIBUTE, deadline, RequestAttributes.SCOPE_REQUEST);
+        return deadline;
+    }
+
+    /**
+     * Returns whether a deadline passed.
+     *
+     * @param deadline the deadline in epoch milliseconds
+     * @return true iff the deadline passed
+     */
+    public static boolean isPast(long deadline) {
+        return deadline <= System.currentTimeMillis();
+    }
+
+    /**
+     * Reads a deadline from the X-Request-Deadline header, a deadline that cannot be read is ignored.
+     *
+     * @param header the value of the header, or null
+     * @return the deadline in epoch milliseconds, or null
+     */
+    private static Long parse(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sends a blocking request if the microservice it goes to is not failing and has room for it.
+     * Answers with a server error count as failures, other answers show the microservice is healthy.
+     * A request whose deadline passed is not sent at all.
+     *
+     * @param request   the request
+     * @param body      the body of the request
+     * @param execution the rest of the request execution
+     * @return the response of the microservice
+     * @throws IOException if the request failed, or was not sent because the microservice is failing or full
+     *                     or its deadline passed
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long deadline = deadline(timeout);
+        if (isPast(deadline)) {
+            throw new DeadlineExceededException(request.getURI().getAuthority());
+        }
+        Downstream.Permit permit = downstream(request.getURI()).tryAcquire();
+        if (permit == null) {
+            throw new DownstreamUnavailableException(request.getURI().getAuthority());
+        }
+        request.getHeaders().set(DEADLINE_HEADER, String.valueOf(deadline));
+        boolean succeeded = false;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            succeeded = response.getRawStatusCode() < 500;
+            return response;
+        } finally {
+            permit.release(succeeded);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package nl.tudelft.sem.template.users.facade;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request is not sent because the circuit of the microservice is open or its bulkhead is full.
+ * It is an IOException, so the RestTemplate reports it like a microservice that cannot be reached.
+ */
+public class DownstreamUnavailableException extends IOException {
+    static final long serialVersionUID = 4820943512893044721L;
+
+    public DownstreamUnavailableException(String service) {
+        super("Requests to " + service + " are failing fast, the service is overloaded or unavailable.");
+    }
+}
@@ -1,32 +1,41 @@
 package nl.tudelft.sem.template.users.facade;
 
 import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.AllArgsConstructor;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import nl.tudelft.sem.template.users.authentication.AuthManager;
-import nl.tudelft.sem.template.users.authentication.JwtRequestFilter;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.FacultyException;
-import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
 import nl.tudelft.sem.template.users.domain.NoSuchUserException;
 import nl.tudelft.sem.template.users.models.FacultyCreationRequestModel;
 import nl.tudelft.sem.template.users.models.ResourcesDto;
+import nl.tudelft.sem.template.users.models.facade.CredentialsModel;
 import nl.tudelft.sem.template.users.models.facade.DistributionModel;
 import nl.tudelft.sem.template.users.models.facade.ManualApprovalModel;
 import nl.tudelft.sem.template.users.models.facade.NodeContributionRequestModel;
 import nl.tudelft.sem.template.users.models.facade.NodeDeletionRequestModel;
+import nl.tudelft.sem.template.users.models.facade.NodeSearchRequestModel;
 import nl.tudelft.sem.template.users.models.facade.ReleaseResourcesRequestModel;
 import nl.tudelft.sem.template.users.models.facade.RequestStatusModel;
 import nl.tudelft.sem.template.users.models.facade.RequestTomorrowResourcesRequestModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Controller for the requests towards other microservices.
+ * The routes returning a CompletableFuture give their thread back to the server while the other microservices answer.
  */
 @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
 @RestController
@@ -38,6 +47,9 @@ public class FacadeController {
     private final transient ResourcePoolRequestService resourcePoolRequestService;
     private final transient RequestsRequestService requestsRequestService;
     private final transient SchedulingRequestsService schedulingRequestsService;
+    private final transient ResourcePoolShardRouter shardRouter;
+    private final transient ScheduleViewCache scheduleViewCache;
+    private final transient ProvisioningRequestService provisioningRequestService;
 
     /**
      * Returns a string with the current distribution of the resources in the system.
@@ -48,9 +60,9 @@ public class FacadeController {
     @GetMapping("/distribution/current")
     public ResponseEntity<String> getCurrentDistribution() {
         try {
-            String url = "http://localhost:8085/distribution/current";
+            String url = shardRouter.forFreePool() + "/distribution/current";
             String response = requestSenderService
-                    .getRequestFromSysadmin(url, authentication.getNetId(), JwtRequestFilter.token);
+                    .getRequestFromSysadmin(url, authentication.getNetId(), authentication.getToken());
             return ResponseEntity.ok(response);
         } catch (UnauthorizedException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
@@ -69,8 +81,8 @@ public class FacadeController {
     @PostMapping("/distribution/add")
     public ResponseEntity<String> addDistribution(@RequestBody DistributionModel distribution) {
         try {
-            String url = "http://localhost:8085/distribution/add";
-            resourcePoolRequestService.addDistributionRequest(url, authentication.getNetId(), JwtRequestFilter.token,
+            String url = shardRouter.forFreePool() + "/distribution/add";
+            resourcePoolRequestService.addDistributionRequest(url, authentication.getNetId(), authentication.getToken(),
                     distribution);
             return ResponseEntity.ok("Distribution was added.");
         } catch (UnauthorizedException e) {
@@ -89,9 +101,9 @@ public class FacadeController {
     @GetMapping("/distribution/status")
     public ResponseEntity<String> statusDistribution() {
         try {
-            String url = "http://localhost:8085/distribution/status";
+            String url = shardRouter.forFreePool() + "/distribution/status";
             String result = requestSenderService.getRequestFromSysadmin(url,
-                    authentication.getNetId(), JwtRequestFilter.token);
+                    authentication.getNetId(), authentication.getToken());
             return ResponseEntity.ok(result);
         } catch (UnauthorizedException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
@@ -109,8 +121,8 @@ public class FacadeController {
     @PostMapping("/distribution/save")
     public ResponseEntity<String> saveDistribution() {
         try {
-            String url = "http://localhost:8085/distribution/save";
-            requestSenderService.postRequestFromSysadmin(url, authentication.getNetId(), JwtRequestFilter.token);
+            String url = shardRouter.forFreePool() + "/distribution/save";
+            requestSenderService.postRequestFromSysadmin(url, authentication.getNetId(), authentication.getToken());
             return ResponseEntity.ok("Distribution was saved.");
         } catch (UnauthorizedException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
@@ -119,6 +131,27 @@ public class FacadeController {
         }
     }
 
+    /**
+     * Applies a complete distribution at once, without going through the queue.
+     * Only accessible for a SYSADMIN.
+     *
+     * @param distributions the wanted percentages of resources for every resource pool
+     * @return 200 OK if the distribution is applied
+     */
+    @PostMapping("/distribution/apply")
+    public ResponseEntity<String> applyDistribution(@RequestBody List<DistributionModel> distributions) {
+        try {
+            String url = shardRouter.forFreePool() + "/distribution/apply";
+            resourcePoolRequestService.applyDistributionRequest(url, authentication.getNetId(), authentication.getToken(),
+                    distributions);
+            return ResponseEntity.ok("Distribution was applied.");
+        } catch (UnauthorizedException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /**
      * Clears the queue with all the current faculty distributions.
      * Only accessible for a SYSADMIN.
@@ -128,9 +161,9 @@ public class FacadeController {
     @PostMapping("/distribution/clear")
     public ResponseEntity<String> clearDistribution() {
         try {
-            String url = "http://localhost:8085/distribution/clear";
+            String url = shardRouter.forFreePool() + "/distribution/clear";
             requestSenderService.postRequestFromSysadmin(
-                    url, authentication.getNetId(), JwtRequestFilter.token);
+                    url, authentication.getNetId(), authentication.getToken());
             return ResponseEntity.ok("Distribution was cleared.");
         } catch (UnauthorizedException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
@@ -140,27 +173,64 @@ public class FacadeController {
     }
 
     /**
-<<<<<<< HEAD
      * Allows the user to view the schedules they are authorized to view.
      * SYSADMINS - all schedules for all available days per faculty.
      * Faculty Managers - all schedules for all available days of their faculty.
      * Employees cannot view the schedules of any faculties.
+     * The schedules come with an ETag, when it matches the If-None-Match header they are not sent again.
      *
-     * @return the schedules of the authorized faculties.
+     * @param ifNoneMatch the ETags of the schedules the user already has, if any
+     * @return the schedules of the authorized faculties, or 304 Not Modified if the user has them already.
      */
     @GetMapping("/schedules/viewSchedules")
-    public ResponseEntity<String> viewSchedule() {
+    public CompletableFuture<ResponseEntity<String>> viewSchedule(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            String response = schedulingRequestsService.getScheduleRequestRouter(
-                    authentication.getNetId(), JwtRequestFilter.token);
-            return ResponseEntity.ok(response);
-        } catch (InnerRequestFailedException | NoSuchUserException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().toString());
+            return schedulingRequestsService.getScheduleView(authentication.getNetId(), authentication.getToken())
+                    .thenApply(view -> okOrNotModified(view, ifNoneMatch))
+                    .handle(FacadeController::orThrow);
+        } catch (NoSuchUserException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (UnauthorizedException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
         }
     }
 
+    /**
+     * Notification from the RP MS that the schedules of the given resource pools changed,
+     * drops the schedule overviews that show them. Only the RP MS, authenticated with its service token, may send it.
+     *
+     * @param resourcePoolIds the ids of the resource pools whose schedules changed
+     * @return 200 OK
+     */
+    @PostMapping("/schedules/changed")
+    public ResponseEntity<Void> schedulesChanged(@RequestBody List<Long> resourcePoolIds) {
+        if (!ServiceIdentity.is(ServiceIdentity.RESOURCEPOOL, authentication.getNetId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the RP MS can report schedule changes");
+        }
+        scheduleViewCache.invalidate(resourcePoolIds);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Provisions a batch of users: registers their credentials and adds them as employees.
+     * Only accessible for a SYSADMIN.
+     *
+     * @param users the credentials of the users
+     * @return 200 OK with the outcome per NetID
+     */
+    @PostMapping("/provisionUsers")
+    public ResponseEntity<Map<String, String>> provisionUsers(@RequestBody List<CredentialsModel> users) {
+        try {
+            return ResponseEntity.ok(provisioningRequestService
+                    .provisionUsers(authentication.getNetId(), users));
+        } catch (UnauthorizedException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /**
      * Post request from a faculty manager to manually approve/reject a request.
      *
@@ -169,7 +239,7 @@ public class FacadeController {
      * @return a message to the user informing them the request is successfully approved/rejected
      */
     @PostMapping("/request/manualSchedule")
-    public ResponseEntity<String> approveRejectRequest(@RequestBody ManualApprovalModel approvalModel) {
+    public CompletableFuture<ResponseEntity<String>> approveRejectRequest(@RequestBody ManualApprovalModel approvalModel) {
         try {
             boolean approved = approvalModel.isApproved();
             long requestId = approvalModel.getRequestId();
@@ -184,12 +254,14 @@ public class FacadeController {
             }
 
             String url = "http://localhost:8084/manualSchedule";
-            requestsRequestService.approveRejectRequest(url, authentication.getNetId(),
-                    approvalModel, JwtRequestFilter.token);
-            String answer = requestsRequestService.getRequestAnswer(approved);
-            return ResponseEntity.ok(answer);
+            return requestsRequestService.approveRejectRequest(url, authentication.getNetId(),
+                    approvalModel, authentication.getToken())
+                    .thenApply(done -> requestsRequestService.getRequestAnswer(approved))
+                    .handle(FacadeController::okOrThrow);
+        } catch (UnauthorizedException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
         } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().toString());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 
@@ -199,15 +271,17 @@ public class FacadeController {
      * @return the status of the request found in the database with the given id
      */
     @GetMapping("/request/status")
-    public ResponseEntity<String> getStatus(@RequestBody RequestStatusModel idModel) {
+    public CompletableFuture<ResponseEntity<String>> getStatus(@RequestBody RequestStatusModel idModel) {
         try {
-            String url = "http://localhost:8084/getStatus";
+            String url = "http://localhost:8084/getOwnStatus";
             long requestId = idModel.getRequestId();
-            String answer = requestsRequestService.getStatusOfRequest(
-                    url, authentication.getNetId(), requestId, JwtRequestFilter.token);
-            return ResponseEntity.ok(answer);
+            return requestsRequestService.getStatusOfRequest(
+                    url, authentication.getNetId(), requestId, authentication.getToken())
+                    .handle(FacadeController::okOrThrow);
+        } catch (UnauthorizedException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
         } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().toString());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 
@@ -218,15 +292,17 @@ public class FacadeController {
      * @return message to the user that tells them whether their request was successfully submitted
      */
     @PostMapping("/request/register")
-    public ResponseEntity<String> register(@RequestBody RegistrationRequestModel request) {
+    public CompletableFuture<ResponseEntity<String>> register(@RequestBody RegistrationRequestModel request) {
         try {
             String url = "http://localhost:8084/register";
-            long requestId = requestsRequestService.registerRequest(
-                    url, authentication.getNetId(), request, JwtRequestFilter.token);
-            String answer = requestsRequestService.registerRequestMessage(requestId);
-            return ResponseEntity.ok(answer);
+            return requestsRequestService.registerRequest(
+                    url, authentication.getNetId(), request, authentication.getToken())
+                    .thenApply(requestsRequestService::registerRequestMessage)
+                    .handle(FacadeController::okOrThrow);
+        } catch (UnauthorizedException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
         } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().toString());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 
@@ -237,17 +313,18 @@ public class FacadeController {
      * @return 200 OK if the contribution was successful
      */
     @PostMapping("/contributeNode")
-    public ResponseEntity<String> contributeNode(@RequestBody NodeContributionRequestModel nodeInfo) {
+    public CompletableFuture<ResponseEntity<String>> contributeNode(@RequestBody NodeContributionRequestModel nodeInfo) {
         try {
             String url = "http://localhost:8083/contributeNode";
-            long nodeId = nodesRequestService.contributeNodeRequest(
-                    url, authentication.getNetId(), JwtRequestFilter.token, nodeInfo);
-            return ResponseEntity.ok("The node with the name \"" + nodeInfo.getName()
-                                    + "\" has been contributed. The ID of the node is: " + nodeId + '.');
+            return nodesRequestService.contributeNodeRequest(
+                    url, authentication.getNetId(), authentication.getToken(), nodeInfo)
+                    .thenApply(nodeId -> "The node with the name \"" + nodeInfo.getName()
+                                    + "\" has been contributed. The ID of the node is: " + nodeId + '.')
+                    .handle(FacadeController::okOrThrow);
         } catch (UnauthorizedException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
         } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().toString());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 
@@ -258,16 +335,39 @@ public class FacadeController {
      * @return 200 OK if the deletion was successful
      */
     @PostMapping("/deleteNode")
-    public ResponseEntity<String> deleteNode(@RequestBody NodeDeletionRequestModel nodeId) {
+    public CompletableFuture<ResponseEntity<String>> deleteNode(@RequestBody NodeDeletionRequestModel nodeId) {
         try {
             String url = "http://localhost:8083/deleteNode";
-            String nodeName = nodesRequestService.deleteNodeRequest(
-                    url, authentication.getNetId(), JwtRequestFilter.token, nodeId.getNodeId());
-            return ResponseEntity.ok("The node with the name \"" + nodeName + "\" has been successfully deleted.");
+            return nodesRequestService.deleteNodeRequest(
+                    url, authentication.getNetId(), authentication.getToken(), nodeId.getNodeId())
+                    .thenApply(nodeName -> "The node with the name \"" + nodeName + "\" has been successfully deleted.")
+                    .handle(FacadeController::okOrThrow);
         } catch (UnauthorizedException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
         } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().toString());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Searches the nodes page by page, filtered on faculty, owner and minimum resources.
+     * A SYSADMIN can search all nodes, a faculty account the nodes of its faculty
+     * and an EMPLOYEE the nodes of its faculties or its own nodes.
+     *
+     * @param search the filters and page, given as query parameters
+     * @return 200 OK with the page of nodes and the id to continue after
+     */
+    @GetMapping("/searchNodes")
+    public CompletableFuture<ResponseEntity<String>> searchNodes(NodeSearchRequestModel search) {
+        try {
+            String url = "http://localhost:8083/searchNodes";
+            return nodesRequestService.searchNodesRequest(
+                    url, authentication.getNetId(), authentication.getToken(), search)
+                    .handle(FacadeController::okOrThrow);
+        } catch (UnauthorizedException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 
@@ -280,9 +380,9 @@ public class FacadeController {
     @PostMapping("/releaseResources")
     public ResponseEntity<String> releaseResources(@RequestBody ReleaseResourcesRequestModel request) {
         try {
-            String url = "http://localhost:8085/releaseResources";
+            String url = shardRouter.forFacultyId(request.getFacultyId()) + "/releaseResources";
             String facultyName = schedulingRequestsService.releaseResourcesRequest(
-                    url, authentication.getNetId(), JwtRequestFilter.token, request);
+                    url, authentication.getNetId(), authentication.getToken(), request);
             return ResponseEntity.ok("The resources for " + facultyName
                     + " have successfully been released to the free resource pool of that day");
         } catch (UnauthorizedException e) {
@@ -303,10 +403,10 @@ public class FacadeController {
     @PostMapping("/availableResourcesForTomorrow")
     public ResponseEntity<String> getResourcesForTomorrow(@RequestBody RequestTomorrowResourcesRequestModel request) {
         try {
-            String url = "http://localhost:8085/availableFacultyResources";
+            String url = shardRouter.forFacultyId(request.getResourcePoolId()) + "/availableFacultyResources";
 
             ResourcesDto resourcesTomorrow = schedulingRequestsService.getResourcesTomorrow(
-                    url, authentication.getNetId(), JwtRequestFilter.token, request.getResourcePoolId());
+                    url, authentication.getNetId(), request.getResourcePoolId());
             return ResponseEntity.ok("The resources for tomorrow for resource pool id " + request.getResourcePoolId()
                     + " are: <CPU: "
                     + resourcesTomorrow.getCpu() + ", GPU: "
@@ -324,12 +424,11 @@ public class FacadeController {
      * @return ResponseEntity containing a String with the pending request for that faculty
      */
     @GetMapping("/pendingRequests")
-    public ResponseEntity<String> getPendingRequests() {
+    public CompletableFuture<ResponseEntity<String>> getPendingRequests() {
         try {
             String url = "http://localhost:8084/pendingRequests";
-            String result = requestSenderService.getRequestFromFacultyAccount(url,
-                    authentication.getNetId(), JwtRequestFilter.token);
-            return ResponseEntity.ok(result);
+            return requestsRequestService.getPendingRequests(url, authentication.getNetId(), authentication.getToken())
+                    .handle(FacadeController::okOrThrow);
         } catch (UnauthorizedException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
         } catch (Exception e) {
@@ -349,7 +448,7 @@ public class FacadeController {
         String authorNetId = authentication.getNetId();
         String managerNetId = request.getManagerNetId();
         String facultyName = request.getName();
-        String token = JwtRequestFilter.token;
+        String token = authentication.getToken();
         try {
             long facId = resourcePoolRequestService.createFaculty(authorNetId, managerNetId, facultyName, token);
             System.out.println("Faculty \"" + facultyName + "\" with id " + facId + " was created. "
@@ -365,4 +464,56 @@ public class FacadeController {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Turns the outcome of a request to another microservice into the response of a route,
+     * the failure is rethrown as a response status exception with the status of the cause.
+     *
+     * @param body the body of the answer, if it succeeded
+     * @param failure the failure of the request, if it failed
+     * @return 200 OK with the body
+     */
+    private static ResponseEntity<String> okOrThrow(String body, Throwable failure) {
+        return ResponseEntity.ok(orThrow(body, failure));
+    }
+
+    /**
+     * Passes on the outcome of a request to another microservice,
+     * the failure is rethrown as a response status exception with the status of the cause.
+     *
+     * @param result the result of the request, if it succeeded
+     * @param failure the failure of the request, if it failed
+     * @param <T> the type of the result
+     * @return the result
+     */
+    private static <T> T orThrow(T result, Throwable failure) {
+        if (failure == null) {
+            return result;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof UnauthorizedException) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, cause.getMessage());
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, cause.getMessage());
+    }
+
+    /**
+     * Answers with the schedule overview, or with 304 Not Modified if the user already has this version of it.
+     *
+     * @param view the schedule overview
+     * @param ifNoneMatch the If-None-Match header of the request, if any
+     * @return 200 OK with the overview and its ETag, or 304 Not Modified with the ETag
+     */
+    private static ResponseEntity<String> okOrNotModified(ScheduleView view, String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            for (String etag : ifNoneMatch.split(",")) {
+                String candidate = etag.trim();
+                if ("*".equals(candidate) || view.getEtag().equals(candidate.replaceFirst("^W/", ""))) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(view.getEtag()).build();
+                }
+            }
+        }
+        return ResponseEntity.ok().eTag(view.getEtag()).body(view.getBody());
+    }
 }
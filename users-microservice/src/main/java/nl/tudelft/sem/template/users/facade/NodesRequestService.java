@@ -1,34 +1,44 @@
 package nl.tudelft.sem.template.users.facade;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
 import nl.tudelft.sem.template.users.domain.EmployeeRepository;
-import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
+import nl.tudelft.sem.template.users.domain.FacultyAccountRepository;
+import nl.tudelft.sem.template.users.domain.NoSuchUserException;
 import nl.tudelft.sem.template.users.models.facade.NodeContributionRequestModel;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
+import nl.tudelft.sem.template.users.models.facade.NodeSearchRequestModel;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Service
 public class NodesRequestService extends RequestSenderService {
 
     private final transient EmployeeRepository employeeRepository;
 
+    private final transient FacultyAccountRepository facultyAccountRepository;
+
+    private final transient AsyncRequestSender asyncRequestSender;
+
     /**
      * Constructor for a request sending service to the nodes microservice.
      *
      * @param authorization inherited from the request sender service
      * @param restTemplate inherited from the request sender service
      * @param employeeRepository an employee repository
+     * @param facultyAccountRepository a faculty account repository
+     * @param asyncRequestSender the non-blocking sender for the requests to the nodes microservice
      */
     public NodesRequestService(AuthorizationManager authorization, RestTemplate restTemplate,
-                               EmployeeRepository employeeRepository) {
+                               EmployeeRepository employeeRepository, FacultyAccountRepository facultyAccountRepository,
+                               AsyncRequestSender asyncRequestSender) {
         super(authorization, restTemplate);
         this.employeeRepository = employeeRepository;
+        this.facultyAccountRepository = facultyAccountRepository;
+        this.asyncRequestSender = asyncRequestSender;
     }
 
     /**
@@ -38,27 +48,17 @@ public class NodesRequestService extends RequestSenderService {
      * @param authorNetId the netId of the author of the request
      * @param token the token of the request
      * @param nodeInfo the model with all the information for the new node
-     * @throws Exception if the author is not an EMPLOYEE at the requested faculty or the request failed
+     * @return the id of the new node, completing with an InnerRequestFailedException if the request failed
+     * @throws Exception if the author is not an EMPLOYEE at the requested faculty
      */
-    public long contributeNodeRequest(String url, String authorNetId, String token, NodeContributionRequestModel nodeInfo)
-            throws Exception {
+    public CompletableFuture<Long> contributeNodeRequest(String url, String authorNetId, String token,
+                                                         NodeContributionRequestModel nodeInfo) throws Exception {
         Set<Long> facultyIds = employeeRepository.findByNetId(authorNetId).get().getParentFacultyIds();
-        if (authorization.isOfType(authorNetId, AccountType.EMPLOYEE)
-                && facultyIds.contains(nodeInfo.getFacultyId())) {
-            try {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setBearerAuth(token);
-
-                HttpEntity<NodeContributionRequestModel> entity = new HttpEntity<>(nodeInfo, headers);
-
-                ResponseEntity<Long> response = restTemplate.postForEntity(url, entity, Long.class);
-                return response.getBody();
-            } catch (Exception e) {
-                throw new InnerRequestFailedException(innerRequestFailedExceptionString(url));
-            }
-        } else {
+        if (!authorization.isOfType(authorNetId, AccountType.EMPLOYEE)
+                || !facultyIds.contains(nodeInfo.getFacultyId())) {
             throw new UnauthorizedException("(" + authorNetId + ") is not an Employee at the requested faculty");
         }
+        return asyncRequestSender.post(url, token, nodeInfo, Long.class);
     }
 
     /**
@@ -68,24 +68,66 @@ public class NodesRequestService extends RequestSenderService {
      * @param authorNetId the netId of the author of the request
      * @param token the token of the request
      * @param nodeId the id of the node to be deleted
-     * @throws Exception if the author is not an EMPLOYEE or the request failed
+     * @return the name of the deleted node, completing with an InnerRequestFailedException if the request failed
+     * @throws Exception if the author is not an EMPLOYEE
      */
-    public String deleteNodeRequest(String url, String authorNetId, String token, long nodeId)
+    public CompletableFuture<String> deleteNodeRequest(String url, String authorNetId, String token, long nodeId)
             throws Exception {
-        if (authorization.isOfType(authorNetId, AccountType.EMPLOYEE)) {
-            try {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setBearerAuth(token);
-
-                HttpEntity<Long> entity = new HttpEntity<>(nodeId, headers);
-
-                ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
-                return response.getBody();
-            } catch (Exception e) {
-                throw new InnerRequestFailedException(innerRequestFailedExceptionString(url));
-            }
-        } else {
+        if (!authorization.isOfType(authorNetId, AccountType.EMPLOYEE)) {
             throw new UnauthorizedException("(" + authorNetId + ") is not an Employee");
         }
+        return asyncRequestSender.post(url, token, nodeId, String.class);
+    }
+
+    /**
+     * Sends a request to search the nodes, limited to what the author may see.
+     * A SYSADMIN may search all nodes, a faculty account the nodes of its faculty and an EMPLOYEE
+     * the nodes of the faculties it works at, or otherwise its own nodes.
+     *
+     * @param url the url of the search endpoint of the nodes microservice
+     * @param authorNetId the netId of the author of the request
+     * @param token the token of the request
+     * @param search the filters and page of the search
+     * @return the page of nodes as returned by the nodes microservice,
+     *         completing with an InnerRequestFailedException if the request failed
+     * @throws Exception if the author may not search with these filters
+     */
+    public CompletableFuture<String> searchNodesRequest(String url, String authorNetId, String token,
+                                                        NodeSearchRequestModel search) throws Exception {
+        switch (authorization.checkAccess(authorNetId)) {
+            case SYSADMIN:
+                break;
+            case FAC_ACCOUNT:
+                long facultyId = facultyAccountRepository.findByNetId(authorNetId)
+                        .orElseThrow(() -> new NoSuchUserException(authorNetId)).getAssignedFacultyId();
+                if (search.getFacultyId() != null && search.getFacultyId() != facultyId) {
+                    throw new UnauthorizedException("(" + authorNetId + ") can only search the nodes of its own faculty");
+                }
+                search.setFacultyId(facultyId);
+                break;
+            default:
+                Set<Long> facultyIds = employeeRepository.findByNetId(authorNetId)
+                        .orElseThrow(() -> new NoSuchUserException(authorNetId)).getParentFacultyIds();
+                if (search.getFacultyId() == null || !facultyIds.contains(search.getFacultyId())) {
+                    if (search.getOwner() != null && !search.getOwner().equals(authorNetId)) {
+                        throw new UnauthorizedException("(" + authorNetId + ") can only search its own nodes "
+                                + "or those of the faculties it works at");
+                    }
+                    search.setOwner(authorNetId);
+                }
+        }
+        UriComponentsBuilder searchUrl = UriComponentsBuilder.fromHttpUrl(url)
+                .queryParam("minCpu", search.getMinCpu())
+                .queryParam("minGpu", search.getMinGpu())
+                .queryParam("minMemory", search.getMinMemory())
+                .queryParam("afterId", search.getAfterId())
+                .queryParam("limit", search.getLimit());
+        if (search.getFacultyId() != null) {
+            searchUrl.queryParam("facultyId", search.getFacultyId());
+        }
+        if (search.getOwner() != null) {
+            searchUrl.queryParam("owner", search.getOwner());
+        }
+        return asyncRequestSender.get(searchUrl.toUriString(), token);
     }
 }
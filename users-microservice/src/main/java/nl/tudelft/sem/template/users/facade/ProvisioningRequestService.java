@@ -0,0 +1,125 @@
+package nl.tudelft.sem.template.users.facade;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
+import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
+import nl.tudelft.sem.template.users.domain.AccountType;
+import nl.tudelft.sem.template.users.domain.Employee;
+import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
+import nl.tudelft.sem.template.users.domain.RegistrationService;
+import nl.tudelft.sem.template.users.models.facade.CredentialsModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * A DDD service for provisioning a batch of users at once.
+ * The credentials are registered with the authentication microservice in chunks, one request per chunk,
+ * after which the users of the chunk are added as employees with a single save.
+ * Users that the authentication microservice already knows, for instance because an earlier attempt
+ * timed out after registering them, are added as employees as well, so provisioning a batch again is safe.
+ */
+@Service
+public class ProvisioningRequestService extends RequestSenderService {
+    public static final String REGISTERED = "Registered";
+    public static final String PROVISIONED = "Registered as an employee";
+    public static final String ALREADY_IN_USE = "NetID is already in use";
+
+    /**
+     * The amount of users registered with a single request, small enough to be hashed well within the timeout.
+     */
+    public static final int CHUNK_SIZE = 100;
+
+    private final transient RegistrationService registrationService;
+    private final transient String authenticationUrl;
+    private final transient ServiceTokenProvider serviceTokenProvider;
+
+    /**
+     * Constructor for the service provisioning users.
+     *
+     * @param authorization       inherited from the request sender service
+     * @param restTemplate        inherited from the request sender service
+     * @param registrationService the service registering the users in this microservice
+     * @param authenticationUrl   the url of the authentication microservice
+     * @param serviceTokenProvider the provider of the token the batches are registered with
+     */
+    public ProvisioningRequestService(AuthorizationManager authorization, RestTemplate restTemplate,
+                                      RegistrationService registrationService,
+                                      @Value("${authentication.url:http://localhost:8081}") String authenticationUrl,
+                                      ServiceTokenProvider serviceTokenProvider) {
+        super(authorization, restTemplate);
+        this.registrationService = registrationService;
+        this.authenticationUrl = authenticationUrl;
+        this.serviceTokenProvider = serviceTokenProvider;
+    }
+
+    /**
+     * Provisions a batch of users, only a sysadmin can provision users.
+     * The authentication microservice only registers batches for this microservice, so they carry its service token.
+     * A user that could not be registered keeps the reason given by the authentication microservice.
+     * If a chunk fails, the chunks before it stay provisioned and the whole batch can be provisioned again.
+     *
+     * @param authorNetId the netId of the author of the request
+     * @param users       the credentials of the users to provision
+     * @return the outcome per NetID
+     * @throws UnauthorizedException       if the author is not a sysadmin
+     * @throws InnerRequestFailedException if a request to the authentication microservice failed
+     */
+    public Map<String, String> provisionUsers(String authorNetId, List<CredentialsModel> users)
+            throws UnauthorizedException, InnerRequestFailedException {
+        if (!authorization.isOfType(authorNetId, AccountType.SYSADMIN)) {
+            throw new UnauthorizedException("(" + authorNetId + ") is not a Sysadmin => can not provision users.");
+        }
+        Map<String, String> outcomes = new LinkedHashMap<>();
+        for (int from = 0; from < users.size(); from += CHUNK_SIZE) {
+            outcomes.putAll(provisionChunk(users.subList(from, Math.min(from + CHUNK_SIZE, users.size()))));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Registers a chunk of users with the authentication microservice and adds them as employees.
+     *
+     * @param users the credentials of the users to provision
+     * @return the outcome per NetID
+     * @throws InnerRequestFailedException if the request to the authentication microservice failed
+     */
+    private Map<String, String> provisionChunk(List<CredentialsModel> users) throws InnerRequestFailedException {
+        String url = authenticationUrl + "/registerBatch";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(serviceTokenProvider.getToken());
+        Map<String, String> outcomes;
+        try {
+            outcomes = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(users, headers),
+                    new ParameterizedTypeReference<LinkedHashMap<String, String>>() {}).getBody();
+        } catch (Exception e) {
+            throw new InnerRequestFailedException(innerRequestFailedExceptionString(url));
+        }
+        if (outcomes == null) {
+            throw new InnerRequestFailedException(innerRequestFailedExceptionString(url));
+        }
+
+        List<String> known = outcomes.entrySet().stream()
+                .filter(outcome -> REGISTERED.equals(outcome.getValue()) || ALREADY_IN_USE.equals(outcome.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Set<String> added = registrationService.registerEmployees(known).stream()
+                .map(Employee::getNetId)
+                .collect(Collectors.toSet());
+        for (String netId : known) {
+            if (REGISTERED.equals(outcomes.get(netId)) || added.contains(netId)) {
+                outcomes.put(netId, PROVISIONED);
+            }
+        }
+        return outcomes;
+    }
+}
@@ -1,32 +1,29 @@
 package nl.tudelft.sem.template.users.facade;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
-import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
 import nl.tudelft.sem.template.users.domain.NoSuchUserException;
 import nl.tudelft.sem.template.users.models.facade.ManualApprovalModel;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 @Service
 public class RequestsRequestService extends RequestSenderService {
+    private final transient AsyncRequestSender asyncRequestSender;
 
     /**
      * Constructor for request sending service that interacts with the requests microservice.
      *
      * @param authorization inherited from request sending service
      * @param restTemplate inherited from the request sending service
+     * @param asyncRequestSender the non-blocking sender for the requests to the request MS
      */
-    public RequestsRequestService(AuthorizationManager authorization, RestTemplate restTemplate) {
+    public RequestsRequestService(AuthorizationManager authorization, RestTemplate restTemplate,
+                                  AsyncRequestSender asyncRequestSender) {
         super(authorization, restTemplate);
+        this.asyncRequestSender = asyncRequestSender;
     }
 
     /**
@@ -37,90 +34,62 @@ public class RequestsRequestService extends RequestSenderService {
      * @param model model containing the scheduled day of execution if approved,
      *              the id of the request and whether it is approved or rejected
      * @param token the user token
-     * @return whether the approval/rejection went through
+     * @return whether the approval/rejection went through,
+     *         completing with an InnerRequestFailedException when the Request MS is not responding
      * @throws NoSuchUserException when no such user exists
-     * @throws InnerRequestFailedException when the Request MS is not responding
      * @throws UnauthorizedException when the user submitting this request is not a faculty manager
      */
-    public boolean approveRejectRequest(String url, String authorNetId, ManualApprovalModel model, String token)
-            throws NoSuchUserException, InnerRequestFailedException, UnauthorizedException {
-        if (authorization.isOfType(authorNetId, AccountType.FAC_ACCOUNT)) {
-            //TODO make sure the request is to the faculty manager's faculty
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-
-            HttpEntity<ManualApprovalModel> entity = new HttpEntity<>(model, headers);
-            try {
-                ResponseEntity<Boolean> response = restTemplate.exchange(url, HttpMethod.POST, entity, Boolean.class);
-                return response.getBody();
-            } catch (Exception e) {
-                throw new InnerRequestFailedException(innerRequestFailedExceptionString(url));
-            }
-        } else {
+    public CompletableFuture<Boolean> approveRejectRequest(String url, String authorNetId, ManualApprovalModel model,
+                                                           String token)
+            throws NoSuchUserException, UnauthorizedException {
+        if (!authorization.isOfType(authorNetId, AccountType.FAC_ACCOUNT)) {
             throw new UnauthorizedException("(" + authorNetId
                     + ") is not authorized to approve or reject this request");
         }
+        //TODO make sure the request is to the faculty manager's faculty
+        return asyncRequestSender.post(url, token, model, Boolean.class);
     }
 
     /**
-     * Gets the status of a given request.
+     * Gets the requests of the faculty of a faculty account that are left for manual review.
      *
-     * @param url the url of the request MS
-     * @param authorNetId the netId of the user wanting to check the status of the request
-     * @param requestId the id of the request
-     * @param token the JWT token
-     * @return the status of the request
+     * @param url the url of the pending requests endpoint of the request MS
+     * @param authorNetId the netID of the faculty account
+     * @param token the JWT token of the faculty account, identifying its faculty to the request MS
+     * @return the pending requests as returned by the request MS,
+     *         completing with an InnerRequestFailedException if the request MS is not responding
      * @throws NoSuchUserException if no such user exists
-     * @throws UnauthorizedException if the user is not authorized to check the status of this request
-     * @throws InnerRequestFailedException if something goes wrong with the api call to the request MS
+     * @throws UnauthorizedException if the user is not a faculty account
      */
-    public String getStatusOfRequest(String url, String authorNetId, long requestId, String token)
-            throws NoSuchUserException, UnauthorizedException, InnerRequestFailedException {
-        boolean authorized = super.authorization.isOfType(authorNetId, AccountType.EMPLOYEE);
-        List<Long> ids = getRequestIdsByNetId(authorNetId, token);
-        if (authorized && ids.contains(requestId)) {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-
-            HttpEntity<Long> entity = new HttpEntity<>(requestId, headers);
-            try {
-                ResponseEntity<Integer> response = super.restTemplate.exchange(url, HttpMethod.POST, entity, Integer.class);
-                int status = response.getBody();
-                return "Request has status " + status;
-            } catch (Exception e) {
-                throw new InnerRequestFailedException(url);
-            }
-        } else {
-            throw new UnauthorizedException("(" + authorNetId
-                    + ") is not authorized to approve or reject this request");
+    public CompletableFuture<String> getPendingRequests(String url, String authorNetId, String token)
+            throws NoSuchUserException, UnauthorizedException {
+        if (!authorization.isOfType(authorNetId, AccountType.FAC_ACCOUNT)) {
+            throw new UnauthorizedException("(" + authorNetId + ") is not a Faculty account.");
         }
+        return asyncRequestSender.get(url, token);
     }
 
     /**
-     * Gets the IDs of all requests submitted by a given user.
+     * Gets the status of a given request.
+     * The requests MS checks that the request belongs to the user and reads its status in a single lookup.
      *
-     * @param netId the netId of the given user
-     * @param token the JWT token
-     * @return the set of the IDs of all requests submitted by this user
-     * @throws InnerRequestFailedException if the request MS does not respond
+     * @param url the url of the owner-scoped status endpoint of the request MS
+     * @param authorNetId the netId of the user wanting to check the status of the request
+     * @param requestId the id of the request
+     * @param token the JWT token of the user, identifying the owner to the request MS
+     * @return the status of the request, completing with an UnauthorizedException if the request is not of the user
+     *         or an InnerRequestFailedException if something goes wrong with the api call to the request MS
+     * @throws NoSuchUserException if no such user exists
+     * @throws UnauthorizedException if the user is not authorized to check the status of requests
      */
-    public List<Long> getRequestIdsByNetId(String netId, String token) throws InnerRequestFailedException {
-        HttpHeaders headers = new HttpHeaders();
-
-        headers.setBearerAuth(token);
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        String url = "http://localhost:8084/getRequestIds";
-        HttpEntity<String> entity = new HttpEntity<>(netId, headers);
-        try {
-            ResponseEntity<String> response = super.restTemplate.postForEntity(url, entity, String.class);
-            List<Long> answers = new ArrayList<>();
-            for (String id : response.getBody().split("/")) {
-                answers.add(Long.parseLong(id));
-            }
-            return answers;
-        } catch (Exception e) {
-            throw new InnerRequestFailedException("Request to " + url + " failed");
+    public CompletableFuture<String> getStatusOfRequest(String url, String authorNetId, long requestId, String token)
+            throws NoSuchUserException, UnauthorizedException {
+        if (!super.authorization.isOfType(authorNetId, AccountType.EMPLOYEE)) {
+            throw new UnauthorizedException("(" + authorNetId
+                    + ") is not authorized to check the status of this request");
         }
+        return asyncRequestSender.post(url, token, requestId, Integer.class)
+                .thenApply(status -> "Request has status " + status);
     }
 
     /** Returns the correct message to show the user when a request is successfully approved/rejected.
@@ -156,27 +125,18 @@ public class RequestsRequestService extends RequestSenderService {
      * @param authorNetId the netID of the author of the request
      * @param requestModel the requestModel containing the information about the request
      * @param token the JWT token
-     * @return whether the request went through
+     * @return the id of the registered request,
+     *         completing with an InnerRequestFailedException if the request MS did not respond
      * @throws NoSuchUserException if no such user was found
-     * @throws InnerRequestFailedException if the request MS did not respond
      * @throws UnauthorizedException if the employee submitting the request is not employeed at the respective faculty
      */
-    public Long registerRequest(String url, String authorNetId, RegistrationRequestModel requestModel, String token)
-            throws NoSuchUserException, InnerRequestFailedException, UnauthorizedException {
-        if (super.authorization.isOfType(authorNetId, AccountType.EMPLOYEE)) {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-
-            HttpEntity<RegistrationRequestModel> entity = new HttpEntity<>(requestModel, headers);
-            try {
-                ResponseEntity<Long> response = super.restTemplate.exchange(url, HttpMethod.POST, entity, Long.class);
-                return response.getBody();
-            } catch (Exception e) {
-                throw new InnerRequestFailedException(url);
-            }
-        } else {
+    public CompletableFuture<Long> registerRequest(String url, String authorNetId, RegistrationRequestModel requestModel,
+                                                   String token)
+            throws NoSuchUserException, UnauthorizedException {
+        if (!super.authorization.isOfType(authorNetId, AccountType.EMPLOYEE)) {
             throw new UnauthorizedException("(" + authorNetId
                     + ") is not employed by " + requestModel.getFacultyName());
         }
+        return asyncRequestSender.post(url, token, requestModel, Long.class);
     }
 }
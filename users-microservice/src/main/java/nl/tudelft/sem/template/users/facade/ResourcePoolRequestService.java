@@ -1,5 +1,7 @@
 package nl.tudelft.sem.template.users.facade;
 
+import java.util.List;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
@@ -21,17 +23,21 @@ import org.springframework.web.client.RestTemplate;
 public class ResourcePoolRequestService extends RequestSenderService {
     private final transient RegistrationService registrationService;
 
+    private final transient ResourcePoolShardRouter shardRouter;
+
     /**
      * Constructor for a request sender service that interacts with the resource pool microservice .
      *
      * @param authorization       inherited from request sender service
      * @param restTemplate        inherited from request sender service
      * @param registrationService the user registration service
+     * @param shardRouter         the routing table of the resourcepool instances
      */
     public ResourcePoolRequestService(AuthorizationManager authorization, RestTemplate restTemplate,
-                                      RegistrationService registrationService) {
+                                      RegistrationService registrationService, ResourcePoolShardRouter shardRouter) {
         super(authorization, restTemplate);
         this.registrationService = registrationService;
+        this.shardRouter = shardRouter;
     }
 
     /**
@@ -77,7 +83,7 @@ public class ResourcePoolRequestService extends RequestSenderService {
      */
     private long sendCreateFacultyRequest(String managerNetId, String facultyName, String token)
         throws FacultyException {
-        String url = "http://localhost:8085/createFaculty";
+        String url = shardRouter.forFacultyName(facultyName) + "/createFaculty";
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setBearerAuth(token);
@@ -122,4 +128,31 @@ public class ResourcePoolRequestService extends RequestSenderService {
             throw new UnauthorizedException("(" + authorNetId + ") is not a Sysadmin => can not add a distribution");
         }
     }
+
+    /**
+     * Sends a complete distribution to the Resource pool microservice, which applies it at once.
+     *
+     * @param url         the url of the request
+     * @param authorNetId the netId of the author of the request.
+     * @param token       the token of the request
+     * @param models      the distribution models of all resource pools.
+     * @throws Exception if the author is not a SYSADMIN or the request failed.
+     */
+    public void applyDistributionRequest(String url, String authorNetId, String token, List<DistributionModel> models)
+            throws Exception {
+        if (authorization.isOfType(authorNetId, AccountType.SYSADMIN)) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(token);
+
+            HttpEntity<List<DistributionModel>> entity = new HttpEntity<>(models, headers);
+
+            try {
+                restTemplate.postForEntity(url, entity, String.class);
+            } catch (Exception e) {
+                throw new InnerRequestFailedException(innerRequestFailedExceptionString(url));
+            }
+        } else {
+            throw new UnauthorizedException("(" + authorNetId + ") is not a Sysadmin => can not apply a distribution");
+        }
+    }
 }
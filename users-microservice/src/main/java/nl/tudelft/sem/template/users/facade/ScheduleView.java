@@ -0,0 +1,14 @@
+package nl.tudelft.sem.template.users.facade;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A schedule overview as it is shown to the user, with the ETag identifying its content.
+ */
+@Getter
+@AllArgsConstructor
+public class ScheduleView {
+    private final String body;
+    private final String etag;
+}
@@ -0,0 +1,112 @@
+package nl.tudelft.sem.template.users.facade;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Keeps the schedule overviews that were shown, so repeated views do not fan out to the resourcepool instances.
+ * The overview of a sysadmin is kept under a single key, the one of a faculty manager per faculty.
+ * The RP MS tells which resource pools changed, which drops the overview of the sysadmin and of those faculties.
+ * Overviews also expire after a while, in case such a notification got lost.
+ */
+@Component
+public class ScheduleViewCache {
+    private static final String ALL = "all";
+
+    private final transient ConcurrentHashMap<String, Entry> views = new ConcurrentHashMap<>();
+    private final transient AtomicLong invalidations = new AtomicLong();
+    private final transient long ttlMillis;
+
+    /**
+     * Instantiates a new ScheduleViewCache.
+     *
+     * @param ttlMillis the time after which a kept overview is loaded again
+     */
+    public ScheduleViewCache(@Value("${schedules.cache.ttl-millis:60000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Returns the key of the overview of all faculties.
+     *
+     * @return the key of the overview of the sysadmin
+     */
+    public static String all() {
+        return ALL;
+    }
+
+    /**
+     * Returns the key of the overview of a single faculty.
+     *
+     * @param facultyId the id of the faculty
+     * @return the key of the overview of the faculty manager
+     */
+    public static String faculty(long facultyId) {
+        return "faculty:" + facultyId;
+    }
+
+    /**
+     * Returns the kept overview, or loads and keeps it if there is none or it expired.
+     * An overview that was being loaded while schedules changed is returned but not kept.
+     *
+     * @param key    the key of the overview
+     * @param loader loads the overview from the resourcepool instances
+     * @return the overview, completing exceptionally if loading it failed
+     */
+    public CompletableFuture<ScheduleView> getOrLoad(String key, Supplier<CompletableFuture<String>> loader) {
+        Entry cached = views.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < ttlMillis) {
+            return CompletableFuture.completedFuture(cached.view);
+        }
+        long seenInvalidations = invalidations.get();
+        return loader.get().thenApply(body -> {
+            Entry entry = new Entry(new ScheduleView(body, etag(body)), System.currentTimeMillis());
+            views.put(key, entry);
+            if (invalidations.get() != seenInvalidations) {
+                // the schedules may have changed while the overview was loaded, so it is not kept
+                views.remove(key, entry);
+            }
+            return entry.view;
+        });
+    }
+
+    /**
+     * Drops the overviews showing the schedules of the given resource pools, and the overview of all faculties.
+     *
+     * @param resourcePoolIds the ids of the resource pools whose schedules changed
+     */
+    public void invalidate(Collection<Long> resourcePoolIds) {
+        invalidations.incrementAndGet();
+        views.remove(ALL);
+        for (Long resourcePoolId : resourcePoolIds) {
+            views.remove(faculty(resourcePoolId));
+        }
+    }
+
+    /**
+     * Computes the strong ETag of an overview from its content.
+     *
+     * @param body the overview
+     * @return the quoted ETag
+     */
+    private static String etag(String body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static class Entry {
+        private final transient ScheduleView view;
+        private final transient long loadedAt;
+
+        Entry(ScheduleView view, long loadedAt) {
+            this.view = view;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
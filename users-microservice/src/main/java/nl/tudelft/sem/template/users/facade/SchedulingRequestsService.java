@@ -1,9 +1,15 @@
 package nl.tudelft.sem.template.users.facade;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.commons.SingleFlight;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
@@ -26,6 +32,12 @@ import org.springframework.web.client.RestTemplate;
 @Service
 public class SchedulingRequestsService extends RequestSenderService {
     private final transient VerificationService verificationService;
+    private final transient ResourcePoolShardRouter shardRouter;
+    private final transient AsyncRequestSender asyncRequestSender;
+    private final transient ScheduleViewCache scheduleViewCache;
+    private final transient ServiceTokenProvider serviceTokenProvider;
+    private final transient SingleFlight<List<Object>, ResponseEntity<ResourcesDto>> resourcesLookups =
+            new SingleFlight<>();
 
     /**
      * Constructor for request sending service to the requests microservice concerning scheduling logic.
@@ -33,33 +45,58 @@ public class SchedulingRequestsService extends RequestSenderService {
      * @param authorization inherited from request sender service
      * @param restTemplate inherited from request sender service
      * @param verificationService the verification service
+     * @param shardRouter the routing table of the resourcepool instances
+     * @param asyncRequestSender the non-blocking sender for the schedule requests
+     * @param scheduleViewCache the cache of the schedule overviews
+     * @param serviceTokenProvider the provider of the token this microservice makes shared requests with
      */
     public SchedulingRequestsService(AuthorizationManager authorization, RestTemplate restTemplate,
-                                     VerificationService verificationService) {
+                                     VerificationService verificationService, ResourcePoolShardRouter shardRouter,
+                                     AsyncRequestSender asyncRequestSender, ScheduleViewCache scheduleViewCache,
+                                     ServiceTokenProvider serviceTokenProvider) {
         super(authorization, restTemplate);
         this.verificationService = verificationService;
+        this.shardRouter = shardRouter;
+        this.asyncRequestSender = asyncRequestSender;
+        this.scheduleViewCache = scheduleViewCache;
+        this.serviceTokenProvider = serviceTokenProvider;
     }
 
     /**
      * Routes the request to the correct method.
+     * The user is authorized right away, the schedules are requested without blocking the calling thread.
      *
      * @param authorNetId - the netId of the sender.
      * @param token - the token with which the user is authenticated.
-     * @return the response
+     * @return the response, completing with an InnerRequestFailedException if the request fails
      * @throws NoSuchUserException if the user cannot be found
-     * @throws InnerRequestFailedException if the request fails
      * @throws UnauthorizedException if the user is unauthorized
      */
-    @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
-    public String getScheduleRequestRouter(String authorNetId, String token)
-            throws NoSuchUserException, UnauthorizedException, InnerRequestFailedException {
-        String sysadminUrl = "http://localhost:8085/getAllSchedules";
-        String facManagerUrl = "http://localhost:8085/getFacultySchedules";
+    public CompletableFuture<String> getScheduleRequestRouter(String authorNetId, String token)
+            throws NoSuchUserException, UnauthorizedException {
+        return getScheduleView(authorNetId, token).thenApply(ScheduleView::getBody);
+    }
 
+    /**
+     * Returns the schedule overview the user is allowed to see, from the cache if it did not change since it was loaded.
+     * The user is authorized right away, the schedules are requested without blocking the calling thread.
+     *
+     * @param authorNetId - the netId of the sender.
+     * @param token - the token with which the user is authenticated.
+     * @return the overview with its ETag, completing with an InnerRequestFailedException if the request fails
+     * @throws NoSuchUserException if the user cannot be found
+     * @throws UnauthorizedException if the user is unauthorized
+     */
+    @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
+    public CompletableFuture<ScheduleView> getScheduleView(String authorNetId, String token)
+            throws NoSuchUserException, UnauthorizedException {
         if (super.authorization.isOfType(authorNetId, AccountType.SYSADMIN)) {
-            return getScheduleSysadmin(sysadminUrl, token);
+            return scheduleViewCache.getOrLoad(ScheduleViewCache.all(), () -> getScheduleAllShards(token));
         } else if (super.authorization.isOfType(authorNetId, AccountType.FAC_ACCOUNT)) {
-            return getScheduleFacultyManager(facManagerUrl, authorNetId, token);
+            long facultyId = verificationService.retrieveFacultyId(authorNetId);
+            String facManagerUrl = shardRouter.forFacultyId(facultyId) + "/getFacultySchedules";
+            return scheduleViewCache.getOrLoad(ScheduleViewCache.faculty(facultyId),
+                    () -> getScheduleFacultyManager(facManagerUrl, authorNetId, token));
         } else if (super.authorization.isOfType(authorNetId, AccountType.EMPLOYEE)) {
             throw new UnauthorizedException("Employees cannot view schedules");
         } else {
@@ -69,29 +106,32 @@ public class SchedulingRequestsService extends RequestSenderService {
 
     /**
      * Request to get the available resources for the next day.
+     * Once the author is authorized, the request is made with the service token of this microservice,
+     * so it is shared with all concurrent requests for the same faculty.
      *
      * @param url the provided url
      * @param authorNetId the netId of the user
-     * @param token the authentication token
      * @param facultyId the provided faculty id
      * @return the available resources for tomorrow
      * @throws InnerRequestFailedException thrown when the request is not processed correctly.
      */
-    public ResourcesDto getResourcesTomorrow(String url, String authorNetId, String token, long facultyId)
+    public ResourcesDto getResourcesTomorrow(String url, String authorNetId, long facultyId)
             throws InnerRequestFailedException {
         Calendar tomorrow = Calendar.getInstance();
         tomorrow.add(Calendar.DATE, 1);
         tomorrow.setTime(tomorrow.getTime());
 
         try {
-            verificationService.authenticateFacultyRequest(authorNetId, token, facultyId);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
+            verificationService.authenticateFacultyRequest(authorNetId, facultyId);
+            ResponseEntity<ResourcesDto> response = resourcesLookups.execute(List.of(url, facultyId), () -> {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setBearerAuth(serviceTokenProvider.getToken());
 
-            HttpEntity<RequestTomorrowResourcesRequestModel> entity = new HttpEntity<>(
-                    new RequestTomorrowResourcesRequestModel(facultyId), headers);
+                HttpEntity<RequestTomorrowResourcesRequestModel> entity = new HttpEntity<>(
+                        new RequestTomorrowResourcesRequestModel(facultyId), headers);
 
-            ResponseEntity<ResourcesDto> response = super.restTemplate.postForEntity(url, entity, ResourcesDto.class);
+                return super.restTemplate.postForEntity(url, entity, ResourcesDto.class);
+            });
             if (response.hasBody()) {
                 return response.getBody();
             } else {
@@ -119,7 +159,7 @@ public class SchedulingRequestsService extends RequestSenderService {
      */
     public String releaseResourcesRequest(String url, String authorNetId, String token, ReleaseResourcesRequestModel request)
             throws NoSuchUserException, InnerRequestFailedException, UnauthorizedException, FacultyException {
-        if (verificationService.authenticateFacultyManager(authorNetId, request.getFacultyId(), token)) {
+        if (verificationService.authenticateFacultyManager(authorNetId, request.getFacultyId())) {
             try {
                 HttpHeaders headers = new HttpHeaders();
                 headers.setBearerAuth(token);
@@ -161,39 +201,60 @@ public class SchedulingRequestsService extends RequestSenderService {
         }
     }
 
+    /**
+     * Gets all available schedules on all days for all faculties of every resourcepool shard,
+     * and merges them into a single overview. The shards are requested concurrently.
+     *
+     * @param token - the authentication token of the user
+     * @return the response, completing with an InnerRequestFailedException if one of the shards could not be reached
+     */
+    private CompletableFuture<String> getScheduleAllShards(String token) {
+        List<CompletableFuture<ScheduleResponseModel>> responses = new ArrayList<>();
+        for (String shard : shardRouter.all()) {
+            responses.add(asyncRequestSender.get(shard + "/getAllSchedules", token, ScheduleResponseModel.class));
+        }
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).thenApply(done -> {
+            Map<String, List<String>> schedules = null;
+            for (CompletableFuture<ScheduleResponseModel> response : responses) {
+                ScheduleResponseModel body = response.join();
+                if (body != null) {
+                    if (schedules == null) {
+                        schedules = new LinkedHashMap<>();
+                    }
+                    schedules.putAll(body.getSchedules());
+                }
+            }
+            if (schedules == null) {
+                return "No schedules were found";
+            }
+            return prettifyScheduleResponse(new ScheduleResponseModel(schedules));
+        });
+    }
+
     /**
      * Gets all available schedules on all days for a given faculty.
      *
      * @param url - the url of the end point
      * @param authorNetId - the netId of the user that made the request
      * @param token - the authentication token of the user
-     * @return the response
+     * @return the response, completing with an InnerRequestFailedException if the request fails
      */
-    @SuppressWarnings("PMD.DataflowAnomalyAnalysis")
-    public String getScheduleFacultyManager(String url, String authorNetId, String token)
-            throws InnerRequestFailedException {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(token);
+    public CompletableFuture<String> getScheduleFacultyManager(String url, String authorNetId, String token) {
         long facultyId;
         try {
             facultyId = verificationService.retrieveFacultyId(authorNetId);
         } catch (NoSuchUserException exception) {
-            throw new InnerRequestFailedException(innerRequestFailedExceptionString(url));
+            return CompletableFuture.failedFuture(new InnerRequestFailedException(innerRequestFailedExceptionString(url)));
         }
 
-        HttpEntity<ScheduleRequestModel> entity = new HttpEntity<>(new ScheduleRequestModel(facultyId), headers);
-
-        try {
-            ResponseEntity<ScheduleResponseModel> response = restTemplate.exchange(
-                    url, HttpMethod.POST, entity, ScheduleResponseModel.class);
-            if (response.hasBody()) {
-                return prettifyScheduleResponse(Objects.requireNonNull(response.getBody()));
-            } else {
-                return "No schedules were found for faculty: " + facultyId;
-            }
-        } catch (Exception e) {
-            throw new InnerRequestFailedException(innerRequestFailedExceptionString(url));
-        }
+        return asyncRequestSender.post(url, token, new ScheduleRequestModel(facultyId), ScheduleResponseModel.class)
+                .thenApply(response -> {
+                    if (response != null) {
+                        return prettifyScheduleResponse(response);
+                    } else {
+                        return "No schedules were found for faculty: " + facultyId;
+                    }
+                });
     }
 
     /**
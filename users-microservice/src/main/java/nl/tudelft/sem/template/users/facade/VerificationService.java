@@ -30,10 +30,10 @@ public class VerificationService {
      * @throws NoSuchUserException when no user is found
      * @throws FacultyException when the faculty doesn't exist
      */
-    public boolean authenticateFacultyManager(String netId, long providedFacultyId, String token)
+    public boolean authenticateFacultyManager(String netId, long providedFacultyId)
             throws NoSuchUserException, FacultyException {
         if (checkFacultyAccount(netId, providedFacultyId)) {
-            return facultyVerificationService.verifyFaculty(providedFacultyId, token);
+            return facultyVerificationService.verifyFaculty(providedFacultyId);
         }
         return false;
     }
@@ -42,7 +42,6 @@ public class VerificationService {
      * Authenticates a request to view the available resources for tomorrow.
      *
      * @param authorNetId the netId of the author of the request
-     * @param token the authentication token
      * @param facultyId the provided faculty id
      * @return whether the user is authenticated
      * @throws FacultyException the faculty could not be found
@@ -50,30 +49,25 @@ public class VerificationService {
      * @throws UnauthorizedException the user was not authorized
      * @throws EmploymentException the user was not employed at the relevant faculty
      */
-    public boolean authenticateFacultyRequest(String authorNetId, String token, long facultyId)
+    public boolean authenticateFacultyRequest(String authorNetId, long facultyId)
         throws NoSuchUserException, UnauthorizedException, EmploymentException, FacultyException {
-        checkFacultyExists(token, facultyId);
-        if (checkSysAdmin(authorNetId)) {
-            return true;
-        } else if (checkFacultyAccount(authorNetId, facultyId)) {
-            return true;
-        } else if (checkEmployee(authorNetId, facultyId)) {
-            return true;
-        } else {
+        if (!checkSysAdmin(authorNetId) && !checkFacultyAccount(authorNetId, facultyId)
+                && !checkEmployee(authorNetId, facultyId)) {
             throw new UnauthorizedException("Request to view schedules failed.");
         }
+        checkFacultyExists(facultyId);
+        return true;
     }
 
     /**
      * Checks whether the given facultyId has an existing matching faculty.
      *
-     * @param token the jwtToken
      * @param facultyId the id of the faculty to check
      * @throws FacultyException if the given faculty does not exist
      */
-    private void checkFacultyExists(String token, long facultyId) throws FacultyException {
+    private void checkFacultyExists(long facultyId) throws FacultyException {
         try {
-            facultyVerificationService.verifyFaculty(facultyId, token);
+            facultyVerificationService.verifyFaculty(facultyId);
         } catch (FacultyException e) {
             throw new FacultyException("The faculty does not exist!");
         }
@@ -0,0 +1,17 @@
+package nl.tudelft.sem.template.users.models;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model to hire or terminate many employees at the same faculties at once.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEmploymentRequestModel {
+    List<String> netIds;
+    String facultyIds;
+}
@@ -0,0 +1,17 @@
+package nl.tudelft.sem.template.users.models;
+
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing what a user may search: its access and the faculties it belongs to.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchScopeResponseModel {
+    private String access;
+    private Set<Long> facultyIds;
+}
@@ -0,0 +1,17 @@
+package nl.tudelft.sem.template.users.models.facade;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing the credentials of a user that is provisioned.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CredentialsModel {
+
+    private String netId;
+    private String password;
+}
@@ -0,0 +1,21 @@
+package nl.tudelft.sem.template.users.models.facade;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model representing the filters and page of a node search.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodeSearchRequestModel {
+    private Long facultyId;
+    private String owner;
+    private int minCpu;
+    private int minGpu;
+    private int minMemory;
+    private long afterId;
+    private int limit = 100;
+}
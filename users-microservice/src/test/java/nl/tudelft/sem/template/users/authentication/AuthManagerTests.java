@@ -32,4 +32,27 @@ public class AuthManagerTests {
         // Assert
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    public void getTokenTest() {
+        // Arrange
+        var authenticationToken = new UsernamePasswordAuthenticationToken(
+                "user123",
+                "token123", List.of()
+        );
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+
+        // Act
+        String actual = authManager.getToken();
+
+        // Assert
+        assertThat(actual).isEqualTo("token123");
+    }
+
+    @Test
+    public void getTokenWithoutAuthenticationTest() {
+        SecurityContextHolder.getContext().setAuthentication(null);
+
+        assertThat(authManager.getToken()).isNull();
+    }
 }
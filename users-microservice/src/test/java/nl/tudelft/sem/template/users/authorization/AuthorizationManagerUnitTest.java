@@ -4,10 +4,16 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import nl.tudelft.sem.template.users.domain.AccountType;
+import nl.tudelft.sem.template.users.domain.AccountTypeRepository;
 import nl.tudelft.sem.template.users.domain.Employee;
 import nl.tudelft.sem.template.users.domain.EmployeeRepository;
 import nl.tudelft.sem.template.users.domain.FacultyAccount;
@@ -22,6 +28,7 @@ public class AuthorizationManagerUnitTest {
     private SysadminRepository sysadminRepository;
     private EmployeeRepository employeeRepository;
     private FacultyAccountRepository facultyAccountRepository;
+    private AccountTypeRepository accountTypeRepository;
     private AuthorizationManager sut;
     private Sysadmin admin;
     private Employee employee;
@@ -36,7 +43,9 @@ public class AuthorizationManagerUnitTest {
         sysadminRepository = mock(SysadminRepository.class);
         employeeRepository = mock(EmployeeRepository.class);
         facultyAccountRepository = mock(FacultyAccountRepository.class);
-        sut = new AuthorizationManager(sysadminRepository, employeeRepository, facultyAccountRepository);
+        accountTypeRepository = mock(AccountTypeRepository.class);
+        sut = new AuthorizationManager(sysadminRepository, employeeRepository, facultyAccountRepository,
+                accountTypeRepository);
 
         admin = new Sysadmin(adminNetId);
         employee = new Employee(employeeNetId);
@@ -45,6 +54,21 @@ public class AuthorizationManagerUnitTest {
         when(sysadminRepository.existsByNetId(adminNetId)).thenReturn(true);
         when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(true);
         when(facultyAccountRepository.existsByNetId(facultyNetId)).thenReturn(true);
+        // the single lookup answers like the union of the three account tables
+        when(accountTypeRepository.findAccountTypesByNetId(anyString())).thenAnswer(invocation -> {
+            String netId = invocation.getArgument(0);
+            List<String> types = new ArrayList<>();
+            if (sysadminRepository.existsByNetId(netId)) {
+                types.add(AccountType.SYSADMIN.name());
+            }
+            if (employeeRepository.existsByNetId(netId)) {
+                types.add(AccountType.EMPLOYEE.name());
+            }
+            if (facultyAccountRepository.existsByNetId(netId)) {
+                types.add(AccountType.FAC_ACCOUNT.name());
+            }
+            return types;
+        });
     }
 
     @Test
@@ -136,4 +160,39 @@ public class AuthorizationManagerUnitTest {
             fail("An exception was thrown");
         }
     }
+
+    @Test
+    public void checkAccessIsCachedTest() throws NoSuchUserException {
+        assertThat(sut.checkAccess(employeeNetId)).isEqualTo(AccountType.EMPLOYEE);
+        assertThat(sut.checkAccess(employeeNetId)).isEqualTo(AccountType.EMPLOYEE);
+
+        verify(accountTypeRepository, times(1)).findAccountTypesByNetId(employeeNetId);
+    }
+
+    @Test
+    public void evictReloadsAccountTypeTest() throws NoSuchUserException {
+        assertThat(sut.checkAccess(employeeNetId)).isEqualTo(AccountType.EMPLOYEE);
+
+        // promotion: the employee is dropped and added as a sysadmin
+        when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(false);
+        when(sysadminRepository.existsByNetId(employeeNetId)).thenReturn(true);
+        assertThat(sut.checkAccess(employeeNetId)).isEqualTo(AccountType.EMPLOYEE);
+        sut.evict(employeeNetId);
+
+        assertThat(sut.checkAccess(employeeNetId)).isEqualTo(AccountType.SYSADMIN);
+        verify(accountTypeRepository, times(2)).findAccountTypesByNetId(employeeNetId);
+    }
+
+    @Test
+    public void unregisteredUserIsNotCachedTest() {
+        String netId = "newcomer";
+        assertThrows(NoSuchUserException.class, () -> sut.checkAccess(netId));
+
+        when(employeeRepository.existsByNetId(netId)).thenReturn(true);
+        try {
+            assertThat(sut.checkAccess(netId)).isEqualTo(AccountType.EMPLOYEE);
+        } catch (Exception e) {
+            fail("An exception was thrown");
+        }
+    }
 }
@@ -10,7 +10,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Optional;
 import java.util.Set;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
+import nl.tudelft.sem.template.users.domain.AccountTypeRepository;
 import nl.tudelft.sem.template.users.domain.Employee;
 import nl.tudelft.sem.template.users.domain.EmployeeRepository;
 import nl.tudelft.sem.template.users.domain.EmployeeService;
@@ -39,9 +41,10 @@ public class EmploymentServiceTests {
         FacultyAccountRepository facultyAccountRepository = mock(FacultyAccountRepository.class);
         FacultyAccountService facultyAccountService = new FacultyAccountService(facultyAccountRepository);
         AuthorizationManager authorizationManager = new AuthorizationManager(
-                sysadminRepository, employeeRepository, facultyAccountRepository);
+                sysadminRepository, employeeRepository, facultyAccountRepository, mock(AccountTypeRepository.class));
         mockRestTemplate = mock(RestTemplate.class);
-        employeeService = new EmployeeService(employeeRepository, authorizationManager, facultyAccountService);
+        employeeService = new EmployeeService(employeeRepository, authorizationManager, facultyAccountService,
+                new ResourcePoolShardRouter("http://localhost:8085"));
     }
 
     @Test
@@ -4,11 +4,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
@@ -32,6 +38,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
@@ -61,7 +68,6 @@ public class PromotionAndEmploymentUnitTest {
     @Autowired
     private FacultyVerificationService facultyVerificationService;
 
-    private final String sampleToken = "1234567";
 
     @Captor
     private ArgumentCaptor<Employee> employeeArgumentCaptor;
@@ -88,8 +94,10 @@ public class PromotionAndEmploymentUnitTest {
         employeeArgumentCaptor = ArgumentCaptor.forClass(Employee.class);
 
         when(authorization.isOfType(adminNetId, AccountType.SYSADMIN)).thenReturn(true);
+        when(employeeRepository.insertEmployment(anyString(), anyLong())).thenReturn(1);
         when(authorization.isOfType(employeeNetId, AccountType.EMPLOYEE)).thenReturn(true);
         when(authorization.isOfType(facultyNetId, AccountType.FAC_ACCOUNT)).thenReturn(true);
+        when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(true);
     }
 
     @Test
@@ -142,142 +150,211 @@ public class PromotionAndEmploymentUnitTest {
 
     @Test
     void assignFacultyToEmployeeNotFound() {
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.empty());
+        when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(false);
         assertThrows(NoSuchUserException.class, () -> sut.assignFacultyToEmployee(employeeNetId, facultyId));
     }
 
     @Test
     void removeFacultyFromEmployeeNotFound() {
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.empty());
+        when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(false);
         assertThrows(NoSuchUserException.class, () -> sut.removeEmployeeFromFaculty(employeeNetId, facultyId));
     }
 
     @Test
     void assignFacultyToEmployeeSuccessful() throws NoSuchUserException, EmploymentException {
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(employee));
-        Set<Long> result = Set.of(6L);
         sut.assignFacultyToEmployee(employeeNetId, facultyId);
-        verify(employeeRepository).saveAndFlush(employeeArgumentCaptor.capture());
-        assertThat(employeeArgumentCaptor.getValue().getParentFacultyIds()).isEqualTo(result);
+        verify(employeeRepository).insertEmployment(employeeNetId, facultyId);
+        verify(employeeRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void removeFacultyFromEmployeeSuccessful() throws NoSuchUserException, EmploymentException {
-        Employee employedEmployee = new Employee(employeeNetId, Set.of(facultyId));
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(employedEmployee));
-        Set<Long> result = Set.of();
+        when(employeeRepository.deleteEmployment(employeeNetId, facultyId)).thenReturn(1);
         sut.removeEmployeeFromFaculty(employeeNetId, facultyId);
-        verify(employeeRepository).saveAndFlush(employeeArgumentCaptor.capture());
-        assertThat(employeeArgumentCaptor.getValue().getParentFacultyIds()).isEqualTo(result);
+        verify(employeeRepository).deleteEmployment(employeeNetId, facultyId);
+        verify(employeeRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void removeFacultyFromEmployeeNotEmployed() {
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(employee));
+        when(employeeRepository.deleteEmployment(employeeNetId, facultyId)).thenReturn(0);
         assertThrows(EmploymentException.class, () -> sut.removeEmployeeFromFaculty(employeeNetId, facultyId));
     }
 
     @Test
     void assignFacultyToEmployeeDuplicate() throws NoSuchUserException, EmploymentException {
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(employee));
         sut.assignFacultyToEmployee(employeeNetId, facultyId);
+        when(employeeRepository.insertEmployment(employeeNetId, facultyId)).thenReturn(0);
         assertThrows(EmploymentException.class, () -> sut.assignFacultyToEmployee(employeeNetId, facultyId));
     }
 
     @Test
     void authorizeEmploymentRequestFacultyNotFound() throws FacultyException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken))
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId))
                 .thenThrow(FacultyException.class);
         assertThrows(FacultyException.class,
-                () -> sut.authorizeEmploymentAssignmentRequest(facultyNetId, employeeNetId, Set.of(facultyId), sampleToken));
+                () -> sut.authorizeEmploymentAssignmentRequest(facultyNetId, employeeNetId, Set.of(facultyId)));
     }
 
     @Test
     void authorizeTerminationRequestFacultyNotFound() throws FacultyException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken))
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId))
                 .thenThrow(FacultyException.class);
         assertThrows(FacultyException.class,
-                () -> sut.authorizeEmploymentRemovalRequest(facultyNetId, employeeNetId, Set.of(facultyId), sampleToken));
+                () -> sut.authorizeEmploymentRemovalRequest(facultyNetId, employeeNetId, Set.of(facultyId)));
     }
 
     @Test
     void authorizationHiringEmployeesSuccessful() throws FacultyException,
             NoSuchUserException, UnauthorizedException, EmploymentException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken)).thenReturn(true);
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(employee));
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
         when(userServices.getFacultyAccountService().getFacultyAssignedId(facultyNetId)).thenReturn(facultyId);
         Set<Long> expectedResult = Set.of(facultyId);
         Set<Long> result = sut.authorizeEmploymentAssignmentRequest(
-                facultyNetId, employeeNetId, Set.of(facultyId), sampleToken);
+                facultyNetId, employeeNetId, Set.of(facultyId));
         assertThat(result).isEqualTo(expectedResult);
-        verify(employeeRepository).saveAndFlush(employeeArgumentCaptor.capture());
-        assertThat(employeeArgumentCaptor.getValue().getParentFacultyIds()).isEqualTo(result);
+        verify(employeeRepository).insertEmployment(employeeNetId, facultyId);
     }
 
     @Test
     void authorizationFiringEmployeesSuccessful() throws FacultyException,
             NoSuchUserException, UnauthorizedException, EmploymentException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken)).thenReturn(true);
-        Employee employedEmployee = new Employee(employeeNetId, Set.of(facultyId));
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(employedEmployee));
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
+        when(employeeRepository.deleteEmployment(employeeNetId, facultyId)).thenReturn(1);
         when(userServices.getFacultyAccountService().getFacultyAssignedId(facultyNetId)).thenReturn(facultyId);
 
         Set<Long> result = sut.authorizeEmploymentRemovalRequest(
-                facultyNetId, employeeNetId, Set.of(facultyId), sampleToken);
+                facultyNetId, employeeNetId, Set.of(facultyId));
 
-        verify(employeeRepository).saveAndFlush(employeeArgumentCaptor.capture());
-        assertThat(employeeArgumentCaptor.getValue().getParentFacultyIds()).isEqualTo(Set.of());
+        verify(employeeRepository).deleteEmployment(employeeNetId, facultyId);
         assertThat(result).isEqualTo(Set.of(facultyId));
     }
 
     @Test
     void authorizationHiringEmployeesWrongFacManager() throws FacultyException, NoSuchUserException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken)).thenReturn(true);
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
         when(userServices.getFacultyAccountService().getFacultyAssignedId(facultyNetId)).thenReturn(3L);
         assertThrows(EmploymentException.class,
-                () -> sut.authorizeEmploymentAssignmentRequest(facultyNetId, employeeNetId, Set.of(facultyId), sampleToken));
+                () -> sut.authorizeEmploymentAssignmentRequest(facultyNetId, employeeNetId, Set.of(facultyId)));
     }
 
     @Test
     void authorizationFiringEmployeesWrongFacManager() throws FacultyException, NoSuchUserException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken)).thenReturn(true);
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
         when(userServices.getFacultyAccountService().getFacultyAssignedId(facultyNetId)).thenReturn(3L);
         assertThrows(EmploymentException.class,
-                () -> sut.authorizeEmploymentRemovalRequest(facultyNetId, employeeNetId, Set.of(facultyId), sampleToken));
+                () -> sut.authorizeEmploymentRemovalRequest(facultyNetId, employeeNetId, Set.of(facultyId)));
     }
 
     @Test
     void authorizationHiringEmployeesMultiple() throws NoSuchUserException, FacultyException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken)).thenReturn(true);
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
         when(userServices.getFacultyAccountService().getFacultyAssignedId(facultyNetId)).thenReturn(facultyId);
         assertThrows(EmploymentException.class,
                 () -> sut.authorizeEmploymentAssignmentRequest(
-                        facultyNetId, employeeNetId, Set.of(facultyId, 1L), sampleToken));
+                        facultyNetId, employeeNetId, Set.of(facultyId, 1L)));
     }
 
     @Test
     void authorizationFiringEmployeesMultiple() throws NoSuchUserException, FacultyException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken)).thenReturn(true);
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
         when(userServices.getFacultyAccountService().getFacultyAssignedId(facultyNetId)).thenReturn(facultyId);
         assertThrows(EmploymentException.class,
                 () -> sut.authorizeEmploymentRemovalRequest(
-                        facultyNetId, employeeNetId, Set.of(facultyId, 1L), sampleToken));
+                        facultyNetId, employeeNetId, Set.of(facultyId, 1L)));
     }
 
     @Test
     void authorizationHiringEmployeeByEmployee() throws FacultyException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken)).thenReturn(true);
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
         assertThrows(UnauthorizedException.class,
                 () -> sut.authorizeEmploymentAssignmentRequest(
-                        employeeNetId, employeeNetId, Set.of(facultyId, 1L), sampleToken));
+                        employeeNetId, employeeNetId, Set.of(facultyId, 1L)));
     }
 
     @Test
     void authorizationFiringEmployeeByEmployee() throws FacultyException {
-        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId, sampleToken)).thenReturn(true);
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
         assertThrows(UnauthorizedException.class,
                 () -> sut.authorizeEmploymentRemovalRequest(
-                        employeeNetId, employeeNetId, Set.of(facultyId, 1L), sampleToken));
+                        employeeNetId, employeeNetId, Set.of(facultyId, 1L)));
     }
 
+    @Test
+    void bulkHiringVerifiesEveryFacultyOnce() throws FacultyException,
+            NoSuchUserException, UnauthorizedException, EmploymentException {
+        when(userServices.getFacultyVerificationService().verifyFaculty(anyLong())).thenReturn(true);
+        when(employeeRepository.findNetIdsIn(List.of(employeeNetId, "mayte", employeeNetId)))
+                .thenReturn(Set.of(employeeNetId, "mayte"));
+        when(employeeRepository.insertEmployment("mayte", 7L)).thenReturn(0);
+
+        Map<String, String> result = sut.authorizeBulkEmploymentAssignmentRequest(
+                adminNetId, List.of(employeeNetId, "mayte", employeeNetId), Set.of(facultyId, 7L));
+
+        verify(facultyVerificationService, times(1)).verifyFaculty(facultyId);
+        verify(facultyVerificationService, times(1)).verifyFaculty(7L);
+        verify(employeeRepository).insertEmployment(employeeNetId, facultyId);
+        verify(employeeRepository).insertEmployment(employeeNetId, 7L);
+        verify(employeeRepository).insertEmployment("mayte", facultyId);
+        // the insert itself finds the existing employment
+        verify(employeeRepository).insertEmployment("mayte", 7L);
+        assertThat(result).containsOnlyKeys(employeeNetId, "mayte");
+        assertThat(result.get("mayte")).isEqualTo("mayte is already employed at faculty 7");
+    }
+
+    @Test
+    void bulkHiringReportsAConcurrentHireWithoutStoppingTheOthers() throws FacultyException,
+            NoSuchUserException, UnauthorizedException, EmploymentException {
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
+        when(employeeRepository.findNetIdsIn(List.of("mayte", employeeNetId)))
+                .thenReturn(Set.of(employeeNetId, "mayte"));
+        when(employeeRepository.insertEmployment("mayte", facultyId))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        Map<String, String> result = sut.authorizeBulkEmploymentAssignmentRequest(
+                adminNetId, List.of("mayte", employeeNetId), Set.of(facultyId));
+
+        assertThat(result.get("mayte")).isEqualTo("mayte is already employed at faculty 6");
+        assertThat(result.get(employeeNetId)).isEqualTo("Assigned to faculties: [6]");
+        verify(employeeRepository).insertEmployment(employeeNetId, facultyId);
+    }
+
+    @Test
+    void bulkHiringReportsUnknownEmployees() throws FacultyException,
+            NoSuchUserException, UnauthorizedException, EmploymentException {
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
+        when(employeeRepository.findNetIdsIn(List.of("ghost"))).thenReturn(Set.of());
+
+        Map<String, String> result = sut.authorizeBulkEmploymentAssignmentRequest(
+                adminNetId, List.of("ghost"), Set.of(facultyId));
+
+        assertThat(result).isEqualTo(Map.of("ghost", "No such user was found"));
+        verify(employeeRepository, never()).insertEmployment(anyString(), anyLong());
+    }
+
+    @Test
+    void bulkTerminationByOtherFacultyManager() throws FacultyException, NoSuchUserException {
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
+        when(userServices.getFacultyAccountService().getFacultyAssignedId(facultyNetId)).thenReturn(3L);
+
+        assertThrows(EmploymentException.class, () -> sut.authorizeBulkEmploymentRemovalRequest(
+                facultyNetId, List.of(employeeNetId), Set.of(facultyId)));
+        verify(employeeRepository, never()).deleteEmployment(anyString(), anyLong());
+    }
+
+    @Test
+    void bulkTerminationRemovesEveryEmployee() throws FacultyException,
+            NoSuchUserException, UnauthorizedException, EmploymentException {
+        when(userServices.getFacultyVerificationService().verifyFaculty(facultyId)).thenReturn(true);
+        when(userServices.getFacultyAccountService().getFacultyAssignedId(facultyNetId)).thenReturn(facultyId);
+        when(employeeRepository.findNetIdsIn(List.of(employeeNetId, "mayte")))
+                .thenReturn(Set.of(employeeNetId, "mayte"));
+        when(employeeRepository.deleteEmployment(employeeNetId, facultyId)).thenReturn(1);
+
+        Map<String, String> result = sut.authorizeBulkEmploymentRemovalRequest(
+                facultyNetId, List.of(employeeNetId, "mayte"), Set.of(facultyId));
+
+        assertThat(result.get(employeeNetId)).isEqualTo("Removed from faculties: [6]");
+        assertThat(result.get("mayte")).isEqualTo("mayte is not employed at faculty 6");
+    }
 }
@@ -6,6 +6,9 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.Set;
+import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.domain.Employee;
 import nl.tudelft.sem.template.users.domain.EmployeeRepository;
 import nl.tudelft.sem.template.users.domain.FacultyAccount;
@@ -21,6 +24,7 @@ public class RegistrationServiceUnitTest {
     private SysadminRepository sysadminRepository;
     private EmployeeRepository employeeRepository;
     private FacultyAccountRepository facultyAccountRepository;
+    private AuthorizationManager authorization;
     private RegistrationService sut;
     private Sysadmin admin;
     private Employee employee;
@@ -35,8 +39,9 @@ public class RegistrationServiceUnitTest {
         sysadminRepository = mock(SysadminRepository.class);
         employeeRepository = mock(EmployeeRepository.class);
         facultyAccountRepository = mock(FacultyAccountRepository.class);
+        authorization = mock(AuthorizationManager.class);
         sut = new RegistrationService(sysadminRepository,
-                employeeRepository, facultyAccountRepository);
+                employeeRepository, facultyAccountRepository, authorization);
 
         admin = new Sysadmin(adminNetId);
         employee = new Employee(employeeNetId);
@@ -65,6 +70,7 @@ public class RegistrationServiceUnitTest {
     public void addSysadminTest() {
         Sysadmin res = sut.addSysadmin(adminNetId);
         verify(sysadminRepository).save(admin);
+        verify(authorization).evict(adminNetId);
         assertThat(res).isEqualTo(admin);
     }
 
@@ -79,6 +85,7 @@ public class RegistrationServiceUnitTest {
     public void addFacultyAccountTest() {
         FacultyAccount res = sut.addFacultyAccount(facultyNetId, facultyNumber);
         verify(facultyAccountRepository).save(facultyAccount);
+        verify(authorization).evict(facultyNetId);
         assertThat(res).isEqualTo(facultyAccount);
     }
 
@@ -88,10 +95,38 @@ public class RegistrationServiceUnitTest {
         when(employeeRepository.existsByNetId(adminNetId)).thenReturn(false);
         assertThat(sut.dropEmployee(adminNetId)).isFalse();
         verify(employeeRepository, never()).deleteByNetId(adminNetId);
+        verify(authorization, never()).evict(adminNetId);
 
         //check if an existing employee is deleted.
         when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(true);
         assertThat(sut.dropEmployee(employeeNetId)).isTrue();
         verify(employeeRepository).deleteByNetId(employeeNetId);
+        verify(authorization).evict(employeeNetId);
+    }
+
+    @Test
+    public void registerEmployeesTest() {
+        List<Employee> res = sut.registerEmployees(List.of(employeeNetId, adminNetId, "bob"));
+
+        assertThat(res).isEqualTo(List.of(employee, new Employee("bob")));
+        verify(employeeRepository).saveAll(List.of(employee, new Employee("bob")));
+        verify(sysadminRepository).save(admin);
+        verify(authorization).evict(employeeNetId);
+        verify(authorization).evict("bob");
+        verify(authorization).evict(adminNetId);
+    }
+
+    @Test
+    public void registerEmployeesSkipsExistingAccounts() {
+        List<String> netIds = List.of(employeeNetId, facultyNetId, adminNetId, "bob");
+        when(employeeRepository.findNetIdsIn(netIds)).thenReturn(Set.of(employeeNetId));
+        when(facultyAccountRepository.findNetIdsIn(netIds)).thenReturn(Set.of(facultyNetId));
+        when(sysadminRepository.findNetIdsIn(netIds)).thenReturn(Set.of(adminNetId));
+
+        List<Employee> res = sut.registerEmployees(netIds);
+
+        assertThat(res).isEqualTo(List.of(new Employee("bob")));
+        verify(employeeRepository).saveAll(List.of(new Employee("bob")));
+        verify(sysadminRepository, never()).save(admin);
     }
 }
@@ -0,0 +1,148 @@
+package nl.tudelft.sem.template.users.facade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
+import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
+import nl.tudelft.sem.template.users.models.facade.ScheduleRequestModel;
+import nl.tudelft.sem.template.users.models.facade.ScheduleResponseModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class AsyncRequestSenderTests {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final List<String> deadlines = new CopyOnWriteArrayList<>();
+    private AsyncRequestSender sut;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/schedules", exchange -> {
+            deadlines.add(exchange.getRequestHeaders().getFirst(DownstreamGuard.DEADLINE_HEADER));
+            received.add(exchange.getRequestHeaders().getFirst("Authorization") + " "
+                    + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            respond(exchange, 200, "{\"schedules\": {\"EEMCS\": [\"day 1\"]}}");
+        });
+        server.createContext("/empty", exchange -> respond(exchange, 200, ""));
+        server.createContext("/broken", exchange -> respond(exchange, 500, "oops"));
+        server.createContext("/forbidden", exchange -> respond(exchange, 403, "not yours"));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        sut = new AsyncRequestSender(new ObjectMapper(), new DownstreamGuard(16, 5, 10_000, 5000), 2, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void postSendsJsonAndReadsTheAnswer() {
+        ScheduleResponseModel response = sut.post(baseUrl + "/schedules", "token",
+                new ScheduleRequestModel(4L), ScheduleResponseModel.class).join();
+
+        assertThat(response.getSchedules()).isEqualTo(Map.of("EEMCS", List.of("day 1")));
+        assertThat(received).containsExactly("Bearer token {\"facultyId\":4}");
+    }
+
+    @Test
+    void postSendsStringsAsTheyAre() {
+        sut.post(baseUrl + "/schedules", "token", "ivo", String.class).join();
+
+        assertThat(received).containsExactly("Bearer token ivo");
+    }
+
+    @Test
+    void emptyAnswerIsNull() {
+        assertThat(sut.get(baseUrl + "/empty", "token").join()).isNull();
+    }
+
+    @Test
+    void failedAnswerCompletesExceptionally() {
+        assertThatThrownBy(() -> sut.get(baseUrl + "/broken", "token").join())
+                .hasCauseInstanceOf(InnerRequestFailedException.class)
+                .hasMessageContaining("Request to " + baseUrl + "/broken failed.");
+    }
+
+    @Test
+    void forbiddenAnswerIsUnauthorized() {
+        assertThatThrownBy(() -> sut.post(baseUrl + "/forbidden", "token", 7L, Integer.class).join())
+                .hasCauseInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void requestCarriesItsDeadline() {
+        long before = System.currentTimeMillis();
+        sut.get(baseUrl + "/schedules", "token").join();
+
+        assertThat(Long.parseLong(deadlines.get(0))).isBetween(before + 5000, System.currentTimeMillis() + 5000);
+    }
+
+    @Test
+    void requestsOfAnInboundRequestInheritItsDeadline() {
+        MockHttpServletRequest inbound = new MockHttpServletRequest();
+        long deadline = System.currentTimeMillis() + 2000;
+        inbound.addHeader(DownstreamGuard.DEADLINE_HEADER, String.valueOf(deadline));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(inbound));
+        try {
+            sut.get(baseUrl + "/schedules", "token").join();
+            sut.get(baseUrl + "/schedules", "token").join();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertThat(deadlines).containsExactly(String.valueOf(deadline), String.valueOf(deadline));
+    }
+
+    @Test
+    void passedDeadlineIsNotSent() {
+        MockHttpServletRequest inbound = new MockHttpServletRequest();
+        inbound.addHeader(DownstreamGuard.DEADLINE_HEADER, String.valueOf(System.currentTimeMillis() - 1));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(inbound));
+        try {
+            assertThatThrownBy(() -> sut.get(baseUrl + "/schedules", "token").join())
+                    .hasCauseInstanceOf(InnerRequestFailedException.class);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void openCircuitFailsFast() {
+        sut = new AsyncRequestSender(new ObjectMapper(), new DownstreamGuard(16, 1, 60_000, 5000), 2, 5000);
+        assertThatThrownBy(() -> sut.get(baseUrl + "/broken", "token").join())
+                .hasCauseInstanceOf(InnerRequestFailedException.class);
+
+        assertThatThrownBy(() -> sut.get(baseUrl + "/schedules", "token").join())
+                .hasCauseInstanceOf(InnerRequestFailedException.class);
+        assertThat(received).isEmpty();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
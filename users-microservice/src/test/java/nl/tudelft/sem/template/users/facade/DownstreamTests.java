@@ -0,0 +1,91 @@
+package nl.tudelft.sem.template.users.facade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class DownstreamTests {
+
+    @Test
+    void bulkheadBoundsRequestsInFlight() {
+        Downstream sut = new Downstream(2, 5, 10_000);
+
+        Downstream.Permit first = sut.tryAcquire();
+        assertThat(first).isNotNull();
+        assertThat(sut.tryAcquire()).isNotNull();
+        assertThat(sut.tryAcquire()).isNull();
+
+        first.release(true);
+        assertThat(sut.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailures() {
+        Downstream sut = new Downstream(4, 2, 60_000);
+
+        fail(sut);
+        assertThat(sut.isOpen()).isFalse();
+        fail(sut);
+
+        assertThat(sut.isOpen()).isTrue();
+        assertThat(sut.tryAcquire()).isNull();
+    }
+
+    @Test
+    void successResetsTheFailures() {
+        Downstream sut = new Downstream(4, 2, 60_000);
+
+        fail(sut);
+        sut.tryAcquire().release(true);
+        fail(sut);
+
+        assertThat(sut.isOpen()).isFalse();
+    }
+
+    @Test
+    void singleTrialClosesTheCircuit() {
+        Downstream sut = new Downstream(4, 1, 0);
+        fail(sut);
+
+        Downstream.Permit trial = sut.tryAcquire();
+        assertThat(trial.isTrial()).isTrue();
+        // only one trial request at a time while the circuit is open
+        assertThat(sut.tryAcquire()).isNull();
+        trial.release(true);
+
+        assertThat(sut.isOpen()).isFalse();
+        assertThat(sut.tryAcquire().isTrial()).isFalse();
+        assertThat(sut.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void failedTrialKeepsTheCircuitOpen() {
+        Downstream sut = new Downstream(4, 1, 0);
+        fail(sut);
+
+        fail(sut);
+
+        assertThat(sut.isOpen()).isTrue();
+    }
+
+    @Test
+    void requestInFlightWhileOpeningDoesNotAdmitAnotherTrial() {
+        Downstream sut = new Downstream(4, 1, 0);
+        Downstream.Permit early = sut.tryAcquire();
+        fail(sut);
+
+        Downstream.Permit trial = sut.tryAcquire();
+        assertThat(trial.isTrial()).isTrue();
+        early.release(false);
+
+        assertThat(sut.tryAcquire()).isNull();
+        trial.release(true);
+        assertThat(sut.isOpen()).isFalse();
+    }
+
+    private static void fail(Downstream downstream) {
+        Downstream.Permit permit = downstream.tryAcquire();
+        assertThat(permit).isNotNull();
+        permit.release(false);
+    }
+}
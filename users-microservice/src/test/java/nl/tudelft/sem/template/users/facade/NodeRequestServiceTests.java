@@ -1,9 +1,18 @@
 package nl.tudelft.sem.template.users.facade;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
+import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
 import nl.tudelft.sem.template.users.domain.Employee;
 import nl.tudelft.sem.template.users.domain.EmployeeRepository;
@@ -15,7 +24,10 @@ import nl.tudelft.sem.template.users.domain.FacultyVerificationService;
 import nl.tudelft.sem.template.users.domain.RegistrationService;
 import nl.tudelft.sem.template.users.domain.Sysadmin;
 import nl.tudelft.sem.template.users.domain.SysadminRepository;
+import nl.tudelft.sem.template.users.models.facade.NodeContributionRequestModel;
+import nl.tudelft.sem.template.users.models.facade.NodeSearchRequestModel;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
@@ -30,7 +42,9 @@ public class NodeRequestServiceTests {
     private RegistrationService registrationService;
     private AuthorizationManager authorization;
     private MockRestServiceServer mockRestServiceServer;
+    private AsyncRequestSender asyncRequestSender;
     private RequestSenderService sut;
+    private NodesRequestService nodesSender;
     private FacultyAccountService facultyAccountService;
     private EmployeeService employeeService;
 
@@ -60,6 +74,10 @@ public class NodeRequestServiceTests {
         mockRestServiceServer = MockRestServiceServer.createServer(restTemplate);
 
         sut = new RequestSenderService(authorization, restTemplate);
+        asyncRequestSender = mock(AsyncRequestSender.class);
+        when(asyncRequestSender.get(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture("{}"));
+        nodesSender = new NodesRequestService(authorization, restTemplate, employeeRepository, facultyAccountRepository,
+                asyncRequestSender);
 
         admin = new Sysadmin(adminNetId);
         employee = new Employee(employeeNetId);
@@ -68,5 +86,70 @@ public class NodeRequestServiceTests {
         when(authorization.isOfType(adminNetId, AccountType.SYSADMIN)).thenReturn(true);
         when(authorization.isOfType(employeeNetId, AccountType.EMPLOYEE)).thenReturn(true);
         when(authorization.isOfType(facultyNetId, AccountType.FAC_ACCOUNT)).thenReturn(true);
+        when(authorization.checkAccess(adminNetId)).thenReturn(AccountType.SYSADMIN);
+        when(authorization.checkAccess(employeeNetId)).thenReturn(AccountType.EMPLOYEE);
+        when(authorization.checkAccess(facultyNetId)).thenReturn(AccountType.FAC_ACCOUNT);
+        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(new Employee(employeeNetId, Set.of(4L))));
+        when(facultyAccountRepository.findByNetId(facultyNetId)).thenReturn(Optional.of(facultyAccount));
+    }
+
+    @Test
+    void searchNodes_sysadminSearchesAsRequested() throws Exception {
+        String expectedUrl = "http://localhost:8083/searchNodes?minCpu=8&minGpu=0&minMemory=0"
+                + "&afterId=10&limit=50&facultyId=3";
+        when(asyncRequestSender.get(expectedUrl, sampleToken))
+                .thenReturn(CompletableFuture.completedFuture("{\"nodes\":[]}"));
+
+        String page = nodesSender.searchNodesRequest("http://localhost:8083/searchNodes", adminNetId, sampleToken,
+                new NodeSearchRequestModel(3L, null, 8, 0, 0, 10L, 50)).join();
+
+        assertThat(page).isEqualTo("{\"nodes\":[]}");
+    }
+
+    @Test
+    void searchNodes_facultyAccountIsLimitedToItsFaculty() throws Exception {
+        nodesSender.searchNodesRequest("http://localhost:8083/searchNodes", facultyNetId, sampleToken,
+                new NodeSearchRequestModel());
+
+        verify(asyncRequestSender).get("http://localhost:8083/searchNodes?minCpu=0&minGpu=0&minMemory=0"
+                + "&afterId=0&limit=100&facultyId=" + facultyId, sampleToken);
+        assertThrows(UnauthorizedException.class, () -> nodesSender.searchNodesRequest(
+                "http://localhost:8083/searchNodes", facultyNetId, sampleToken,
+                new NodeSearchRequestModel(facultyId + 1, null, 0, 0, 0, 0L, 100)));
+    }
+
+    @Test
+    void searchNodes_employeeSeesOwnNodesOutsideItsFaculties() throws Exception {
+        nodesSender.searchNodesRequest("http://localhost:8083/searchNodes", employeeNetId, sampleToken,
+                new NodeSearchRequestModel(9L, null, 0, 0, 0, 0L, 100));
+
+        verify(asyncRequestSender).get("http://localhost:8083/searchNodes?minCpu=0&minGpu=0&minMemory=0"
+                + "&afterId=0&limit=100&facultyId=9&owner=" + employeeNetId, sampleToken);
+        assertThrows(UnauthorizedException.class, () -> nodesSender.searchNodesRequest(
+                "http://localhost:8083/searchNodes", employeeNetId, sampleToken,
+                new NodeSearchRequestModel(9L, "someoneElse", 0, 0, 0, 0L, 100)));
+    }
+
+    @Test
+    void contributeNode_employeeContributesToItsFaculty() throws Exception {
+        NodeContributionRequestModel nodeInfo = new NodeContributionRequestModel();
+        nodeInfo.setFacultyId(4L);
+        when(asyncRequestSender.post(url, sampleToken, nodeInfo, Long.class))
+                .thenReturn(CompletableFuture.completedFuture(3L));
+
+        assertThat(nodesSender.contributeNodeRequest(url, employeeNetId, sampleToken, nodeInfo).join()).isEqualTo(3L);
+        nodeInfo.setFacultyId(5L);
+        assertThrows(UnauthorizedException.class,
+                () -> nodesSender.contributeNodeRequest(url, employeeNetId, sampleToken, nodeInfo));
+    }
+
+    @Test
+    void deleteNode_onlyForEmployees() throws Exception {
+        when(asyncRequestSender.post(url, sampleToken, 3L, String.class))
+                .thenReturn(CompletableFuture.completedFuture("node"));
+
+        assertThat(nodesSender.deleteNodeRequest(url, employeeNetId, sampleToken, 3L).join()).isEqualTo("node");
+        assertThrows(UnauthorizedException.class,
+                () -> nodesSender.deleteNodeRequest(url, adminNetId, sampleToken, 3L));
     }
 }
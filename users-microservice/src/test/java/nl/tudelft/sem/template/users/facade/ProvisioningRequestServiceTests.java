@@ -0,0 +1,129 @@
+package nl.tudelft.sem.template.users.facade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
+import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
+import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
+import nl.tudelft.sem.template.users.domain.AccountType;
+import nl.tudelft.sem.template.users.domain.Employee;
+import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
+import nl.tudelft.sem.template.users.domain.RegistrationService;
+import nl.tudelft.sem.template.users.models.facade.CredentialsModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+public class ProvisioningRequestServiceTests {
+    private AuthorizationManager authorization;
+    private RegistrationService registrationService;
+    private MockRestServiceServer mockRestServiceServer;
+    private ProvisioningRequestService sut;
+
+    private final String adminNetId = "admin";
+    private final String employeeNetId = "ivo";
+    private final String token = "1234567";
+    private final String url = "http://auth/registerBatch";
+    private final List<CredentialsModel> users = List.of(
+            new CredentialsModel("alice", "pw1"), new CredentialsModel("bob", "pw2"));
+
+    @BeforeEach
+    void setup() {
+        authorization = mock(AuthorizationManager.class);
+        registrationService = mock(RegistrationService.class);
+        RestTemplate restTemplate = new RestTemplate();
+        mockRestServiceServer = MockRestServiceServer.createServer(restTemplate);
+        ServiceTokenProvider serviceTokenProvider = mock(ServiceTokenProvider.class);
+        when(serviceTokenProvider.getToken()).thenReturn(token);
+        sut = new ProvisioningRequestService(authorization, restTemplate, registrationService, "http://auth",
+                serviceTokenProvider);
+
+        when(authorization.isOfType(adminNetId, AccountType.SYSADMIN)).thenReturn(true);
+    }
+
+    @Test
+    public void provisionUsersRegistersTheNewUsersAsEmployees() throws Exception {
+        mockRestServiceServer.expect(requestTo(url))
+                .andExpect(header("Authorization", "Bearer " + token))
+                .andExpect(content().json("[{\"netId\":\"alice\",\"password\":\"pw1\"},"
+                        + "{\"netId\":\"bob\",\"password\":\"pw2\"}]"))
+                .andRespond(withSuccess("{\"alice\":\"Registered\",\"bob\":\"NetID is already in use\"}",
+                        MediaType.APPLICATION_JSON));
+        // bob already is an employee
+        when(registrationService.registerEmployees(List.of("alice", "bob"))).thenReturn(List.of(new Employee("alice")));
+
+        Map<String, String> outcomes = sut.provisionUsers(adminNetId, users);
+
+        assertThat(outcomes).containsExactly(Map.entry("alice", ProvisioningRequestService.PROVISIONED),
+                Map.entry("bob", "NetID is already in use"));
+        mockRestServiceServer.verify();
+    }
+
+    @Test
+    public void provisionUsersAgainAddsTheEmployeesAnEarlierAttemptMissed() throws Exception {
+        // the first attempt registered both users but timed out before they were added as employees
+        mockRestServiceServer.expect(requestTo(url))
+                .andRespond(withSuccess("{\"alice\":\"NetID is already in use\",\"bob\":\"NetID is already in use\"}",
+                        MediaType.APPLICATION_JSON));
+        when(registrationService.registerEmployees(List.of("alice", "bob")))
+                .thenReturn(List.of(new Employee("alice"), new Employee("bob")));
+
+        Map<String, String> outcomes = sut.provisionUsers(adminNetId, users);
+
+        assertThat(outcomes).containsExactly(Map.entry("alice", ProvisioningRequestService.PROVISIONED),
+                Map.entry("bob", ProvisioningRequestService.PROVISIONED));
+        mockRestServiceServer.verify();
+    }
+
+    @Test
+    public void provisionUsersSendsLargeBatchesInChunks() throws Exception {
+        List<CredentialsModel> many = new ArrayList<>();
+        for (int i = 0; i < ProvisioningRequestService.CHUNK_SIZE + 1; i++) {
+            many.add(new CredentialsModel("user" + i, "pw"));
+        }
+        mockRestServiceServer.expect(requestTo(url))
+                .andRespond(withSuccess("{\"user0\":\"Registered\"}", MediaType.APPLICATION_JSON));
+        mockRestServiceServer.expect(requestTo(url))
+                .andExpect(content().json("[{\"netId\":\"user100\",\"password\":\"pw\"}]"))
+                .andRespond(withSuccess("{\"user100\":\"Registered\"}", MediaType.APPLICATION_JSON));
+
+        Map<String, String> outcomes = sut.provisionUsers(adminNetId, many);
+
+        assertThat(outcomes).containsOnlyKeys("user0", "user100");
+        mockRestServiceServer.verify();
+    }
+
+    @Test
+    public void provisionUsersFailsWhenTheAuthenticationMicroserviceFails() {
+        mockRestServiceServer.expect(requestTo(url)).andRespond(withServerError());
+
+        assertThatThrownBy(() -> sut.provisionUsers(adminNetId, users))
+                .isInstanceOf(InnerRequestFailedException.class)
+                .hasMessage("Request to " + url + " failed.");
+        verify(registrationService, never()).registerEmployees(any());
+    }
+
+    @Test
+    public void provisionUsersIsOnlyForSysadmins() {
+        assertThatThrownBy(() -> sut.provisionUsers(employeeNetId, users))
+                .isInstanceOf(UnauthorizedException.class);
+        verify(registrationService, never()).registerEmployees(any());
+        mockRestServiceServer.verify();
+    }
+}
@@ -1,9 +1,15 @@
 package nl.tudelft.sem.template.users.facade;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.CompletableFuture;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
+import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
 import nl.tudelft.sem.template.users.domain.Employee;
 import nl.tudelft.sem.template.users.domain.EmployeeRepository;
@@ -15,7 +21,9 @@ import nl.tudelft.sem.template.users.domain.FacultyVerificationService;
 import nl.tudelft.sem.template.users.domain.RegistrationService;
 import nl.tudelft.sem.template.users.domain.Sysadmin;
 import nl.tudelft.sem.template.users.domain.SysadminRepository;
+import nl.tudelft.sem.template.users.models.facade.ManualApprovalModel;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
@@ -30,6 +38,7 @@ public class RequestsRequestServiceTests {
     private RegistrationService registrationService;
     private AuthorizationManager authorization;
     private MockRestServiceServer mockRestServiceServer;
+    private AsyncRequestSender asyncRequestSender;
     private RequestsRequestService sut;
     private FacultyAccountService facultyAccountService;
     private EmployeeService employeeService;
@@ -58,7 +67,8 @@ public class RequestsRequestServiceTests {
         employeeService = mock(EmployeeService.class);
         mockRestServiceServer = MockRestServiceServer.createServer(restTemplate);
 
-        sut = new RequestsRequestService(authorization, restTemplate);
+        asyncRequestSender = mock(AsyncRequestSender.class);
+        sut = new RequestsRequestService(authorization, restTemplate, asyncRequestSender);
 
         admin = new Sysadmin(adminNetId);
         employee = new Employee(employeeNetId);
@@ -68,4 +78,62 @@ public class RequestsRequestServiceTests {
         when(authorization.isOfType(employeeNetId, AccountType.EMPLOYEE)).thenReturn(true);
         when(authorization.isOfType(facultyNetId, AccountType.FAC_ACCOUNT)).thenReturn(true);
     }
+
+    @Test
+    void getStatusOfOwnRequest() throws Exception {
+        when(asyncRequestSender.post(url, sampleToken, 7L, Integer.class))
+                .thenReturn(CompletableFuture.completedFuture(1));
+
+        assertThat(sut.getStatusOfRequest(url, employeeNetId, 7L, sampleToken).join()).isEqualTo("Request has status 1");
+    }
+
+    @Test
+    void getStatusOfOtherRequestIsUnauthorized() throws Exception {
+        when(asyncRequestSender.post(url, sampleToken, 7L, Integer.class))
+                .thenReturn(CompletableFuture.failedFuture(new UnauthorizedException("not yours")));
+
+        assertThatThrownBy(() -> sut.getStatusOfRequest(url, employeeNetId, 7L, sampleToken).join())
+                .hasCauseInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void getStatusOnlyForEmployees() {
+        assertThrows(UnauthorizedException.class, () -> sut.getStatusOfRequest(url, adminNetId, 7L, sampleToken));
+    }
+
+    @Test
+    void registerRequestByEmployee() throws Exception {
+        RegistrationRequestModel model = new RegistrationRequestModel("job", 1, 0, 1, facultyName, "01-01-2030");
+        when(asyncRequestSender.post(url, sampleToken, model, Long.class))
+                .thenReturn(CompletableFuture.completedFuture(12L));
+
+        assertThat(sut.registerRequest(url, employeeNetId, model, sampleToken).join()).isEqualTo(12L);
+    }
+
+    @Test
+    void registerRequestOnlyForEmployees() {
+        RegistrationRequestModel model = new RegistrationRequestModel("job", 1, 0, 1, facultyName, "01-01-2030");
+
+        assertThrows(UnauthorizedException.class, () -> sut.registerRequest(url, adminNetId, model, sampleToken));
+        verifyNoInteractions(asyncRequestSender);
+    }
+
+    @Test
+    void approveRejectRequestByFacultyAccount() throws Exception {
+        ManualApprovalModel model = new ManualApprovalModel(true, 7L, "01/01/2030");
+        when(asyncRequestSender.post(url, sampleToken, model, Boolean.class))
+                .thenReturn(CompletableFuture.completedFuture(true));
+
+        assertThat(sut.approveRejectRequest(url, facultyNetId, model, sampleToken).join()).isTrue();
+        assertThrows(UnauthorizedException.class,
+                () -> sut.approveRejectRequest(url, employeeNetId, model, sampleToken));
+    }
+
+    @Test
+    void getPendingRequestsOnlyForFacultyAccounts() throws Exception {
+        when(asyncRequestSender.get(url, sampleToken)).thenReturn(CompletableFuture.completedFuture("[]"));
+
+        assertThat(sut.getPendingRequests(url, facultyNetId, sampleToken).join()).isEqualTo("[]");
+        assertThrows(UnauthorizedException.class, () -> sut.getPendingRequests(url, employeeNetId, sampleToken));
+    }
 }
@@ -11,6 +11,7 @@ import static org.springframework.test.web.client.response.MockRestResponseCreat
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 import java.util.Optional;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
@@ -69,7 +70,8 @@ public class ResourcePoolRequestServiceTests {
         employeeService = mock(EmployeeService.class);
         mockRestServiceServer = MockRestServiceServer.createServer(restTemplate);
 
-        sut = new ResourcePoolRequestService(authorization, restTemplate, registrationService);
+        sut = new ResourcePoolRequestService(authorization, restTemplate, registrationService,
+                new ResourcePoolShardRouter("http://localhost:8085"));
 
         admin = new Sysadmin(adminNetId);
         employee = new Employee(employeeNetId);
@@ -0,0 +1,95 @@
+package nl.tudelft.sem.template.users.facade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ScheduleViewCacheTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private ScheduleViewCache sut;
+
+    @BeforeEach
+    void setup() {
+        loads.set(0);
+        sut = new ScheduleViewCache(60_000);
+    }
+
+    @Test
+    void viewIsLoadedOnce() {
+        ScheduleView first = sut.getOrLoad(ScheduleViewCache.all(), loader("EEMCS")).join();
+        ScheduleView second = sut.getOrLoad(ScheduleViewCache.all(), loader("EEMCS")).join();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+        assertThat(first.getBody()).isEqualTo("EEMCS");
+        assertThat(first.getEtag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void etagFollowsTheContent() {
+        ScheduleView first = sut.getOrLoad(ScheduleViewCache.faculty(1L), loader("EEMCS")).join();
+        ScheduleView same = sut.getOrLoad(ScheduleViewCache.faculty(2L), loader("EEMCS")).join();
+        ScheduleView other = sut.getOrLoad(ScheduleViewCache.faculty(3L), loader("AE")).join();
+
+        assertThat(same.getEtag()).isEqualTo(first.getEtag());
+        assertThat(other.getEtag()).isNotEqualTo(first.getEtag());
+    }
+
+    @Test
+    void invalidateDropsTheChangedFacultiesAndTheOverview() {
+        sut.getOrLoad(ScheduleViewCache.all(), loader("all")).join();
+        sut.getOrLoad(ScheduleViewCache.faculty(1L), loader("EEMCS")).join();
+        sut.getOrLoad(ScheduleViewCache.faculty(2L), loader("AE")).join();
+
+        sut.invalidate(List.of(1L));
+        sut.getOrLoad(ScheduleViewCache.all(), loader("all")).join();
+        sut.getOrLoad(ScheduleViewCache.faculty(1L), loader("EEMCS")).join();
+        sut.getOrLoad(ScheduleViewCache.faculty(2L), loader("AE")).join();
+
+        assertThat(loads.get()).isEqualTo(5);
+    }
+
+    @Test
+    void viewLoadedDuringAChangeIsNotKept() {
+        CompletableFuture<String> loading = new CompletableFuture<>();
+        CompletableFuture<ScheduleView> view = sut.getOrLoad(ScheduleViewCache.all(), () -> loading);
+        sut.invalidate(List.of(1L));
+        loading.complete("outdated");
+
+        assertThat(view.join().getBody()).isEqualTo("outdated");
+        assertThat(sut.getOrLoad(ScheduleViewCache.all(), loader("current")).join().getBody()).isEqualTo("current");
+    }
+
+    @Test
+    void expiredViewIsLoadedAgain() {
+        sut = new ScheduleViewCache(0);
+        sut.getOrLoad(ScheduleViewCache.all(), loader("EEMCS")).join();
+        sut.getOrLoad(ScheduleViewCache.all(), loader("EEMCS")).join();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failedLoadIsNotKept() {
+        assertThatThrownBy(() -> sut.getOrLoad(ScheduleViewCache.all(),
+                () -> CompletableFuture.failedFuture(new InnerRequestFailedException("Request failed."))).join())
+                .hasCauseInstanceOf(InnerRequestFailedException.class);
+
+        assertThat(sut.getOrLoad(ScheduleViewCache.all(), loader("EEMCS")).join().getBody()).isEqualTo("EEMCS");
+    }
+
+    private Supplier<CompletableFuture<String>> loader(String body) {
+        return () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(body);
+        };
+    }
+}
@@ -1,14 +1,25 @@
 package nl.tudelft.sem.template.users.facade;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import nl.tudelft.sem.template.commons.ResourcePoolShardRouter;
+import nl.tudelft.sem.template.commons.ServiceTokenProvider;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
 import nl.tudelft.sem.template.users.authorization.UnauthorizedException;
 import nl.tudelft.sem.template.users.domain.AccountType;
@@ -22,8 +33,13 @@ import nl.tudelft.sem.template.users.domain.InnerRequestFailedException;
 import nl.tudelft.sem.template.users.domain.RegistrationService;
 import nl.tudelft.sem.template.users.domain.Sysadmin;
 import nl.tudelft.sem.template.users.domain.SysadminRepository;
+import nl.tudelft.sem.template.users.models.ResourcesDto;
+import nl.tudelft.sem.template.users.models.facade.ScheduleRequestModel;
+import nl.tudelft.sem.template.users.models.facade.ScheduleResponseModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
@@ -38,6 +54,9 @@ public class SchedulingRequestServiceTest {
     private RegistrationService registrationService;
     private AuthorizationManager authorization;
     private MockRestServiceServer mockRestServiceServer;
+    private AsyncRequestSender asyncRequestSender;
+    private ScheduleViewCache scheduleViewCache;
+    private ServiceTokenProvider serviceTokenProvider;
     private SchedulingRequestsService sut;
     private FacultyAccountService facultyAccountService;
     private EmployeeService employeeService;
@@ -66,8 +85,14 @@ public class SchedulingRequestServiceTest {
         employeeService = mock(EmployeeService.class);
         verificationService = mock(VerificationService.class);
         mockRestServiceServer = MockRestServiceServer.createServer(restTemplate);
+        asyncRequestSender = mock(AsyncRequestSender.class);
+        scheduleViewCache = new ScheduleViewCache(60_000);
+        serviceTokenProvider = mock(ServiceTokenProvider.class);
+        when(serviceTokenProvider.getToken()).thenReturn("service token");
 
-        sut = new SchedulingRequestsService(authorization, restTemplate, verificationService);
+        sut = new SchedulingRequestsService(authorization, restTemplate, verificationService,
+                new ResourcePoolShardRouter("http://localhost:8085"), asyncRequestSender, scheduleViewCache,
+                serviceTokenProvider);
 
         admin = new Sysadmin(adminNetId);
         employee = new Employee(employeeNetId);
@@ -81,11 +106,10 @@ public class SchedulingRequestServiceTest {
 
     @Test
     public void getScheduleFacultyManagerExceptionTest() {
-        mockRestServiceServer.expect(requestTo(url))
-                .andRespond(withBadRequest());
-        assertThrows(InnerRequestFailedException.class, () -> {
-            sut.getScheduleFacultyManager(url, facultyNetId, sampleToken);
-        });
+        when(asyncRequestSender.post(eq(url), eq(sampleToken), any(ScheduleRequestModel.class),
+                eq(ScheduleResponseModel.class))).thenReturn(failed());
+        assertThatThrownBy(() -> sut.getScheduleFacultyManager(url, facultyNetId, sampleToken).join())
+                .hasCauseInstanceOf(InnerRequestFailedException.class);
     }
 
     @Test
@@ -97,46 +121,37 @@ public class SchedulingRequestServiceTest {
     @Test
     public void getScheduleRequestRouterExceptionFacManager() {
         String testUrl = "http://localhost:8085/getFacultySchedules";
-        mockRestServiceServer.expect(requestTo(testUrl))
-                .andRespond(withBadRequest());
-        assertThrows(InnerRequestFailedException.class, () -> {
-            sut.getScheduleRequestRouter(facultyNetId, sampleToken);
-        });
+        when(asyncRequestSender.post(eq(testUrl), eq(sampleToken), any(ScheduleRequestModel.class),
+                eq(ScheduleResponseModel.class))).thenReturn(failed());
+        assertThatThrownBy(() -> sut.getScheduleRequestRouter(facultyNetId, sampleToken).join())
+                .hasCauseInstanceOf(InnerRequestFailedException.class);
     }
 
     @Test
     public void getScheduleRequestRouterExceptionSysadmin() {
         String testUrl = "http://localhost:8085/getAllSchedules";
-        mockRestServiceServer.expect(requestTo(testUrl))
-                .andRespond(withBadRequest());
-        assertThrows(InnerRequestFailedException.class, () -> {
-            sut.getScheduleRequestRouter(adminNetId, sampleToken);
-        });
+        when(asyncRequestSender.get(testUrl, sampleToken, ScheduleResponseModel.class)).thenReturn(failed());
+        assertThatThrownBy(() -> sut.getScheduleRequestRouter(adminNetId, sampleToken).join())
+                .hasCauseInstanceOf(InnerRequestFailedException.class);
     }
 
     @Test
-    public void getScheduleRouterFacManager() {
-        when(facultyAccountRepository.findByNetId(facultyNetId)).thenReturn(Optional.of(facultyAccount));
+    public void getScheduleRouterFacManager() throws Exception {
         String testUrl = "http://localhost:8085/getFacultySchedules";
-        mockRestServiceServer.expect(requestTo(testUrl))
-                .andRespond(withSuccess());
-        try {
-            sut.getScheduleRequestRouter(facultyNetId, sampleToken);
-        } catch (Exception e) {
-            fail("An exception was thrown");
-        }
+        when(asyncRequestSender.post(eq(testUrl), eq(sampleToken), any(ScheduleRequestModel.class),
+                eq(ScheduleResponseModel.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(sut.getScheduleRequestRouter(facultyNetId, sampleToken).join())
+                .isEqualTo("No schedules were found for faculty: " + facultyId);
     }
 
     @Test
-    public void getScheduleRouterSysadmin() {
+    public void getScheduleRouterSysadmin() throws Exception {
         String testUrl = "http://localhost:8085/getAllSchedules";
-        mockRestServiceServer.expect(requestTo(testUrl))
-                .andRespond(withSuccess());
-        try {
-            sut.getScheduleRequestRouter(adminNetId, sampleToken);
-        } catch (Exception e) {
-            fail("An exception was thrown");
-        }
+        when(asyncRequestSender.get(testUrl, sampleToken, ScheduleResponseModel.class))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(sut.getScheduleRequestRouter(adminNetId, sampleToken).join()).isEqualTo("No schedules were found");
     }
 
     @Test
@@ -161,13 +176,76 @@ public class SchedulingRequestServiceTest {
 
     @Test
     public void getScheduleFacultyManagerTest() {
-        when(facultyAccountRepository.findByNetId(facultyNetId)).thenReturn(Optional.of(facultyAccount));
+        when(asyncRequestSender.post(url, sampleToken, new ScheduleRequestModel(facultyId), ScheduleResponseModel.class))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new ScheduleResponseModel(Map.of(facultyName, List.of("day 1")))));
+
+        assertThat(sut.getScheduleFacultyManager(url, facultyNetId, sampleToken).join()).isEqualTo("math:\n\t:day 1");
+    }
+
+    @Test
+    public void getScheduleRouterSysadminMergesAllShards() throws Exception {
+        sut = new SchedulingRequestsService(authorization, restTemplate, verificationService,
+                new ResourcePoolShardRouter("http://localhost:8085,http://localhost:8095"), asyncRequestSender,
+                scheduleViewCache, serviceTokenProvider);
+        CompletableFuture<ScheduleResponseModel> slowShard = new CompletableFuture<>();
+        when(asyncRequestSender.get("http://localhost:8085/getAllSchedules", sampleToken, ScheduleResponseModel.class))
+                .thenReturn(slowShard);
+        when(asyncRequestSender.get("http://localhost:8095/getAllSchedules", sampleToken, ScheduleResponseModel.class))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new ScheduleResponseModel(Map.of("AE", List.of("day 2")))));
+
+        // both shards are requested before any of them answers
+        CompletableFuture<String> schedules = sut.getScheduleRequestRouter(adminNetId, sampleToken);
+        assertThat(schedules).isNotDone();
+        slowShard.complete(new ScheduleResponseModel(Map.of("EEMCS", List.of("day 1"))));
+
+        assertThat(schedules.join()).isEqualTo("EEMCS:\n\t:day 1AE:\n\t:day 2");
+    }
+
+    @Test
+    public void getScheduleViewIsCachedUntilTheFacultyChanges() throws Exception {
+        String testUrl = "http://localhost:8085/getFacultySchedules";
+        when(asyncRequestSender.post(eq(testUrl), eq(sampleToken), any(ScheduleRequestModel.class),
+                eq(ScheduleResponseModel.class))).thenReturn(CompletableFuture.completedFuture(
+                        new ScheduleResponseModel(Map.of(facultyName, List.of("day 1")))));
+
+        ScheduleView first = sut.getScheduleView(facultyNetId, sampleToken).join();
+        ScheduleView second = sut.getScheduleView(facultyNetId, sampleToken).join();
+        verify(asyncRequestSender, times(1)).post(eq(testUrl), eq(sampleToken), any(ScheduleRequestModel.class),
+                eq(ScheduleResponseModel.class));
+        assertThat(second.getEtag()).isEqualTo(first.getEtag());
+
+        scheduleViewCache.invalidate(List.of(facultyId));
+        sut.getScheduleView(facultyNetId, sampleToken).join();
+        verify(asyncRequestSender, times(2)).post(eq(testUrl), eq(sampleToken), any(ScheduleRequestModel.class),
+                eq(ScheduleResponseModel.class));
+    }
+
+    @Test
+    public void getResourcesTomorrowAsksWithTheServiceTokenOnceAuthorized() throws Exception {
         mockRestServiceServer.expect(requestTo(url))
-                .andRespond(withSuccess());
-        try {
-            sut.getScheduleFacultyManager(url, facultyNetId, sampleToken);
-        } catch (Exception e) {
-            fail("An exception was thrown");
-        }
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer service token"))
+                .andRespond(withSuccess("{\"cpu\":3,\"gpu\":2,\"memory\":1}", MediaType.APPLICATION_JSON));
+
+        ResourcesDto resources = sut.getResourcesTomorrow(url, employeeNetId, facultyId);
+        verify(verificationService).authenticateFacultyRequest(employeeNetId, facultyId);
+        mockRestServiceServer.verify();
+        assertThat(resources.getCpu()).isEqualTo(3);
+        assertThat(resources.getGpu()).isEqualTo(2);
+        assertThat(resources.getMemory()).isEqualTo(1);
+    }
+
+    @Test
+    public void getResourcesTomorrowAsksNothingWhenUnauthorized() throws Exception {
+        when(verificationService.authenticateFacultyRequest(employeeNetId, facultyId))
+                .thenThrow(new UnauthorizedException("Request to view schedules failed."));
+
+        assertThrows(InnerRequestFailedException.class, () -> sut.getResourcesTomorrow(url, employeeNetId, facultyId));
+        mockRestServiceServer.verify();
+    }
+
+    private static <T> CompletableFuture<T> failed() {
+        return CompletableFuture.failedFuture(new InnerRequestFailedException("Request failed."));
     }
 }
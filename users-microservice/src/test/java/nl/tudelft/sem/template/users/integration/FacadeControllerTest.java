@@ -12,6 +12,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import nl.tudelft.sem.template.commons.ServiceIdentity;
 import nl.tudelft.sem.template.users.authentication.AuthManager;
 import nl.tudelft.sem.template.users.authentication.JwtTokenVerifier;
 import nl.tudelft.sem.template.users.authorization.AuthorizationManager;
@@ -449,4 +451,32 @@ public class FacadeControllerTest {
 
         result.andExpect(status().isUnauthorized());
     }
+
+    @Test
+    public void schedulesChangedByResourcePool() throws Exception {
+        when(mockAuthenticationManager.getNetId()).thenReturn(ServiceIdentity.RESOURCEPOOL);
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn(ServiceIdentity.RESOURCEPOOL);
+
+        ResultActions result = mockMvc.perform(post("/schedules/changed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer MockedToken")
+                .content(objectMapper.writeValueAsString(List.of(3L))));
+
+        result.andExpect(status().isOk());
+    }
+
+    @Test
+    public void schedulesChangedByUserIsForbidden() throws Exception {
+        when(mockAuthenticationManager.getNetId()).thenReturn(employeeNetId);
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn(employeeNetId);
+
+        ResultActions result = mockMvc.perform(post("/schedules/changed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer MockedToken")
+                .content(objectMapper.writeValueAsString(List.of(3L))));
+
+        result.andExpect(status().isForbidden());
+    }
 }
@@ -2,8 +2,11 @@ package nl.tudelft.sem.template.users.integration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -14,6 +17,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import nl.tudelft.sem.template.users.authentication.AuthManager;
@@ -28,6 +32,7 @@ import nl.tudelft.sem.template.users.domain.FacultyVerificationService;
 import nl.tudelft.sem.template.users.domain.NoSuchUserException;
 import nl.tudelft.sem.template.users.domain.Sysadmin;
 import nl.tudelft.sem.template.users.domain.SysadminRepository;
+import nl.tudelft.sem.template.users.models.BulkEmploymentRequestModel;
 import nl.tudelft.sem.template.users.models.FacultyAssignmentRequestModel;
 import nl.tudelft.sem.template.users.models.PromotionRequestModel;
 import org.junit.jupiter.api.BeforeEach;
@@ -144,9 +149,10 @@ public class UserControllerTest {
         when(mockAuthenticationManager.getNetId()).thenReturn("admin");
         when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
         when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn("admin");
-        when(facultyVerificationService.verifyFaculty(anyLong(), anyString())).thenReturn(true);
+        when(facultyVerificationService.verifyFaculty(anyLong())).thenReturn(true);
         when(authorization.isOfType(anyString(), any())).thenReturn(true);
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(new Employee(employeeNetId)));
+        when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(true);
+        when(employeeRepository.insertEmployment(eq(employeeNetId), anyLong())).thenReturn(1);
 
         //Act
         ResultActions result = mockMvc.perform(post("/hireEmployee")
@@ -158,7 +164,7 @@ public class UserControllerTest {
         //Assert
         result.andExpect(status().isOk());
 
-        verify(employeeRepository).saveAndFlush(new Employee(employeeNetId, Set.of(6L)));
+        verify(employeeRepository).insertEmployment(employeeNetId, 6L);
         String response = result.andReturn().getResponse().getContentAsString();
         assertThat(response).isEqualTo("User (mayte) was assigned to faculty: [6]");
     }
@@ -169,9 +175,10 @@ public class UserControllerTest {
         when(mockAuthenticationManager.getNetId()).thenReturn("admin");
         when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
         when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn("admin");
-        when(facultyVerificationService.verifyFaculty(anyLong(), anyString())).thenReturn(true);
+        when(facultyVerificationService.verifyFaculty(anyLong())).thenReturn(true);
         when(authorization.isOfType(anyString(), any())).thenReturn(true);
-        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(new Employee(employeeNetId)));
+        when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(true);
+        when(employeeRepository.insertEmployment(eq(employeeNetId), anyLong())).thenReturn(1);
 
         //Act
         ResultActions result = mockMvc.perform(post("/hireEmployee")
@@ -183,7 +190,8 @@ public class UserControllerTest {
         //Assert
         result.andExpect(status().isOk());
 
-        verify(employeeRepository, times(2)).saveAndFlush(new Employee(employeeNetId, Set.of(6L, 7L)));
+        verify(employeeRepository).insertEmployment(employeeNetId, 6L);
+        verify(employeeRepository).insertEmployment(employeeNetId, 7L);
         String response = result.andReturn().getResponse().getContentAsString();
         assertThat(response).isEqualTo("User (mayte) was assigned to the following faculties: [6, 7]");
     }
@@ -194,10 +202,10 @@ public class UserControllerTest {
         when(mockAuthenticationManager.getNetId()).thenReturn("admin");
         when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
         when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn("admin");
-        when(facultyVerificationService.verifyFaculty(anyLong(), anyString())).thenReturn(true);
+        when(facultyVerificationService.verifyFaculty(anyLong())).thenReturn(true);
         when(authorization.isOfType(anyString(), any())).thenReturn(true);
-        when(employeeRepository.findByNetId(employeeNetId))
-                .thenReturn(Optional.of(new Employee(employeeNetId, Set.of(facultyId))));
+        when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(true);
+        when(employeeRepository.deleteEmployment(employeeNetId, facultyId)).thenReturn(1);
 
         //Act
         ResultActions result = mockMvc.perform(post("/terminateEmployee")
@@ -209,7 +217,7 @@ public class UserControllerTest {
         //Assert
         result.andExpect(status().isOk());
 
-        verify(employeeRepository).saveAndFlush(new Employee(employeeNetId, Set.of()));
+        verify(employeeRepository).deleteEmployment(employeeNetId, facultyId);
         String response = result.andReturn().getResponse().getContentAsString();
         assertThat(response).isEqualTo("User (mayte) was removed from faculty: [6]");
     }
@@ -220,12 +228,12 @@ public class UserControllerTest {
         when(mockAuthenticationManager.getNetId()).thenReturn("admin");
         when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
         when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn("admin");
-        when(facultyVerificationService.verifyFaculty(anyLong(), anyString())).thenReturn(true);
+        when(facultyVerificationService.verifyFaculty(anyLong())).thenReturn(true);
         when(authorization.isOfType(anyString(), any())).thenReturn(true);
 
         long secondFaculty = 5L;
-        when(employeeRepository.findByNetId(employeeNetId))
-                .thenReturn(Optional.of(new Employee(employeeNetId, Set.of(facultyId, secondFaculty))));
+        when(employeeRepository.existsByNetId(employeeNetId)).thenReturn(true);
+        when(employeeRepository.deleteEmployment(eq(employeeNetId), anyLong())).thenReturn(1);
 
         //Act
         ResultActions result = mockMvc.perform(post("/terminateEmployee")
@@ -237,7 +245,8 @@ public class UserControllerTest {
         //Assert
         result.andExpect(status().isOk());
 
-        verify(employeeRepository, times(2)).saveAndFlush(new Employee(employeeNetId, Set.of()));
+        verify(employeeRepository).deleteEmployment(employeeNetId, facultyId);
+        verify(employeeRepository).deleteEmployment(employeeNetId, secondFaculty);
         String response = result.andReturn().getResponse().getContentAsString();
         assertThat(response).isEqualTo("User (" + employeeNetId
                 + ") was removed from the following faculties: [5, 6]");
@@ -249,7 +258,7 @@ public class UserControllerTest {
         when(mockAuthenticationManager.getNetId()).thenReturn("admin");
         when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
         when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn("admin");
-        when(facultyVerificationService.verifyFaculty(anyLong(), anyString())).thenReturn(true);
+        when(facultyVerificationService.verifyFaculty(anyLong())).thenReturn(true);
         when(authorization.isOfType(anyString(), any())).thenReturn(false);
 
         long secondFaculty = 5L;
@@ -267,6 +276,64 @@ public class UserControllerTest {
         result.andExpect(status().isUnauthorized());
     }
 
+    @Test
+    public void hireEmployeesTest() throws Exception {
+        //Arrange
+        when(mockAuthenticationManager.getNetId()).thenReturn("admin");
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn("admin");
+        when(facultyVerificationService.verifyFaculty(anyLong())).thenReturn(true);
+        when(authorization.isOfType(anyString(), any())).thenReturn(true);
+        when(employeeRepository.findNetIdsIn(anyCollection())).thenReturn(Set.of(employeeNetId, "ivo"));
+        when(employeeRepository.insertEmployment(employeeNetId, facultyId)).thenReturn(1);
+
+        //Act
+        ResultActions result = mockMvc.perform(post("/hireEmployees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer MockedToken")
+                .content(objectMapper.writeValueAsString(new BulkEmploymentRequestModel(
+                        List.of(employeeNetId, "ivo", "ghost"), String.valueOf(facultyId)))));
+
+        //Assert
+        result.andExpect(status().isOk());
+
+        verify(facultyVerificationService, times(1)).verifyFaculty(facultyId);
+        verify(employeeRepository).insertEmployment(employeeNetId, facultyId);
+        verify(employeeRepository).insertEmployment("ivo", facultyId);
+        verify(employeeRepository, never()).insertEmployment("ghost", facultyId);
+        String response = result.andReturn().getResponse().getContentAsString();
+        assertThat(response).isEqualTo("{\"mayte\":\"Assigned to faculties: [6]\","
+                + "\"ivo\":\"ivo is already employed at faculty 6\",\"ghost\":\"No such user was found\"}");
+    }
+
+    @Test
+    public void terminateEmployeesTest() throws Exception {
+        //Arrange
+        when(mockAuthenticationManager.getNetId()).thenReturn("admin");
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn("admin");
+        when(facultyVerificationService.verifyFaculty(anyLong())).thenReturn(true);
+        when(authorization.isOfType(anyString(), any())).thenReturn(true);
+        when(employeeRepository.findNetIdsIn(anyCollection())).thenReturn(Set.of(employeeNetId, "ivo"));
+        when(employeeRepository.deleteEmployment(employeeNetId, facultyId)).thenReturn(1);
+
+        //Act
+        ResultActions result = mockMvc.perform(post("/terminateEmployees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer MockedToken")
+                .content(objectMapper.writeValueAsString(new BulkEmploymentRequestModel(
+                        List.of(employeeNetId, "ivo", employeeNetId), String.valueOf(facultyId)))));
+
+        //Assert
+        result.andExpect(status().isOk());
+
+        verify(facultyVerificationService, times(1)).verifyFaculty(facultyId);
+        verify(employeeRepository, times(1)).deleteEmployment(employeeNetId, facultyId);
+        String response = result.andReturn().getResponse().getContentAsString();
+        assertThat(response).isEqualTo("{\"mayte\":\"Removed from faculties: [6]\","
+                + "\"ivo\":\"ivo is not employed at faculty 6\"}");
+    }
+
     @Test
     public void checkAccessAdminNormalFlow() throws Exception {
         when(mockAuthenticationManager.getNetId()).thenReturn(adminNetId);
@@ -391,6 +458,39 @@ public class UserControllerTest {
         result.andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void searchScopeOfEmployeeListsItsFaculties() throws Exception {
+        employee.setParentFacultyIds(Set.of(facultyId));
+        when(mockAuthenticationManager.getNetId()).thenReturn(employeeNetId);
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn(employeeNetId);
+        when(authorization.checkAccess(employeeNetId)).thenReturn(AccountType.EMPLOYEE);
+        when(employeeRepository.findByNetId(employeeNetId)).thenReturn(Optional.of(employee));
+
+        ResultActions result = mockMvc.perform(get("/searchScope")
+                .header("Authorization", "Bearer MockedToken"));
+
+        result.andExpect(status().isOk())
+                .andExpect(content().json("{\"access\":\"Employee\",\"facultyIds\":[6]}"));
+    }
+
+    @Test
+    public void searchScopeOfFacultyAccountIsItsFaculty() throws Exception {
+        String facultyNetId = "mathAccount";
+        when(mockAuthenticationManager.getNetId()).thenReturn(facultyNetId);
+        when(mockJwtTokenVerifier.validateToken(anyString())).thenReturn(true);
+        when(mockJwtTokenVerifier.getNetIdFromToken(anyString())).thenReturn(facultyNetId);
+        when(authorization.checkAccess(facultyNetId)).thenReturn(AccountType.FAC_ACCOUNT);
+        when(facultyAccountRepository.findByNetId(facultyNetId)).thenReturn(
+                Optional.of(new FacultyAccount(facultyNetId, 5L)));
+
+        ResultActions result = mockMvc.perform(get("/searchScope")
+                .header("Authorization", "Bearer MockedToken"));
+
+        result.andExpect(status().isOk())
+                .andExpect(content().json("{\"access\":\"FacultyAccount\",\"facultyIds\":[5]}"));
+    }
+
     @Test
     public void getFacultyIdNormalFlow() throws Exception {
         String facultyNetId = "mathAccount";